@@ -0,0 +1,210 @@
+/*-
+ * Copyright © 2019-2022 Heinz Nixdorf Chair for Distributed Information Systems,
+ *                       Friedrich Schiller University Jena (http://www.fusion.uni-jena.de/)
+ * Copyright © 2023-2024 Jan Martin Keil (jan-martin.keil@uni-jena.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+-*/
+
+package de.uni_jena.cs.fusion.abecto.benchmark;
+
+import de.uni_jena.cs.fusion.abecto.Aspect;
+import de.uni_jena.cs.fusion.abecto.ResourcePair;
+import de.uni_jena.cs.fusion.abecto.measure.AbsoluteCoverage;
+import de.uni_jena.cs.fusion.abecto.measure.Count;
+import de.uni_jena.cs.fusion.abecto.measure.Measure;
+import de.uni_jena.cs.fusion.abecto.vocabulary.AV;
+import de.uni_jena.cs.fusion.abecto.vocabulary.OM;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the updates of measures backed by primitive arrays, by key and by
+ * index resolved in advance, with the updates of the previous measure
+ * implementation, which kept boxed values in a {@link HashMap}. Run with
+ * {@code -prof gc} to compare the allocation rates.
+ */
+public class MeasureBenchmark {
+
+    private static final int UPDATES = 100000;
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 10)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public PreviousLongMeasure<Resource> countByPreviousMeasure(Configuration configuration) {
+        PreviousLongMeasure<Resource> count = new PreviousLongMeasure<>(AV.count, OM.one);
+        for (int i = 0; i < UPDATES; i++) {
+            count.incrementByOrSetOne(configuration.datasets.get(i % configuration.datasetCount));
+        }
+        return count;
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 10)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Count countByMeasure(Configuration configuration) {
+        Count count = new Count();
+        for (int i = 0; i < UPDATES; i++) {
+            count.incrementByOrSetOne(configuration.datasets.get(i % configuration.datasetCount));
+        }
+        return count;
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 10)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Count countByMeasureIndex(Configuration configuration) {
+        Count count = new Count();
+        int[] indices = count.indicesOf(configuration.datasets);
+        for (int i = 0; i < UPDATES; i++) {
+            count.incrementByOrSetOneAt(indices[i % configuration.datasetCount]);
+        }
+        return count;
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 10)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public PreviousLongMeasure<ResourcePair> coverageByPreviousMeasure(Configuration configuration) {
+        PreviousLongMeasure<ResourcePair> coverage = new PreviousLongMeasure<>(AV.absoluteCoverage, OM.one);
+        for (int i = 0; i < UPDATES; i++) {
+            coverage.incrementByOrSetOne(configuration.datasetPairs.get(i % configuration.datasetPairs.size()));
+        }
+        return coverage;
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 10)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public AbsoluteCoverage coverageByMeasure(Configuration configuration) {
+        AbsoluteCoverage coverage = new AbsoluteCoverage();
+        for (int i = 0; i < UPDATES; i++) {
+            coverage.incrementByOrSetOne(configuration.datasetPairs.get(i % configuration.datasetPairs.size()));
+        }
+        return coverage;
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 10)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public AbsoluteCoverage coverageByMeasureIndex(Configuration configuration) {
+        AbsoluteCoverage coverage = new AbsoluteCoverage();
+        int[] indices = coverage.indicesOf(configuration.datasetPairs);
+        for (int i = 0; i < UPDATES; i++) {
+            coverage.incrementByOrSetOneAt(indices[i % indices.length]);
+        }
+        return coverage;
+    }
+
+    /**
+     * The previous implementation of measures with {@code long} values, which kept
+     * boxed values in a {@link HashMap}.
+     *
+     * @param <K> the key type
+     */
+    public static class PreviousLongMeasure<K> extends Measure<K, Long> {
+
+        protected final Map<K, Long> values = new HashMap<>();
+
+        public PreviousLongMeasure(Resource quantity, Resource unit) {
+            super(quantity, unit);
+        }
+
+        @Override
+        public Long get(K key) {
+            return values.get(key);
+        }
+
+        @Override
+        public Set<K> keySet() {
+            return values.keySet();
+        }
+
+        @Override
+        public boolean contains(K key) {
+            return values.containsKey(key);
+        }
+
+        @Override
+        public void clear() {
+            values.clear();
+        }
+
+        @Override
+        public void set(K key, Long value) {
+            values.put(key, value);
+        }
+
+        public void incrementByOrSetOne(K key) {
+            incrementByOrSet(key, 1L);
+        }
+
+        public void incrementByOrSet(K key, long increment) {
+            values.merge(key, increment, Long::sum);
+        }
+
+        @Override
+        public void storeInModel(Aspect aspect, Map<Resource, Model> outputModelsMap) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Configuration {
+        @Param({"2", "5", "10"})
+        public int datasetCount;
+        public List<Resource> datasets;
+        public List<ResourcePair> datasetPairs;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            datasets = new ArrayList<>();
+            for (int i = 0; i < datasetCount; i++) {
+                datasets.add(ResourceFactory.createResource(Integer.toString(i)));
+            }
+            datasetPairs = new ArrayList<>();
+            for (int i = 0; i < datasetCount; i++) {
+                for (int j = i + 1; j < datasetCount; j++) {
+                    datasetPairs.add(ResourcePair.getPair(datasets.get(i), datasets.get(j)));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*-
+ * Copyright © 2019-2022 Heinz Nixdorf Chair for Distributed Information Systems,
+ *                       Friedrich Schiller University Jena (http://www.fusion.uni-jena.de/)
+ * Copyright © 2023-2024 Jan Martin Keil (jan-martin.keil@uni-jena.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+-*/
+
+package de.uni_jena.cs.fusion.abecto.benchmark;
+
+import de.uni_jena.cs.fusion.abecto.ResourcePair;
+import de.uni_jena.cs.fusion.abecto.measure.AbsoluteCoverage;
+import de.uni_jena.cs.fusion.abecto.measure.Count;
+import org.apache.jena.rdf.model.Resource;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class MeasureBenchmarkTest {
+    @Test
+    public void benchmark() {
+        MeasureBenchmark.Configuration configuration = new MeasureBenchmark.Configuration();
+        configuration.datasetCount = 5;
+        configuration.setup();
+        MeasureBenchmark benchmark = new MeasureBenchmark();
+
+        MeasureBenchmark.PreviousLongMeasure<Resource> countByPreviousMeasure = benchmark.countByPreviousMeasure(configuration);
+        for (Count countByMeasure : List.of(benchmark.countByMeasure(configuration), benchmark.countByMeasureIndex(configuration))) {
+            assertEquals(countByPreviousMeasure.keySet(), countByMeasure.keySet());
+            for (Resource dataset : countByPreviousMeasure.keySet()) {
+                assertEquals(countByPreviousMeasure.get(dataset), countByMeasure.get(dataset));
+            }
+        }
+
+        MeasureBenchmark.PreviousLongMeasure<ResourcePair> coverageByPreviousMeasure = benchmark.coverageByPreviousMeasure(configuration);
+        for (AbsoluteCoverage coverageByMeasure : List.of(benchmark.coverageByMeasure(configuration), benchmark.coverageByMeasureIndex(configuration))) {
+            assertEquals(coverageByPreviousMeasure.keySet(), coverageByMeasure.keySet());
+            for (ResourcePair pair : coverageByPreviousMeasure.keySet()) {
+                assertEquals(coverageByPreviousMeasure.get(pair), coverageByMeasure.get(pair));
+            }
+        }
+    }
+}
@@ -20,36 +20,51 @@ package de.uni_jena.cs.fusion.abecto;
 
 import java.io.*;
 import java.net.URL;
+import java.net.http.HttpClient;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.*;
 import java.util.Map.Entry;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
-import java.util.concurrent.Executor;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.jar.Attributes;
 import java.util.jar.Manifest;
 import java.util.logging.Level;
 import java.util.stream.Collectors;
 
+import org.apache.jena.http.HttpEnv;
 import org.apache.jena.query.Dataset;
 import org.apache.jena.query.DatasetFactory;
 import org.apache.jena.query.QueryExecutionFactory;
-import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.listeners.StatementListener;
+import org.apache.jena.rdf.model.Literal;
 import org.apache.jena.rdf.model.Model;
-import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.RDFNode;
 import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdf.model.ResourceFactory;
-import org.apache.jena.riot.RDFFormat;
-import org.apache.jena.riot.RDFWriter;
+import org.apache.jena.rdf.model.Statement;
 import org.apache.jena.shared.PrefixMapping;
 import org.apache.jena.sys.JenaSystem;
 import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import de.uni_jena.cs.fusion.abecto.graph.FilteredDatasetGraph;
+import de.uni_jena.cs.fusion.abecto.util.CachingHttpClient;
 import de.uni_jena.cs.fusion.abecto.util.Datasets;
+import de.uni_jena.cs.fusion.abecto.util.QueryResultCache;
+import de.uni_jena.cs.fusion.abecto.util.QueryResultSequence;
+import de.uni_jena.cs.fusion.abecto.util.RowSequence;
+import de.uni_jena.cs.fusion.abecto.util.Snapshots;
 import de.uni_jena.cs.fusion.abecto.vocabulary.AV;
 import freemarker.template.Configuration;
 import freemarker.template.Template;
@@ -85,9 +100,39 @@ public class Abecto implements Callable<Integer> {
 			"--plan" }, paramLabel = "IRI", description = "IRI of the plan to process. Required, if the configuration contains multiple plans.")
 	String planIri;
 
-	@Option(names = "--trig", paramLabel = "FILE", description = "RDF TRIG dataset file for the execution results.")
+	@Option(names = "--trig", paramLabel = "FILE", description = "RDF dataset file for the execution results. The format depends on \"--resultFormat\".")
 	File trigOutputFile;
 
+	@Option(names = "--snapshot", paramLabel = "FILE", description = "RDF Thrift snapshot file for the execution results. Snapshot files with the extension \".trdf\" get loaded considerably faster with \"--loadOnly\".")
+	File snapshotOutputFile;
+
+	@Option(names = "--resultFormat", paramLabel = "FORMAT", description = "Format of the execution results file: ${COMPLETION-CANDIDATES}. Except of TRIG_PRETTY, the results get written without analyzing whole graphs in advance. Default: TRIG_PRETTY")
+	Datasets.Format resultFormat = Datasets.Format.TRIG_PRETTY;
+
+	@Option(names = "--gzip", description = "If set, the execution results will be compressed with gzip.")
+	boolean gzip;
+
+	@Option(names = "--splitGraphs", description = "If set, each graph of the execution results will be written concurrently into a separate file next to the execution results file, which then lists the graph files. It can still be loaded with \"--loadOnly\".")
+	boolean splitGraphs;
+
+	@Option(names = "--diskStorage", paramLabel = "DIRECTORY", description = "Directory to store primary data on disk instead of in memory. Enables the processing of datasets exceeding the available memory.")
+	File diskStorageDirectory;
+
+	@Option(names = "--httpCache", paramLabel = "DIRECTORY", description = "Directory to cache HTTP responses in. Cached responses of unchanged remote sources get reused after revalidation.")
+	File httpCacheDirectory;
+
+	@Option(names = "--queryCache", paramLabel = "DIRECTORY", description = "Directory to cache results of queries to SPARQL endpoints in. Cached results get reused in later executions instead of repeating the queries.")
+	File queryCacheDirectory;
+
+	@Option(names = "--queryCacheTtl", paramLabel = "DURATION", description = "Time to keep cached query results as ISO-8601 duration, e.g. \"P7D\" for seven days. Default: unlimited")
+	Duration queryCacheTimeToLive;
+
+	@Option(names = "--refreshQueryCache", description = "If set, query results cached in earlier executions will be ignored and replaced.")
+	boolean refreshQueryCache;
+
+	@Option(names = "--dryRun", description = "If set, the steps of the plan will be listed in execution order, marked as to execute or to skip, without executing them. Steps not needed for the requested outputs get skipped. Must not be combined with \"--loadOnly\".")
+	boolean dryRun;
+
 	@Option(names = "--loadOnly", description = "If set, the plan will not get executed. This enables to export results without repeated plan execution.")
 	boolean loadOnly;
 
@@ -113,34 +158,90 @@ public class Abecto implements Callable<Integer> {
 	@Option(names = "--failOnIssue", description = "If set, a exit code > 0 will be returned, if the results contain an issue. Useful together with \"--reportOn\".")
 	boolean failOnIssue;
 
+	@Option(names = "--failFast", description = "If set, the plan execution will be stopped and the exit code returned as soon as a step adds a result selected by a \"--failOn...\" option. Together with \"--reportOn\", only results about the source to report on are considered. No results will be written or exported in case of a stop.")
+	boolean failFast;
+
 	@Parameters(index = "0", paramLabel = "FILE", description = "RDF dataset file containing the plan configuration and optionally plan execution results (see --loadOnly).")
 	File planFile;
 
 	private Dataset datasetForExecution = DatasetFactory.createGeneral();
 	private Dataset datasetForReporting;
 	private File relativePathBase;
+	private ReportingIndex reportingIndex;
+	/**
+	 * Types of the results that caused a stop of the plan execution due to
+	 * {@link #failFast}.
+	 */
+	private final Set<Resource> failFastResultTypes = ConcurrentHashMap.newKeySet();
+	/**
+	 * Steps of the plan execution, whose primary data stored on disk gets deleted
+	 * after reporting.
+	 */
+	private final Collection<Step> executedSteps = new ArrayList<>();
 	private Configuration freemarker;
 	private final static String TEMPLATE_FOLDER = "/de/uni_jena/cs/fusion/abecto/export";
 	private final static String VOCABULARY_FOLDER = "/de/uni_jena/cs/fusion/abecto/vocabulary";
+	/**
+	 * Export templates whose data gets provided by the {@link ReportingIndex}
+	 * instead of a query.
+	 */
+	private final static Map<String, Function<ReportingIndex, Iterable<Map<String, String>>>> INDEXED_EXPORTS = Map.of(
+			"deviations", ReportingIndex::getDeviationRows, //
+			"deviationsMarkdown", ReportingIndex::getDeviationRows, //
+			"resourceOmissions", ReportingIndex::getResourceOmissionRows);
+	/**
+	 * The results used by the export templates, identified by their types or, for
+	 * correspondences, by {@link AV#correspondsToResource}.
+	 */
+	private final static Map<String, Set<Resource>> EXPORT_RESULTS = Map.of(//
+			"deviations", Set.of(AV.Deviation), //
+			"deviationsMarkdown", Set.of(AV.Deviation), //
+			"mappingReview", Set.of(AV.ResourceOmission, AV.correspondsToResource), //
+			"measurementsMarkdown", Set.of(AV.QualityMeasurement), //
+			"resourceOmissions", Set.of(AV.ResourceOmission), //
+			"wdMismatchFinder", Set.of(AV.Deviation, AV.ValueOmission, AV.ResourceOmission));
 
 	@Override
 	public Integer call() {
 		try {
+			if (httpCacheDirectory != null) {
+				initHttpCache(httpCacheDirectory);
+			}
 			determineRelativePathBase();
 			loadPlanFile();
 			executePlanIfConfigured();
+			if (dryRun) {
+				return 0;
+			}
+			if (!failFastResultTypes.isEmpty()) {
+				return determineExitCode(failFastResultTypes::contains);
+			}
 			reusePlanPrefixesForResults();
 			writeResultTrigFileIfConfigured();
 			prepareDatasetForReporting();
+			prepareReportingIndex();
 			generateAndWriteReportsAsConfigured();
-			return determineExitCode();
+			return determineExitCode(this::resultsForReportingContainIssue);
 		} catch (CompletionException e) {
 			log.error("Plan execution failed.", e.getCause());
 			return 1;
 		} catch (Throwable e) {
 			log.error(e.getMessage(), e);
 			return 1;
+		} finally {
+			deletePrimaryDataStoredOnDisk();
+		}
+	}
+
+	private void deletePrimaryDataStoredOnDisk() {
+		for (Step step : executedSteps) {
+			try {
+				step.deletePrimaryData();
+			} catch (IOException e) {
+				log.warn("Failed to delete primary data stored on disk.", e);
+			}
 		}
+		executedSteps.clear();
 	}
 
 	private void determineRelativePathBase() {
@@ -150,7 +251,7 @@ public class Abecto implements Callable<Integer> {
 	private void loadPlanFile()
 			throws IllegalArgumentException, IOException {
 		log.info("Loading plan dataset file started.");
-		Datasets.read(datasetForExecution, new FileInputStream(planFile));
+		Datasets.read(datasetForExecution, planFile);
 		log.info("Loading plan dataset file completed.");
 	}
 
@@ -163,16 +264,55 @@ public class Abecto implements Callable<Integer> {
 		datasetPrefixMapping.removeNsPrefix("");
 	}
 
-	private void writeResultTrigFileIfConfigured() throws FileNotFoundException {
+	private void writeResultTrigFileIfConfigured() throws IOException {
 		if (trigOutputFile != null && !loadOnly) {
-			log.info("Writing plan execution results as TRIG file started.");
-			RDFWriter.source(datasetForExecution).base(null) // no base prefix to ease result reading
-					.format(RDFFormat.TRIG_PRETTY).output(new FileOutputStream(trigOutputFile));
-			log.info("Writing plan execution results as TRIG file completed.");
+			log.info(String.format("Writing plan execution results as %s file started.", resultFormat));
+			if (splitGraphs) {
+				Datasets.writeGraphFiles(datasetForExecution, trigOutputFile, resultFormat, gzip);
+			} else {
+				Datasets.write(datasetForExecution, trigOutputFile, resultFormat, gzip);
+			}
+			log.info(String.format("Writing plan execution results as %s file completed.", resultFormat));
+		}
+		if (snapshotOutputFile != null && !loadOnly) {
+			log.info("Writing plan execution results snapshot started.");
+			Datasets.write(datasetForExecution, snapshotOutputFile, Datasets.Format.THRIFT, false);
+			log.info("Writing plan execution results snapshot completed.");
+		}
+	}
+
+	/**
+	 * Returns the steps needed for the requested outputs. If complete execution
+	 * results are requested, all steps are needed. Otherwise, the exports and the
+	 * {@code --failOn...} options determine the needed results, limited to the
+	 * results about the source to report on, if selected.
+	 * 
+	 * @param configurationModel the configuration model describing the plan
+	 * @param stepPredecessors   the transitive predecessors of the steps of the
+	 *                           plan
+	 * @return the steps needed for the requested outputs
+	 */
+	private Set<Resource> getRequiredSteps(Model configurationModel, Map<Resource, Set<Resource>> stepPredecessors) {
+		if (trigOutputFile != null || snapshotOutputFile != null) {
+			return stepPredecessors.keySet();
+		}
+		Set<Resource> requiredResults = resultTypesToFailOn();
+		if (exports != null) {
+			for (String exportType : exports.keySet()) {
+				if (!EXPORT_RESULTS.containsKey(exportType)) {
+					return stepPredecessors.keySet();
+				}
+				requiredResults.addAll(EXPORT_RESULTS.get(exportType));
+			}
 		}
+		return Plans.getStepsProviding(configurationModel, stepPredecessors, requiredResults,
+				sourceToReportOn != null ? ResourceFactory.createResource(sourceToReportOn) : null);
 	}
 
 	private void executePlanIfConfigured() throws ReflectiveOperationException {
+		if (dryRun && loadOnly) {
+			throw new IllegalArgumentException("Options \"--dryRun\" and \"--loadOnly\" must not be combined.");
+		}
 		if (!loadOnly) {
 			log.info("Plan execution started.");
 			executePlan(planIri);
@@ -188,11 +328,21 @@ public class Abecto implements Callable<Integer> {
 		} else {
 			datasetForReporting = getDatasetAboutSourceToReportOn();
 		}
-		loadOntologyForReporting("http://w3id.org/abecto/vocabulary", "abecto-vocabulary.ttl", "TTL");
-		loadOntologyForReporting("http://www.ontology-of-units-of-measure.org/resource/om-2", "om-2.0.rdf", "RDF/XML");
+		loadOntologyForReporting("http://w3id.org/abecto/vocabulary", "abecto-vocabulary.ttl");
+		loadOntologyForReporting("http://www.ontology-of-units-of-measure.org/resource/om-2", "om-2.0.rdf");
+	}
+
+	private void prepareReportingIndex() {
+		if (exports != null || failOnDeviation || failOnValueOmission || failOnResourceOmission || failOnWrongValue
+				|| failOnIssue) {
+			log.info("Indexing results for reporting started.");
+			reportingIndex = ReportingIndex.of(datasetForReporting);
+			log.info("Indexing results for reporting completed.");
+		}
 	}
 
-	private void generateAndWriteReportsAsConfigured() throws TemplateException, IOException {
+	private void generateAndWriteReportsAsConfigured()
+			throws TemplateException, IOException, InterruptedException {
 		if (exports != null) {
 			// prepare freemarker configuration
 			freemarker = new Configuration(Configuration.VERSION_2_3_31);
@@ -202,82 +352,144 @@ public class Abecto implements Callable<Integer> {
 			freemarker.setLogTemplateExceptions(false);
 			freemarker.setWrapUncheckedExceptions(true);
 			freemarker.setFallbackOnNullLoopVariable(false);
-			// apply export templates
-			for (Entry<String, File> export : exports.entrySet()) {
-				log.info(String.format("Export with template \"%s\" started.", export.getKey()));
-				export(export.getKey(), export.getValue(), datasetForReporting);
-				log.info(String.format("Export with template \"%s\" completed.", export.getKey()));
+			// apply export templates concurrently
+			Dataset reportOn = Datasets.withFixedGraphs(datasetForReporting);
+			ExecutorService executor = Executors
+					.newFixedThreadPool(Math.min(exports.size(), Runtime.getRuntime().availableProcessors()));
+			try {
+				List<Future<?>> exportFutures = new ArrayList<>();
+				for (Entry<String, File> export : exports.entrySet()) {
+					exportFutures.add(executor.submit(() -> {
+						log.info(String.format("Export with template \"%s\" started.", export.getKey()));
+						export(export.getKey(), export.getValue(), reportOn);
+						log.info(String.format("Export with template \"%s\" completed.", export.getKey()));
+						return null;
+					}));
+				}
+				for (Future<?> exportFuture : exportFutures) {
+					try {
+						exportFuture.get();
+					} catch (ExecutionException e) {
+						if (e.getCause() instanceof IOException cause) {
+							throw cause;
+						} else if (e.getCause() instanceof TemplateException cause) {
+							throw cause;
+						}
+						throw new RuntimeException(e.getCause());
+					}
+				}
+			} finally {
+				executor.shutdownNow();
 			}
 		}
 	}
 
-	private int determineExitCode() {
+	private int determineExitCode(Predicate<Resource> resultsContain) {
 		int exitCode = 0;
-		if (failOnDeviation && resultsForReportingContainIssue(AV.Deviation)) {
+		if (failOnDeviation && resultsContain.test(AV.Deviation)) {
 			exitCode += 2;
 		}
-		if (failOnValueOmission && resultsForReportingContainIssue(AV.ValueOmission)) {
+		if (failOnValueOmission && resultsContain.test(AV.ValueOmission)) {
 			exitCode += 4;
 		}
-		if (failOnResourceOmission && resultsForReportingContainIssue(AV.ResourceOmission)) {
+		if (failOnResourceOmission && resultsContain.test(AV.ResourceOmission)) {
 			exitCode += 8;
 		}
-		if (failOnWrongValue && resultsForReportingContainIssue(AV.WrongValue)) {
+		if (failOnWrongValue && resultsContain.test(AV.WrongValue)) {
 			exitCode += 16;
 		}
-		if (failOnIssue && resultsForReportingContainIssue(AV.Issue)) {
+		if (failOnIssue && resultsContain.test(AV.Issue)) {
 			exitCode += 32;
 		}
 		return exitCode;
 	}
 
-	private void loadOntologyForReporting(String graphIri, String fileName, String lang) {
-		datasetForReporting.addNamedModel(graphIri, ModelFactory.createDefaultModel()
-				.read(this.getClass().getResourceAsStream(VOCABULARY_FOLDER + "/" + fileName), null, lang));
+	/**
+	 * Returns the types of results selected by the {@code --failOn...} options.
+	 */
+	private Set<Resource> resultTypesToFailOn() {
+		Set<Resource> resultTypes = new HashSet<>();
+		if (failOnDeviation) {
+			resultTypes.add(AV.Deviation);
+		}
+		if (failOnValueOmission) {
+			resultTypes.add(AV.ValueOmission);
+		}
+		if (failOnResourceOmission) {
+			resultTypes.add(AV.ResourceOmission);
+		}
+		if (failOnWrongValue) {
+			resultTypes.add(AV.WrongValue);
+		}
+		if (failOnIssue) {
+			resultTypes.add(AV.Issue);
+		}
+		return resultTypes;
+	}
+
+	/**
+	 * Records the type of a result selected by the {@code --failOn...} options and
+	 * signals the stop of the plan execution. The step adding the result is not
+	 * interrupted inside the listener, to not leave the output metamodel in the
+	 * middle of an update.
+	 */
+	private class FailFastListener extends StatementListener {
+
+		private final Set<Resource> resultTypesToFailOn = resultTypesToFailOn();
+		private final CompletableFuture<Void> stop = new CompletableFuture<>();
+
+		@Override
+		public void addedStatement(Statement statement) {
+			if (statement.getPredicate().equals(RDF.type) && resultTypesToFailOn.contains(statement.getObject())) {
+				failFastResultTypes.add(statement.getResource());
+				stop.complete(null);
+			}
+		}
+	}
+
+	private void loadOntologyForReporting(String graphIri, String fileName) {
+		datasetForReporting.addNamedModel(graphIri,
+				Snapshots.readResource(this.getClass(), VOCABULARY_FOLDER + "/" + fileName));
 	}
 
 	private boolean resultsForReportingContainIssue(Resource affectedBy) {
-		return datasetForReporting.getUnionModel().contains(null, RDF.type, affectedBy);
+		return reportingIndex.containsAnnotation(affectedBy);
 	}
 
 	private Dataset getDatasetAboutSourceToReportOn() {
 		Model configurationModel = datasetForExecution.getDefaultModel();
 		Resource datasetToReportOnResource = ResourceFactory.createResource(sourceToReportOn);
-		Dataset modelsForDataset = DatasetFactory.create(configurationModel);
-		datasetForExecution.listModelNames().forEachRemaining(modelResource -> {
-			if (configurationModel.contains(modelResource, RDF.type, AV.PrimaryDataGraph)
+		return DatasetFactory.wrap(new FilteredDatasetGraph(datasetForExecution.asDatasetGraph(), graphName -> {
+			Resource modelResource = configurationModel.wrapAsResource(graphName);
+			return configurationModel.contains(modelResource, RDF.type, AV.PrimaryDataGraph)
 					|| (configurationModel.contains(modelResource, RDF.type, AV.MetaDataGraph)
 							&& (!configurationModel.contains(modelResource, AV.associatedDataset) || configurationModel
-									.contains(modelResource, AV.associatedDataset, datasetToReportOnResource)))) {
-				modelsForDataset.addNamedModel(modelResource, datasetForExecution.getNamedModel(modelResource));
-			}
-		});
-		return modelsForDataset;
+									.contains(modelResource, AV.associatedDataset, datasetToReportOnResource)));
+		}));
 	}
 
 	public void export(String exportType, File outputFile, Dataset reportOn) throws IOException, TemplateException {
 		Template template = this.freemarker.getTemplate(exportType + ".ftl");
-		String queryStr = new String(
-				this.getClass().getResourceAsStream(TEMPLATE_FOLDER + "/" + exportType + ".rq").readAllBytes(),
-				StandardCharsets.UTF_8);
-		List<Map<String, String>> data = new ArrayList<>();
-		ResultSet results = QueryExecutionFactory.create(queryStr, reportOn).execSelect();
-		results.forEachRemaining(binding -> {
-			Map<String, String> map = new HashMap<>();
-			data.add(map);
-			results.getResultVars().forEach(var -> {
-				if (binding.contains(var)) {
-					if (binding.get(var).isLiteral()) {
-						map.put(var, binding.get(var).asLiteral().getString());
-					} else if (binding.get(var).isResource()) {
-						map.put(var, "<" + binding.get(var).asResource().toString() + ">");
-					} else {
-						map.put(var, binding.get(var).toString());
-					}
-				}
-			});
-		});
-		template.process(Collections.singletonMap("data", data), new FileWriter(outputFile, StandardCharsets.UTF_8));
+		if (INDEXED_EXPORTS.containsKey(exportType)) {
+			process(template, new RowSequence(INDEXED_EXPORTS.get(exportType).apply(reportingIndex),
+					this.freemarker.getObjectWrapper()), outputFile);
+		} else {
+			String queryStr = new String(
+					this.getClass().getResourceAsStream(TEMPLATE_FOLDER + "/" + exportType + ".rq").readAllBytes(),
+					StandardCharsets.UTF_8);
+			// close executions of listings not completed by the template
+			try (QueryResultSequence data = new QueryResultSequence(
+					() -> QueryExecutionFactory.create(queryStr, reportOn), this.freemarker.getObjectWrapper())) {
+				process(template, data, outputFile);
+			}
+		}
+	}
+
+	private static void process(Template template, Object data, File outputFile)
+			throws IOException, TemplateException {
+		try (Writer writer = new BufferedWriter(new FileWriter(outputFile, StandardCharsets.UTF_8))) {
+			template.process(Collections.singletonMap("data", data), writer);
+		}
 	}
 
 	public void executePlan(String planIri)
@@ -302,33 +514,108 @@ public class Abecto implements Callable<Integer> {
 		// get execution order
 		List<Resource> stepOrder = new ArrayList<>(predecessors.keySet());
 		// sort by number of (transitive) dependencies to ensure
-		stepOrder.sort(Comparator.comparingInt(x -> predecessors.get(x).size()));
+		stepOrder.sort(Comparator.comparingInt((Resource x) -> predecessors.get(x).size())
+				.thenComparing(Resource::toString));
+
+		// skip steps not needed for the requested outputs
+		Set<Resource> requiredSteps = getRequiredSteps(configurationModel, predecessors);
+		if (dryRun) {
+			for (Resource step : stepOrder) {
+				Optional<String> stepLabel = configurationModel.listObjectsOfProperty(step, RDFS.label).nextOptional()
+						.map(RDFNode::asLiteral).map(Literal::getString);
+				System.out.println(String.format("%-7s %s", requiredSteps.contains(step) ? "execute" : "skip",
+						stepLabel.map(label -> String.format("\"%s\" (%s)", label, step)).orElse(step.toString())));
+			}
+			return;
+		}
+		if (requiredSteps.size() < stepOrder.size()) {
+			log.info(String.format("Skipping %s steps not needed for the requested outputs.",
+					stepOrder.size() - requiredSteps.size()));
+			stepOrder.retainAll(requiredSteps);
+		}
+
+		QueryResultCache queryResultCache = (queryCacheDirectory != null)
+				? new QueryResultCache(queryCacheDirectory.toPath(), queryCacheTimeToLive, refreshQueryCache)
+				: null;
 
 		// setup and run pipeline
-		Executor executor = Executors.newCachedThreadPool();
-		Map<Resource, Step> steps = new HashMap<>();
-		Map<Resource, CompletableFuture<?>> stepFutures = new HashMap<>();
-		for (Resource stepIri : stepOrder) {
-			// setup step
-			Collection<Step> inputSteps = predecessors.get(stepIri).stream().map(steps::get)
-					.collect(Collectors.toList());
-			Step step = new Step(relativePathBase, datasetForExecution, configurationModel, stepIri, inputSteps, aspects);
-			steps.put(stepIri, step);
-			// schedule step
-			CompletableFuture<?>[] inputFutures = predecessors.get(stepIri).stream().map(stepFutures::get)
-					.toArray(i -> new CompletableFuture<?>[i]);
-			CompletableFuture<?> stepFuture = CompletableFuture.allOf(inputFutures).thenRunAsync(step, executor);
-			stepFutures.put(stepIri, stepFuture);
+		ExecutorService executor = Executors.newCachedThreadPool();
+		try {
+			FailFastListener failFastListener = failFast ? new FailFastListener() : null;
+			Map<Resource, Step> steps = new HashMap<>();
+			Map<Resource, CompletableFuture<?>> stepFutures = new HashMap<>();
+			for (Resource stepIri : stepOrder) {
+				// setup step
+				Collection<Step> inputSteps = predecessors.get(stepIri).stream().map(steps::get)
+						.collect(Collectors.toList());
+				Step step = new Step(relativePathBase, datasetForExecution, configurationModel, stepIri, inputSteps,
+						aspects);
+				if (diskStorageDirectory != null) {
+					step.setPrimaryDataDirectory(diskStorageDirectory);
+				}
+				if (queryResultCache != null) {
+					step.setQueryResultCache(queryResultCache);
+				}
+				if (failFastListener != null) {
+					step.setOutputMetaModelListener(failFastListener, sourceToReportOn == null ? dataset -> true
+							: ResourceFactory.createResource(sourceToReportOn)::equals);
+				}
+				steps.put(stepIri, step);
+				executedSteps.add(step);
+				// schedule step
+				CompletableFuture<?>[] inputFutures = predecessors.get(stepIri).stream().map(stepFutures::get)
+						.toArray(i -> new CompletableFuture<?>[i]);
+				CompletableFuture<?> stepFuture = CompletableFuture.allOf(inputFutures).thenRunAsync(step, executor);
+				stepFutures.put(stepIri, stepFuture);
+			}
+			// expect completion of all steps
+			CompletableFuture<?> completion = CompletableFuture
+					.allOf(stepFutures.values().toArray(new CompletableFuture[0]));
+			if (failFastListener != null) {
+				// expect failure of any step
+				CompletableFuture<?> failure = new CompletableFuture<>();
+				stepFutures.values().forEach(stepFuture -> stepFuture.exceptionally(e -> {
+					failure.completeExceptionally(e);
+					return null;
+				}));
+				try {
+					CompletableFuture.anyOf(completion, failure, failFastListener.stop).join();
+				} catch (CompletionException e) {
+					if (failFastResultTypes.isEmpty()) {
+						throw e;
+					}
+				}
+				if (!failFastResultTypes.isEmpty()) {
+					// stop remaining steps and await their termination
+					steps.values().forEach(Step::requestStop);
+					completion.exceptionally(e -> null).join();
+					log.warn("Plan execution stopped due to a result selected by a \"--failOn...\" option.");
+				}
+			} else {
+				completion.join();
+			}
+		} finally {
+			executor.shutdownNow();
 		}
-		// expect completion of all steps
-		CompletableFuture.allOf(stepFutures.values().toArray(new CompletableFuture[0])).join();
 	}
 
 	public static void initApacheJena() {
 		JenaSystem.init();
+	}
 
-		// TODO use caching HTTP client
-		// HttpEnv.setDftHttpClient(dftHttpClient);
+	/**
+	 * Enables the caching of HTTP responses of the default HTTP client of Apache
+	 * Jena, which is also used for SPARQL requests and for reading remote RDF
+	 * documents.
+	 * 
+	 * @param directory the directory to store cached responses in
+	 */
+	public static void initHttpCache(File directory) {
+		HttpClient client = HttpEnv.getDftHttpClient();
+		if (client instanceof CachingHttpClient) {
+			client = ((CachingHttpClient) client).getClient();
+		}
+		HttpEnv.setDftHttpClient(new CachingHttpClient(client, directory.toPath()));
 	}
 
 	static class ManifestVersionProvider implements IVersionProvider {
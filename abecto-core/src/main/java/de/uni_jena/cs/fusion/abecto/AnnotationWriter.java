@@ -0,0 +1,260 @@
+/*-
+ * Copyright © 2019-2022 Heinz Nixdorf Chair for Distributed Information Systems,
+ *                       Friedrich Schiller University Jena (http://www.fusion.uni-jena.de/)
+ * Copyright © 2023-2024 Jan Martin Keil (jan-martin.keil@uni-jena.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+-*/
+
+package de.uni_jena.cs.fusion.abecto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.GraphUtil;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.vocabulary.OA;
+import org.apache.jena.vocabulary.RDF;
+
+import de.uni_jena.cs.fusion.abecto.graph.NodeDictionary;
+import de.uni_jena.cs.fusion.abecto.vocabulary.AV;
+import de.uni_jena.cs.fusion.abecto.vocabulary.DQV;
+
+/**
+ * Writes quality annotations in batches. The annotations are collected as
+ * compact records of their {@link Node Nodes} and get converted into triples
+ * only when a batch is full or on {@link #flush()}. The triples of a batch get
+ * added to a {@link Graph} at once or sent to a {@link StreamRDF}, e.g. to write
+ * them into a file instead of holding them in memory.
+ * <p>
+ * The written triples equal the triples added by
+ * {@link Metadata#addDeviation}, {@link Metadata#addValuesOmission},
+ * {@link Metadata#addResourceOmission} and
+ * {@link Metadata#addResourceDuplicate}. Annotations get lost, if the writer
+ * is neither flushed nor closed. Instances are not thread-safe.
+ */
+public class AnnotationWriter implements AutoCloseable {
+
+	public static final int DEFAULT_BATCH_SIZE = 4096;
+
+	private static final Node TYPE = RDF.type.asNode();
+	private static final Node DEVIATION = AV.Deviation.asNode();
+	private static final Node VALUE_OMISSION = AV.ValueOmission.asNode();
+	private static final Node RESOURCE_OMISSION = AV.ResourceOmission.asNode();
+	private static final Node RESOURCE_DUPLICATE = AV.ResourceDuplicate.asNode();
+	private static final Node QUALITY_ANNOTATION = DQV.QualityAnnotation.asNode();
+	private static final Node AFFECTED_ASPECT = AV.affectedAspect.asNode();
+	private static final Node AFFECTED_VARIABLE_NAME = AV.affectedVariableName.asNode();
+	private static final Node AFFECTED_VALUE = AV.affectedValue.asNode();
+	private static final Node COMPARED_TO_DATASET = AV.comparedToDataset.asNode();
+	private static final Node COMPARED_TO_RESOURCE = AV.comparedToResource.asNode();
+	private static final Node COMPARED_TO_VALUE = AV.comparedToValue.asNode();
+	private static final Node HAS_TARGET = OA.hasTarget.asNode();
+	private static final Node HAS_BODY = OA.hasBody.asNode();
+
+	private static final byte KIND_DEVIATION = 0;
+	private static final byte KIND_VALUE_OMISSION = 1;
+	private static final byte KIND_RESOURCE_OMISSION = 2;
+	private static final byte KIND_RESOURCE_DUPLICATE = 3;
+
+	// offsets of the nodes of an annotation record
+	private static final int TARGET = 0;
+	private static final int ASPECT = 1;
+	private static final int VARIABLE_NAME = 2;
+	private static final int VALUE = 3;
+	private static final int DATASET = 4;
+	private static final int RESOURCE = 5;
+	private static final int COMPARED_VALUE = 6;
+	private static final int RECORD_SIZE = 7;
+
+	private final Graph graph;
+	private final StreamRDF stream;
+	private final byte[] kinds;
+	private final Node[] nodes;
+	private final List<Triple> triples;
+	private int size = 0;
+
+	/**
+	 * Creates an {@link AnnotationWriter} that adds the annotations to the given
+	 * {@link Model}.
+	 *
+	 * @param model the {@link Model} to add the annotations to
+	 */
+	public AnnotationWriter(Model model) {
+		this(model.getGraph(), null, DEFAULT_BATCH_SIZE);
+	}
+
+	/**
+	 * Creates an {@link AnnotationWriter} that adds the annotations to the given
+	 * {@link Graph}.
+	 *
+	 * @param graph     the {@link Graph} to add the annotations to
+	 * @param batchSize the number of annotations to collect before adding them
+	 */
+	public AnnotationWriter(Graph graph, int batchSize) {
+		this(graph, null, batchSize);
+	}
+
+	/**
+	 * Creates an {@link AnnotationWriter} that sends the triples of the
+	 * annotations to the given {@link StreamRDF}. Starting and finishing the
+	 * {@link StreamRDF} is left to the caller.
+	 *
+	 * @param stream    the {@link StreamRDF} to send the triples to
+	 * @param batchSize the number of annotations to collect before sending them
+	 */
+	public AnnotationWriter(StreamRDF stream, int batchSize) {
+		this(null, stream, batchSize);
+	}
+
+	private AnnotationWriter(Graph graph, StreamRDF stream, int batchSize) {
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("Batch size must be positive.");
+		}
+		this.graph = graph;
+		this.stream = stream;
+		this.kinds = new byte[batchSize];
+		this.nodes = new Node[batchSize * RECORD_SIZE];
+		this.triples = new ArrayList<>(graph != null ? batchSize * 10 : 0);
+	}
+
+	public void addDeviation(Resource affectedResource, String affectedVariableName, RDFNode affectedValue,
+			Resource comparedToDataset, Resource comparedToResource, RDFNode comparedToValue,
+			Resource affectedAspect) {
+		int offset = add(KIND_DEVIATION, affectedResource, affectedAspect);
+		nodes[offset + VARIABLE_NAME] = NodeDictionary.stringLiteral(affectedVariableName);
+		nodes[offset + VALUE] = affectedValue.asNode();
+		nodes[offset + DATASET] = comparedToDataset.asNode();
+		nodes[offset + RESOURCE] = comparedToResource.asNode();
+		nodes[offset + COMPARED_VALUE] = comparedToValue.asNode();
+		flushIfFull();
+	}
+
+	public void addValuesOmission(Resource affectedResource, String affectedVariableName,
+			Resource comparedToDataset, Resource comparedToResource, RDFNode comparedToValue,
+			Resource affectedAspect) {
+		int offset = add(KIND_VALUE_OMISSION, affectedResource, affectedAspect);
+		nodes[offset + VARIABLE_NAME] = NodeDictionary.stringLiteral(affectedVariableName);
+		nodes[offset + DATASET] = comparedToDataset.asNode();
+		nodes[offset + RESOURCE] = comparedToResource.asNode();
+		nodes[offset + COMPARED_VALUE] = comparedToValue.asNode();
+		flushIfFull();
+	}
+
+	public void addResourceOmission(Resource affectedDataset, Resource comparedToDataset,
+			Resource comparedToResource, Resource affectedAspect) {
+		int offset = add(KIND_RESOURCE_OMISSION, affectedDataset, affectedAspect);
+		nodes[offset + DATASET] = comparedToDataset.asNode();
+		nodes[offset + RESOURCE] = comparedToResource.asNode();
+		flushIfFull();
+	}
+
+	public void addResourceDuplicate(Resource affectedResource, Resource comparedToResource,
+			Resource affectedAspect) {
+		int offset = add(KIND_RESOURCE_DUPLICATE, affectedResource, affectedAspect);
+		nodes[offset + RESOURCE] = comparedToResource.asNode();
+		flushIfFull();
+	}
+
+	private int add(byte kind, Resource target, Resource aspect) {
+		kinds[size] = kind;
+		int offset = size * RECORD_SIZE;
+		nodes[offset + TARGET] = target.asNode();
+		nodes[offset + ASPECT] = aspect.asNode();
+		size++;
+		return offset;
+	}
+
+	private void flushIfFull() {
+		if (size == kinds.length) {
+			flush();
+		}
+	}
+
+	/**
+	 * Writes all collected annotations.
+	 */
+	public void flush() {
+		for (int i = 0; i < size; i++) {
+			write(kinds[i], i * RECORD_SIZE);
+		}
+		if (graph != null && !triples.isEmpty()) {
+			GraphUtil.add(graph, triples);
+			triples.clear();
+		}
+		Arrays.fill(nodes, 0, size * RECORD_SIZE, null);
+		size = 0;
+	}
+
+	@Override
+	public void close() {
+		flush();
+	}
+
+	private void write(byte kind, int offset) {
+		Node body = NodeFactory.createBlankNode();
+		switch (kind) {
+		case KIND_DEVIATION:
+			emit(body, TYPE, DEVIATION);
+			emit(body, AFFECTED_ASPECT, nodes[offset + ASPECT]);
+			emit(body, AFFECTED_VARIABLE_NAME, nodes[offset + VARIABLE_NAME]);
+			emit(body, AFFECTED_VALUE, nodes[offset + VALUE]);
+			emit(body, COMPARED_TO_DATASET, nodes[offset + DATASET]);
+			emit(body, COMPARED_TO_RESOURCE, nodes[offset + RESOURCE]);
+			emit(body, COMPARED_TO_VALUE, nodes[offset + COMPARED_VALUE]);
+			break;
+		case KIND_VALUE_OMISSION:
+			emit(body, TYPE, VALUE_OMISSION);
+			emit(body, AFFECTED_ASPECT, nodes[offset + ASPECT]);
+			emit(body, AFFECTED_VARIABLE_NAME, nodes[offset + VARIABLE_NAME]);
+			emit(body, COMPARED_TO_DATASET, nodes[offset + DATASET]);
+			emit(body, COMPARED_TO_RESOURCE, nodes[offset + RESOURCE]);
+			emit(body, COMPARED_TO_VALUE, nodes[offset + COMPARED_VALUE]);
+			break;
+		case KIND_RESOURCE_OMISSION:
+			emit(body, TYPE, RESOURCE_OMISSION);
+			emit(body, AFFECTED_ASPECT, nodes[offset + ASPECT]);
+			emit(body, COMPARED_TO_DATASET, nodes[offset + DATASET]);
+			emit(body, COMPARED_TO_RESOURCE, nodes[offset + RESOURCE]);
+			break;
+		case KIND_RESOURCE_DUPLICATE:
+			emit(body, TYPE, RESOURCE_DUPLICATE);
+			emit(body, AFFECTED_ASPECT, nodes[offset + ASPECT]);
+			emit(body, COMPARED_TO_RESOURCE, nodes[offset + RESOURCE]);
+			break;
+		default:
+			throw new IllegalStateException("Unknown annotation kind: " + kind);
+		}
+		Node qualityAnnotation = NodeFactory.createBlankNode();
+		emit(qualityAnnotation, TYPE, QUALITY_ANNOTATION);
+		emit(qualityAnnotation, HAS_TARGET, nodes[offset + TARGET]);
+		emit(qualityAnnotation, HAS_BODY, body);
+	}
+
+	private void emit(Node subject, Node predicate, Node object) {
+		Triple triple = Triple.create(subject, predicate, object);
+		if (graph != null) {
+			triples.add(triple);
+		} else {
+			stream.triple(triple);
+		}
+	}
+}
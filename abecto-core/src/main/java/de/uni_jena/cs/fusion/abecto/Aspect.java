@@ -35,7 +35,6 @@ import java.util.Set;
 import java.util.function.Function;
 
 import de.uni_jena.cs.fusion.abecto.visitor.VarPathsExtractionVisitor;
-import org.apache.jena.arq.querybuilder.SelectBuilder;
 import org.apache.jena.datatypes.DatatypeFormatException;
 import org.apache.jena.query.*;
 import org.apache.jena.rdf.model.Model;
@@ -51,6 +50,7 @@ import org.slf4j.LoggerFactory;
 import com.google.common.base.Functions;
 
 import de.uni_jena.cs.fusion.abecto.util.Models;
+import de.uni_jena.cs.fusion.abecto.util.Queries;
 import de.uni_jena.cs.fusion.abecto.util.ToManyElementsException;
 import de.uni_jena.cs.fusion.abecto.util.Values;
 import de.uni_jena.cs.fusion.abecto.vocabulary.AV;
@@ -144,28 +144,29 @@ public class Aspect {
      */
     public static Optional<Map<String, Set<RDFNode>>> getResource(Aspect aspect, Resource dataset, Resource keyValue,
                                                                   Model datasetModels) throws NullPointerException {
-        Query query = SelectBuilder.rewrite(aspect.getPattern(dataset).cloneQuery(),
-                Collections.singletonMap(aspect.getKeyVariable(), keyValue.asNode()));
-        ResultSet results = QueryExecutionFactory.create(query, datasetModels).execSelect();
-        if (results.hasNext()) {
-            Map<String, Set<RDFNode>> values = new HashMap<>();
-            for (String varName : results.getResultVars()) {
-                if (!varName.equals(aspect.getKeyVariableName())) {
-                    values.put(varName, new HashSet<>());
+        try (Queries.SelectResults selectResults = Queries.execSelect(datasetModels, aspect.getPattern(dataset),
+                aspect.getKeyVariable(), keyValue.asNode())) {
+            ResultSet results = selectResults.getResultSet();
+            if (results.hasNext()) {
+                Map<String, Set<RDFNode>> values = new HashMap<>();
+                for (String varName : results.getResultVars()) {
+                    if (!varName.equals(aspect.getKeyVariableName())) {
+                        values.put(varName, new HashSet<>());
+                    }
                 }
-            }
-            while (results.hasNext()) {
-                QuerySolution result = results.next();
-                for (Entry<String, Set<RDFNode>> entry : values.entrySet()) {
-                    RDFNode value = result.get(entry.getKey());
-                    if (value != null) {
-                        entry.getValue().add(value);
+                while (results.hasNext()) {
+                    QuerySolution result = results.next();
+                    for (Entry<String, Set<RDFNode>> entry : values.entrySet()) {
+                        RDFNode value = result.get(entry.getKey());
+                        if (value != null) {
+                            entry.getValue().add(value);
+                        }
                     }
                 }
+                return Optional.of(values);
+            } else {
+                return Optional.empty();
             }
-            return Optional.of(values);
-        } else {
-            return Optional.empty();
         }
     }
 
@@ -220,14 +221,17 @@ public class Aspect {
         // remove not needed variables from query
         query = retainVariables(query, aspect.keyVariable, variables);
 
-        ResultSet results = QueryExecutionFactory.create(query, datasetModels).execSelect();
-        while (results.hasNext()) {
-            QuerySolution result = results.next();
-            Resource keyValue = result.getResource(aspect.getKeyVariableName());
-            for (String variable : variables) {
-                if (result.contains(variable)) {
-                    index.get(variable).computeIfAbsent(modifier.apply(result.get(variable)), k -> new HashSet<>())
-                            .add(keyValue);
+        try (Queries.SelectResults selectResults = Queries.execSelect(datasetModels, query)) {
+            ResultSet results = selectResults.getResultSet();
+            while (results.hasNext()) {
+                QuerySolution result = results.next();
+                Resource keyValue = result.getResource(aspect.getKeyVariableName());
+                for (String variable : variables) {
+                    if (result.contains(variable)) {
+                        index.get(variable)
+                                .computeIfAbsent(modifier.apply(result.get(variable)), k -> new HashSet<>())
+                                .add(keyValue);
+                    }
                 }
             }
         }
@@ -268,14 +272,16 @@ public class Aspect {
         // remove not needed variables from query
         query = retainVariables(query, aspect.keyVariable, variables);
 
-        ResultSet results = QueryExecutionFactory.create(query, datasetModels).execSelect();
-        while (results.hasNext()) {
-            QuerySolution result = results.next();
-            Resource keyValue = result.getResource(aspect.getKeyVariableName());
-            if (variables.stream().allMatch(result::contains)) { // skip resources with unbound variables
-                Values valueArray = new Values(
-                        variables.stream().map(result::get).toArray(RDFNode[]::new));
-                index.computeIfAbsent(valueArray, k -> new HashSet<>()).add(keyValue);
+        try (Queries.SelectResults selectResults = Queries.execSelect(datasetModels, query)) {
+            ResultSet results = selectResults.getResultSet();
+            while (results.hasNext()) {
+                QuerySolution result = results.next();
+                Resource keyValue = result.getResource(aspect.getKeyVariableName());
+                if (variables.stream().allMatch(result::contains)) { // skip resources with unbound variables
+                    Values valueArray = new Values(
+                            variables.stream().map(result::get).toArray(RDFNode[]::new));
+                    index.computeIfAbsent(valueArray, k -> new HashSet<>()).add(keyValue);
+                }
             }
         }
         return index;
@@ -293,10 +299,7 @@ public class Aspect {
 
         Query pattern = this.getPattern(dataset);
         for (Resource resource : resources) {
-            Query query = SelectBuilder.rewrite(pattern.cloneQuery(),
-                    Collections.singletonMap(this.keyVariable, resource.asNode()));
-            query.setQueryAskType();
-            if (QueryExecutionFactory.create(query, model).execAsk()) {
+            if (Queries.hasResults(model, pattern, this.keyVariable, resource.asNode())) {
                 intersection.add(resource);
             }
         }
@@ -25,6 +25,7 @@ import javax.annotation.Nullable;
 
 import org.apache.jena.arq.querybuilder.AskBuilder;
 import org.apache.jena.arq.querybuilder.SelectBuilder;
+import org.apache.jena.graph.Node;
 import org.apache.jena.graph.NodeFactory;
 import org.apache.jena.query.Query;
 import org.apache.jena.query.QueryExecutionFactory;
@@ -37,6 +38,7 @@ import org.apache.jena.vocabulary.OA;
 import org.apache.jena.vocabulary.RDF;
 import org.apache.jena.vocabulary.RDFS;
 
+import de.uni_jena.cs.fusion.abecto.graph.NodeDictionary;
 import de.uni_jena.cs.fusion.abecto.util.Models;
 import de.uni_jena.cs.fusion.abecto.vocabulary.AV;
 import de.uni_jena.cs.fusion.abecto.vocabulary.DQV;
@@ -44,12 +46,21 @@ import de.uni_jena.cs.fusion.abecto.vocabulary.SdmxAttribute;
 
 public class Metadata {
 
+	/**
+	 * Returns a string literal with a {@link Node} shared via the
+	 * {@link NodeDictionary}.
+	 */
+	private static RDFNode stringLiteral(String lexicalForm, Model model) {
+		return model.asRDFNode(NodeDictionary.stringLiteral(lexicalForm));
+	}
+
 	public static void addDeviation(Resource affectedResource, String affectedVariableName, RDFNode affectedValue,
 			Resource comparedToDataset, Resource comparedToResource, RDFNode comparedToValue, Resource affectedAspect,
 			Model outputAffectedDatasetMetaModel) {
 		Resource deviation = outputAffectedDatasetMetaModel.createResource(AV.Deviation);
 		deviation.addProperty(AV.affectedAspect, affectedAspect);
-		deviation.addLiteral(AV.affectedVariableName, affectedVariableName);
+		deviation.addProperty(AV.affectedVariableName,
+				stringLiteral(affectedVariableName, outputAffectedDatasetMetaModel));
 		deviation.addProperty(AV.affectedValue, affectedValue);
 		deviation.addProperty(AV.comparedToDataset, comparedToDataset);
 		deviation.addProperty(AV.comparedToResource, comparedToResource);
@@ -64,13 +75,14 @@ public class Metadata {
 		Resource issue = outputAffectedDatasetMetaModel.createResource(AV.Issue);
 		issue.addProperty(AV.affectedAspect, affectedAspect);
 		if (affectedVariableName != null) {
-			issue.addLiteral(AV.affectedVariableName, affectedVariableName);
+			issue.addProperty(AV.affectedVariableName,
+					stringLiteral(affectedVariableName, outputAffectedDatasetMetaModel));
 		}
 		if (affectedValue != null) {
 			issue.addProperty(AV.affectedValue, affectedValue);
 		}
-		issue.addLiteral(AV.issueType, issueType);
-		issue.addLiteral(RDFS.comment, comment);
+		issue.addProperty(AV.issueType, stringLiteral(issueType, outputAffectedDatasetMetaModel));
+		issue.addProperty(RDFS.comment, stringLiteral(comment, outputAffectedDatasetMetaModel));
 		Resource qualityAnnotation = outputAffectedDatasetMetaModel.createResource(DQV.QualityAnnotation);
 		qualityAnnotation.addProperty(OA.hasTarget, affectedResource);
 		qualityAnnotation.addProperty(OA.hasBody, issue);
@@ -102,7 +114,8 @@ public class Metadata {
 			Model outputAffectedDatasetMetaModel) {
 		Resource valuesOmission = outputAffectedDatasetMetaModel.createResource(AV.ValueOmission);
 		valuesOmission.addProperty(AV.affectedAspect, affectedAspect);
-		valuesOmission.addLiteral(AV.affectedVariableName, affectedVariableName);
+		valuesOmission.addProperty(AV.affectedVariableName,
+				stringLiteral(affectedVariableName, outputAffectedDatasetMetaModel));
 		valuesOmission.addProperty(AV.comparedToDataset, comparedToDataset);
 		valuesOmission.addProperty(AV.comparedToResource, comparedToResource);
 		valuesOmission.addProperty(AV.comparedToValue, comparedToValue);
@@ -152,7 +165,8 @@ public class Metadata {
 		qualityMeasurement.addProperty(SdmxAttribute.unitMeasure, unit);
 		qualityMeasurement.addProperty(AV.affectedAspect, affectedAspect);
 		if (affectedVariableName != null) {
-			qualityMeasurement.addLiteral(AV.affectedVariableName, affectedVariableName);
+			qualityMeasurement.addProperty(AV.affectedVariableName,
+					stringLiteral(affectedVariableName, outputAffectedDatasetMetaModel));
 		}
 		for (Resource comparedToDataset : comparedToDatasets) {
 			qualityMeasurement.addProperty(AV.comparedToDataset, comparedToDataset);
@@ -18,9 +18,14 @@
 
 package de.uni_jena.cs.fusion.abecto;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.NoSuchElementException;
 import java.util.Queue;
 import java.util.Set;
@@ -31,14 +36,51 @@ import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.RDFNode;
 import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.rdf.model.Statement;
 import org.apache.jena.vocabulary.RDF;
 
+import de.uni_jena.cs.fusion.abecto.processor.AbstractReasoningProcessor;
+import de.uni_jena.cs.fusion.abecto.processor.FileSourceProcessor;
+import de.uni_jena.cs.fusion.abecto.processor.FunctionalMappingProcessor;
+import de.uni_jena.cs.fusion.abecto.processor.MappingProcessor;
+import de.uni_jena.cs.fusion.abecto.processor.PopulationComparisonProcessor;
+import de.uni_jena.cs.fusion.abecto.processor.PropertyComparisonProcessor;
+import de.uni_jena.cs.fusion.abecto.processor.SparqlConstructProcessor;
+import de.uni_jena.cs.fusion.abecto.processor.SparqlSourceProcessor;
+import de.uni_jena.cs.fusion.abecto.processor.TransitiveClosureProcessor;
+import de.uni_jena.cs.fusion.abecto.processor.UrlSourceProcessor;
+import de.uni_jena.cs.fusion.abecto.processor.UsePresentMappingProcessor;
+import de.uni_jena.cs.fusion.abecto.processor.VirtualSparqlSourceProcessor;
 import de.uni_jena.cs.fusion.abecto.util.Models;
 import de.uni_jena.cs.fusion.abecto.util.ToManyElementsException;
 import de.uni_jena.cs.fusion.abecto.vocabulary.AV;
 import de.uni_jena.cs.fusion.abecto.vocabulary.PPlan;
 
 public class Plans {
+
+	/**
+	 * The results the processors of a class and its subclasses might produce,
+	 * identified by their types or, for correspondences, by
+	 * {@link AV#correspondsToResource}. Processors of other classes might produce
+	 * any result. The first matching class applies.
+	 */
+	private static final Map<Class<?>, Set<Resource>> RESULTS_BY_PROCESSOR_CLASS = new LinkedHashMap<>();
+	static {
+		RESULTS_BY_PROCESSOR_CLASS.put(PropertyComparisonProcessor.class,
+				Set.of(AV.Deviation, AV.ValueOmission, AV.QualityMeasurement));
+		RESULTS_BY_PROCESSOR_CLASS.put(PopulationComparisonProcessor.class,
+				Set.of(AV.ResourceOmission, AV.ResourceDuplicate, AV.QualityMeasurement));
+		RESULTS_BY_PROCESSOR_CLASS.put(FunctionalMappingProcessor.class, Set.of(AV.correspondsToResource, AV.Issue));
+		RESULTS_BY_PROCESSOR_CLASS.put(UsePresentMappingProcessor.class, Set.of(AV.correspondsToResource, AV.Issue));
+		RESULTS_BY_PROCESSOR_CLASS.put(MappingProcessor.class, Set.of(AV.correspondsToResource));
+		for (Class<?> processorClass : List.of(AbstractReasoningProcessor.class, FileSourceProcessor.class,
+				SparqlConstructProcessor.class, SparqlSourceProcessor.class, TransitiveClosureProcessor.class,
+				UrlSourceProcessor.class, VirtualSparqlSourceProcessor.class)) {
+			// primary data only
+			RESULTS_BY_PROCESSOR_CLASS.put(processorClass, Collections.emptySet());
+		}
+	}
+
 	static Resource getPlan(Model configurationModel, @Nullable String planIri) {
 		if (planIri != null) {
 			Resource plan = ResourceFactory.createResource(planIri);
@@ -82,4 +124,115 @@ public class Plans {
 		}
 		return stepPredecessors;
 	}
+
+	/**
+	 * Returns the steps that might affect the results about a dataset. These are
+	 * the steps that are associated with the dataset or not associated with any
+	 * dataset, and all their predecessors. Steps associated with other datasets
+	 * only affect the results about the dataset via succeeding steps.
+	 * 
+	 * @param configurationModel the configuration model describing the plan
+	 * @param stepPredecessors   the transitive predecessors of the steps of the
+	 *                           plan
+	 * @param dataset            the dataset to get the affecting steps for
+	 * @return the steps affecting the results about the dataset
+	 */
+	/**
+	 * Returns the steps needed to provide the given results, optionally limited to
+	 * the results about a dataset. These are the steps that might produce any of
+	 * the results, and all their predecessors. If a dataset is given, steps
+	 * associated only with other datasets and steps using only aspects without a
+	 * pattern for the dataset are not needed, unless they precede a needed step.
+	 * 
+	 * @param configurationModel the configuration model describing the plan
+	 * @param stepPredecessors   the transitive predecessors of the steps of the
+	 *                           plan
+	 * @param results            the needed results, identified by their types or,
+	 *                           for correspondences, by
+	 *                           {@link AV#correspondsToResource}
+	 * @param dataset            the dataset to limit the needed results to or
+	 *                           {@code null}
+	 * @return the steps needed to provide the results
+	 */
+	static Set<Resource> getStepsProviding(Model configurationModel, Map<Resource, Set<Resource>> stepPredecessors,
+			Set<Resource> results, @Nullable Resource dataset) {
+		Set<Resource> providingSteps = new HashSet<>();
+		for (Resource step : stepPredecessors.keySet()) {
+			if (!providingSteps.contains(step) && mightProduceAny(configurationModel, step, results)
+					&& (dataset == null || isAffecting(configurationModel, step, dataset)
+							&& hasAspectPatternFor(configurationModel, step, dataset))) {
+				providingSteps.add(step);
+				providingSteps.addAll(stepPredecessors.get(step));
+			}
+		}
+		return providingSteps;
+	}
+
+	/**
+	 * Returns whether the processor of a step might produce any of the given
+	 * results.
+	 */
+	private static boolean mightProduceAny(Model configurationModel, Resource step, Set<Resource> results) {
+		Class<?> processorClass;
+		try {
+			String classUri = Models.assertOne(configurationModel.listObjectsOfProperty(step, AV.processorClass))
+					.asResource().getURI();
+			processorClass = Class.forName(classUri.substring(5));
+		} catch (Exception e) {
+			// fail on step initialization
+			return true;
+		}
+		for (Entry<Class<?>, Set<Resource>> entry : RESULTS_BY_PROCESSOR_CLASS.entrySet()) {
+			if (entry.getKey().isAssignableFrom(processorClass)) {
+				return !Collections.disjoint(entry.getValue(), results);
+			}
+		}
+		return !results.isEmpty();
+	}
+
+	/**
+	 * Returns whether a step does not use aspects or uses an aspect with a
+	 * pattern for the given dataset. The aspects used by a step are the values of
+	 * its {@code aspect} and {@code aspects} parameters.
+	 */
+	private static boolean hasAspectPatternFor(Model configurationModel, Resource step, Resource dataset) {
+		Set<Resource> aspects = new HashSet<>();
+		configurationModel.listObjectsOfProperty(step, AV.hasParameter).filterKeep(RDFNode::isResource)
+				.mapWith(RDFNode::asResource)
+				.filterKeep(parameter -> parameter.hasLiteral(AV.key, "aspect")
+						|| parameter.hasLiteral(AV.key, "aspects"))
+				.forEachRemaining(parameter -> parameter.listProperties(AV.value).mapWith(Statement::getObject)
+						.filterKeep(RDFNode::isResource).mapWith(RDFNode::asResource).forEachRemaining(aspects::add));
+		if (aspects.isEmpty()) {
+			return true;
+		}
+		for (Resource aspect : aspects) {
+			if (configurationModel.listResourcesWithProperty(AV.ofAspect, aspect)
+					.filterKeep(pattern -> pattern.hasProperty(AV.associatedDataset, dataset)).hasNext()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	static Set<Resource> getStepsAffecting(Model configurationModel, Map<Resource, Set<Resource>> stepPredecessors,
+			Resource dataset) {
+		Set<Resource> affectingSteps = new HashSet<>();
+		for (Resource step : stepPredecessors.keySet()) {
+			if (isAffecting(configurationModel, step, dataset)) {
+				affectingSteps.add(step);
+				affectingSteps.addAll(stepPredecessors.get(step));
+			}
+		}
+		return affectingSteps;
+	}
+
+	/**
+	 * Returns whether a step is associated with the given dataset or not
+	 * associated with any dataset.
+	 */
+	private static boolean isAffecting(Model configurationModel, Resource step, Resource dataset) {
+		Set<RDFNode> associatedDatasets = configurationModel.listObjectsOfProperty(step, AV.associatedDataset).toSet();
+		return associatedDatasets.isEmpty() || associatedDatasets.contains(dataset);
+	}
 }
@@ -0,0 +1,391 @@
+/*-
+ * Copyright © 2019-2022 Heinz Nixdorf Chair for Distributed Information Systems,
+ *                       Friedrich Schiller University Jena (http://www.fusion.uni-jena.de/)
+ * Copyright © 2023-2024 Jan Martin Keil (jan-martin.keil@uni-jena.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+-*/
+
+package de.uni_jena.cs.fusion.abecto;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
+
+import org.apache.jena.datatypes.xsd.impl.RDFLangString;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.rdf.model.Literal;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.sparql.expr.nodevalue.NodeFunctions;
+import org.apache.jena.vocabulary.OA;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+
+import de.uni_jena.cs.fusion.abecto.util.QueryResultSequence;
+import de.uni_jena.cs.fusion.abecto.vocabulary.AV;
+import de.uni_jena.cs.fusion.abecto.vocabulary.DQV;
+import de.uni_jena.cs.fusion.abecto.vocabulary.PPlan;
+import de.uni_jena.cs.fusion.abecto.vocabulary.PROV;
+
+/**
+ * Provides the quality annotations of a result dataset flattened into rows,
+ * collected by a single pass over the named graphs. This enables to generate
+ * reports and to check for issues without joins over the whole result dataset.
+ */
+public class ReportingIndex {
+
+	record Deviation(Resource affectedGraph, Resource affectedResource, Resource affectedAspect,
+			String affectedVariableName, RDFNode affectedValue, Resource comparedToDataset,
+			Resource comparedToResource, RDFNode comparedToValue) {
+	}
+
+	record ResourceOmission(Resource missedInDataset, Resource affectedAspect, Resource foundInDataset,
+			Resource missingResource) {
+	}
+
+	private final Dataset dataset;
+	private final Set<Resource> annotationTypes = new HashSet<>();
+	private final List<Deviation> deviations = new ArrayList<>();
+	private final List<ResourceOmission> resourceOmissions = new ArrayList<>();
+
+	private ReportingIndex(Dataset dataset) {
+		this.dataset = dataset;
+	}
+
+	/**
+	 * Creates an index of the quality annotations contained in the named graphs of
+	 * the given dataset. The default graph of the dataset is expected to contain
+	 * the plan and the descriptions of the named graphs.
+	 * 
+	 * @param dataset the dataset to index
+	 * @return the index
+	 */
+	public static ReportingIndex of(Dataset dataset) {
+		ReportingIndex index = new ReportingIndex(dataset);
+		Model configurationModel = dataset.getDefaultModel();
+		dataset.listModelNames().forEachRemaining(graphName -> {
+			Model model = dataset.getNamedModel(graphName);
+			Collection<Resource> associatedDatasets = configurationModel
+					.listObjectsOfProperty(graphName, AV.associatedDataset).filterKeep(RDFNode::isResource)
+					.mapWith(RDFNode::asResource).toList();
+			model.listStatements(null, OA.hasBody, (RDFNode) null).forEachRemaining(hasBody -> {
+				Resource annotation = hasBody.getSubject();
+				if (!hasBody.getObject().isResource() || !annotation.hasProperty(RDF.type, DQV.QualityAnnotation)) {
+					return;
+				}
+				Resource body = hasBody.getResource();
+				@Nullable
+				Resource target = resource(annotation.getProperty(OA.hasTarget));
+				body.listProperties(RDF.type).forEachRemaining(type -> {
+					if (!type.getObject().isResource()) {
+						return;
+					}
+					index.annotationTypes.add(type.getResource());
+					if (type.getResource().equals(AV.Deviation)) {
+						Resource aspect = resource(body.getProperty(AV.affectedAspect));
+						RDFNode variableName = object(body.getProperty(AV.affectedVariableName));
+						RDFNode affectedValue = object(body.getProperty(AV.affectedValue));
+						Resource comparedToDataset = resource(body.getProperty(AV.comparedToDataset));
+						Resource comparedToResource = resource(body.getProperty(AV.comparedToResource));
+						RDFNode comparedToValue = object(body.getProperty(AV.comparedToValue));
+						if (target != null && aspect != null && variableName != null && variableName.isLiteral()
+								&& affectedValue != null && comparedToDataset != null && comparedToResource != null
+								&& comparedToValue != null) {
+							for (Resource associatedDataset : associatedDatasets) {
+								index.deviations.add(new Deviation(associatedDataset, target, aspect,
+										variableName.asLiteral().getString(), affectedValue, comparedToDataset,
+										comparedToResource, comparedToValue));
+							}
+						}
+					} else if (type.getResource().equals(AV.ResourceOmission)) {
+						Resource aspect = resource(body.getProperty(AV.affectedAspect));
+						Resource comparedToDataset = resource(body.getProperty(AV.comparedToDataset));
+						Resource comparedToResource = resource(body.getProperty(AV.comparedToResource));
+						if (target != null && aspect != null && comparedToDataset != null
+								&& comparedToResource != null) {
+							index.resourceOmissions
+									.add(new ResourceOmission(target, aspect, comparedToDataset, comparedToResource));
+						}
+					}
+				});
+			});
+		});
+		return index;
+	}
+
+	private static @Nullable RDFNode object(@Nullable Statement statement) {
+		return (statement != null) ? statement.getObject() : null;
+	}
+
+	private static @Nullable Resource resource(@Nullable Statement statement) {
+		return (statement != null && statement.getObject().isResource()) ? statement.getResource() : null;
+	}
+
+	/**
+	 * Checks if the indexed dataset contains a quality annotation with a body of
+	 * the given type.
+	 * 
+	 * @param type the type of the quality annotation body
+	 * @return {@code true}, if the dataset contains such a quality annotation,
+	 *         otherwise {@code false}
+	 */
+	public boolean containsAnnotation(Resource type) {
+		return annotationTypes.contains(type);
+	}
+
+	/**
+	 * Returns the deviations in the format of the {@code deviations} report. The
+	 * rows are generated on iteration from the indexed deviations, which are
+	 * sorted only once.
+	 * 
+	 * @return the deviation rows ordered by aspect, affected dataset, affected
+	 *         resource and affected variable name
+	 */
+	public Iterable<Map<String, String>> getDeviationRows() {
+		Model configurationModel = dataset.getDefaultModel();
+		Map<Resource, List<String>> aspectNames = new HashMap<>();
+		List<DeviationRowKey> keys = new ArrayList<>();
+		for (Deviation deviation : deviations) {
+			String affectedGraph = QueryResultSequence.format(deviation.affectedGraph);
+			String affectedResource = QueryResultSequence.format(deviation.affectedResource);
+			for (String aspectName : aspectNames.computeIfAbsent(deviation.affectedAspect,
+					aspect -> aspectNames(aspect, configurationModel))) {
+				keys.add(new DeviationRowKey(aspectName, affectedGraph, affectedResource, deviation));
+			}
+		}
+		keys.sort(Comparator.comparing(DeviationRowKey::aspect)
+				.thenComparing(DeviationRowKey::affectedGraph)
+				.thenComparing(DeviationRowKey::affectedResource)
+				.thenComparing(key -> key.deviation.affectedVariableName));
+		return () -> new DeviationRowIterator(keys.iterator(), mappingStepLabelsByGraph());
+	}
+
+	private record DeviationRowKey(String aspect, String affectedGraph, String affectedResource,
+			Deviation deviation) {
+
+		boolean sameSortKey(DeviationRowKey other) {
+			return aspect.equals(other.aspect) && affectedGraph.equals(other.affectedGraph)
+					&& affectedResource.equals(other.affectedResource)
+					&& deviation.affectedVariableName.equals(other.deviation.affectedVariableName);
+		}
+	}
+
+	/**
+	 * Generates the rows of sorted deviations. As equal rows have equal sort keys,
+	 * duplicates are only tracked for the current sort key.
+	 */
+	private class DeviationRowIterator implements Iterator<Map<String, String>> {
+
+		private final Iterator<DeviationRowKey> keys;
+		private final Map<Resource, List<String>> mappingStepLabelsByGraph;
+		private final Set<Map<String, String>> groupRows = new HashSet<>();
+		private final Deque<Map<String, String>> pending = new ArrayDeque<>();
+		private DeviationRowKey groupKey;
+
+		DeviationRowIterator(Iterator<DeviationRowKey> keys, Map<Resource, List<String>> mappingStepLabelsByGraph) {
+			this.keys = keys;
+			this.mappingStepLabelsByGraph = mappingStepLabelsByGraph;
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (pending.isEmpty() && keys.hasNext()) {
+				DeviationRowKey key = keys.next();
+				if (groupKey == null || !groupKey.sameSortKey(key)) {
+					groupKey = key;
+					groupRows.clear();
+				}
+				for (Map<String, String> row : rows(key)) {
+					if (groupRows.add(row)) {
+						pending.add(row);
+					}
+				}
+			}
+			return !pending.isEmpty();
+		}
+
+		@Override
+		public Map<String, String> next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return pending.remove();
+		}
+
+		private List<Map<String, String>> rows(DeviationRowKey key) {
+			Deviation deviation = key.deviation;
+			List<String> mappedBy = new ArrayList<>();
+			mappingStepLabelsByGraph.forEach((graphName, labels) -> {
+				Model mappingModel = dataset.getNamedModel(graphName);
+				if (mappingModel.contains(deviation.affectedResource, AV.correspondsToResource,
+						deviation.comparedToResource)
+						|| mappingModel.contains(deviation.comparedToResource, AV.correspondsToResource,
+								deviation.affectedResource)) {
+					mappedBy.addAll(labels);
+				}
+			});
+			if (mappedBy.isEmpty()) {
+				mappedBy.add(null);
+			}
+			List<Map<String, String>> rows = new ArrayList<>(mappedBy.size());
+			for (String mappingStepLabel : mappedBy) {
+				Map<String, String> row = new HashMap<>();
+				put(row, "aspect", key.aspect);
+				put(row, "affectedGraph", key.affectedGraph);
+				put(row, "affectedResource", key.affectedResource);
+				put(row, "affectedVariableName", deviation.affectedVariableName);
+				put(row, "affectedValue", QueryResultSequence.format(deviation.affectedValue));
+				put(row, "comparedToValue", QueryResultSequence.format(deviation.comparedToValue));
+				put(row, "comparedToResource", QueryResultSequence.format(deviation.comparedToResource));
+				put(row, "comparedToDataset", QueryResultSequence.format(deviation.comparedToDataset));
+				put(row, "mappedBy", mappingStepLabel);
+				put(row, "snippetToAnnotateValueComparedToAsWrong", wrongValueSnippet(deviation));
+				rows.add(row);
+			}
+			return rows;
+		}
+	}
+
+	/**
+	 * Returns the resource omissions in the format of the
+	 * {@code resourceOmissions} report.
+	 * 
+	 * @return the resource omission rows ordered by the dataset missing the
+	 *         resource, the dataset containing the resource, aspect and missing
+	 *         resource
+	 */
+	public List<Map<String, String>> getResourceOmissionRows() {
+		Model configurationModel = dataset.getDefaultModel();
+		Map<Resource, List<String>> aspectNames = new HashMap<>();
+		Map<Resource, List<Resource>> primaryDataGraphsByDataset = new HashMap<>();
+		Map<Map<String, String>, List<String>> labelsByRow = new LinkedHashMap<>();
+		for (ResourceOmission omission : resourceOmissions) {
+			List<String> labels = new ArrayList<>();
+			for (Resource graphName : primaryDataGraphsByDataset.computeIfAbsent(omission.foundInDataset,
+					foundInDataset -> configurationModel.listSubjectsWithProperty(AV.associatedDataset, foundInDataset)
+							.filterKeep(graph -> configurationModel.contains(graph, RDF.type, AV.PrimaryDataGraph))
+							.toList())) {
+				dataset.getNamedModel(graphName).listObjectsOfProperty(omission.missingResource, RDFS.label)
+						.forEachRemaining(label -> labels.add(QueryResultSequence.format(label)));
+			}
+			for (String aspectName : aspectNames.computeIfAbsent(omission.affectedAspect,
+					aspect -> aspectNames(aspect, configurationModel))) {
+				Map<String, String> row = new HashMap<>();
+				put(row, "aspect", aspectName);
+				put(row, "missedInDataset", QueryResultSequence.format(omission.missedInDataset));
+				put(row, "missingResource", QueryResultSequence.format(omission.missingResource));
+				put(row, "foundInDataset", QueryResultSequence.format(omission.foundInDataset));
+				labelsByRow.computeIfAbsent(row, r -> new ArrayList<>()).addAll(labels);
+			}
+		}
+		labelsByRow.forEach((row, labels) -> row.put("missingResourceLabelConcat", String.join(", ", labels)));
+		return sorted(labelsByRow.keySet(), "missedInDataset", "foundInDataset", "aspect", "missingResource");
+	}
+
+	/**
+	 * Returns the labels of the steps that generated named graphs containing
+	 * correspondences by the named graphs.
+	 */
+	private Map<Resource, List<String>> mappingStepLabelsByGraph() {
+		Model configurationModel = dataset.getDefaultModel();
+		Map<Resource, List<String>> mappingStepLabelsByGraph = new HashMap<>();
+		dataset.listModelNames().forEachRemaining(graphName -> {
+			List<String> labels = new ArrayList<>();
+			configurationModel.listObjectsOfProperty(graphName, PROV.wasGeneratedBy).filterKeep(RDFNode::isResource)
+					.forEachRemaining(stepExecution -> configurationModel
+							.listObjectsOfProperty(stepExecution.asResource(), PPlan.correspondsToStep)
+							.filterKeep(RDFNode::isResource)
+							.forEachRemaining(step -> configurationModel
+									.listObjectsOfProperty(step.asResource(), RDFS.label)
+									.forEachRemaining(label -> labels.add(QueryResultSequence.format(label)))));
+			if (!labels.isEmpty() && dataset.getNamedModel(graphName).contains(null, AV.correspondsToResource)) {
+				mappingStepLabelsByGraph.put(graphName, labels);
+			}
+		});
+		return mappingStepLabelsByGraph;
+	}
+
+	/**
+	 * Returns the labels of an aspect or, if no label is present, the key variable
+	 * names of the aspect.
+	 */
+	private static List<String> aspectNames(Resource aspect, Model configurationModel) {
+		List<String> keyVariableNames = configurationModel.listObjectsOfProperty(aspect, AV.keyVariableName)
+				.mapWith(QueryResultSequence::format).toList();
+		if (keyVariableNames.isEmpty()) {
+			return keyVariableNames;
+		}
+		List<String> labels = configurationModel.listObjectsOfProperty(aspect, RDFS.label)
+				.mapWith(QueryResultSequence::format).toList();
+		return labels.isEmpty() ? keyVariableNames : labels;
+	}
+
+	/**
+	 * Returns a snippet to annotate the value compared to as wrong value, or
+	 * {@code null}, if the value compared to is not a literal. Blank nodes are
+	 * represented by their labels, as by the SPARQL function {@code STR}.
+	 */
+	private static @Nullable String wrongValueSnippet(Deviation deviation) {
+		if (!deviation.comparedToValue.isLiteral()) {
+			return null;
+		}
+		Literal value = deviation.comparedToValue.asLiteral();
+		return "[ rdf:type dqv:QualityAnnotation ; oa:hasBody [ rdf:type av:WrongValue ; av:affectedAspect "
+				+ (deviation.affectedAspect.isAnon() ? str(deviation.affectedAspect)
+						: "<" + str(deviation.affectedAspect) + ">")
+				+ " ; av:affectedVariableName \"" + deviation.affectedVariableName + "\" ; av:affectedValue \""
+				+ value.getLexicalForm() + "\""
+				+ (value.getDatatype() instanceof RDFLangString ? "@" + value.getLanguage()
+						: "^^<" + value.getDatatypeURI() + ">")
+				+ " ; ] ; oa:hasTarget <" + str(deviation.comparedToResource) + "> ] .";
+	}
+
+	/**
+	 * Returns the string of a resource like the SPARQL function {@code STR}.
+	 */
+	private static String str(Resource resource) {
+		return NodeFunctions.str(resource.asNode());
+	}
+
+	private static void put(Map<String, String> row, String key, @Nullable String value) {
+		if (value != null) {
+			row.put(key, value);
+		}
+	}
+
+	private static List<Map<String, String>> sorted(Collection<Map<String, String>> rows, String... keys) {
+		Comparator<Map<String, String>> comparator = null;
+		for (String key : keys) {
+			Comparator<Map<String, String>> keyComparator = Comparator.comparing(row -> row.get(key),
+					Comparator.nullsFirst(Comparator.naturalOrder()));
+			comparator = (comparator == null) ? keyComparator : comparator.thenComparing(keyComparator);
+		}
+		return rows.stream().sorted(comparator).collect(Collectors.toList());
+	}
+}
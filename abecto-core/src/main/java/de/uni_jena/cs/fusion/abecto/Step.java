@@ -19,6 +19,7 @@
 package de.uni_jena.cs.fusion.abecto;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.GregorianCalendar;
@@ -26,10 +27,13 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.function.Predicate;
 
 import org.apache.jena.query.Dataset;
 import org.apache.jena.rdf.model.Literal;
 import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelChangedListener;
 import org.apache.jena.rdf.model.NodeIterator;
 import org.apache.jena.rdf.model.RDFNode;
 import org.apache.jena.rdf.model.Resource;
@@ -43,6 +47,7 @@ import org.slf4j.LoggerFactory;
 import de.uni_jena.cs.fusion.abecto.processor.MappingProcessor;
 import de.uni_jena.cs.fusion.abecto.processor.Processor;
 import de.uni_jena.cs.fusion.abecto.util.Models;
+import de.uni_jena.cs.fusion.abecto.util.QueryResultCache;
 import de.uni_jena.cs.fusion.abecto.vocabulary.AV;
 import de.uni_jena.cs.fusion.abecto.vocabulary.PPlan;
 import de.uni_jena.cs.fusion.abecto.vocabulary.PROV;
@@ -145,6 +150,7 @@ public class Step implements Runnable {
 	 */
 	@Override
 	public void run() {
+		stopIfRequested();
 		configurationModel.enterCriticalSection(Lock.WRITE);
 		try {
 			// write provenance data to configuration model
@@ -190,6 +196,10 @@ public class Step implements Runnable {
 				.map(RDFNode::asLiteral).map(Literal::getString);
 		logger.info(String.format("Execution of Step \"%s\" started.", stepLabel.orElse(stepIri.toString())));
 		processor.run();
+		stopIfRequested();
+		// provide output primary data in a compact form for the read-only use by
+		// succeeding steps
+		processor.freezeOutputPrimaryModel();
 		logger.info(String.format("Execution of Step \"%s\" completed.", stepLabel.orElse(stepIri.toString())));
 
 		configurationModel.enterCriticalSection(Lock.WRITE);
@@ -202,7 +212,10 @@ public class Step implements Runnable {
 					Resource outputModelIri = configurationModel.createResource(AV.PrimaryDataGraph);
 					outputModelIri.addProperty(PROV.wasGeneratedBy, stepExecutionIri);
 					outputModelIri.addProperty(AV.associatedDataset, datasetIri);
-					dataset.addNamedModel(outputModelIri, outputModel.get());
+					// data of remote models stays remote to avoid its download
+					if (!Models.isRemote(outputModel.get())) {
+						dataset.addNamedModel(outputModelIri, outputModel.get());
+					}
 				}
 			});
 			// set metadata for output meta model of input dataset
@@ -230,6 +243,67 @@ public class Step implements Runnable {
 		}
 	}
 
+	/**
+	 * Sets the directory to store the output primary data of this {@link Step} on
+	 * disk. If not set, the output primary data will be kept in memory.
+	 * 
+	 * @param primaryDataDirectory the directory to store primary data in
+	 */
+	public void setPrimaryDataDirectory(File primaryDataDirectory) {
+		processor.setPrimaryDataDirectory(primaryDataDirectory);
+	}
+
+	/**
+	 * Deletes the output primary data of this {@link Step} stored on disk, if any.
+	 * <p>
+	 * <strong>Note:</strong> Must only be called after the output primary data is
+	 * not used anymore.
+	 * 
+	 * @throws IOException if the stored data could not be deleted
+	 */
+	public void deletePrimaryData() throws IOException {
+		processor.deletePrimaryDataStore();
+	}
+
+	/**
+	 * Sets the cache for results of queries to remote services used by this
+	 * {@link Step}.
+	 * 
+	 * @param queryResultCache the cache to use
+	 */
+	public void setQueryResultCache(QueryResultCache queryResultCache) {
+		processor.setQueryResultCache(queryResultCache);
+	}
+
+	/**
+	 * Sets a listener to get notified about changes of the output metamodels of
+	 * the given datasets during the execution of this {@link Step}.
+	 * 
+	 * @param listener the listener to notify
+	 * @param datasets the datasets of the output metamodels to observe
+	 * 
+	 * @see Processor#setOutputMetaModelListener(ModelChangedListener, Predicate)
+	 */
+	public void setOutputMetaModelListener(ModelChangedListener listener, Predicate<Resource> datasets) {
+		processor.setOutputMetaModelListener(listener, datasets);
+	}
+
+	private void stopIfRequested() {
+		if (processor.isStopRequested()) {
+			throw new CancellationException(String.format("Execution of Step \"%s\" stopped.", stepIri));
+		}
+	}
+
+	/**
+	 * Requests the execution of this {@link Step} to stop as soon as possible.
+	 * A {@link Step} not started yet will not execute its processor.
+	 * 
+	 * @see Processor#requestStop()
+	 */
+	public void requestStop() {
+		processor.requestStop();
+	}
+
 	public Resource getStepExecution() {
 		return stepExecutionIri;
 	}
@@ -0,0 +1,85 @@
+/*-
+ * Copyright © 2019-2022 Heinz Nixdorf Chair for Distributed Information Systems,
+ *                       Friedrich Schiller University Jena (http://www.fusion.uni-jena.de/)
+ * Copyright © 2023-2024 Jan Martin Keil (jan-martin.keil@uni-jena.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+-*/
+
+package de.uni_jena.cs.fusion.abecto.graph;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.DatasetGraphMapLink;
+import org.apache.jena.sparql.core.Quad;
+
+/**
+ * A {@link DatasetGraph} that provides the default graph and the named graphs of
+ * a base {@link DatasetGraph} whose names match a filter, without copying them.
+ * The filter gets evaluated lazily once for each graph name. Further named
+ * graphs can be added to this {@link DatasetGraph} without modifying the base
+ * {@link DatasetGraph}.
+ */
+public class FilteredDatasetGraph extends DatasetGraphMapLink {
+
+	private final DatasetGraph base;
+	private final Predicate<Node> graphNameFilter;
+	private final Map<Node, Boolean> visibility = new ConcurrentHashMap<>();
+
+	/**
+	 * @param base            the {@link DatasetGraph} providing the graphs
+	 * @param graphNameFilter the filter of the names of the graphs to provide
+	 */
+	public FilteredDatasetGraph(DatasetGraph base, Predicate<Node> graphNameFilter) {
+		super(base.getDefaultGraph());
+		this.base = base;
+		this.graphNameFilter = graphNameFilter;
+	}
+
+	private boolean isVisible(Node graphName) {
+		return visibility.computeIfAbsent(graphName, g -> base.containsGraph(g) && graphNameFilter.test(g));
+	}
+
+	private boolean isAdded(Node graphName) {
+		return super.containsGraph(graphName);
+	}
+
+	@Override
+	public boolean containsGraph(Node graphName) {
+		return isAdded(graphName) || isVisible(graphName);
+	}
+
+	@Override
+	public Graph getGraph(Node graphName) {
+		if (Quad.isUnionGraph(graphName) || Quad.isDefaultGraph(graphName) || isAdded(graphName)) {
+			return super.getGraph(graphName);
+		} else if (isVisible(graphName)) {
+			return base.getGraph(graphName);
+		}
+		// avoid creation of missing graphs
+		return Graph.emptyGraph;
+	}
+
+	@Override
+	public Iterator<Node> listGraphNodes() {
+		return Iter.concat(super.listGraphNodes(),
+				Iter.filter(base.listGraphNodes(), graphName -> !isAdded(graphName) && isVisible(graphName)));
+	}
+}
@@ -0,0 +1,323 @@
+/*-
+ * Copyright © 2019-2022 Heinz Nixdorf Chair for Distributed Information Systems,
+ *                       Friedrich Schiller University Jena (http://www.fusion.uni-jena.de/)
+ * Copyright © 2023-2024 Jan Martin Keil (jan-martin.keil@uni-jena.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+-*/
+
+package de.uni_jena.cs.fusion.abecto.graph;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.graph.impl.GraphBase;
+import org.apache.jena.shared.PrefixMapping;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.apache.jena.util.iterator.NiceIterator;
+
+/**
+ * Provides a compact read-only {@link Graph}. The nodes are dictionary-encoded
+ * into {@code int} ids and the triples are stored in three sorted arrays in the
+ * orders subject-predicate-object, predicate-object-subject and
+ * object-subject-predicate. Triple patterns are answered by binary search on
+ * the array with a matching order.
+ * <p>
+ * As the graph is immutable after creation, it is safe for concurrent reads
+ * without locking. Attempts to modify the graph will fail. The {@link Node
+ * Nodes} are shared with other graphs using the {@link NodeDictionary}.
+ */
+public class FrozenGraph extends GraphBase {
+
+	private final static int S = 0, P = 1, O = 2;
+
+	/**
+	 * The nodes of the graph, indexed by their id.
+	 */
+	private final Node[] nodes;
+	/**
+	 * Open addressing hash table of node ids incremented by one. Zero indicates an
+	 * empty slot.
+	 */
+	private final int[] nodeIdTable;
+	private final Index spo, pos, osp;
+	private final int size;
+
+	private FrozenGraph(Node[] nodes, int[] nodeIdTable, int[] triples, int size, PrefixMapping prefixMapping) {
+		this.nodes = nodes;
+		this.nodeIdTable = nodeIdTable;
+		this.size = size;
+		this.spo = new Index(triples, size, nodes.length, S, P, O);
+		this.pos = new Index(triples, size, nodes.length, P, O, S);
+		this.osp = new Index(triples, size, nodes.length, O, S, P);
+		// initialize eagerly to avoid races on concurrent reads
+		this.getPrefixMapping().setNsPrefixes(prefixMapping).lock();
+	}
+
+	/**
+	 * Returns a {@link FrozenGraph} containing the triples and prefixes of the
+	 * given {@link Graph}.
+	 * 
+	 * @param graph the graph to copy
+	 * @return the frozen copy of the graph
+	 */
+	public static FrozenGraph freeze(Graph graph) {
+		Builder builder = new Builder();
+		graph.find().mapWith(NodeDictionary::intern).forEachRemaining(builder::add);
+		return builder.build(graph.getPrefixMapping());
+	}
+
+	@Override
+	protected ExtendedIterator<Triple> graphBaseFind(Triple triplePattern) {
+		Node s = triplePattern.getSubject(), p = triplePattern.getPredicate(), o = triplePattern.getObject();
+		int sId = -1, pId = -1, oId = -1;
+		if (s.isConcrete() && (sId = idOf(s)) < 0 || p.isConcrete() && (pId = idOf(p)) < 0
+				|| o.isConcrete() && (oId = idOf(o)) < 0) {
+			// contains unknown node
+			return NiceIterator.emptyIterator();
+		}
+		if (sId >= 0) {
+			if (pId >= 0) {
+				return oId >= 0 ? spo.find(sId, pId, oId) : spo.find(sId, pId);
+			}
+			return oId >= 0 ? osp.find(oId, sId) : spo.find(sId);
+		}
+		if (pId >= 0) {
+			return oId >= 0 ? pos.find(pId, oId) : pos.find(pId);
+		}
+		return oId >= 0 ? osp.find(oId) : spo.find();
+	}
+
+	@Override
+	protected boolean graphBaseContains(Triple triple) {
+		if (triple.isConcrete()) {
+			int sId = idOf(triple.getSubject()), pId = idOf(triple.getPredicate()), oId = idOf(triple.getObject());
+			return sId >= 0 && pId >= 0 && oId >= 0 && spo.contains(sId, pId, oId);
+		}
+		return containsByFind(triple);
+	}
+
+	@Override
+	protected int graphBaseSize() {
+		return size;
+	}
+
+	/**
+	 * Returns the distinct predicates of this graph.
+	 * 
+	 * @return the predicates
+	 */
+	public Set<Node> predicates() {
+		Set<Node> predicates = new HashSet<>();
+		for (int record = 0; record < size; record = pos.bound(new int[] { pos.records[record * 3] }, true)) {
+			predicates.add(nodes[pos.records[record * 3]]);
+		}
+		return predicates;
+	}
+
+	private int idOf(Node node) {
+		int mask = nodeIdTable.length - 1;
+		for (int slot = node.hashCode() & mask;; slot = (slot + 1) & mask) {
+			int idPlusOne = nodeIdTable[slot];
+			if (idPlusOne == 0) {
+				return -1;
+			}
+			if (nodes[idPlusOne - 1].equals(node)) {
+				return idPlusOne - 1;
+			}
+		}
+	}
+
+	/**
+	 * Triples stored as records of three node ids in a specific order, sorted in
+	 * that order.
+	 */
+	private class Index {
+		private final int[] records;
+		private final int size;
+		/**
+		 * The position of the subject, predicate and object in the records.
+		 */
+		private final int sPos, pPos, oPos;
+
+		/**
+		 * @param triples   the triples as records in subject-predicate-object order
+		 * @param size      the number of triples
+		 * @param nodeCount the number of distinct nodes
+		 * @param first     the triple position to sort by first
+		 * @param second    the triple position to sort by second
+		 * @param third     the triple position to sort by third
+		 */
+		Index(int[] triples, int size, int nodeCount, int first, int second, int third) {
+			this.size = size;
+			this.records = new int[size * 3];
+			int[] order = { first, second, third };
+			for (int i = 0; i < size; i++) {
+				for (int j = 0; j < 3; j++) {
+					records[i * 3 + j] = triples[i * 3 + order[j]];
+				}
+			}
+			// least significant digit radix sort with node ids as digits
+			int[] buffer = new int[size * 3];
+			int[] counts = new int[nodeCount + 1];
+			int[] source = records, target = buffer;
+			for (int j = 2; j >= 0; j--) {
+				Arrays.fill(counts, 0);
+				for (int i = 0; i < size; i++) {
+					counts[source[i * 3 + j] + 1]++;
+				}
+				for (int id = 0; id < nodeCount; id++) {
+					counts[id + 1] += counts[id];
+				}
+				for (int i = 0; i < size; i++) {
+					int targetRecord = counts[source[i * 3 + j]]++;
+					System.arraycopy(source, i * 3, target, targetRecord * 3, 3);
+				}
+				int[] swap = source;
+				source = target;
+				target = swap;
+			}
+			if (source != records) {
+				System.arraycopy(source, 0, records, 0, size * 3);
+			}
+			int[] positions = new int[3];
+			positions[first] = 0;
+			positions[second] = 1;
+			positions[third] = 2;
+			this.sPos = positions[S];
+			this.pPos = positions[P];
+			this.oPos = positions[O];
+		}
+
+		ExtendedIterator<Triple> find(int... key) {
+			return new RecordIterator(bound(key, false), bound(key, true));
+		}
+
+		boolean contains(int... key) {
+			return bound(key, false) < bound(key, true);
+		}
+
+		/**
+		 * Returns the first record whose prefix is greater or equal to the key, or, if
+		 * {@code upper} is {@code true}, greater than the key.
+		 */
+		private int bound(int[] key, boolean upper) {
+			int low = 0, high = size;
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				int comparison = compare(middle, key);
+				if (comparison < 0 || upper && comparison == 0) {
+					low = middle + 1;
+				} else {
+					high = middle;
+				}
+			}
+			return low;
+		}
+
+		private int compare(int record, int[] key) {
+			for (int j = 0; j < key.length; j++) {
+				int comparison = Integer.compare(records[record * 3 + j], key[j]);
+				if (comparison != 0) {
+					return comparison;
+				}
+			}
+			return 0;
+		}
+
+		private class RecordIterator extends NiceIterator<Triple> {
+			private int next;
+			private final int end;
+
+			RecordIterator(int start, int end) {
+				this.next = start;
+				this.end = end;
+			}
+
+			@Override
+			public boolean hasNext() {
+				return next < end;
+			}
+
+			@Override
+			public Triple next() {
+				if (next >= end) {
+					throw new NoSuchElementException();
+				}
+				int offset = next++ * 3;
+				return Triple.create(nodes[records[offset + sPos]], nodes[records[offset + pPos]],
+						nodes[records[offset + oPos]]);
+			}
+		}
+	}
+
+	private static class Builder {
+		private Node[] nodes = new Node[1024];
+		private int nodeCount = 0;
+		private int[] nodeIdTable = new int[2048];
+		private int[] triples = new int[3 * 1024];
+		private int size = 0;
+
+		void add(Triple triple) {
+			if (triples.length < (size + 1) * 3) {
+				triples = Arrays.copyOf(triples, triples.length * 2);
+			}
+			triples[size * 3 + S] = idOf(triple.getSubject());
+			triples[size * 3 + P] = idOf(triple.getPredicate());
+			triples[size * 3 + O] = idOf(triple.getObject());
+			size++;
+		}
+
+		private int idOf(Node node) {
+			int mask = nodeIdTable.length - 1;
+			int slot = node.hashCode() & mask;
+			for (int idPlusOne; (idPlusOne = nodeIdTable[slot]) != 0; slot = (slot + 1) & mask) {
+				if (nodes[idPlusOne - 1].equals(node)) {
+					return idPlusOne - 1;
+				}
+			}
+			// add new node
+			if (nodes.length == nodeCount) {
+				nodes = Arrays.copyOf(nodes, nodeCount * 2);
+			}
+			nodes[nodeCount] = node;
+			nodeIdTable[slot] = ++nodeCount;
+			// keep load factor below 0.5
+			if (nodeCount * 2 > nodeIdTable.length) {
+				rehash();
+			}
+			return nodeCount - 1;
+		}
+
+		private void rehash() {
+			nodeIdTable = new int[nodeIdTable.length * 2];
+			int mask = nodeIdTable.length - 1;
+			for (int id = 0; id < nodeCount; id++) {
+				int slot = nodes[id].hashCode() & mask;
+				while (nodeIdTable[slot] != 0) {
+					slot = (slot + 1) & mask;
+				}
+				nodeIdTable[slot] = id + 1;
+			}
+		}
+
+		FrozenGraph build(PrefixMapping prefixMapping) {
+			return new FrozenGraph(Arrays.copyOf(nodes, nodeCount), nodeIdTable, triples, size, prefixMapping);
+		}
+	}
+}
@@ -0,0 +1,106 @@
+/*-
+ * Copyright © 2019-2022 Heinz Nixdorf Chair for Distributed Information Systems,
+ *                       Friedrich Schiller University Jena (http://www.fusion.uni-jena.de/)
+ * Copyright © 2023-2024 Jan Martin Keil (jan-martin.keil@uni-jena.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+-*/
+
+package de.uni_jena.cs.fusion.abecto.graph;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFWrapper;
+import org.apache.jena.sparql.core.Quad;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+/**
+ * Provides a process-wide dictionary of {@link Node Nodes} to share equal
+ * {@link Node} instances across datasets and models. The same IRIs and
+ * literals occur in many models, e.g. in the primary data of multiple datasets
+ * and in annotations of the metadata. Sharing their instances reduces the
+ * memory consumption.
+ * <p>
+ * The dictionary uses weak references and therefore does not prevent unused
+ * {@link Node Nodes} from being garbage collected.
+ */
+public class NodeDictionary {
+
+	private static final Interner<Node> interner = Interners.newWeakInterner();
+
+	/**
+	 * Returns the shared instance of a {@link Node} equal to the given
+	 * {@link Node}. Variables and blank nodes are returned unchanged, as they are
+	 * local to a graph or query.
+	 * 
+	 * @param node the {@link Node} to intern
+	 * @return the shared instance
+	 */
+	public static Node intern(Node node) {
+		if (node.isURI() || node.isLiteral()) {
+			return interner.intern(node);
+		}
+		return node;
+	}
+
+	/**
+	 * Returns a {@link Triple} equal to the given {@link Triple} that consists of
+	 * shared {@link Node} instances.
+	 * 
+	 * @param triple the {@link Triple} to intern
+	 * @return a {@link Triple} of shared {@link Node} instances
+	 * @see #intern(Node)
+	 */
+	public static Triple intern(Triple triple) {
+		Node s = intern(triple.getSubject()), p = intern(triple.getPredicate()), o = intern(triple.getObject());
+		if (s == triple.getSubject() && p == triple.getPredicate() && o == triple.getObject()) {
+			return triple;
+		}
+		return Triple.create(s, p, o);
+	}
+
+	/**
+	 * Returns the shared instance of a string literal.
+	 * 
+	 * @param lexicalForm the lexical form of the literal
+	 * @return the shared instance
+	 */
+	public static Node stringLiteral(String lexicalForm) {
+		return intern(NodeFactory.createLiteralString(lexicalForm));
+	}
+
+	/**
+	 * Returns a {@link StreamRDF} that interns the {@link Node Nodes} of all
+	 * triples and quads before forwarding them to the given {@link StreamRDF}.
+	 * 
+	 * @param destination the {@link StreamRDF} to forward the triples and quads to
+	 * @return the interning {@link StreamRDF}
+	 */
+	public static StreamRDF interning(StreamRDF destination) {
+		return new StreamRDFWrapper(destination) {
+			@Override
+			public void triple(Triple triple) {
+				super.triple(intern(triple));
+			}
+
+			@Override
+			public void quad(Quad quad) {
+				super.quad(Quad.create(quad.getGraph(), intern(quad.asTriple())));
+			}
+		};
+	}
+}
@@ -0,0 +1,388 @@
+/*-
+ * Copyright © 2019-2022 Heinz Nixdorf Chair for Distributed Information Systems,
+ *                       Friedrich Schiller University Jena (http://www.fusion.uni-jena.de/)
+ * Copyright © 2023-2024 Jan Martin Keil (jan-martin.keil@uni-jena.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+-*/
+
+package de.uni_jena.cs.fusion.abecto.graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import javax.annotation.Nullable;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.graph.impl.GraphBase;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.engine.binding.BindingFactory;
+import org.apache.jena.sparql.exec.RowSet;
+import org.apache.jena.sparql.expr.aggregate.AggCount;
+import org.apache.jena.sparql.syntax.ElementData;
+import org.apache.jena.sparql.syntax.ElementGroup;
+import org.apache.jena.sparql.syntax.ElementPathBlock;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.apache.jena.util.iterator.NiceIterator;
+import org.apache.jena.util.iterator.WrappedIterator;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Provides a read-only {@link Graph} backed by a SPARQL endpoint. Instead of
+ * loading the whole content of the endpoint, triple patterns and queries get
+ * evaluated by the endpoint on demand. The results of triple patterns get
+ * requested in pages using LIMIT and OFFSET. Recently used results are kept in
+ * least recently used caches, which are bounded by the total number of kept
+ * triples, bindings and values.
+ * <p>
+ * Lookups of the results of a query for single values of a key variable (see
+ * {@link #select(Query, Var, Node)}) get batched: Missing results for further
+ * values of the key variable get loaded along with the requested results using
+ * a VALUES clause.
+ * <p>
+ * Blank nodes returned by the endpoint can not be used in succeeding requests.
+ */
+public class SparqlGraph extends GraphBase {
+
+	private final static Var subjectVar = Var.alloc("s"), predicateVar = Var.alloc("p"), objectVar = Var.alloc("o"),
+			countVar = Var.alloc("count");
+
+	private final String service;
+	private final int batchSize;
+	private final int pageSize;
+	private final long cacheSize;
+	private final Cache<Triple, List<Triple>> triplesByPattern;
+	private final Cache<String, List<Binding>> bindingsByQuery;
+	private final Cache<Map.Entry<String, Node>, List<Binding>> bindingsByQueryAndKey;
+	/**
+	 * The values of the key variable of queries, ordered as returned by the
+	 * endpoint, used to determine the values to load together in a batch.
+	 */
+	private final Cache<String, KeyValues> keyValuesByQuery;
+
+	/**
+	 * Creates a {@link SparqlGraph}.
+	 * 
+	 * @param service   the URL of the SPARQL endpoint
+	 * @param batchSize the maximum number of key variable values to load in one
+	 *                  request
+	 * @param pageSize  the maximum number of triples or values to load in one
+	 *                  request
+	 * @param cacheSize the maximum number of triples, bindings or values to keep
+	 *                  in each cache
+	 */
+	public SparqlGraph(String service, int batchSize, int pageSize, long cacheSize) {
+		this.service = service;
+		this.batchSize = Math.max(1, batchSize);
+		this.pageSize = Math.max(1, pageSize);
+		this.cacheSize = cacheSize;
+		this.triplesByPattern = CacheBuilder.newBuilder().maximumWeight(cacheSize)
+				.weigher((Triple pattern, List<Triple> triples) -> 1 + triples.size()).build();
+		this.bindingsByQuery = CacheBuilder.newBuilder().maximumWeight(cacheSize)
+				.weigher((String query, List<Binding> bindings) -> 1 + bindings.size()).build();
+		this.bindingsByQueryAndKey = CacheBuilder.newBuilder().maximumWeight(cacheSize)
+				.weigher((Map.Entry<String, Node> queryAndKey, List<Binding> bindings) -> 1 + bindings.size())
+				.build();
+		this.keyValuesByQuery = CacheBuilder.newBuilder().maximumWeight(cacheSize)
+				.weigher((String query, KeyValues keyValues) -> 1 + keyValues.values.size()).build();
+	}
+
+	/**
+	 * Returns the {@link SparqlGraph} that provides all triples of the given
+	 * {@link Graph}, if the given graph is a {@link SparqlGraph} or a
+	 * {@link UnionGraph} of a single {@link SparqlGraph}.
+	 * 
+	 * @param graph the graph to check
+	 * @return the {@link SparqlGraph}, if any
+	 */
+	public static Optional<SparqlGraph> of(Graph graph) {
+		if (graph instanceof SparqlGraph) {
+			return Optional.of((SparqlGraph) graph);
+		}
+		if (graph instanceof UnionGraph) {
+			List<Graph> graphs = ((UnionGraph) graph).getGraphs();
+			if (graphs.size() == 1) {
+				return of(graphs.get(0));
+			}
+		}
+		return Optional.empty();
+	}
+
+	/**
+	 * Returns the URL of the SPARQL endpoint.
+	 */
+	public String getService() {
+		return service;
+	}
+
+	@Override
+	protected ExtendedIterator<Triple> graphBaseFind(Triple triplePattern) {
+		if (triplePattern.getSubject().isLiteral() || triplePattern.getSubject().isBlank()
+				|| triplePattern.getObject().isBlank() || triplePattern.getPredicate().isBlank()
+				|| triplePattern.getPredicate().isLiteral()) {
+			return NiceIterator.emptyIterator();
+		}
+		List<Triple> triples = triplesByPattern.getIfPresent(triplePattern);
+		if (triples != null) {
+			return WrappedIterator.create(triples.iterator());
+		}
+		Node subject = triplePattern.getSubject().isConcrete() ? triplePattern.getSubject() : subjectVar;
+		Node predicate = triplePattern.getPredicate().isConcrete() ? triplePattern.getPredicate() : predicateVar;
+		Node object = triplePattern.getObject().isConcrete() ? triplePattern.getObject() : objectVar;
+		ElementPathBlock block = new ElementPathBlock();
+		block.addTriple(Triple.create(subject, predicate, object));
+		Query query = new Query();
+		query.setQuerySelectType();
+		query.setQueryResultStar(true);
+		query.setQueryPattern(block);
+		// ensure stable pages
+		for (Node node : List.of(subject, predicate, object)) {
+			if (node.isVariable()) {
+				query.addOrderBy(node, Query.ORDER_DEFAULT);
+			}
+		}
+		Function<Binding, Triple> toTriple = binding -> Triple.create(//
+				subject.isVariable() ? binding.get(subjectVar) : subject,
+				predicate.isVariable() ? binding.get(predicateVar) : predicate,
+				object.isVariable() ? binding.get(objectVar) : object);
+		return WrappedIterator.create(
+				new PagedResults<>(query, toTriple, results -> triplesByPattern.put(triplePattern, results)));
+	}
+
+	@Override
+	protected int graphBaseSize() {
+		Query query = new Query();
+		query.setQuerySelectType();
+		ElementPathBlock block = new ElementPathBlock();
+		block.addTriple(Triple.create(subjectVar, predicateVar, objectVar));
+		query.setQueryPattern(block);
+		query.addResultVar(countVar, query.allocAggregate(new AggCount()));
+		List<Binding> bindings = select(query);
+		if (bindings.isEmpty() || !bindings.get(0).contains(countVar)) {
+			return 0;
+		}
+		return (int) Math.min(Integer.MAX_VALUE,
+				((Number) bindings.get(0).get(countVar).getLiteralValue()).longValue());
+	}
+
+	@Override
+	public boolean isEmpty() {
+		Query query = new Query();
+		query.setQueryAskType();
+		ElementPathBlock block = new ElementPathBlock();
+		block.addTriple(Triple.create(subjectVar, predicateVar, objectVar));
+		query.setQueryPattern(block);
+		try (QueryExecution execution = QueryExecution.service(service).query(query).build()) {
+			return !execution.execAsk();
+		}
+	}
+
+	/**
+	 * Returns the results of a SELECT {@link Query} evaluated by the endpoint.
+	 * 
+	 * @param query the query to evaluate
+	 * @return the results of the query
+	 */
+	public List<Binding> select(Query query) {
+		String queryString = query.serialize();
+		List<Binding> bindings = bindingsByQuery.getIfPresent(queryString);
+		if (bindings == null) {
+			bindings = execSelect(query);
+			bindingsByQuery.put(queryString, bindings);
+		}
+		return bindings;
+	}
+
+	/**
+	 * Returns the results of a SELECT {@link Query} evaluated by the endpoint for
+	 * a single value of a key variable. Results for further values of the key
+	 * variable, that are not cached yet, get loaded in the same request. They are
+	 * chosen in the order of the values in the results of the query, beginning
+	 * after the given value.
+	 * 
+	 * @param query       the query to evaluate
+	 * @param keyVariable the key variable of the query
+	 * @param keyValue    the value of the key variable
+	 * @return the results of the query with the key variable bound to the given
+	 *         value
+	 */
+	public List<Binding> select(Query query, Var keyVariable, Node keyValue) {
+		String queryString = query.serialize();
+		List<Binding> bindings = bindingsByQueryAndKey.getIfPresent(Map.entry(queryString, keyValue));
+		if (bindings != null) {
+			return bindings;
+		}
+
+		// determine batch of key values
+		List<Node> batch = new ArrayList<>(batchSize);
+		batch.add(keyValue);
+		KeyValues keyValues = keyValues(query, queryString, keyVariable);
+		Integer position = keyValues.positions.get(keyValue);
+		if (position != null) {
+			int size = keyValues.values.size();
+			for (int i = 1; i < size && batch.size() < batchSize; i++) {
+				Node value = keyValues.values.get((position + i) % size);
+				if (bindingsByQueryAndKey.getIfPresent(Map.entry(queryString, value)) == null) {
+					batch.add(value);
+				}
+			}
+		}
+
+		// load results of the batch
+		Query batchQuery = query.cloneQuery();
+		ElementGroup pattern = new ElementGroup();
+		pattern.addElement(batchQuery.getQueryPattern());
+		List<Binding> valueBindings = new ArrayList<>(batch.size());
+		for (Node value : batch) {
+			valueBindings.add(BindingFactory.binding(keyVariable, value));
+		}
+		pattern.addElement(new ElementData(List.of(keyVariable), valueBindings));
+		batchQuery.setQueryPattern(pattern);
+		if (!batchQuery.isQueryResultStar() && !batchQuery.getProjectVars().contains(keyVariable)) {
+			batchQuery.addResultVar(keyVariable);
+		}
+		Map<Node, List<Binding>> bindingsByKey = new HashMap<>();
+		for (Node value : batch) {
+			bindingsByKey.put(value, new ArrayList<>());
+		}
+		for (Binding binding : execSelect(batchQuery)) {
+			List<Binding> bindingsOfKey = bindingsByKey.get(binding.get(keyVariable));
+			if (bindingsOfKey != null) {
+				bindingsOfKey.add(binding);
+			}
+		}
+		for (Node value : batch) {
+			bindingsByQueryAndKey.put(Map.entry(queryString, value), bindingsByKey.get(value));
+		}
+		return bindingsByKey.get(keyValue);
+	}
+
+	private synchronized KeyValues keyValues(Query query, String queryString, Var keyVariable) {
+		KeyValues keyValues = keyValuesByQuery.getIfPresent(queryString);
+		if (keyValues == null) {
+			Query keyQuery = new Query();
+			keyQuery.setQuerySelectType();
+			keyQuery.setDistinct(true);
+			keyQuery.setPrefixMapping(query.getPrefixMapping());
+			keyQuery.setQueryPattern(query.getQueryPattern());
+			keyQuery.addResultVar(keyVariable);
+			// ensure stable pages
+			keyQuery.addOrderBy(keyVariable, Query.ORDER_DEFAULT);
+			keyValues = new KeyValues();
+			Iterator<Node> values = new PagedResults<>(keyQuery, binding -> binding.get(keyVariable), null);
+			while (values.hasNext()) {
+				Node value = values.next();
+				if (value != null && keyValues.positions.putIfAbsent(value, keyValues.values.size()) == null) {
+					keyValues.values.add(value);
+				}
+			}
+			keyValuesByQuery.put(queryString, keyValues);
+		}
+		return keyValues;
+	}
+
+	private List<Binding> execSelect(Query query) {
+		try (QueryExecution execution = QueryExecution.service(service).query(query).build()) {
+			RowSet rowSet = RowSet.adapt(execution.execSelect());
+			List<Binding> bindings = new ArrayList<>();
+			rowSet.forEachRemaining(bindings::add);
+			return Collections.unmodifiableList(bindings);
+		}
+	}
+
+	/**
+	 * Iterates the results of a query requested in pages using LIMIT and OFFSET.
+	 * The results get collected and passed to a consumer after the last page, as
+	 * long as their number does not exceed the cache size, to enable caching.
+	 */
+	private class PagedResults<T> implements Iterator<T> {
+		private final Query query;
+		private final Function<Binding, T> mapper;
+		@Nullable
+		private final Consumer<List<T>> completion;
+		@Nullable
+		private List<T> collected;
+		private Iterator<T> page = Collections.emptyIterator();
+		private long offset = 0;
+		private boolean lastPage = false;
+
+		/**
+		 * @param query      the query to request the results of
+		 * @param mapper     the function to convert result bindings
+		 * @param completion the consumer of all converted results or {@code null}
+		 */
+		PagedResults(Query query, Function<Binding, T> mapper, @Nullable Consumer<List<T>> completion) {
+			this.query = query;
+			this.mapper = mapper;
+			this.completion = completion;
+			this.collected = (completion != null) ? new ArrayList<>() : null;
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (!page.hasNext() && !lastPage) {
+				Query pageQuery = query.cloneQuery();
+				pageQuery.setOffset(offset);
+				pageQuery.setLimit(pageSize);
+				List<Binding> bindings = execSelect(pageQuery);
+				offset += bindings.size();
+				lastPage = bindings.size() < pageSize;
+				List<T> results = new ArrayList<>(bindings.size());
+				for (Binding binding : bindings) {
+					results.add(mapper.apply(binding));
+				}
+				page = results.iterator();
+				if (collected != null) {
+					if (collected.size() + results.size() <= cacheSize) {
+						collected.addAll(results);
+					} else {
+						collected = null;
+					}
+				}
+				if (lastPage && collected != null) {
+					completion.accept(Collections.unmodifiableList(collected));
+					collected = null;
+				}
+			}
+			return page.hasNext();
+		}
+
+		@Override
+		public T next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return page.next();
+		}
+	}
+
+	private static class KeyValues {
+		private final List<Node> values = new ArrayList<>();
+		private final Map<Node, Integer> positions = new HashMap<>();
+	}
+}
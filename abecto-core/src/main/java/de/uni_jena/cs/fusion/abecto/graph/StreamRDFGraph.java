@@ -0,0 +1,71 @@
+/*-
+ * Copyright © 2019-2022 Heinz Nixdorf Chair for Distributed Information Systems,
+ *                       Friedrich Schiller University Jena (http://www.fusion.uni-jena.de/)
+ * Copyright © 2023-2024 Jan Martin Keil (jan-martin.keil@uni-jena.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+-*/
+
+package de.uni_jena.cs.fusion.abecto.graph;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.graph.impl.GraphBase;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.shared.DeleteDeniedException;
+import org.apache.jena.shared.PrefixMapping;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.apache.jena.util.iterator.NiceIterator;
+
+/**
+ * Provides a write-only {@link Graph} that passes added triples to a
+ * {@link StreamRDF}. It enables to use APIs that write into a {@link Graph},
+ * like the execution of CONSTRUCT queries, for the streaming processing of
+ * triples. The graph always appears empty.
+ */
+public class StreamRDFGraph extends GraphBase {
+
+	private final StreamRDF destination;
+	private final PrefixMapping prefixMapping;
+
+	/**
+	 * Creates a {@link StreamRDFGraph}.
+	 * 
+	 * @param destination   the {@link StreamRDF} to pass added triples to
+	 * @param prefixMapping the {@link PrefixMapping} to use for this graph
+	 */
+	public StreamRDFGraph(StreamRDF destination, PrefixMapping prefixMapping) {
+		this.destination = destination;
+		this.prefixMapping = prefixMapping;
+	}
+
+	@Override
+	public void performAdd(Triple triple) {
+		destination.triple(triple);
+	}
+
+	@Override
+	public void performDelete(Triple triple) {
+		throw new DeleteDeniedException("Write-only graph.", triple);
+	}
+
+	@Override
+	protected ExtendedIterator<Triple> graphBaseFind(Triple triplePattern) {
+		return NiceIterator.emptyIterator();
+	}
+
+	@Override
+	protected PrefixMapping createPrefixMapping() {
+		return prefixMapping;
+	}
+}
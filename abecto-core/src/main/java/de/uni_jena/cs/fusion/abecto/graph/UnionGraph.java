@@ -0,0 +1,302 @@
+/*-
+ * Copyright © 2019-2022 Heinz Nixdorf Chair for Distributed Information Systems,
+ *                       Friedrich Schiller University Jena (http://www.fusion.uni-jena.de/)
+ * Copyright © 2023-2024 Jan Martin Keil (jan-martin.keil@uni-jena.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+-*/
+
+package de.uni_jena.cs.fusion.abecto.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.graph.impl.GraphBase;
+import org.apache.jena.shared.AddDeniedException;
+import org.apache.jena.shared.DeleteDeniedException;
+import org.apache.jena.shared.PrefixMapping;
+import org.apache.jena.shared.impl.PrefixMappingImpl;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.apache.jena.util.iterator.NiceIterator;
+
+/**
+ * Provides a union of {@link Graph Graphs} that uses a summary of the
+ * predicates of each subgraph to avoid the overhead of a
+ * {@link org.apache.jena.graph.compose.MultiUnion MultiUnion}. A triple pattern
+ * is only passed to subgraphs that contain its predicate. Results are only
+ * checked for duplicates if their predicate occurs in multiple subgraphs.
+ * <p>
+ * Only {@link FrozenGraph FrozenGraphs} get summarized, as they are immutable
+ * and provide their summary without a scan. Other subgraphs, like the optional
+ * base graph that changes are passed to, are always visited and might change at
+ * any time.
+ */
+public class UnionGraph extends GraphBase {
+
+	/**
+	 * The subgraphs, beginning with the base graph, if present.
+	 */
+	private final Graph[] graphs;
+	private final boolean hasBaseGraph;
+	/**
+	 * The predicates of each {@link FrozenGraph} or {@code null} for other
+	 * subgraphs, initialized on first access.
+	 */
+	private List<Set<Node>> predicates;
+	/**
+	 * Whether there is a subgraph without predicate summary.
+	 */
+	private boolean unsummarized;
+	/**
+	 * The predicates occurring in more than one summarized subgraph, initialized
+	 * on first access.
+	 */
+	private Set<Node> sharedPredicates;
+
+	/**
+	 * Creates a union of the given graphs.
+	 * 
+	 * @param baseGraph the graph to pass changes to or {@code null}, if the union
+	 *                  is read-only
+	 * @param graphs    the other subgraphs
+	 */
+	public UnionGraph(@Nullable Graph baseGraph, Collection<Graph> graphs) {
+		List<Graph> allGraphs = new ArrayList<>(graphs.size() + 1);
+		if (baseGraph != null) {
+			allGraphs.add(baseGraph);
+		}
+		for (Graph graph : graphs) {
+			if (graph != baseGraph) {
+				allGraphs.add(graph);
+			}
+		}
+		this.graphs = allGraphs.toArray(Graph[]::new);
+		this.hasBaseGraph = baseGraph != null;
+	}
+
+	/**
+	 * Returns the subgraphs, beginning with the base graph, if present.
+	 * 
+	 * @return the subgraphs
+	 */
+	public List<Graph> getGraphs() {
+		return Collections.unmodifiableList(Arrays.asList(graphs));
+	}
+
+	private synchronized List<Set<Node>> predicates() {
+		if (this.predicates == null) {
+			List<Set<Node>> predicates = new ArrayList<>(Collections.nCopies(graphs.length, null));
+			Set<Node> sharedPredicates = new HashSet<>();
+			Set<Node> seenPredicates = new HashSet<>();
+			for (int i = hasBaseGraph ? 1 : 0; i < graphs.length; i++) {
+				if (graphs[i] instanceof FrozenGraph) {
+					Set<Node> graphPredicates = ((FrozenGraph) graphs[i]).predicates();
+					predicates.set(i, graphPredicates);
+					for (Node predicate : graphPredicates) {
+						if (!seenPredicates.add(predicate)) {
+							sharedPredicates.add(predicate);
+						}
+					}
+				}
+			}
+			this.unsummarized = predicates.contains(null);
+			this.sharedPredicates = sharedPredicates;
+			this.predicates = predicates;
+		}
+		return this.predicates;
+	}
+
+	/**
+	 * Returns the indices of the subgraphs that might contain triples with the
+	 * given predicate.
+	 */
+	private int[] candidates(Node predicate) {
+		List<Set<Node>> predicates = predicates();
+		int[] candidates = new int[graphs.length];
+		int count = 0;
+		for (int i = 0; i < graphs.length; i++) {
+			Set<Node> graphPredicates = predicates.get(i);
+			if (graphPredicates == null
+					|| (predicate.isConcrete() ? graphPredicates.contains(predicate) : !graphPredicates.isEmpty())) {
+				candidates[count++] = i;
+			}
+		}
+		return count == candidates.length ? candidates : Arrays.copyOf(candidates, count);
+	}
+
+	@Override
+	protected ExtendedIterator<Triple> graphBaseFind(Triple triplePattern) {
+		int[] candidates = candidates(triplePattern.getPredicate());
+		switch (candidates.length) {
+		case 0:
+			return NiceIterator.emptyIterator();
+		case 1:
+			return graphs[candidates[0]].find(triplePattern);
+		default:
+			return new UnionIterator(triplePattern, candidates);
+		}
+	}
+
+	@Override
+	protected boolean graphBaseContains(Triple triple) {
+		for (int candidate : candidates(triple.getPredicate())) {
+			if (graphs[candidate].contains(triple)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	protected int graphBaseSize() {
+		predicates();
+		if (!unsummarized && sharedPredicates.isEmpty()) {
+			int size = 0;
+			for (Graph graph : graphs) {
+				size += graph.size();
+			}
+			return size;
+		}
+		return super.graphBaseSize();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		for (Graph graph : graphs) {
+			if (!graph.isEmpty()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public void performAdd(Triple triple) {
+		if (!hasBaseGraph) {
+			throw new AddDeniedException("Union without base graph is read-only.", triple);
+		}
+		graphs[0].add(triple);
+	}
+
+	@Override
+	public void performDelete(Triple triple) {
+		if (!hasBaseGraph) {
+			throw new DeleteDeniedException("Union without base graph is read-only.", triple);
+		}
+		graphs[0].delete(triple);
+	}
+
+	@Override
+	public boolean dependsOn(Graph other) {
+		if (other == this) {
+			return true;
+		}
+		for (Graph graph : graphs) {
+			if (graph.dependsOn(other)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	protected PrefixMapping createPrefixMapping() {
+		if (hasBaseGraph) {
+			return graphs[0].getPrefixMapping();
+		}
+		PrefixMapping prefixMapping = new PrefixMappingImpl();
+		for (Graph graph : graphs) {
+			prefixMapping.withDefaultMappings(graph.getPrefixMapping());
+		}
+		return prefixMapping;
+	}
+
+	/**
+	 * Iterates the results of the candidate subgraphs one after the other and
+	 * skips results already returned by a preceding candidate subgraph.
+	 */
+	private class UnionIterator extends NiceIterator<Triple> {
+		private final Triple triplePattern;
+		private final int[] candidates;
+		private int current = -1;
+		private ExtendedIterator<Triple> iterator = NiceIterator.emptyIterator();
+		private Triple next;
+
+		UnionIterator(Triple triplePattern, int[] candidates) {
+			this.triplePattern = triplePattern;
+			this.candidates = candidates;
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (next == null) {
+				if (iterator.hasNext()) {
+					Triple triple = iterator.next();
+					if (!containedInPreceding(triple)) {
+						next = triple;
+					}
+				} else if (current + 1 < candidates.length) {
+					iterator.close();
+					iterator = graphs[candidates[++current]].find(triplePattern);
+				} else {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public Triple next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			Triple triple = next;
+			next = null;
+			return triple;
+		}
+
+		@Override
+		public void close() {
+			iterator.close();
+		}
+
+		private boolean containedInPreceding(Triple triple) {
+			if (current == 0) {
+				return false;
+			}
+			Node predicate = triple.getPredicate();
+			// shared predicates are only known among summarized subgraphs
+			boolean mightBeShared = predicates.get(candidates[current]) == null
+					|| sharedPredicates.contains(predicate);
+			for (int i = 0; i < current; i++) {
+				Set<Node> precedingPredicates = predicates.get(candidates[i]);
+				if ((precedingPredicates == null || mightBeShared && precedingPredicates.contains(predicate))
+						&& graphs[candidates[i]].contains(triple)) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+}
@@ -29,10 +29,28 @@ import java.util.Map;
 
 public class AbsoluteCoverage extends LongMeasure<ResourcePair> {
 
+    private final DatasetOrdinals ordinals = new DatasetOrdinals();
+
     public AbsoluteCoverage() {
         super(AV.absoluteCoverage, OM.one);
     }
 
+    /**
+     * Returns the index of a dataset pair in a triangular matrix of the ordinals of
+     * the datasets, including the diagonal.
+     */
+    @Override
+    protected int index(ResourcePair pair, boolean assign) {
+        int first = ordinals.get(pair.first, assign);
+        int second = ordinals.get(pair.second, assign);
+        if (first < 0 || second < 0) {
+            return -1;
+        }
+        int lower = Math.min(first, second);
+        int upper = Math.max(first, second);
+        return upper * (upper + 1) / 2 + lower;
+    }
+
     public void storeInModel(Aspect aspect, Map<Resource, Model> outputModelsMap) {
         for (ResourcePair pair : keySet()) {
             storeInModel(aspect, pair.first, pair.second, get(pair), outputModelsMap.get(pair.first));
@@ -35,7 +35,7 @@ public class AbsoluteCoveredness extends PerDatasetLongMeasure {
     }
 
     public void storeInModel(Aspect aspect, Map<Resource, Model> outputModelsMap) {
-        for (Resource dataset : values.keySet()) {
+        for (Resource dataset : keySet()) {
             Collection<Resource> otherDatasets = new HashSet<>(outputModelsMap.keySet());
             otherDatasets.remove(dataset);
             storeInModel(aspect, dataset, otherDatasets, get(dataset), outputModelsMap.get(dataset));
@@ -22,16 +22,37 @@ import org.apache.jena.rdf.model.Resource;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
 
 public abstract class BigDecimalMeasure<K> extends Measure<K, BigDecimal> {
 
     public final static int SCALE = 16;
     public final static RoundingMode ROUNDING_MODE = RoundingMode.HALF_UP;
 
+    protected final Map<K, BigDecimal> values = new HashMap<>();
+
     public BigDecimalMeasure(Resource quantity, Resource unit) {
         super(quantity, unit);
     }
 
+    public BigDecimal get(K key) {
+        return values.get(key);
+    }
+
+    public Set<K> keySet() {
+        return values.keySet();
+    }
+
+    public boolean contains(K key) {
+        return values.containsKey(key);
+    }
+
+    public void clear() {
+        values.clear();
+    }
+
     public void set(K key, BigDecimal value) {
         value = value.stripTrailingZeros();
         values.put(key, value);
@@ -0,0 +1,54 @@
+/*-
+ * Copyright © 2019-2022 Heinz Nixdorf Chair for Distributed Information Systems,
+ *                       Friedrich Schiller University Jena (http://www.fusion.uni-jena.de/)
+ * Copyright © 2023-2024 Jan Martin Keil (jan-martin.keil@uni-jena.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+-*/
+
+package de.uni_jena.cs.fusion.abecto.measure;
+
+import org.apache.jena.rdf.model.Resource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Assigns consecutive ordinals to datasets in order of their first occurrence.
+ */
+class DatasetOrdinals {
+
+    private final Map<Resource, Integer> ordinals = new HashMap<>();
+
+    /**
+     * Returns the ordinal of a dataset.
+     *
+     * @param dataset the dataset to get the ordinal for
+     * @param assign  {@code true}, if a new ordinal should get assigned to an
+     *                unknown dataset
+     * @return the ordinal of the dataset, or {@code -1}, if the dataset is unknown
+     * and no ordinal was assigned
+     */
+    int get(Resource dataset, boolean assign) {
+        Integer ordinal = ordinals.get(dataset);
+        if (ordinal != null) {
+            return ordinal;
+        } else if (assign) {
+            ordinal = ordinals.size();
+            ordinals.put(dataset, ordinal);
+            return ordinal;
+        } else {
+            return -1;
+        }
+    }
+}
@@ -20,14 +20,91 @@ package de.uni_jena.cs.fusion.abecto.measure;
 
 import org.apache.jena.rdf.model.Resource;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Provides an abstraction of measures with {@code long} values, which are kept
+ * in a primitive array. Subclasses map the keys to array indices, for example by
+ * {@link DatasetOrdinals dataset ordinals}, to avoid boxing values and hashing
+ * keys on each update.
+ *
+ * @param <K> the key type
+ */
 public abstract class LongMeasure<K> extends Measure<K, Long> {
 
+    private long[] values = new long[0];
+    private final BitSet present = new BitSet();
+    private final List<K> keys = new ArrayList<>();
+
     public LongMeasure(Resource quantity, Resource unit) {
         super(quantity, unit);
     }
 
+    /**
+     * Returns the array index of a key.
+     *
+     * @param key    the key to get the index for
+     * @param assign {@code true}, if an index should get assigned to an unknown
+     *               key
+     * @return the index of the key, or {@code -1}, if the key is unknown and no
+     * index was assigned
+     */
+    protected abstract int index(K key, boolean assign);
+
+    private int assignedIndex(K key) {
+        int index = index(key, true);
+        if (index >= values.length) {
+            values = Arrays.copyOf(values, Math.max(index + 1, values.length * 2));
+        }
+        while (keys.size() <= index) {
+            keys.add(null);
+        }
+        if (keys.get(index) == null) {
+            keys.set(index, key);
+        }
+        return index;
+    }
+
+    @Override
+    public Long get(K key) {
+        int index = index(key, false);
+        return (index >= 0 && present.get(index)) ? values[index] : null;
+    }
+
+    @Override
+    public Set<K> keySet() {
+        Set<K> keySet = new LinkedHashSet<>();
+        for (int index = present.nextSetBit(0); index >= 0; index = present.nextSetBit(index + 1)) {
+            keySet.add(keys.get(index));
+        }
+        return keySet;
+    }
+
+    @Override
+    public boolean contains(K key) {
+        int index = index(key, false);
+        return index >= 0 && present.get(index);
+    }
+
+    @Override
+    public void clear() {
+        present.clear();
+    }
+
+    @Override
+    public void set(K key, Long value) {
+        int index = assignedIndex(key);
+        values[index] = value;
+        present.set(index);
+    }
+
     public void setZero(K key) {
-        values.put(key, 0L);
+        set(key, 0L);
     }
 
     public void incrementByOrSetOne(K key) {
@@ -35,13 +112,58 @@ public abstract class LongMeasure<K> extends Measure<K, Long> {
     }
 
     public void incrementByOrSet(K key, long increment) {
-        values.merge(key, increment, Long::sum);
+        incrementByOrSetAt(assignedIndex(key), increment);
     }
 
     public void decrementByOrSet(K key, long decrement) {
         incrementByOrSet(key, decrement * -1);
     }
 
+    /**
+     * Returns the array index of a key, assigning an index to an unknown key
+     * without setting a value. The index of a key never changes. This enables to
+     * resolve the index once outside of loops and to update the value by index.
+     *
+     * @param key the key to get the index for
+     * @return the index of the key
+     * @see #incrementByOrSetAt(int, long)
+     */
+    public int indexOf(K key) {
+        return assignedIndex(key);
+    }
+
+    /**
+     * Returns the array indices of keys, assigning indices to unknown keys.
+     *
+     * @param keys the keys to get the indices for
+     * @return the indices of the keys in the order of the keys
+     * @see #indexOf(Object)
+     */
+    public int[] indicesOf(List<K> keys) {
+        int[] indices = new int[keys.size()];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = assignedIndex(keys.get(i));
+        }
+        return indices;
+    }
+
+    public void incrementByOrSetOneAt(int index) {
+        incrementByOrSetAt(index, 1L);
+    }
+
+    public void incrementByOrSetAt(int index, long increment) {
+        if (present.get(index)) {
+            values[index] += increment;
+        } else {
+            values[index] = increment;
+            present.set(index);
+        }
+    }
+
+    public void decrementByOrSetAt(int index, long decrement) {
+        incrementByOrSetAt(index, decrement * -1);
+    }
+
     public void setDifferenceOf(LongMeasure<K> minuend, LongMeasure<K> subtrahend) {
         for (K key : minuend.keySet()) {
             if (subtrahend.contains(key)) {
@@ -19,6 +19,7 @@
 package de.uni_jena.cs.fusion.abecto.measure;
 
 import de.uni_jena.cs.fusion.abecto.Aspect;
+import de.uni_jena.cs.fusion.abecto.graph.NodeDictionary;
 import de.uni_jena.cs.fusion.abecto.vocabulary.AV;
 import de.uni_jena.cs.fusion.abecto.vocabulary.DQV;
 import de.uni_jena.cs.fusion.abecto.vocabulary.SdmxAttribute;
@@ -32,7 +33,6 @@ import java.util.Set;
 
 public abstract class Measure<K, V extends Number> {
 
-    protected final Map<K, V> values = new HashMap<>();
     protected final Resource quantity;
     protected final Resource unit;
     String variable;
@@ -64,21 +64,13 @@ public abstract class Measure<K, V extends Number> {
         }
     }
 
-    public V get(K key) {
-        return values.get(key);
-    }
+    public abstract V get(K key);
 
-    public Set<K> keySet() {
-        return values.keySet();
-    }
+    public abstract Set<K> keySet();
 
-    public boolean contains(K key) {
-        return values.containsKey(key);
-    }
+    public abstract boolean contains(K key);
 
-    public void clear() {
-        values.clear();
-    }
+    public abstract void clear();
 
     public void reset(Iterable<K> keys, V initialValue) {
         clear();
@@ -92,9 +84,7 @@ public abstract class Measure<K, V extends Number> {
         }
     }
 
-    public void set(K key, V value) {
-        values.put(key, value);
-    }
+    public abstract void set(K key, V value);
 
     public void setVariable(String variable) {
         this.variable = variable;
@@ -125,10 +115,12 @@ public abstract class Measure<K, V extends Number> {
         qualityMeasurement.addProperty(SdmxAttribute.unitMeasure, unit);
         qualityMeasurement.addProperty(AV.affectedAspect, affectedAspect.getIri());
         if (variable != null) {
-            qualityMeasurement.addLiteral(AV.affectedVariableName, variable);
+            qualityMeasurement.addProperty(AV.affectedVariableName,
+                    outputAffectedDatasetMetaModel.asRDFNode(NodeDictionary.stringLiteral(variable)));
         }
         if (valueFilterCondition != null) {
-            qualityMeasurement.addLiteral(AV.valueFilterCondition, valueFilterCondition);
+            qualityMeasurement.addProperty(AV.valueFilterCondition,
+                    outputAffectedDatasetMetaModel.asRDFNode(NodeDictionary.stringLiteral(valueFilterCondition)));
         }
         for (Resource comparedToDataset : comparedToDatasets) {
             qualityMeasurement.addProperty(AV.comparedToDataset, comparedToDataset);
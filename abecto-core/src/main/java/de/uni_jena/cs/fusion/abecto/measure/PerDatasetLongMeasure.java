@@ -26,10 +26,17 @@ import java.util.Map;
 
 public abstract class PerDatasetLongMeasure extends LongMeasure<Resource> {
 
+    private final DatasetOrdinals ordinals = new DatasetOrdinals();
+
     public PerDatasetLongMeasure(Resource quantity, Resource unit) {
         super(quantity, unit);
     }
 
+    @Override
+    protected int index(Resource dataset, boolean assign) {
+        return ordinals.get(dataset, assign);
+    }
+
     public void storeInModel(Aspect aspect, Map<Resource, Model> outputModelsMap) {
         for (Resource dataset : keySet()) {
             storeInModel(aspect, dataset, get(dataset), outputModelsMap.get(dataset));
@@ -31,7 +31,7 @@ import org.apache.jena.reasoner.Reasoner;
 public abstract class AbstractReasoningProcessor<P extends Processor<P>> extends Processor<P> {
 
 	@Override
-	public final void run() {
+	public void run() {
 		Resource dataset = this.getAssociatedDataset().orElseThrow();
 		Reasoner reasoner = getReasoner();
 		InfModel infModel = ModelFactory.createInfModel(reasoner, this.getInputPrimaryModelUnion(dataset));
@@ -19,16 +19,18 @@
 package de.uni_jena.cs.fusion.abecto.processor;
 
 import com.google.common.collect.Streams;
+import de.uni_jena.cs.fusion.abecto.AnnotationWriter;
 import de.uni_jena.cs.fusion.abecto.Aspect;
+import de.uni_jena.cs.fusion.abecto.util.Queries;
 import org.apache.jena.query.Query;
-import org.apache.jena.query.QueryExecutionFactory;
-import org.apache.jena.query.ResultSet;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.Resource;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public abstract class ComparisonProcessor<P extends Processor<P>> extends Processor<P> {
@@ -74,11 +76,14 @@ public abstract class ComparisonProcessor<P extends Processor<P>> extends Proces
         query.addResultVar(aspect.getKeyVariable());
         query.setDistinct(true);
 
-        ResultSet results = QueryExecutionFactory.create(query, datasetModels).execSelect();
-
         String keyVariableName = aspect.getKeyVariableName();
 
-        return Streams.stream(results).map(querySolution -> querySolution.getResource(keyVariableName));
+        try (Queries.SelectResults results = Queries.execSelect(datasetModels, query)) {
+            List<Resource> resourceKeys = Streams.stream(results.getResultSet())
+                    .map(querySolution -> querySolution.getResource(keyVariableName))
+                    .collect(Collectors.toList());
+            return resourceKeys.stream();
+        }
     }
 
     Map<Resource, Model> getOutputMetaModels(Iterable<Resource> datasets) {
@@ -88,4 +93,21 @@ public abstract class ComparisonProcessor<P extends Processor<P>> extends Proces
         }
         return outputMetaModelByDataset;
     }
+
+    Map<Resource, AnnotationWriter> getAnnotationWriters(Map<Resource, Model> outputMetaModelByDataset) {
+        Map<Resource, AnnotationWriter> annotationWriterByDataset = new HashMap<>();
+        for (Resource dataset : outputMetaModelByDataset.keySet()) {
+            // write annotations immediately, if a listener reacts on them, e.g. to fail fast
+            int batchSize = isOutputMetaModelListened(dataset) ? 1 : AnnotationWriter.DEFAULT_BATCH_SIZE;
+            annotationWriterByDataset.put(dataset,
+                    new AnnotationWriter(outputMetaModelByDataset.get(dataset).getGraph(), batchSize));
+        }
+        return annotationWriterByDataset;
+    }
+
+    static void flushAnnotationWriters(Map<Resource, AnnotationWriter> annotationWriterByDataset) {
+        for (AnnotationWriter annotationWriter : annotationWriterByDataset.values()) {
+            annotationWriter.flush();
+        }
+    }
 }
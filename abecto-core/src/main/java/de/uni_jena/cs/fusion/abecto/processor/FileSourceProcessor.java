@@ -19,7 +19,6 @@
 package de.uni_jena.cs.fusion.abecto.processor;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.util.List;
 
 import org.slf4j.Logger;
@@ -45,8 +44,8 @@ public class FileSourceProcessor extends Processor<FileSourceProcessor> {
 			if (!file.isAbsolute()) {
 				file = new File(this.getRelativeBasePath(), item);
 			}
-			try (FileInputStream in = new FileInputStream(file)) {
-				Models.read(this.getOutputPrimaryModel().get(), in);
+			try {
+				Models.read(this.getOutputPrimaryModel().get(), file);
 			} catch (Throwable e) {
 				log.error(String.format("Failed to read RDF file \"%s\".\n%s", file, e.getMessage()));
 				throw new RuntimeException(String.format("Failed to read RDF file \"%s\".", file), e);
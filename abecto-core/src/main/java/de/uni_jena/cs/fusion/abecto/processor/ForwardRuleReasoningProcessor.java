@@ -18,9 +18,53 @@
 
 package de.uni_jena.cs.fusion.abecto.processor;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.rdf.model.StmtIterator;
 import org.apache.jena.reasoner.Reasoner;
+import org.apache.jena.reasoner.TriplePattern;
+import org.apache.jena.reasoner.rulesys.ClauseEntry;
+import org.apache.jena.reasoner.rulesys.Functor;
 import org.apache.jena.reasoner.rulesys.GenericRuleReasoner;
+import org.apache.jena.reasoner.rulesys.Node_RuleVariable;
 import org.apache.jena.reasoner.rulesys.Rule;
+import org.apache.jena.reasoner.rulesys.Util;
+import org.apache.jena.sparql.core.BasicPattern;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.expr.E_Equals;
+import org.apache.jena.sparql.expr.E_Function;
+import org.apache.jena.sparql.expr.E_IsBlank;
+import org.apache.jena.sparql.expr.E_IsLiteral;
+import org.apache.jena.sparql.expr.E_LogicalNot;
+import org.apache.jena.sparql.expr.Expr;
+import org.apache.jena.sparql.expr.ExprLib;
+import org.apache.jena.sparql.expr.ExprList;
+import org.apache.jena.sparql.expr.NodeValue;
+import org.apache.jena.sparql.function.FunctionBase2;
+import org.apache.jena.sparql.function.FunctionRegistry;
+import org.apache.jena.sparql.syntax.ElementFilter;
+import org.apache.jena.sparql.syntax.ElementGroup;
+import org.apache.jena.sparql.syntax.ElementPathBlock;
+import org.apache.jena.sparql.syntax.Template;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import de.uni_jena.cs.fusion.abecto.Parameter;
 
@@ -29,11 +73,83 @@ import de.uni_jena.cs.fusion.abecto.Parameter;
  * <a href= "https://jena.apache.org/documentation/inference/#rules">rules</a>
  * using the Apache Jena Forward RETE engine. An arbitrary number of rules can
  * be set with the parameter {@link #rules}.
+ * <p>
+ * Alternatively, with the parameter {@link #streaming}, the rules get
+ * translated into SPARQL construct queries, which get evaluated semi-naively
+ * until no new statements get derived. In each iteration, the rules get
+ * evaluated in parallel on the statements known at the beginning of the
+ * iteration and the derived statements get added directly to the output
+ * primary model.
  */
 public class ForwardRuleReasoningProcessor extends AbstractReasoningProcessor<ForwardRuleReasoningProcessor> {
 
+	final static Logger log = LoggerFactory.getLogger(ForwardRuleReasoningProcessor.class);
+
+	private final static String BUILTIN_FUNCTION_NAMESPACE = "urn:x-abecto:builtin:";
+	private final static Map<String, Function<Expr, Expr>> UNARY_BUILTINS = Map.of(//
+			"isLiteral", E_IsLiteral::new, //
+			"notLiteral", arg -> new E_LogicalNot(new E_IsLiteral(arg)), //
+			"isBNode", E_IsBlank::new, //
+			"notBNode", arg -> new E_LogicalNot(new E_IsBlank(arg)));
+	private final static Map<String, BiFunction<Expr, Expr, Expr>> BINARY_BUILTINS = Map.of(//
+			"equal", E_Equals::new, //
+			"notEqual", comparison("notEqual", comparison -> comparison != 0,
+					(node1, node2) -> !node1.sameValueAs(node2)), //
+			"lessThan", comparison("lessThan", comparison -> comparison < 0), //
+			"greaterThan", comparison("greaterThan", comparison -> comparison > 0), //
+			"le", comparison("le", comparison -> comparison <= 0), //
+			"ge", comparison("ge", comparison -> comparison >= 0));
+
+	/**
+	 * Returns a function that creates a call of a custom SPARQL function for a
+	 * comparison builtin. In contrast to the SPARQL comparison operators, the
+	 * builtins compare only numbers and date/time values, which is reproduced by
+	 * using the same comparison as the builtins.
+	 */
+	private static BiFunction<Expr, Expr, Expr> comparison(String builtin, IntPredicate test) {
+		return comparison(builtin, test, (node1, node2) -> false);
+	}
+
+	/**
+	 * Returns a function that creates a call of a custom SPARQL function for a
+	 * comparison builtin, which falls back to the given test for values that are
+	 * not comparable as numbers or date/time values. In contrast to the SPARQL
+	 * operator, the {@code notEqual} builtin holds for incomparable values, e.g.
+	 * literals of different datatypes.
+	 */
+	private static BiFunction<Expr, Expr, Expr> comparison(String builtin, IntPredicate test,
+			BiPredicate<Node, Node> incomparableTest) {
+		String iri = BUILTIN_FUNCTION_NAMESPACE + builtin;
+		FunctionRegistry.get().put(iri, uri -> new FunctionBase2() {
+			@Override
+			public NodeValue exec(NodeValue value1, NodeValue value2) {
+				Node node1 = value1.asNode(), node2 = value2.asNode();
+				try {
+					return NodeValue.makeBoolean(Util.comparable(node1, node2)
+							? test.test(Util.compareTypedLiterals(node1, node2))
+							: incomparableTest.test(node1, node2));
+				} catch (ClassCastException e) {
+					// thrown for incomparable date/time values
+					return NodeValue.makeBoolean(incomparableTest.test(node1, node2));
+				}
+			}
+		});
+		return (arg1, arg2) -> new E_Function(iri, new ExprList(List.of(arg1, arg2)));
+	}
+
 	@Parameter
 	public String rules;
+	/**
+	 * If {@code true}, the rules get evaluated semi-naively and in parallel
+	 * without the Forward RETE engine. Requires forward rules consisting only of
+	 * triple patterns and the builtins {@code equal}, {@code notEqual},
+	 * {@code lessThan}, {@code greaterThan}, {@code le}, {@code ge},
+	 * {@code isLiteral}, {@code notLiteral}, {@code isBNode} and
+	 * {@code notBNode}. Otherwise, the Forward RETE engine gets used. Default:
+	 * false
+	 */
+	@Parameter
+	public Boolean streaming = false;
 
 	@Override
 	public Reasoner getReasoner() {
@@ -42,4 +158,130 @@ public class ForwardRuleReasoningProcessor extends AbstractReasoningProcessor<Fo
 		return reasoner;
 	}
 
+	@Override
+	public void run() {
+		if (!streaming) {
+			super.run();
+			return;
+		}
+		List<Query> queries = new ArrayList<>();
+		try {
+			for (Rule rule : Rule.parseRules(rules)) {
+				queries.add(constructQuery(rule));
+			}
+		} catch (IllegalArgumentException e) {
+			log.warn("Streaming evaluation not supported for rules, falling back to Forward RETE engine: {}",
+					e.getMessage());
+			super.run();
+			return;
+		}
+		// rules without triple patterns derive nothing new after the first iteration
+		List<Optional<Query>> deltaQueries = queries.stream().map(SparqlConstructProcessor::deltaQuery).toList();
+
+		Model outputPrimaryModel = this.getOutputPrimaryModel().orElseThrow();
+		Model primaryModelUnion = this.getPrimaryModelUnion();
+
+		Model delta = evaluate(queries, query -> QueryExecutionFactory.create(query, primaryModelUnion),
+				primaryModelUnion);
+		while (!delta.isEmpty()) {
+			outputPrimaryModel.add(delta);
+			Dataset dataset = DatasetFactory.create(primaryModelUnion);
+			dataset.addNamedModel(SparqlConstructProcessor.DELTA.getURI(), delta);
+			delta = evaluate(deltaQueries.stream().flatMap(Optional::stream).toList(),
+					query -> QueryExecutionFactory.create(query, dataset), primaryModelUnion);
+		}
+	}
+
+	/**
+	 * Executes the given queries in parallel and returns the derived statements
+	 * not contained in the given model.
+	 */
+	private static Model evaluate(List<Query> queries,
+			Function<Query, QueryExecution> execution, Model known) {
+		List<Model> results = queries.parallelStream()
+				.map(query -> {
+					try (QueryExecution queryExecution = execution.apply(query)) {
+						return queryExecution.execConstruct(ModelFactory.createDefaultModel());
+					}
+				}).toList();
+		Model delta = ModelFactory.createDefaultModel();
+		for (Model result : results) {
+			StmtIterator statements = result.listStatements();
+			while (statements.hasNext()) {
+				Statement statement = statements.nextStatement();
+				if (!known.contains(statement)) {
+					delta.add(statement);
+				}
+			}
+		}
+		return delta;
+	}
+
+	/**
+	 * Returns a SPARQL construct query deriving the same statements as the given
+	 * forward rule.
+	 * 
+	 * @param rule the rule to translate
+	 * @return the construct query
+	 * @throws IllegalArgumentException if the rule is not supported
+	 */
+	static Query constructQuery(Rule rule) throws IllegalArgumentException {
+		if (rule.isBackward()) {
+			throw new IllegalArgumentException("Backward rules are not supported: " + rule);
+		}
+		BasicPattern template = new BasicPattern();
+		for (ClauseEntry clause : rule.getHead()) {
+			if (!(clause instanceof TriplePattern triplePattern)) {
+				throw new IllegalArgumentException("Only triple patterns are supported in rule heads: " + rule);
+			}
+			template.add(Triple.create(node(triplePattern.getSubject(), rule),
+					node(triplePattern.getPredicate(), rule), node(triplePattern.getObject(), rule)));
+		}
+
+		ElementGroup pattern = new ElementGroup();
+		ElementPathBlock block = new ElementPathBlock();
+		List<ElementFilter> filters = new ArrayList<>();
+		for (ClauseEntry clause : rule.getBody()) {
+			if (clause instanceof TriplePattern triplePattern) {
+				block.addTriple(Triple.create(node(triplePattern.getSubject(), rule),
+						node(triplePattern.getPredicate(), rule), node(triplePattern.getObject(), rule)));
+			} else if (clause instanceof Functor functor && functor.getArgLength() == 1
+					&& UNARY_BUILTINS.containsKey(functor.getName())) {
+				filters.add(new ElementFilter(
+						UNARY_BUILTINS.get(functor.getName()).apply(expr(functor.getArgs()[0], rule))));
+			} else if (clause instanceof Functor functor && functor.getArgLength() == 2
+					&& BINARY_BUILTINS.containsKey(functor.getName())) {
+				filters.add(new ElementFilter(BINARY_BUILTINS.get(functor.getName())
+						.apply(expr(functor.getArgs()[0], rule), expr(functor.getArgs()[1], rule))));
+			} else {
+				throw new IllegalArgumentException("Unsupported rule body clause " + clause + ": " + rule);
+			}
+		}
+		if (!block.isEmpty()) {
+			pattern.addElement(block);
+		}
+		filters.forEach(pattern::addElement);
+
+		Query query = new Query();
+		query.setQueryConstructType();
+		query.setConstructTemplate(new Template(template));
+		query.setQueryPattern(pattern);
+		return query;
+	}
+
+	private static Expr expr(Node node, Rule rule) {
+		return ExprLib.nodeToExpr(node(node, rule));
+	}
+
+	private static Node node(Node node, Rule rule) {
+		if (Functor.isFunctor(node)) {
+			throw new IllegalArgumentException("Functors are not supported as nodes: " + rule);
+		} else if (node instanceof Node_RuleVariable variable) {
+			if (variable == Node_RuleVariable.WILD) {
+				throw new IllegalArgumentException("Wildcards are not supported: " + rule);
+			}
+			return Var.alloc(variable.getName().replaceFirst("^\\?", ""));
+		}
+		return node;
+	}
 }
@@ -47,6 +47,7 @@ public class PopulationComparisonProcessor extends ComparisonProcessor<Populatio
     Set<Resource> datasets;
     Set<ResourcePair> datasetPairs;
     Map<Resource, Model> outputMetaModelByDataset;
+    Map<Resource, AnnotationWriter> annotationWriterByDataset;
 
     AbsoluteCoverage absoluteCoverage = new AbsoluteCoverage();
     AbsoluteCoveredness absoluteCoveredness = new AbsoluteCoveredness();
@@ -59,8 +60,21 @@ public class PopulationComparisonProcessor extends ComparisonProcessor<Populatio
 
     Map<Resource, Set<Resource>> unprocessedResourcesByDataset = new HashMap<>();
 
+    /**
+     * The datasets and dataset pairs of the aspect with the indices of the measures
+     * updated per correspondence group, resolved once per aspect.
+     */
+    List<Resource> datasetList;
+    List<ResourcePair> datasetPairList;
+    int[] absoluteCoverageIndices;
+    int[] absoluteCoverednessIndices;
+    int[] duplicateCountIndices;
+
     public void run() {
         for (Resource aspectIri : aspects) {
+            if (isStopRequested()) {
+                return;
+            }
             Aspect aspect = this.getAspects().get(aspectIri);
             compareAspectPopulation(aspect);
         }
@@ -88,6 +102,7 @@ public class PopulationComparisonProcessor extends ComparisonProcessor<Populatio
         relativeCoverage.storeInModel(aspect, outputMetaModelByDataset);
         completeness.storeInModel(aspect, outputMetaModelByDataset);
         reportOmissionsOfUnprocessedResources();
+        flushAnnotationWriters(annotationWriterByDataset);
     }
 
     private void setAspect(Aspect aspect) {
@@ -98,6 +113,7 @@ public class PopulationComparisonProcessor extends ComparisonProcessor<Populatio
         datasets = aspect.getDatasets();
         datasetPairs = ResourcePair.getPairsOf(datasets);
         outputMetaModelByDataset = getOutputMetaModels(datasets);
+        annotationWriterByDataset = getAnnotationWriters(outputMetaModelByDataset);
     }
 
     private void loadResourcesOfAspect() {
@@ -113,10 +129,20 @@ public class PopulationComparisonProcessor extends ComparisonProcessor<Populatio
         duplicateCount.reset(datasets, 0L);
         absoluteCoverage.reset(datasetPairs, 0L);
         absoluteCoveredness.reset(datasets, 0L);
+        resolveMeasureIndices();
+    }
+
+    void resolveMeasureIndices() {
+        datasetList = new ArrayList<>(datasets);
+        datasetPairList = new ArrayList<>(datasetPairs);
+        absoluteCoverageIndices = absoluteCoverage.indicesOf(datasetPairList);
+        absoluteCoverednessIndices = absoluteCoveredness.indicesOf(datasetList);
+        duplicateCountIndices = duplicateCount.indicesOf(datasetList);
     }
 
     private void countAndReportCoverageAndDuplicatesAndOmissions(Stream<List<Resource>> correspondenceGroups) {
-        correspondenceGroups.forEach(this::countAndReportCoverageAndDuplicatesAndOmissions);
+        correspondenceGroups.takeWhile(correspondingResources -> !isStopRequested())
+                .forEach(this::countAndReportCoverageAndDuplicatesAndOmissions);
     }
 
     private void countAndReportCoverageAndDuplicatesAndOmissions(List<Resource> correspondingResources) {
@@ -130,10 +156,11 @@ public class PopulationComparisonProcessor extends ComparisonProcessor<Populatio
     }
 
     private void incrementAbsoluteCoverages(Map<Resource, Set<Resource>> correspondingResourcesByDataset) {
-        for (ResourcePair datasetPair : datasetPairs) {
+        for (int i = 0; i < datasetPairList.size(); i++) {
+            ResourcePair datasetPair = datasetPairList.get(i);
             if (!correspondingResourcesByDataset.get(datasetPair.first).isEmpty() &&
                     !correspondingResourcesByDataset.get(datasetPair.second).isEmpty()) {
-                absoluteCoverage.incrementByOrSetOne(datasetPair);
+                absoluteCoverage.incrementByOrSetOneAt(absoluteCoverageIndices[i]);
             }
         }
     }
@@ -146,9 +173,9 @@ public class PopulationComparisonProcessor extends ComparisonProcessor<Populatio
             }
         }
         if (correspondingResourcesOriginsCount >= 2) {
-            for (Resource dataset : datasets) {
-                if (!correspondingResourcesByDataset.get(dataset).isEmpty()) {
-                    absoluteCoveredness.incrementByOrSetOne(dataset);
+            for (int i = 0; i < datasetList.size(); i++) {
+                if (!correspondingResourcesByDataset.get(datasetList.get(i)).isEmpty()) {
+                    absoluteCoveredness.incrementByOrSetOneAt(absoluteCoverednessIndices[i]);
                 }
             }
         }
@@ -165,17 +192,18 @@ public class PopulationComparisonProcessor extends ComparisonProcessor<Populatio
     private void reportOmissionsForDataset(Resource dataset, Map<Resource, Set<Resource>> missingResourcesByDataset) {
         for (Resource datasetComparedTo : missingResourcesByDataset.keySet()) {
             for (Resource resourceComparedTo : missingResourcesByDataset.get(datasetComparedTo)) {
-                Metadata.addResourceOmission(dataset, datasetComparedTo, resourceComparedTo,
-                        aspect.getIri(), outputMetaModelByDataset.get(dataset));
+                annotationWriterByDataset.get(dataset).addResourceOmission(dataset, datasetComparedTo,
+                        resourceComparedTo, aspect.getIri());
             }
         }
     }
 
     private void incrementDuplicatesCount(Map<Resource, Set<Resource>> correspondingResourcesByDataset) {
-        for (Resource dataset : datasets) {
-            if (!correspondingResourcesByDataset.get(dataset).isEmpty()) {
-                int occurrencesInDataset = correspondingResourcesByDataset.get(dataset).size();
-                duplicateCount.incrementByOrSet(dataset, occurrencesInDataset - 1);
+        for (int i = 0; i < datasetList.size(); i++) {
+            Set<Resource> correspondingResourcesOfDataset = correspondingResourcesByDataset.get(datasetList.get(i));
+            if (!correspondingResourcesOfDataset.isEmpty()) {
+                int occurrencesInDataset = correspondingResourcesOfDataset.size();
+                duplicateCount.incrementByOrSetAt(duplicateCountIndices[i], occurrencesInDataset - 1);
             }
         }
     }
@@ -186,8 +214,8 @@ public class PopulationComparisonProcessor extends ComparisonProcessor<Populatio
                 for (Resource duplicateResource1 : correspondingResourcesByDataset.get(dataset)) {
                     for (Resource duplicateResource2 : correspondingResourcesByDataset.get(dataset)) {
                         if (!duplicateResource1.equals(duplicateResource2)) {
-                            Metadata.addResourceDuplicate(duplicateResource1, duplicateResource2, aspect.getIri(),
-                                    outputMetaModelByDataset.get(dataset));
+                            annotationWriterByDataset.get(dataset).addResourceDuplicate(duplicateResource1,
+                                    duplicateResource2, aspect.getIri());
                         }
                     }
                 }
@@ -222,8 +250,8 @@ public class PopulationComparisonProcessor extends ComparisonProcessor<Populatio
 
     private void reportOmissionsOfUnprocessedResourcesForResource(Resource dataset, Resource datasetComparedTo) {
         for (Resource unprocessedResource : unprocessedResourcesByDataset.get(datasetComparedTo)) {
-            Metadata.addResourceOmission(dataset, datasetComparedTo, unprocessedResource, aspect.getIri(),
-                    outputMetaModelByDataset.get(dataset));
+            annotationWriterByDataset.get(dataset).addResourceOmission(dataset, datasetComparedTo, unprocessedResource,
+                    aspect.getIri());
         }
     }
 
@@ -19,6 +19,9 @@
 package de.uni_jena.cs.fusion.abecto.processor;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -29,6 +32,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 import javax.annotation.Nullable;
@@ -40,6 +44,7 @@ import org.apache.jena.arq.querybuilder.WhereBuilder;
 import org.apache.jena.query.Query;
 import org.apache.jena.query.QueryExecutionFactory;
 import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelChangedListener;
 import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.rdf.model.RDFNode;
 import org.apache.jena.rdf.model.Resource;
@@ -48,6 +53,7 @@ import org.apache.jena.sparql.core.Var;
 import de.uni_jena.cs.fusion.abecto.Aspect;
 import de.uni_jena.cs.fusion.abecto.Vocabularies;
 import de.uni_jena.cs.fusion.abecto.util.Models;
+import de.uni_jena.cs.fusion.abecto.util.QueryResultCache;
 import de.uni_jena.cs.fusion.abecto.util.Queries;
 import de.uni_jena.cs.fusion.abecto.vocabulary.AV;
 
@@ -85,6 +91,38 @@ public abstract class Processor<P extends Processor<P>> implements Runnable {
 
 	private File relativeBasePath;
 
+	/**
+	 * The directory to store the output primary model on disk, or {@code null}
+	 * for an in-memory output primary model.
+	 */
+	@Nullable
+	private File primaryDataDirectory;
+	/**
+	 * The directory of the disk-backed output primary model created by this
+	 * processor, if any.
+	 */
+	private File primaryDataStoreDirectory;
+
+	/**
+	 * The cache for results of queries to remote services, or {@code null} to not
+	 * cache results.
+	 */
+	@Nullable
+	private QueryResultCache queryResultCache;
+
+	/**
+	 * The listener to register at output metamodels, or {@code null} to not
+	 * register a listener.
+	 */
+	@Nullable
+	private ModelChangedListener outputMetaModelListener;
+	private Predicate<Resource> outputMetaModelListenerDatasets;
+
+	/**
+	 * Whether the processing should stop as soon as possible.
+	 */
+	private volatile boolean stopRequested = false;
+
 	public P addAspects(Aspect... aspects) {
 		for (Aspect aspect : aspects) {
 			this.aspects.put(aspect.getIri(), aspect);
@@ -272,8 +310,29 @@ public abstract class Processor<P extends Processor<P>> implements Runnable {
 	 * @return the output metamodel
 	 */
 	public final Model getOutputMetaModel(@Nullable Resource dataset) {
-		return this.outputMetaModelsByDataset.computeIfAbsent(dataset,
-				k -> ModelFactory.createDefaultModel().withDefaultMappings(Vocabularies.getDefaultPrefixMapping()));
+		return this.outputMetaModelsByDataset.computeIfAbsent(dataset, k -> registerOutputMetaModelListener(k,
+				ModelFactory.createDefaultModel().withDefaultMappings(Vocabularies.getDefaultPrefixMapping())));
+	}
+
+	/**
+	 * Returns whether changes of the output metamodel of the given dataset get
+	 * observed by a listener.
+	 * 
+	 * @param dataset the assigned dataset of the output metamodel or {@code null}
+	 *                for the general output metamodel
+	 * @return {@code true}, if a listener is set for the output metamodel
+	 * 
+	 * @see #setOutputMetaModelListener(ModelChangedListener, Predicate)
+	 */
+	protected final boolean isOutputMetaModelListened(@Nullable Resource dataset) {
+		return this.outputMetaModelListener != null && this.outputMetaModelListenerDatasets.test(dataset);
+	}
+
+	private Model registerOutputMetaModelListener(@Nullable Resource dataset, Model outputMetaModel) {
+		if (isOutputMetaModelListened(dataset)) {
+			outputMetaModel.register(this.outputMetaModelListener);
+		}
+		return outputMetaModel;
 	}
 
     /**
@@ -304,6 +363,23 @@ public abstract class Processor<P extends Processor<P>> implements Runnable {
 						this.associatedDataset.orElseThrow(() -> new IllegalStateException("No associated dataset."))));
 	}
 
+	/**
+	 * Replaces the in-memory output primary model by a compact read-only copy.
+	 * Output primary models stored on disk or backed by a SPARQL endpoint remain
+	 * unchanged.
+	 * <p>
+	 * <strong>Note:</strong> Must only be called after the processing is
+	 * completed.
+	 * 
+	 * @see Models#freeze(Model)
+	 */
+	public final void freezeOutputPrimaryModel() {
+		if (this.outputPrimaryModel.isPresent() && !Models.isPersistent(this.outputPrimaryModel.get())
+				&& !Models.isRemote(this.outputPrimaryModel.get())) {
+			this.outputPrimaryModel = Optional.of(Models.freeze(this.outputPrimaryModel.get()));
+		}
+	}
+
 	public File getRelativeBasePath() {
 		return relativeBasePath;
 	}
@@ -331,7 +407,7 @@ public abstract class Processor<P extends Processor<P>> implements Runnable {
 
 	protected final P replaceOutputMetaModel(Resource dataset, Model outputMetaModel) {
 		Objects.requireNonNull(dataset, "Replacing general output meta model not permitted.");
-		this.outputMetaModelsByDataset.put(dataset, outputMetaModel);
+		this.outputMetaModelsByDataset.put(dataset, registerOutputMetaModelListener(dataset, outputMetaModel));
 		return self();
 	}
 
@@ -363,10 +439,118 @@ public abstract class Processor<P extends Processor<P>> implements Runnable {
 	 */
 	public final P setAssociatedDataset(Resource dataset) {
 		this.associatedDataset = Optional.of(dataset);
-		this.outputPrimaryModel = Optional.of(ModelFactory.createDefaultModel());
+		this.outputPrimaryModel = Optional.of(createOutputPrimaryModel());
+		return self();
+	}
+
+	private Model createOutputPrimaryModel() {
+		if (this.primaryDataDirectory == null) {
+			return ModelFactory.createDefaultModel();
+		}
+		try {
+			Files.createDirectories(this.primaryDataDirectory.toPath());
+			this.primaryDataStoreDirectory = Files
+					.createTempDirectory(this.primaryDataDirectory.toPath(), "primary-data-").toFile();
+			return Models.createPersistentModel(this.primaryDataStoreDirectory);
+		} catch (IOException e) {
+			throw new UncheckedIOException(
+					String.format("Failed to create primary data store in \"%s\".", this.primaryDataDirectory), e);
+		}
+	}
+
+	/**
+	 * Releases the disk-backed output primary model created by this processor, if
+	 * any, and deletes its directory.
+	 * <p>
+	 * <strong>Note:</strong> Must only be called after the output primary model is
+	 * not used anymore, neither by this processor nor by succeeding processors or
+	 * the result dataset.
+	 * 
+	 * @throws IOException if the directory could not be deleted
+	 */
+	public final void deletePrimaryDataStore() throws IOException {
+		if (this.primaryDataStoreDirectory != null) {
+			this.outputPrimaryModel = Optional.empty();
+			Models.deletePersistentModel(this.primaryDataStoreDirectory);
+			this.primaryDataStoreDirectory = null;
+		}
+	}
+
+	/**
+	 * Sets the directory to store the output primary model on disk. Each
+	 * processor will use its own subdirectory. If not set, the output primary
+	 * model will be kept in memory.
+	 * <p>
+	 * <strong>Note:</strong> Must be set before
+	 * {@link #setAssociatedDataset(Resource)} to take effect.
+	 * 
+	 * @param primaryDataDirectory the directory to store the output primary model
+	 *                             in or {@code null} to keep it in memory
+	 */
+	public final P setPrimaryDataDirectory(@Nullable File primaryDataDirectory) {
+		this.primaryDataDirectory = primaryDataDirectory;
+		return self();
+	}
+
+	/**
+	 * Returns the cache for results of queries to remote services.
+	 * 
+	 * @return the cache or an empty {@link Optional}, if results should not be
+	 *         cached
+	 */
+	public final Optional<QueryResultCache> getQueryResultCache() {
+		return Optional.ofNullable(this.queryResultCache);
+	}
+
+	/**
+	 * Sets the cache for results of queries to remote services.
+	 * 
+	 * @param queryResultCache the cache or {@code null} to not cache results
+	 */
+	public final P setQueryResultCache(@Nullable QueryResultCache queryResultCache) {
+		this.queryResultCache = queryResultCache;
+		return self();
+	}
+
+	/**
+	 * Sets a listener to get notified about changes of the output metamodels of
+	 * the given datasets during the processing. This enables to react on
+	 * metadata as soon as it gets added.
+	 * <p>
+	 * <strong>Note:</strong> Must be called before the processing is started.
+	 * 
+	 * @param listener the listener to notify
+	 * @param datasets the datasets of the output metamodels to observe, tested
+	 *                 with {@code null} for the general output metamodel
+	 */
+	public final P setOutputMetaModelListener(ModelChangedListener listener, Predicate<Resource> datasets) {
+		this.outputMetaModelListener = listener;
+		this.outputMetaModelListenerDatasets = datasets;
+		this.outputMetaModelsByDataset.forEach(this::registerOutputMetaModelListener);
 		return self();
 	}
 
+	/**
+	 * Requests the processing to stop as soon as possible, e.g. because a result
+	 * observed by a listener makes further results obsolete. Processors check for
+	 * the request between units of work using {@link #isStopRequested()}, so that
+	 * no output model is left in an inconsistent state.
+	 */
+	public final void requestStop() {
+		this.stopRequested = true;
+	}
+
+	/**
+	 * Returns whether the processing should stop as soon as possible.
+	 * 
+	 * @return {@code true}, if a stop was requested
+	 * 
+	 * @see #requestStop()
+	 */
+	public final boolean isStopRequested() {
+		return this.stopRequested;
+	}
+
 	public void setRelativeBasePath(File relativeBasePath) {
 		this.relativeBasePath = relativeBasePath;
 	}
@@ -24,7 +24,7 @@ import java.util.stream.Collectors;
 import de.uni_jena.cs.fusion.abecto.*;
 import de.uni_jena.cs.fusion.abecto.measure.*;
 import de.uni_jena.cs.fusion.abecto.util.Literals;
-import org.apache.jena.arq.querybuilder.SelectBuilder;
+import de.uni_jena.cs.fusion.abecto.util.Queries;
 import org.apache.jena.datatypes.xsd.impl.*;
 import org.apache.jena.query.*;
 import org.apache.jena.rdf.model.Literal;
@@ -32,7 +32,6 @@ import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.RDFNode;
 import org.apache.jena.rdf.model.Resource;
 
-import org.apache.jena.sparql.core.Var;
 import org.apache.jena.sparql.expr.nodevalue.NodeFunctions;
 
 public class PropertyComparisonProcessor extends ComparisonProcessor<PropertyComparisonProcessor> {
@@ -71,6 +70,7 @@ public class PropertyComparisonProcessor extends ComparisonProcessor<PropertyCom
     Set<Resource> datasets;
     Set<ResourcePair> datasetPairs;
     Map<Resource, Model> outputMetaModelByDataset;
+    Map<Resource, AnnotationWriter> annotationWriterByDataset;
 
     Map<String, AbsoluteCoverage> absoluteValueCoverage;
     Map<String, RelativeCoverage> relativeValueCoverage = new HashMap<>();
@@ -94,6 +94,7 @@ public class PropertyComparisonProcessor extends ComparisonProcessor<PropertyCom
         loadResourcesOfAspect();
         compareValuesOfCorrespondingResources();
         compareValuesOfNotCorrespondingResources();
+        flushAnnotationWriters(annotationWriterByDataset);
         calculateDuplicateCount();
         calculateRelativeCoveredness();
         calculateRelativeCoverage();
@@ -109,6 +110,7 @@ public class PropertyComparisonProcessor extends ComparisonProcessor<PropertyCom
         datasets = theAspect.getDatasets();
         datasetPairs = ResourcePair.getPairsOf(datasets);
         outputMetaModelByDataset = getOutputMetaModels(datasets);
+        annotationWriterByDataset = getAnnotationWriters(outputMetaModelByDataset);
         resourcesByNonDistinctValueByDatasetByVariable = createMapOfResourcesByValueByDatasetByVariable();
         resourcesByDistinctValueByDatasetByVariable = createMapOfResourcesByValueByDatasetByVariable();
     }
@@ -178,7 +180,8 @@ public class PropertyComparisonProcessor extends ComparisonProcessor<PropertyCom
     }
 
     protected void compareValuesOfCorrespondingResources() {
-        getCorrespondenceGroups().forEach(this::compareValuesOfCorrespondingResources);
+        getCorrespondenceGroups().takeWhile(correspondingResources -> !isStopRequested())
+                .forEach(this::compareValuesOfCorrespondingResources);
     }
 
     protected void compareValuesOfCorrespondingResources(List<Resource> correspondingResources) {
@@ -306,9 +309,9 @@ public class PropertyComparisonProcessor extends ComparisonProcessor<PropertyCom
             for (Resource dataset : datasets) {
                 if (theAspect.variableCoveredByDataset(variable, dataset)) {
                     Map<RDFNode, Set<Resource>> resourcesByNonDistinctValue = resourcesByNonDistinctValueByDataset.get(dataset);
-                    for (RDFNode nonDistinctValue : resourcesByNonDistinctValue.keySet()) {
-                        Set<Resource> resourcesOfNonDistinctValue = resourcesByNonDistinctValue.get(nonDistinctValue);
-                        nonDistinctValuesCountOfVariable.incrementByOrSet(dataset, resourcesOfNonDistinctValue.size());
+                    int index = nonDistinctValuesCountOfVariable.indexOf(dataset);
+                    for (Set<Resource> resourcesOfNonDistinctValue : resourcesByNonDistinctValue.values()) {
+                        nonDistinctValuesCountOfVariable.incrementByOrSetAt(index, resourcesOfNonDistinctValue.size());
                     }
                 }
             }
@@ -347,10 +350,11 @@ public class PropertyComparisonProcessor extends ComparisonProcessor<PropertyCom
                     Set<RDFNode> distinctValuesOfSecondDataset = resourcesByDistinctValueByDataset.get(datasetPair.second).keySet();
                     Set<RDFNode> uncoveredDistinctValuesOfFirstDataset = uncoveredDistinctValuesByDataset.get(datasetPair.first);
                     Set<RDFNode> uncoveredDistinctValuesOfSecondDataset = uncoveredDistinctValuesByDataset.get(datasetPair.second);
+                    int index = absoluteCoverageForVariable.indexOf(datasetPair);
                     for (RDFNode valueOfFirstDataset : distinctValuesOfFirstDataset) {
                         for (RDFNode valueOfSecondDataset : distinctValuesOfSecondDataset) {
                             if (equivalentValues(valueOfFirstDataset, valueOfSecondDataset)) {
-                                absoluteCoverageForVariable.incrementByOrSetOne(datasetPair);
+                                absoluteCoverageForVariable.incrementByOrSetOneAt(index);
                                 uncoveredDistinctValuesOfFirstDataset.remove(valueOfFirstDataset);
                                 uncoveredDistinctValuesOfSecondDataset.remove(valueOfSecondDataset);
                                 break;
@@ -400,15 +404,15 @@ public class PropertyComparisonProcessor extends ComparisonProcessor<PropertyCom
                         if (uncoveredValuesOfFirstResource.isEmpty()) {
                             for (RDFNode value2 : uncoveredValuesOfSecondResource) {
                                 if (notKnownWrongValue(secondResource, variable, value2, datasetPair.second)) {
-                                    Metadata.addValuesOmission(firstResource, variable, datasetPair.second, secondResource, value2, aspect,
-                                            getOutputMetaModel(datasetPair.first));
+                                    annotationWriterByDataset.get(datasetPair.first).addValuesOmission(firstResource, variable,
+                                            datasetPair.second, secondResource, value2, aspect);
                                 }
                             }
                         } else if (uncoveredValuesOfSecondResource.isEmpty()) {
                             for (RDFNode value1 : uncoveredValuesOfFirstResource) {
                                 if (notKnownWrongValue(firstResource, variable, value1, datasetPair.first)) {
-                                    Metadata.addValuesOmission(secondResource, variable, datasetPair.first, firstResource, value1, aspect,
-                                            getOutputMetaModel(datasetPair.second));
+                                    annotationWriterByDataset.get(datasetPair.second).addValuesOmission(secondResource, variable,
+                                            datasetPair.first, firstResource, value1, aspect);
                                 }
                             }
                         } else {
@@ -416,12 +420,12 @@ public class PropertyComparisonProcessor extends ComparisonProcessor<PropertyCom
                             for (RDFNode value1 : uncoveredValuesOfFirstResource) {
                                 for (RDFNode value2 : uncoveredValuesOfSecondResource) {
                                     if (notKnownWrongValue(secondResource, variable, value2, datasetPair.second)) {
-                                        Metadata.addDeviation(firstResource.asResource(), variable, value1, datasetPair.second,
-                                                secondResource.asResource(), value2, aspect, getOutputMetaModel(datasetPair.first));
+                                        annotationWriterByDataset.get(datasetPair.first).addDeviation(firstResource.asResource(), variable,
+                                                value1, datasetPair.second, secondResource.asResource(), value2, aspect);
                                     }
                                     if (notKnownWrongValue(firstResource, variable, value1, datasetPair.first)) {
-                                        Metadata.addDeviation(secondResource.asResource(), variable, value2, datasetPair.first,
-                                                firstResource.asResource(), value1, aspect, getOutputMetaModel(datasetPair.second));
+                                        annotationWriterByDataset.get(datasetPair.second).addDeviation(secondResource.asResource(), variable,
+                                                value2, datasetPair.first, firstResource.asResource(), value1, aspect);
                                     }
                                 }
                             }
@@ -479,38 +483,31 @@ public class PropertyComparisonProcessor extends ComparisonProcessor<PropertyCom
         if (!theAspect.coversDataset(dataset)) {
             return Collections.emptyMap();
         }
-        Query query = getQueryForResource(dataset, resource);
         Model model = getInputPrimaryModelUnion(dataset);
-        return getValuesByVariable(model, query);
-    }
-
-    protected Query getQueryForResource(Resource dataset, Resource resource) {
-        Query aspectPatternOfDataset = theAspect.getPattern(dataset).cloneQuery();
-        Var keyVariable = theAspect.getKeyVariable();
-        return SelectBuilder.rewrite(aspectPatternOfDataset, Collections.singletonMap(keyVariable, resource.asNode()));
+        try (Queries.SelectResults results = Queries.execSelect(model, theAspect.getPattern(dataset),
+                theAspect.getKeyVariable(), resource.asNode())) {
+            return getValuesByVariable(results.getResultSet());
+        }
     }
 
-    protected Map<String, Set<RDFNode>> getValuesByVariable(Model model, Query query) {
-        try (QueryExecution queryExecution = QueryExecutionFactory.create(query, model)) {
-            ResultSet results = queryExecution.execSelect();
-            List<String> relevantVariables = getRelevantVariables(results);
-            Map<String, Set<RDFNode>> valuesByVariable = new HashMap<>();
+    protected Map<String, Set<RDFNode>> getValuesByVariable(ResultSet results) {
+        List<String> relevantVariables = getRelevantVariables(results);
+        Map<String, Set<RDFNode>> valuesByVariable = new HashMap<>();
+        for (String variable : relevantVariables) {
+            valuesByVariable.put(variable, new HashSet<>());
+        }
+        while (results.hasNext()) {
+            QuerySolution result = results.next();
             for (String variable : relevantVariables) {
-                valuesByVariable.put(variable, new HashSet<>());
-            }
-            while (results.hasNext()) {
-                QuerySolution result = results.next();
-                for (String variable : relevantVariables) {
-                    if (result.contains(variable)) {
-                        RDFNode value = result.get(variable);
-                        if (!isExcludedValue(value)) {
-                            valuesByVariable.get(variable).add(value);
-                        }
+                if (result.contains(variable)) {
+                    RDFNode value = result.get(variable);
+                    if (!isExcludedValue(value)) {
+                        valuesByVariable.get(variable).add(value);
                     }
                 }
             }
-            return valuesByVariable;
         }
+        return valuesByVariable;
     }
 
     List<String> getRelevantVariables(ResultSet results) {
@@ -18,40 +18,195 @@
 
 package de.uni_jena.cs.fusion.abecto.processor;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
 import org.apache.jena.query.Query;
 import org.apache.jena.query.QueryExecution;
 import org.apache.jena.query.QueryExecutionFactory;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.rdf.model.StmtIterator;
+import org.apache.jena.sparql.algebra.walker.Walker;
+import org.apache.jena.sparql.core.PathBlock;
+import org.apache.jena.sparql.core.TriplePath;
+import org.apache.jena.sparql.expr.ExprFunctionOp;
+import org.apache.jena.sparql.expr.ExprVisitorBase;
+import org.apache.jena.sparql.path.PathCompiler;
+import org.apache.jena.sparql.syntax.Element;
+import org.apache.jena.sparql.syntax.ElementBind;
+import org.apache.jena.sparql.syntax.ElementData;
+import org.apache.jena.sparql.syntax.ElementFilter;
+import org.apache.jena.sparql.syntax.ElementGroup;
+import org.apache.jena.sparql.syntax.ElementNamedGraph;
+import org.apache.jena.sparql.syntax.ElementPathBlock;
+import org.apache.jena.sparql.syntax.ElementTriplesBlock;
+import org.apache.jena.sparql.syntax.ElementUnion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import de.uni_jena.cs.fusion.abecto.Parameter;
 import de.uni_jena.cs.fusion.abecto.converter.StringToQueryConverter;
 
 public class SparqlConstructProcessor extends Processor<SparqlConstructProcessor> {
 
+	final static Logger log = LoggerFactory.getLogger(SparqlConstructProcessor.class);
+
+	/**
+	 * Name of the graph containing the statements added in the previous iteration.
+	 */
+	final static Node DELTA = NodeFactory.createURI("urn:x-abecto:delta");
+
 	@Parameter(converter = StringToQueryConverter.class)
 	public Query query;
 	@Parameter
 	public Integer maxIterations = 1;
+	/**
+	 * If {@code true}, iterations after the first one only derive statements that
+	 * depend on at least one statement added in the previous iteration, if the
+	 * query pattern consists only of triple patterns, property paths reducible to
+	 * triple patterns, {@code FILTER} without {@code EXISTS}, {@code BIND} and
+	 * {@code VALUES}. Default: false
+	 */
+	@Parameter
+	public Boolean semiNaive = false;
 
 	@Override
-	public void run() {		
+	public void run() {
 		Model outputPrimaryModel = this.getOutputPrimaryModel().get();
 		Model primaryModelUnion = this.getPrimaryModelUnion();
 
+		Optional<Query> deltaQuery = Optional.empty();
+		if (semiNaive && maxIterations > 1) {
+			deltaQuery = deltaQuery(query);
+			if (deltaQuery.isEmpty()) {
+				log.warn("Semi-naive evaluation not supported for query, falling back to naive evaluation.");
+			}
+		}
+
+		Model delta = null;
 		for (int iteration = 1; iteration <= maxIterations; iteration++) {
 			// prepare execution
-			QueryExecution queryExecution = QueryExecutionFactory.create(query, primaryModelUnion);
+			QueryExecution queryExecution;
+			if (delta != null && deltaQuery.isPresent()) {
+				Dataset dataset = DatasetFactory.create(primaryModelUnion);
+				dataset.addNamedModel(DELTA.getURI(), delta);
+				queryExecution = QueryExecutionFactory.create(deltaQuery.get(), dataset);
+			} else {
+				queryExecution = QueryExecutionFactory.create(query, primaryModelUnion);
+			}
 
 			// execute and write into intermediate result model
 			Model intermediateResultModel = queryExecution.execConstruct(ModelFactory.createDefaultModel());
 
+			// determine new statements
+			delta = ModelFactory.createDefaultModel();
+			StmtIterator statements = intermediateResultModel.listStatements();
+			while (statements.hasNext()) {
+				Statement statement = statements.nextStatement();
+				if (!primaryModelUnion.contains(statement)) {
+					delta.add(statement);
+				}
+			}
+
 			// add new statements (if any) to result model, otherwise break
-			if (!primaryModelUnion.containsAll(intermediateResultModel)) {
-				outputPrimaryModel.add(intermediateResultModel);
-			} else {
+			if (delta.isEmpty()) {
 				break;
 			}
+			outputPrimaryModel.add(delta);
+		}
+	}
+
+	/**
+	 * Returns a variant of the given query that only derives statements depending
+	 * on at least one statement of the named graph {@link #DELTA}. The union of
+	 * the results of the variant and the given query on the remaining statements
+	 * equals the results of the given query on all statements. Returns an empty
+	 * {@link Optional}, if the query pattern is not supported.
+	 * 
+	 * @param query the query to derive the variant for
+	 * @return the variant of the query
+	 */
+	static Optional<Query> deltaQuery(Query query) {
+		if (!query.isConstructType() || query.hasDatasetDescription() || query.hasLimit() || query.hasOffset()
+				|| query.hasGroupBy() || query.hasAggregators()
+				|| !(query.getQueryPattern() instanceof ElementGroup group)) {
+			return Optional.empty();
+		}
+		List<Element> elements = new ArrayList<>();
+		for (Element element : group.getElements()) {
+			if (element instanceof ElementPathBlock block) {
+				PathBlock reduced = new PathCompiler().reduce(block.getPattern());
+				if (!reduced.getList().stream().allMatch(TriplePath::isTriple)) {
+					return Optional.empty();
+				}
+				elements.add(new ElementPathBlock(reduced));
+			} else if (element instanceof ElementTriplesBlock block) {
+				ElementPathBlock pathBlock = new ElementPathBlock();
+				block.getPattern().forEach(pathBlock::addTriple);
+				elements.add(pathBlock);
+			} else if (element instanceof ElementFilter filter && !containsExists(filter)) {
+				elements.add(filter);
+			} else if (element instanceof ElementBind || element instanceof ElementData) {
+				elements.add(element);
+			} else {
+				return Optional.empty();
+			}
 		}
+
+		// one alternative for each triple pattern matching the delta
+		ElementUnion union = new ElementUnion();
+		for (int i = 0; i < elements.size(); i++) {
+			if (elements.get(i) instanceof ElementPathBlock block) {
+				List<TriplePath> triples = block.getPattern().getList();
+				for (int j = 0; j < triples.size(); j++) {
+					ElementGroup alternative = new ElementGroup();
+					for (int k = 0; k < elements.size(); k++) {
+						if (k == i) {
+							ElementPathBlock deltaBlock = new ElementPathBlock();
+							deltaBlock.addTriple(triples.get(j));
+							alternative.addElement(new ElementNamedGraph(DELTA, deltaBlock));
+							ElementPathBlock remainingBlock = new ElementPathBlock();
+							for (int l = 0; l < triples.size(); l++) {
+								if (l != j) {
+									remainingBlock.addTriple(triples.get(l));
+								}
+							}
+							if (!remainingBlock.isEmpty()) {
+								alternative.addElement(remainingBlock);
+							}
+						} else {
+							alternative.addElement(elements.get(k));
+						}
+					}
+					union.addElement(alternative);
+				}
+			}
+		}
+		if (union.getElements().isEmpty()) {
+			return Optional.empty();
+		}
+
+		Query deltaQuery = query.cloneQuery();
+		deltaQuery.setQueryPattern(union);
+		return Optional.of(deltaQuery);
+	}
+
+	private static boolean containsExists(ElementFilter filter) {
+		AtomicBoolean containsExists = new AtomicBoolean(false);
+		Walker.walk(filter.getExpr(), new ExprVisitorBase() {
+			@Override
+			public void visit(ExprFunctionOp funcOp) {
+				containsExists.set(true);
+			}
+		});
+		return containsExists.get();
 	}
 }
@@ -18,25 +18,45 @@
 
 package de.uni_jena.cs.fusion.abecto.processor;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
-import java.util.ListIterator;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import javax.annotation.Nullable;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.GraphListenerBase;
+import org.apache.jena.graph.GraphUtil;
 import org.apache.jena.graph.Node;
 import org.apache.jena.graph.Triple;
 import org.apache.jena.query.Query;
 import org.apache.jena.query.QueryExecution;
-import org.apache.jena.query.QueryExecutionBuilder;
 import org.apache.jena.query.ResultSet;
 import org.apache.jena.rdf.model.*;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.apache.jena.riot.system.StreamRDFWrapper;
+import org.apache.jena.shared.PrefixMapping;
 import org.apache.jena.sparql.core.BasicPattern;
 import org.apache.jena.sparql.core.Var;
 import org.apache.jena.sparql.engine.binding.Binding;
@@ -45,20 +65,26 @@ import org.apache.jena.sparql.expr.E_NotOneOf;
 import org.apache.jena.sparql.expr.ExprList;
 import org.apache.jena.sparql.expr.ExprVar;
 import org.apache.jena.sparql.expr.nodevalue.NodeValueNode;
+import org.apache.jena.sparql.graph.GraphFactory;
 import org.apache.jena.sparql.syntax.Element;
 import org.apache.jena.sparql.syntax.ElementData;
 import org.apache.jena.sparql.syntax.ElementFilter;
 import org.apache.jena.sparql.syntax.ElementGroup;
 import org.apache.jena.sparql.syntax.ElementTriplesBlock;
 import org.apache.jena.sparql.syntax.Template;
-import org.apache.jena.util.iterator.ExtendedIterator;
 import org.apache.jena.vocabulary.RDF;
 import org.apache.jena.vocabulary.RDFS;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import de.uni_jena.cs.fusion.abecto.Aspect;
 import de.uni_jena.cs.fusion.abecto.Parameter;
 import de.uni_jena.cs.fusion.abecto.converter.StringToQueryConverter;
+import de.uni_jena.cs.fusion.abecto.graph.NodeDictionary;
+import de.uni_jena.cs.fusion.abecto.graph.StreamRDFGraph;
+import de.uni_jena.cs.fusion.abecto.util.CircuitBreaker;
+import de.uni_jena.cs.fusion.abecto.util.QueryResultCache;
+import de.uni_jena.cs.fusion.abecto.visitor.ConstructQueryExtractionVisitor;
 
 public class SparqlSourceProcessor extends Processor<SparqlSourceProcessor> {
 
@@ -81,13 +107,13 @@ public class SparqlSourceProcessor extends Processor<SparqlSourceProcessor> {
 	@Parameter
 	private Double chunkSizeDecreaseFactor = 0.5;
 	/**
-	 * Factor to increase the {@link #chunkSize} after successful request to the
-	 * source SPARQL endpoint until the initial value got restores. Default: 1.5
-	 * 
-	 * @see #maxRetries
+	 * Number of resources to add to the chunk size after a successful request to
+	 * the source SPARQL endpoint that met the {@link #targetResponseTime} and the
+	 * {@link #targetResponseSize}, until the {@link #chunkSize} got restored.
+	 * Default: 50
 	 */
 	@Parameter
-	private Double chunkSizeIncreaseFactor = 1.5;
+	private Integer chunkSizeIncrement = 50;
 	/**
 	 * SELECT query to retrieve a list of the relevant resources. All variables will
 	 * be taken into account. None IRI values will be ignored. ORDER BY, LIMIT and
@@ -146,10 +172,73 @@ public class SparqlSourceProcessor extends Processor<SparqlSourceProcessor> {
 	 */
 	@Parameter
 	public Integer maxRetries = 128;
+	/**
+	 * Maximum number of concurrent requests to the source SPARQL endpoint.
+	 * Default: 4
+	 */
+	@Parameter
+	public Integer maxConcurrentRequests = 4;
+	/**
+	 * Response time in milliseconds to aim for by adapting the number of resources
+	 * to retrieve in one request, limited by {@link #chunkSize}. Default: 10000
+	 */
+	@Parameter
+	public Integer targetResponseTime = 10000;
+	/**
+	 * Number of statements per response to aim for by adapting the number of
+	 * resources to retrieve in one request, limited by {@link #chunkSize}. Default:
+	 * 100000
+	 */
+	@Parameter
+	public Integer targetResponseSize = 100000;
+	/**
+	 * Base delay in milliseconds before a retry of a failed request. The delay
+	 * doubles with each consecutive failure and is randomized. Default: 1000
+	 * 
+	 * @see #maxRetryDelay
+	 */
+	@Parameter
+	public Integer retryDelay = 1000;
+	/**
+	 * Maximum delay in milliseconds before a retry of a failed request. Default:
+	 * 60000
+	 * 
+	 * @see #retryDelay
+	 */
+	@Parameter
+	public Integer maxRetryDelay = 60000;
+	/**
+	 * Number of consecutive failed requests to the source SPARQL endpoint that
+	 * suspends all requests to the endpoint for {@link #circuitBreakerTimeout}
+	 * milliseconds. Default: 5
+	 */
+	@Parameter
+	public Integer circuitBreakerThreshold = 5;
+	/**
+	 * Time in milliseconds to suspend requests to the source SPARQL endpoint after
+	 * {@link #circuitBreakerThreshold} consecutive failed requests. Default: 60000
+	 */
+	@Parameter
+	public Integer circuitBreakerTimeout = 60000;
+	/**
+	 * Whether to load only the statements needed to evaluate the patterns of the
+	 * aspects for the associated dataset. The patterns get evaluated remotely for
+	 * chunks of the aspect key variable values. If enabled, the parameters
+	 * {@link #query}, {@link #list}, {@link #maxDistance}, {@link #followInverse},
+	 * {@link #followUnlimited}, {@link #followInverseUnlimited} and
+	 * {@link #ignoreInverse} will be ignored and no property descriptions will be
+	 * loaded. Default: false
+	 */
+	@Parameter
+	public Boolean loadAspectPatterns = false;
 
 	@Override
 	public void run() {
-		extract(this.getOutputPrimaryModel().get(), QueryExecution.service(this.service.getURI()), this.query,
+		if (this.loadAspectPatterns) {
+			extractAspectPatterns(this.getOutputPrimaryModel().get());
+			return;
+		}
+		extract(this.getOutputPrimaryModel().get(), this.query,
 				this.list,
 				this.followInverse.stream().map(r -> ResourceFactory.createProperty(r.getURI()))
 						.collect(Collectors.toList()),
@@ -157,20 +246,40 @@ public class SparqlSourceProcessor extends Processor<SparqlSourceProcessor> {
 						.collect(Collectors.toList()),
 				this.followInverseUnlimited.stream().map(r -> ResourceFactory.createProperty(r.getURI()))
 						.collect(Collectors.toList()));
+	}
 
-		// TODO hotfix for https://github.com/dbpedia/extraction-framework/issues/748 & https://issues.apache.org/jira/browse/JENA-2351
-		ExtendedIterator<Statement> statements = this.getOutputPrimaryModel().get().listStatements().filterKeep(this::statementWithIriContainingNewline);
-		while (statements.hasNext()) {
-			log.warn("Skipped statement due to Newline (U+000A) in IRI: " + statements.next());
-			statements.remove();
-		}
-
+	/**
+	 * Returns the pipeline to process the statements of a response before
+	 * inserting them into the given buffer. Statements are sanitized, interned
+	 * and deduplicated by the buffer.
+	 * 
+	 * @param buffer the graph to insert the processed statements into
+	 * @return the pipeline
+	 */
+	private static StreamRDF ingest(Graph buffer) {
+		// insert and deduplicate
+		StreamRDF stream = StreamRDFLib.graph(buffer);
+		// share nodes
+		stream = NodeDictionary.interning(stream);
+		// sanitize
+		stream = new StreamRDFWrapper(stream) {
+			@Override
+			public void triple(Triple triple) {
+				// TODO hotfix for https://github.com/dbpedia/extraction-framework/issues/748 & https://issues.apache.org/jira/browse/JENA-2351
+				if (containsIriWithNewline(triple)) {
+					log.warn("Skipped statement due to Newline (U+000A) in IRI: " + triple);
+				} else {
+					super.triple(triple);
+				}
+			}
+		};
+		return stream;
 	}
 
-	private boolean statementWithIriContainingNewline(Statement statement) {
-		return statement.getSubject().isURIResource() && statement.getSubject().getURI().contains("\n") ||
-				statement.getPredicate().getURI().contains("\n") ||
-				statement.getObject().isURIResource() && statement.getObject().asResource().getURI().contains("\n");
+	private static boolean containsIriWithNewline(Triple triple) {
+		return triple.getSubject().isURI() && triple.getSubject().getURI().contains("\n")
+				|| triple.getPredicate().isURI() && triple.getPredicate().getURI().contains("\n")
+				|| triple.getObject().isURI() && triple.getObject().getURI().contains("\n");
 	}
 
 	private static ElementGroup createElementGroup(Element... elements) {
@@ -193,10 +302,10 @@ public class SparqlSourceProcessor extends Processor<SparqlSourceProcessor> {
 
 	private final static Var subjectVar = Var.alloc("s"), predicateVar = Var.alloc("p"), objectVar = Var.alloc("o"),
 			resourceToLoadVar = Var.alloc("l");
-	private final static List<Var> valueVars = Collections.singletonList(resourceToLoadVar);
 
 	/**
-	 * 
+	 * Loads the statements containing the given resources as subject or, if
+	 * {@code loadInverse} is {@code true}, as object in chunks.
 	 * <p>
 	 * <strong>Implementation Notes</strong> The method uses two separate CONSTRUCT
 	 * queries to load statements containing the resources as subject or as object:
@@ -212,18 +321,17 @@ public class SparqlSourceProcessor extends Processor<SparqlSourceProcessor> {
 	 * supported by Virtuoso</a>.
 	 * </ul>
 	 */
-	private void loadResources(QueryExecutionBuilder service, Collection<Resource> resourcesToLoad, Model resultModel,
-			boolean loadInverse) {
+	private void loadResources(Collection<Resource> resourcesToLoad, Model resultModel, boolean loadInverse) {
+		if (resourcesToLoad.isEmpty()) {
+			return;
+		}
 
 		// initialize queries
-		Query[] queriesToExecute;
-		List<Binding> currentChunk = new ArrayList<>(chunkSize);
-		ElementData values = new ElementData(valueVars, currentChunk);
-
+		List<ChunkedQuery> queriesToExecute = new ArrayList<>();
 		BasicPattern pattern = BasicPattern
 				.wrap(Collections.singletonList(Triple.create(resourceToLoadVar, predicateVar, objectVar)));
-		Query query = createConstructQuery(new Template(pattern),
-				createElementGroup(new ElementTriplesBlock(pattern), values));
+		queriesToExecute.add(new ChunkedQuery(new Template(pattern), List.of(new ElementTriplesBlock(pattern)),
+				resourceToLoadVar, resourcesToLoad, Triple::getSubject));
 
 		if (loadInverse) {
 			BasicPattern patternInverse = BasicPattern
@@ -235,63 +343,382 @@ public class SparqlSourceProcessor extends Processor<SparqlSourceProcessor> {
 											new ExprList(ignoreInverse.stream().map(p -> new NodeValueNode(p.asNode()))
 													.collect(Collectors.toList()))))
 							: null;
-			Query queryInverse = createConstructQuery(new Template(patternInverse),
-					createElementGroup(new ElementTriplesBlock(patternInverse), ignoreInverseFilter, values));
+			queriesToExecute.add(new ChunkedQuery(new Template(patternInverse),
+					Arrays.asList(new ElementTriplesBlock(patternInverse), ignoreInverseFilter), resourceToLoadVar,
+					resourcesToLoad, Triple::getObject));
+		}
 
-			queriesToExecute = new Query[] { query, queryInverse };
-		} else {
-			queriesToExecute = new Query[] { query };
+		execute(queriesToExecute, resultModel);
+	}
+
+	/**
+	 * Executes the chunks of the given queries and adds the results to the result
+	 * model. Up to {@link #maxConcurrentRequests} chunk requests are executed
+	 * concurrently. Each response is parsed into a separate buffer model and
+	 * afterwards merged into the result model by the calling thread.
+	 */
+	private void execute(List<ChunkedQuery> queriesToExecute, Model resultModel) {
+		// replay cached results
+		Optional<QueryResultCache> cache = this.getQueryResultCache();
+		if (cache.isPresent()) {
+			for (ChunkedQuery queryToExecute : queriesToExecute) {
+				if (queryToExecute.isCacheable()) {
+					queryToExecute.loadCached(cache.get(), resultModel);
+				}
+			}
 		}
 
-		// prepare iteration
-		for (Query queryToExecute : queriesToExecute) {
-			int currentChunkSize = this.chunkSize;
-			ListIterator<Resource> resourcesToLoadIterator = new ArrayList<>(resourcesToLoad).listIterator();
-			while (resourcesToLoadIterator.hasNext()) {
-
-				// add resource to current chunk
-				currentChunk.add(BindingFactory.binding(resourceToLoadVar, resourcesToLoadIterator.next().asNode()));
-
-				// execute chunk if necessary
-				if (currentChunk.size() == currentChunkSize || // chunk full or
-						!resourcesToLoadIterator.hasNext()) { // last resource
-					try {
-
-						// reuse prefixes returned by the service to shorten query
-						queryToExecute.setPrefixMapping(resultModel);
-						log.debug(String.format("Fetching %d resources: %s", currentChunk.size(), queryToExecute));
-						service.query(queryToExecute).build().execConstruct(resultModel);
-						// increase chunk size if less than chunkSize
-						currentChunkSize = Math.min(this.chunkSize,
-								(int) (currentChunkSize * this.chunkSizeIncreaseFactor));
-
-					} catch (Throwable e) {
-						if (this.maxRetries > 0) {
-							// reduce left over retries
-							this.maxRetries--;
-							// reduce chunk size
-							currentChunkSize = Math.max(1, (int) (currentChunkSize * this.chunkSizeDecreaseFactor));
-							for (int i = 0; i < currentChunk.size(); i++) {
-								// redo resources of current chunk
-								resourcesToLoadIterator.previous();
-							}
-							log.warn(
-									String.format("Request failed: %s\n%s", e.getMessage(), queryToExecute.toString()));
-							log.warn(String.format("Continue with reduced chunk size: %d Left retries: %s",
-									currentChunkSize, this.maxRetries));
-						} else {
-							throw e;
+		int maxChunksInFlight = Math.max(1, this.maxConcurrentRequests);
+		CircuitBreaker circuitBreaker = CircuitBreaker.of(this.service.getURI());
+		ExecutorService executor = Executors.newFixedThreadPool(maxChunksInFlight);
+		CompletionService<Model> completionService = new ExecutorCompletionService<>(executor);
+		Map<Future<Model>, Chunk> chunksInFlight = new HashMap<>();
+		try {
+			while (true) {
+				long now = System.currentTimeMillis();
+				// time to wait for delayed requests, if any
+				long wakeUp = Long.MAX_VALUE;
+
+				// fill up requests in flight, unless the endpoint is not available
+				long circuitOpenUntil = circuitBreaker.openUntil();
+				if (circuitOpenUntil > now) {
+					wakeUp = circuitOpenUntil;
+				} else {
+					// send only a single probe request to a recovering endpoint
+					int allowedChunksInFlight = circuitBreaker.isHalfOpen() ? 1 : maxChunksInFlight;
+					for (ChunkedQuery queryToExecute : queriesToExecute) {
+						if (queryToExecute.hasNext() && queryToExecute.notBefore > now) {
+							// retry delayed by backoff
+							wakeUp = Math.min(wakeUp, queryToExecute.notBefore);
+							continue;
+						}
+						while (chunksInFlight.size() < allowedChunksInFlight && queryToExecute.hasNext()) {
+							// reuse prefixes returned by the service to shorten query
+							Chunk chunk = queryToExecute.next(resultModel);
+							log.debug(String.format("Fetching %d resources: %s", chunk.resources.size(), chunk.query));
+							chunksInFlight.put(completionService.submit(chunk::fetch), chunk);
 						}
-					} finally {
-						// reset chunk
-						currentChunk.clear();
+					}
+				}
+				if (chunksInFlight.isEmpty()) {
+					if (wakeUp == Long.MAX_VALUE) {
+						break;
+					}
+					Thread.sleep(Math.max(1, wakeUp - now));
+					continue;
+				}
+
+				// process next response
+				Future<Model> response = (wakeUp == Long.MAX_VALUE) ? completionService.take()
+						: completionService.poll(Math.max(1, wakeUp - now), TimeUnit.MILLISECONDS);
+				if (response == null) {
+					continue;
+				}
+				Chunk chunk = chunksInFlight.remove(response);
+				try {
+					Model buffer = response.get();
+					resultModel.add(buffer);
+					resultModel.setNsPrefixes(buffer);
+					circuitBreaker.recordSuccess();
+					chunk.succeeded(buffer.size());
+					if (cache.isPresent() && chunk.chunkedQuery.isCacheable()) {
+						chunk.store(cache.get(), buffer.getGraph());
+					}
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					if (circuitBreaker.recordFailure(this.circuitBreakerThreshold, this.circuitBreakerTimeout)) {
+						log.warn(String.format("Suspend requests to %s for %d ms after %d consecutive failures.",
+								this.service.getURI(), this.circuitBreakerTimeout, this.circuitBreakerThreshold));
+					}
+					if (this.maxRetries > 0) {
+						// reduce left over retries
+						this.maxRetries--;
+						// reduce chunk size and redo resources of the chunk after a delay
+						chunk.failed();
+						log.warn(String.format("Request failed: %s\n%s", cause.getMessage(), chunk.query));
+						log.warn(String.format("Continue with reduced chunk size: %d Left retries: %s Delay: %d ms",
+								chunk.chunkedQuery.currentChunkSize, this.maxRetries,
+								chunk.chunkedQuery.notBefore - System.currentTimeMillis()));
+					} else if (cause instanceof RuntimeException) {
+						throw (RuntimeException) cause;
+					} else if (cause instanceof Error) {
+						throw (Error) cause;
+					} else {
+						throw new RuntimeException(cause);
 					}
 				}
 			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Interrupted while loading resources.", e);
+		} finally {
+			executor.shutdownNow();
 		}
 	}
 
-	private Model extract(Model resultModel, QueryExecutionBuilder service, Optional<Query> query,
+	/**
+	 * CONSTRUCT query for resources, split into chunks of adaptive size. The
+	 * resources of a chunk are bound to the key variable by a VALUES clause.
+	 */
+	private class ChunkedQuery {
+		private final Template template;
+		private final List<Element> patternElements;
+		private final Var keyVariable;
+		/**
+		 * Returns the resource a statement of the result belongs to, or {@code null}
+		 * if the results can not be assigned to single resources and therefore will
+		 * not be cached.
+		 */
+		@Nullable
+		private final Function<Triple, Node> resourceOfStatement;
+		private final Deque<Resource> resourcesToLoad;
+		private int currentChunkSize = SparqlSourceProcessor.this.chunkSize;
+		/**
+		 * Number of consecutive failed requests, used for the backoff.
+		 */
+		private int consecutiveFailures = 0;
+		/**
+		 * Earliest time to send the next request in milliseconds since the epoch.
+		 */
+		private long notBefore = 0;
+
+		ChunkedQuery(Template template, List<Element> patternElements, Var keyVariable,
+				Collection<Resource> resourcesToLoad, @Nullable Function<Triple, Node> resourceOfStatement) {
+			this.template = template;
+			this.patternElements = patternElements;
+			this.keyVariable = keyVariable;
+			this.resourcesToLoad = new ArrayDeque<>(resourcesToLoad);
+			this.resourceOfStatement = resourceOfStatement;
+		}
+
+		boolean isCacheable() {
+			return resourceOfStatement != null;
+		}
+
+		private Query createQuery(List<Binding> bindings) {
+			List<Element> elements = new ArrayList<>(patternElements);
+			elements.add(new ElementData(List.of(keyVariable), bindings));
+			return createConstructQuery(template, createElementGroup(elements.toArray(Element[]::new)));
+		}
+
+		/**
+		 * Returns the key of the results in a {@link QueryResultCache}, consisting of
+		 * the service IRI and the normalized query without the values of the
+		 * resources.
+		 */
+		String cacheKey() {
+			return service.getURI() + "\n" + createQuery(List.of()).serialize();
+		}
+
+		/**
+		 * Adds the cached results of resources to the result model and removes them
+		 * from the resources to load. The results of all resources get looked up at
+		 * once.
+		 */
+		void loadCached(QueryResultCache cache, Model resultModel) {
+			Map<Node, Graph> results = cache.getAll(cacheKey(),
+					resourcesToLoad.stream().map(Resource::asNode).collect(Collectors.toList()));
+			int cached = 0;
+			Iterator<Resource> iterator = resourcesToLoad.iterator();
+			while (iterator.hasNext()) {
+				Graph result = results.get(iterator.next().asNode());
+				if (result != null) {
+					GraphUtil.addInto(resultModel.getGraph(), result);
+					iterator.remove();
+					cached++;
+				}
+			}
+			if (cached > 0) {
+				log.debug(String.format("Reused cached results of %d resources, %d resources left to fetch.", cached,
+						resourcesToLoad.size()));
+			}
+		}
+
+		boolean hasNext() {
+			return !resourcesToLoad.isEmpty();
+		}
+
+		Chunk next(PrefixMapping prefixMapping) {
+			List<Resource> resources = new ArrayList<>(currentChunkSize);
+			while (resources.size() < currentChunkSize && !resourcesToLoad.isEmpty()) {
+				resources.add(resourcesToLoad.poll());
+			}
+			List<Binding> bindings = resources.stream()
+					.map(resource -> BindingFactory.binding(keyVariable, resource.asNode()))
+					.collect(Collectors.toList());
+			Query query = createQuery(bindings);
+			query.setPrefixMapping(PrefixMapping.Factory.create().setNsPrefixes(prefixMapping));
+			return new Chunk(this, resources, query);
+		}
+	}
+
+	/**
+	 * Request for the descriptions of a chunk of resources.
+	 */
+	private class Chunk {
+		private final ChunkedQuery chunkedQuery;
+		private final List<Resource> resources;
+		private final Query query;
+		private long responseTime;
+
+		Chunk(ChunkedQuery chunkedQuery, List<Resource> resources, Query query) {
+			this.chunkedQuery = chunkedQuery;
+			this.resources = resources;
+			this.query = query;
+		}
+
+		Model fetch() {
+			long start = System.currentTimeMillis();
+			Graph buffer = GraphFactory.createDefaultGraph();
+			StreamRDF stream = ingest(buffer);
+			stream.start();
+			QueryExecution.service(service.getURI()).query(query).build().execConstruct(
+					ModelFactory.createModelForGraph(new StreamRDFGraph(stream, buffer.getPrefixMapping())));
+			stream.finish();
+			responseTime = System.currentTimeMillis() - start;
+			return ModelFactory.createModelForGraph(buffer);
+		}
+
+		/**
+		 * Adapts the chunk size after a successful request. The chunk size is
+		 * estimated from the response time and the statements per resource to meet the
+		 * {@link #targetResponseTime} and the {@link #targetResponseSize}. If the
+		 * response met both targets, the chunk size increases by the
+		 * {@link #chunkSizeIncrement}, unless the estimate is lower. Otherwise, the
+		 * chunk size decreases at least by the {@link #chunkSizeDecreaseFactor}. The
+		 * chunk size will not exceed {@link #chunkSize}.
+		 * 
+		 * @param statements the number of statements returned
+		 */
+		void succeeded(long statements) {
+			chunkedQuery.consecutiveFailures = 0;
+			int size = resources.size();
+			double estimatedSize = Math.min((double) size * targetResponseTime / Math.max(1, responseTime),
+					(double) size * targetResponseSize / Math.max(1, statements));
+			int newChunkSize;
+			if (responseTime <= targetResponseTime && statements <= targetResponseSize) {
+				// additive increase
+				newChunkSize = (int) Math.max(size, Math.min(size + chunkSizeIncrement, estimatedSize));
+			} else {
+				// multiplicative decrease
+				newChunkSize = (int) Math.min(size * chunkSizeDecreaseFactor, estimatedSize);
+				log.debug(String.format("Slow or large response for %d resources with %d statements after %d ms.",
+						size, statements, responseTime));
+			}
+			// chunks might be smaller than the chunk size due to the remaining resources
+			if (size >= chunkedQuery.currentChunkSize || newChunkSize < size) {
+				chunkedQuery.currentChunkSize = Math.max(1, Math.min(chunkSize, newChunkSize));
+			}
+		}
+
+		/**
+		 * Stores the results of the resources of this chunk in a
+		 * {@link QueryResultCache}, including empty results.
+		 */
+		void store(QueryResultCache cache, Graph buffer) {
+			Map<Node, Graph> resultsByResource = new HashMap<>();
+			for (Resource resource : resources) {
+				resultsByResource.put(resource.asNode(), GraphFactory.createDefaultGraph());
+			}
+			buffer.find().forEachRemaining(triple -> {
+				Graph result = resultsByResource.get(chunkedQuery.resourceOfStatement.apply(triple));
+				if (result != null) {
+					result.add(triple);
+				}
+			});
+			cache.putAll(chunkedQuery.cacheKey(), resultsByResource);
+		}
+
+		/**
+		 * Reduces the chunk size by the {@link #chunkSizeDecreaseFactor} after a
+		 * failed request and schedules the resources of the chunk for a retry after
+		 * an exponential backoff with jitter.
+		 */
+		void failed() {
+			// reduce chunk size
+			chunkedQuery.currentChunkSize = Math.max(1,
+					(int) (chunkedQuery.currentChunkSize * chunkSizeDecreaseFactor));
+			// redo resources of the chunk first
+			for (int i = resources.size() - 1; i >= 0; i--) {
+				chunkedQuery.resourcesToLoad.addFirst(resources.get(i));
+			}
+			// delay retry by exponential backoff with full jitter
+			long maxDelay = Math.min(maxRetryDelay,
+					(long) retryDelay << Math.min(30, chunkedQuery.consecutiveFailures++));
+			chunkedQuery.notBefore = System.currentTimeMillis()
+					+ ThreadLocalRandom.current().nextLong(maxDelay + 1);
+		}
+	}
+
+	/**
+	 * Collects the candidates of resources to load from the statements added to
+	 * the result model. This avoids repeated scans of the whole result model to
+	 * determine the resources to load next.
+	 */
+	private static class Frontier extends GraphListenerBase {
+		private final Set<Node> followInverse, followUnlimited, followInverseUnlimited;
+		/**
+		 * Objects of added statements and subjects of added statements with a
+		 * followInverse property, added since the last drain.
+		 */
+		private final Set<Node> associated = new HashSet<>();
+		/**
+		 * Objects of added statements with a followUnlimited property and subjects of
+		 * added statements with a followInverseUnlimited property, added since the
+		 * last drain.
+		 */
+		private final Set<Node> hierarchy = new HashSet<>();
+		/**
+		 * Properties of added statements, added since the last drain.
+		 */
+		private final Set<Node> properties = new HashSet<>();
+
+		Frontier(Collection<Property> followInverse, Collection<Property> followUnlimited,
+				Collection<Property> followInverseUnlimited) {
+			this.followInverse = followInverse.stream().map(Property::asNode).collect(Collectors.toSet());
+			this.followUnlimited = followUnlimited.stream().map(Property::asNode).collect(Collectors.toSet());
+			this.followInverseUnlimited = followInverseUnlimited.stream().map(Property::asNode)
+					.collect(Collectors.toSet());
+		}
+
+		@Override
+		protected void addEvent(Triple triple) {
+			Node subject = triple.getSubject(), predicate = triple.getPredicate(), object = triple.getObject();
+			if (object.isURI()) {
+				associated.add(object);
+				if (followUnlimited.contains(predicate)) {
+					hierarchy.add(object);
+				}
+			}
+			if (subject.isURI()) {
+				if (followInverse.contains(predicate)) {
+					associated.add(subject);
+				}
+				if (followInverseUnlimited.contains(predicate)) {
+					hierarchy.add(subject);
+				}
+			}
+			properties.add(predicate);
+		}
+
+		@Override
+		protected void deleteEvent(Triple triple) {}
+
+		/**
+		 * Moves the candidates not loaded yet into the resources to load.
+		 */
+		void drain(Set<Node> candidates, Set<Resource> resourcesLoaded, Set<Resource> resourcesToLoad) {
+			for (Node candidate : candidates) {
+				Resource resource = ResourceFactory.createResource(candidate.getURI());
+				if (!resourcesLoaded.contains(resource)) {
+					resourcesToLoad.add(resource);
+				}
+			}
+			candidates.clear();
+		}
+	}
+
+	private Model extract(Model resultModel, Optional<Query> query,
 			Collection<Resource> list, Collection<Property> followInverse, Collection<Property> followUnlimited,
 			Collection<Property> followInverseUnlimited) {
 
@@ -301,7 +728,7 @@ public class SparqlSourceProcessor extends Processor<SparqlSourceProcessor> {
 		// get list of relevant resources using parameter `query`
 		if (query.isPresent()) {
 			Query relevantResourceQuery = query.get();
-			ResultSet results = service.query(relevantResourceQuery).select();
+			ResultSet results = QueryExecution.service(this.service.getURI()).query(relevantResourceQuery).select();
 			while (results.hasNext()) {
 				Binding binding = results.nextBinding();
 				Iterator<Var> varIterator = binding.vars();
@@ -319,69 +746,115 @@ public class SparqlSourceProcessor extends Processor<SparqlSourceProcessor> {
 		// get list of relevant resources using parameter `list`
 		resourcesToLoad.addAll(list);
 
-		// get descriptions of relevant resources and determine associated resources to
-		// load next
-		for (int distance = 0; distance <= this.maxDistance; distance++) {
-			// load resources in chunks
-			loadResources(service, resourcesToLoad, resultModel, true);
-
-			// remember loaded resources
-			resourcesLoaded.addAll(resourcesToLoad);
-			resourcesToLoad.clear();
-
-			if ( /* there is a next iteration */ distance < this.maxDistance) {
-				// get associated resources to load in next iteration
-				for (Property followInverseProperty : followInverse) {
-					resultModel.listSubjectsWithProperty(followInverseProperty).filterKeep(RDFNode::isURIResource)
-							.filterDrop(resourcesLoaded::contains).forEachRemaining(resourcesToLoad::add);
+		// collect candidates of resources to load from added statements
+		Frontier frontier = new Frontier(followInverse, followUnlimited, followInverseUnlimited);
+		resultModel.getGraph().getEventManager().register(frontier);
+		try {
+			// get descriptions of relevant resources and determine associated resources to
+			// load next
+			for (int distance = 0; distance <= this.maxDistance; distance++) {
+				// load resources in chunks
+				loadResources(resourcesToLoad, resultModel, true);
+
+				// remember loaded resources
+				resourcesLoaded.addAll(resourcesToLoad);
+				resourcesToLoad.clear();
+
+				if ( /* there is a next iteration */ distance < this.maxDistance) {
+					// get associated resources to load in next iteration
+					frontier.drain(frontier.associated, resourcesLoaded, resourcesToLoad);
 				}
-				resultModel.listObjects().filterKeep(RDFNode::isURIResource).filterDrop(resourcesLoaded::contains)
-						.mapWith(RDFNode::asResource).forEachRemaining(resourcesToLoad::add);
 			}
-		}
 
-		// get descriptions of upper hierarchy resources (transitively) associated to
-		// earlier loaded resources by at least one of the `hierarchyProperties`
-		do {
-			// load resources in chunks
-			loadResources(service, resourcesToLoad, resultModel, true);
-
-			// remember loaded resources
-			resourcesLoaded.addAll(resourcesToLoad);
-			resourcesToLoad.clear();
-
-			// get new resources associated by a followUnlimited or followInverseUnlimited
-			// property to load in next iteration
-			for (Property followUnlimitedProperty : followUnlimited) {
-				resultModel.listObjectsOfProperty(followUnlimitedProperty).filterKeep(RDFNode::isURIResource)
-						.filterDrop(resourcesLoaded::contains).mapWith(RDFNode::asResource)
-						.forEachRemaining(resourcesToLoad::add);
-			}
-			for (Property followInverseUnlimitedProperty : followInverseUnlimited) {
-				resultModel.listSubjectsWithProperty(followInverseUnlimitedProperty).filterKeep(RDFNode::isURIResource)
-						.filterDrop(resourcesLoaded::contains).mapWith(RDFNode::asResource)
-						.forEachRemaining(resourcesToLoad::add);
-			}
+			// get descriptions of upper hierarchy resources (transitively) associated to
+			// earlier loaded resources by at least one of the `hierarchyProperties`
+			do {
+				// load resources in chunks
+				loadResources(resourcesToLoad, resultModel, true);
 
-		} while (!resourcesToLoad.isEmpty());
+				// remember loaded resources
+				resourcesLoaded.addAll(resourcesToLoad);
+				resourcesToLoad.clear();
 
-		// get descriptions of properties used to describe loaded resources
-		do {
-			// load resources in chunks
-			loadResources(service, resourcesToLoad, resultModel, false);
+				// get new resources associated by a followUnlimited or followInverseUnlimited
+				// property to load in next iteration
+				frontier.drain(frontier.hierarchy, resourcesLoaded, resourcesToLoad);
 
-			// remember loaded resources
-			resourcesLoaded.addAll(resourcesToLoad);
-			resourcesToLoad.clear();
+			} while (!resourcesToLoad.isEmpty());
 
-			// get new properties used to describe loaded resources
-			resultModel.listStatements().mapWith(Statement::getPredicate).filterDrop(resourcesLoaded::contains)
-					.forEachRemaining(resourcesToLoad::add);
-		} while (!resourcesToLoad.isEmpty());
+			// get descriptions of properties used to describe loaded resources
+			do {
+				// load resources in chunks
+				loadResources(resourcesToLoad, resultModel, false);
+
+				// remember loaded resources
+				resourcesLoaded.addAll(resourcesToLoad);
+				resourcesToLoad.clear();
+
+				// get new properties used to describe loaded resources
+				frontier.drain(frontier.properties, resourcesLoaded, resourcesToLoad);
+			} while (!resourcesToLoad.isEmpty());
+		} finally {
+			resultModel.getGraph().getEventManager().unregister(frontier);
+		}
 
 		log.info(String.format("About %d statements on %d resources loaded.", resultModel.size(),
 				resourcesLoaded.size()));
 
 		return resultModel;
 	}
+
+	/**
+	 * Loads the statements needed to evaluate the patterns of the aspects for the
+	 * associated dataset. For each aspect, the values of the key variable get
+	 * selected first. Afterwards, a CONSTRUCT query derived from the pattern gets
+	 * executed for chunks of the key variable values.
+	 */
+	private Model extractAspectPatterns(Model resultModel) {
+		Resource dataset = this.getAssociatedDataset().orElseThrow();
+
+		List<ChunkedQuery> queriesToExecute = new ArrayList<>();
+		for (Aspect aspect : this.getAspects().values()) {
+			if (!aspect.coversDataset(dataset)) {
+				continue;
+			}
+			Query pattern = aspect.getPattern(dataset);
+
+			// get key variable values
+			Query keyQuery = new Query();
+			keyQuery.setQuerySelectType();
+			keyQuery.setDistinct(true);
+			keyQuery.addResultVar(aspect.getKeyVariable());
+			keyQuery.setQueryPattern(pattern.getQueryPattern());
+			keyQuery.setPrefixMapping(pattern.getPrefixMapping());
+			Set<Resource> keys = new HashSet<>();
+			ResultSet results = QueryExecution.service(this.service.getURI()).query(keyQuery).select();
+			while (results.hasNext()) {
+				Node node = results.nextBinding().get(aspect.getKeyVariable());
+				if (node != null && node.isURI()) {
+					keys.add(ResourceFactory.createResource(node.getURI()));
+				}
+			}
+			log.info(String.format("Loading statements of aspect %s for %d resources.", aspect.getIri(),
+					keys.size()));
+
+			// use prefixes of the pattern to shorten generated queries
+			resultModel.setNsPrefixes(pattern.getPrefixMapping());
+
+			Query constructQuery = ConstructQueryExtractionVisitor.getConstructQuery(pattern);
+			Element constructPattern = constructQuery.getQueryPattern();
+			List<Element> constructPatternElements = (constructPattern instanceof ElementGroup)
+					? ((ElementGroup) constructPattern).getElements()
+					: List.of(constructPattern);
+			queriesToExecute.add(new ChunkedQuery(constructQuery.getConstructTemplate(), constructPatternElements,
+					aspect.getKeyVariable(), keys, null));
+		}
+
+		execute(queriesToExecute, resultModel);
+
+		log.info(String.format("About %d statements loaded.", resultModel.size()));
+
+		return resultModel;
+	}
+
 }
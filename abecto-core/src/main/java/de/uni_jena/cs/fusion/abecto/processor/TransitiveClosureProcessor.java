@@ -0,0 +1,250 @@
+/*-
+ * Copyright © 2019-2022 Heinz Nixdorf Chair for Distributed Information Systems,
+ *                       Friedrich Schiller University Jena (http://www.fusion.uni-jena.de/)
+ * Copyright © 2023-2024 Jan Martin Keil (jan-martin.keil@uni-jena.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+-*/
+
+package de.uni_jena.cs.fusion.abecto.processor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.util.iterator.ExtendedIterator;
+
+import de.uni_jena.cs.fusion.abecto.Parameter;
+
+/**
+ * Provides the statements of the transitive closure and, optionally, the
+ * reflexive closure of given properties, like {@code rdfs:subClassOf} or
+ * {@code skos:broader}. Only statements not contained in the input primary
+ * data get added to the output primary data.
+ * <p>
+ * The closure gets computed on the condensation of the graph of each property
+ * into its strongly connected components, representing the components
+ * reachable from each component by a bitset.
+ */
+public class TransitiveClosureProcessor extends Processor<TransitiveClosureProcessor> {
+
+	/** Properties to compute the closure for. */
+	@Parameter
+	public Collection<Resource> properties = new ArrayList<>();
+	/**
+	 * If {@code true}, the reflexive closure gets added for resources occurring in
+	 * statements of the properties. Default: false
+	 */
+	@Parameter
+	public Boolean reflexive = false;
+
+	@Override
+	public void run() {
+		Graph inputGraph = this.getInputPrimaryModelUnion(this.getAssociatedDataset().orElseThrow()).getGraph();
+		Graph outputGraph = this.getOutputPrimaryModel().orElseThrow().getGraph();
+		for (Resource property : properties) {
+			closure(inputGraph, property.asNode(), reflexive, outputGraph);
+		}
+	}
+
+	/**
+	 * Adds the statements of the closure of a property that are not contained in
+	 * the input graph to the output graph.
+	 * 
+	 * @param input     graph containing the statements of the property
+	 * @param property  property to compute the closure for
+	 * @param reflexive whether to compute the reflexive closure in addition
+	 * @param output    graph to add the derived statements to
+	 */
+	static void closure(Graph input, Node property, boolean reflexive, Graph output) {
+		// index nodes and edges
+		Map<Node, Integer> indices = new HashMap<>();
+		List<Node> nodes = new ArrayList<>();
+		int[] sources = new int[16];
+		int[] destinations = new int[16];
+		int edges = 0;
+		ExtendedIterator<Triple> triples = input.find(Node.ANY, property, Node.ANY);
+		try {
+			while (triples.hasNext()) {
+				Triple triple = triples.next();
+				if (edges == sources.length) {
+					sources = Arrays.copyOf(sources, edges * 2);
+					destinations = Arrays.copyOf(destinations, edges * 2);
+				}
+				sources[edges] = indices.computeIfAbsent(triple.getSubject(), n -> add(nodes, n));
+				destinations[edges] = indices.computeIfAbsent(triple.getObject(), n -> add(nodes, n));
+				edges++;
+			}
+		} finally {
+			triples.close();
+		}
+		int n = nodes.size();
+
+		// adjacency lists in compressed sparse row format
+		int[] offsets = new int[n + 1];
+		for (int e = 0; e < edges; e++) {
+			offsets[sources[e] + 1]++;
+		}
+		for (int v = 0; v < n; v++) {
+			offsets[v + 1] += offsets[v];
+		}
+		int[] successors = new int[edges];
+		int[] fill = Arrays.copyOf(offsets, n);
+		for (int e = 0; e < edges; e++) {
+			successors[fill[sources[e]]++] = destinations[e];
+		}
+
+		int[] component = components(offsets, successors);
+		int components = 0;
+		for (int v = 0; v < n; v++) {
+			components = Math.max(components, component[v] + 1);
+		}
+
+		// members of components in compressed sparse row format
+		int[] memberOffsets = new int[components + 1];
+		for (int v = 0; v < n; v++) {
+			memberOffsets[component[v] + 1]++;
+		}
+		for (int c = 0; c < components; c++) {
+			memberOffsets[c + 1] += memberOffsets[c];
+		}
+		int[] members = new int[n];
+		fill = Arrays.copyOf(memberOffsets, components);
+		for (int v = 0; v < n; v++) {
+			members[fill[component[v]]++] = v;
+		}
+
+		// components are numbered in reverse topological order
+		BitSet[] reachable = new BitSet[components];
+		for (int c = 0; c < components; c++) {
+			BitSet reach = new BitSet();
+			boolean cyclic = memberOffsets[c + 1] - memberOffsets[c] > 1;
+			for (int i = memberOffsets[c]; i < memberOffsets[c + 1]; i++) {
+				int v = members[i];
+				for (int j = offsets[v]; j < offsets[v + 1]; j++) {
+					int d = component[successors[j]];
+					if (d == c) {
+						cyclic = true;
+					} else if (!reach.get(d)) {
+						reach.set(d);
+						reach.or(reachable[d]);
+					}
+				}
+			}
+			if (cyclic) {
+				reach.set(c);
+			}
+			reachable[c] = reach;
+		}
+
+		// add derived statements
+		for (int v = 0; v < n; v++) {
+			Node subject = nodes.get(v);
+			if (subject.isLiteral()) {
+				continue;
+			}
+			BitSet reach = reachable[component[v]];
+			for (int d = reach.nextSetBit(0); d >= 0; d = reach.nextSetBit(d + 1)) {
+				for (int i = memberOffsets[d]; i < memberOffsets[d + 1]; i++) {
+					add(input, output, Triple.create(subject, property, nodes.get(members[i])));
+				}
+			}
+			if (reflexive && !reach.get(component[v])) {
+				add(input, output, Triple.create(subject, property, subject));
+			}
+		}
+	}
+
+	private static int add(List<Node> nodes, Node node) {
+		nodes.add(node);
+		return nodes.size() - 1;
+	}
+
+	private static void add(Graph input, Graph output, Triple triple) {
+		if (!input.contains(triple)) {
+			output.add(triple);
+		}
+	}
+
+	/**
+	 * Determines the strongly connected components of a graph using an iterative
+	 * variant of Tarjan's algorithm. The components are numbered in reverse
+	 * topological order.
+	 * 
+	 * @param offsets    offsets of the successors of each node in
+	 *                   {@code successors}
+	 * @param successors successors of all nodes
+	 * @return the component of each node
+	 */
+	static int[] components(int[] offsets, int[] successors) {
+		int n = offsets.length - 1;
+		int[] order = new int[n];
+		int[] lowlink = new int[n];
+		int[] component = new int[n];
+		Arrays.fill(order, -1);
+		Arrays.fill(component, -1);
+		int[] stack = new int[n];
+		int stackSize = 0;
+		int[] callStack = new int[n];
+		int[] next = new int[n];
+		int counter = 0;
+		int components = 0;
+		for (int root = 0; root < n; root++) {
+			if (order[root] != -1) {
+				continue;
+			}
+			int depth = 0;
+			order[root] = lowlink[root] = counter++;
+			stack[stackSize++] = root;
+			callStack[depth++] = root;
+			next[root] = offsets[root];
+			while (depth > 0) {
+				int v = callStack[depth - 1];
+				if (next[v] < offsets[v + 1]) {
+					int w = successors[next[v]++];
+					if (order[w] == -1) {
+						order[w] = lowlink[w] = counter++;
+						stack[stackSize++] = w;
+						callStack[depth++] = w;
+						next[w] = offsets[w];
+					} else if (component[w] == -1) {
+						lowlink[v] = Math.min(lowlink[v], order[w]);
+					}
+				} else {
+					depth--;
+					if (depth > 0) {
+						int u = callStack[depth - 1];
+						lowlink[u] = Math.min(lowlink[u], lowlink[v]);
+					}
+					if (lowlink[v] == order[v]) {
+						int w;
+						do {
+							w = stack[--stackSize];
+							component[w] = components;
+						} while (w != v);
+						components++;
+					}
+				}
+			}
+		}
+		return component;
+	}
+}
@@ -0,0 +1,64 @@
+/*-
+ * Copyright © 2019-2022 Heinz Nixdorf Chair for Distributed Information Systems,
+ *                       Friedrich Schiller University Jena (http://www.fusion.uni-jena.de/)
+ * Copyright © 2023-2024 Jan Martin Keil (jan-martin.keil@uni-jena.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+-*/
+
+package de.uni_jena.cs.fusion.abecto.processor;
+
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+
+import de.uni_jena.cs.fusion.abecto.Parameter;
+import de.uni_jena.cs.fusion.abecto.graph.SparqlGraph;
+
+/**
+ * Provides the data of a SPARQL endpoint as a virtual primary model without
+ * loading it. Queries of succeeding steps on the primary data get evaluated by
+ * the endpoint on demand. The primary data will not be included in the
+ * results.
+ * 
+ * @see SparqlGraph
+ */
+public class VirtualSparqlSourceProcessor extends Processor<VirtualSparqlSourceProcessor> {
+
+	/** URL of the SPARQL endpoint to use. */
+	@Parameter
+	public Resource service;
+	/**
+	 * Maximum number of resources to look up in one request. Default: 500
+	 */
+	@Parameter
+	public Integer batchSize = 500;
+	/**
+	 * Maximum number of triples or resources to load in one request. Default:
+	 * 10000
+	 */
+	@Parameter
+	public Integer pageSize = 10000;
+	/**
+	 * Maximum number of triples, result rows or resources to keep in each cache.
+	 * Default: 100000
+	 */
+	@Parameter
+	public Integer cacheSize = 100000;
+
+	@Override
+	public void run() {
+		this.replaceOutputPrimaryModel(
+				ModelFactory.createModelForGraph(new SparqlGraph(this.service.getURI(), this.batchSize, this.pageSize,
+						this.cacheSize)));
+	}
+}
@@ -0,0 +1,458 @@
+/*-
+ * Copyright © 2019-2022 Heinz Nixdorf Chair for Distributed Information Systems,
+ *                       Friedrich Schiller University Jena (http://www.fusion.uni-jena.de/)
+ * Copyright © 2023-2024 Jan Martin Keil (jan-martin.keil@uni-jena.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+-*/
+
+package de.uni_jena.cs.fusion.abecto.util;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.net.http.HttpResponse.BodySubscriber;
+import java.net.http.HttpResponse.PushPromiseHandler;
+import java.net.http.HttpResponse.ResponseInfo;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+
+import javax.annotation.Nullable;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSession;
+
+import com.google.common.hash.Hashing;
+
+/**
+ * Provides an {@link HttpClient} that caches successful responses to GET
+ * requests in a local directory. Cached responses are revalidated with a
+ * conditional request using their {@code ETag} or {@code Last-Modified}
+ * header. If the server confirms that the resource is unchanged, the cached
+ * response body is returned. Responses without these headers or with
+ * {@code Cache-Control: no-store} or {@code Vary: *} are not cached. Cached
+ * responses are distinguished by the URI and all headers of the request.
+ * Cached responses that are truncated or corrupt are discarded.
+ * <p>
+ * Requests with credentials, other requests than GET requests, as well as
+ * asynchronous requests, are passed to the underlying {@link HttpClient}
+ * unchanged.
+ */
+public class CachingHttpClient extends HttpClient {
+
+	private static final int CHUNK_SIZE = 8192;
+	/**
+	 * Request headers that prevent caching, as the response might be private.
+	 */
+	private static final List<String> CREDENTIAL_HEADERS = List.of("Authorization", "Cookie",
+			"Proxy-Authorization");
+
+	private final HttpClient client;
+	private final Path directory;
+
+	/**
+	 * Creates a caching {@link HttpClient}.
+	 * 
+	 * @param client    the client to send requests with
+	 * @param directory the directory to store cached responses in
+	 * @throws UncheckedIOException if the directory could not be created
+	 */
+	public CachingHttpClient(HttpClient client, Path directory) {
+		this.client = client;
+		this.directory = directory;
+		try {
+			Files.createDirectories(directory);
+		} catch (IOException e) {
+			throw new UncheckedIOException(String.format("Failed to create HTTP cache directory \"%s\".", directory),
+					e);
+		}
+	}
+
+	/**
+	 * Returns the underlying {@link HttpClient} used to send requests.
+	 * 
+	 * @return the underlying client
+	 */
+	public HttpClient getClient() {
+		return client;
+	}
+
+	@Override
+	public <T> HttpResponse<T> send(HttpRequest request, BodyHandler<T> responseBodyHandler)
+			throws IOException, InterruptedException {
+		if (!request.method().equals("GET") || request.headers().firstValue("If-None-Match").isPresent()
+				|| request.headers().firstValue("If-Modified-Since").isPresent()
+				|| CREDENTIAL_HEADERS.stream().anyMatch(name -> request.headers().firstValue(name).isPresent())
+				|| client.authenticator().isPresent()) {
+			return client.send(request, responseBodyHandler);
+		}
+		Path cacheFile = cacheFile(request);
+		InputStream cached = null;
+		try {
+			HttpRequest.Builder requestBuilder = HttpRequest.newBuilder(request, (name, value) -> true);
+			HttpHeaders cachedHeaders = null;
+			// open before sending to keep the cached body, even if replaced concurrently
+			CachedResponse cachedResponse = open(cacheFile);
+			if (cachedResponse != null) {
+				cached = cachedResponse.body();
+				cachedHeaders = cachedResponse.headers();
+				cachedHeaders.firstValue("ETag").ifPresent(etag -> requestBuilder.header("If-None-Match", etag));
+				cachedHeaders.firstValue("Last-Modified")
+						.ifPresent(lastModified -> requestBuilder.header("If-Modified-Since", lastModified));
+			}
+			HttpResponse<InputStream> response = client.send(requestBuilder.build(), BodyHandlers.ofInputStream());
+			if (response.statusCode() == 304 && cached != null) {
+				response.body().close();
+				return replay(response, 200, cachedHeaders, cached, responseBodyHandler);
+			}
+			if (cached != null) {
+				cached.close();
+				cached = null;
+			}
+			if (isCacheable(response)) {
+				write(cacheFile, response);
+				cachedResponse = open(cacheFile);
+				if (cachedResponse == null) {
+					throw new IOException(String.format("Failed to read cached response in \"%s\".", cacheFile));
+				}
+				cached = cachedResponse.body();
+				return replay(response, response.statusCode(), cachedResponse.headers(), cached, responseBodyHandler);
+			}
+			return replay(response, response.statusCode(), response.headers(), response.body(), responseBodyHandler);
+		} catch (IOException | InterruptedException | RuntimeException e) {
+			if (cached != null) {
+				cached.close();
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns the cache file of a request, identified by the URI and all headers of
+	 * the request, as responses might vary by any of them.
+	 */
+	private Path cacheFile(HttpRequest request) {
+		StringBuilder key = new StringBuilder(request.uri().toString());
+		Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		headers.putAll(request.headers().map());
+		headers.forEach((name, values) -> key.append('\n').append(name.toLowerCase()).append(':')
+				.append(String.join(",", values)));
+		return directory.resolve(Hashing.sha256().hashString(key, StandardCharsets.UTF_8).toString());
+	}
+
+	private static boolean isCacheable(HttpResponse<?> response) {
+		HttpHeaders headers = response.headers();
+		return response.statusCode() == 200
+				&& (headers.firstValue("ETag").isPresent() || headers.firstValue("Last-Modified").isPresent())
+				&& headers.allValues("Cache-Control").stream().noneMatch(value -> value.contains("no-store"))
+				&& headers.allValues("Vary").stream().noneMatch(value -> value.trim().equals("*"));
+	}
+
+	private record CachedResponse(HttpHeaders headers, InputStream body) {
+	}
+
+	/**
+	 * Opens a cached response, positioned at the beginning of the body.
+	 * 
+	 * @return the cached response or {@code null}, if no response is cached or the
+	 *         cached response is truncated or corrupt, which then gets discarded
+	 */
+	@Nullable
+	private static CachedResponse open(Path cacheFile) {
+		SeekableByteChannel channel;
+		try {
+			channel = Files.newByteChannel(cacheFile);
+		} catch (IOException e) {
+			return null;
+		}
+		try {
+			// unbuffered to keep the channel position at the end of the read data
+			DataInputStream in = new DataInputStream(Channels.newInputStream(channel));
+			long bodyLength = in.readLong();
+			HttpHeaders headers = readHeaders(in);
+			if (bodyLength < 0 || channel.position() + bodyLength != channel.size()) {
+				throw new EOFException("Cached response body truncated.");
+			}
+			return new CachedResponse(headers, in);
+		} catch (IOException | RuntimeException e) {
+			try {
+				channel.close();
+				Files.deleteIfExists(cacheFile);
+			} catch (IOException e2) {
+				// will get replaced by the next response
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Writes the body length, the headers and the body of a response into a cache
+	 * file. The file is replaced atomically to not disturb concurrent reads.
+	 */
+	private void write(Path cacheFile, HttpResponse<InputStream> response) throws IOException {
+		Path temporaryFile = Files.createTempFile(directory, null, ".tmp");
+		try {
+			try (InputStream body = response.body();
+					FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE)) {
+				DataOutputStream out = new DataOutputStream(
+						new BufferedOutputStream(Channels.newOutputStream(channel)));
+				// placeholder for the body length
+				out.writeLong(0);
+				writeHeaders(out, response.headers());
+				out.flush();
+				long bodyStart = channel.position();
+				body.transferTo(out);
+				out.flush();
+				long bodyLength = channel.position() - bodyStart;
+				channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, bodyLength), 0);
+			}
+			Files.move(temporaryFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temporaryFile);
+		}
+	}
+
+	private static void writeHeaders(DataOutputStream out, HttpHeaders headers) throws IOException {
+		Map<String, List<String>> map = headers.map();
+		out.writeInt(map.size());
+		for (Map.Entry<String, List<String>> header : map.entrySet()) {
+			out.writeUTF(header.getKey());
+			out.writeInt(header.getValue().size());
+			for (String value : header.getValue()) {
+				out.writeUTF(value);
+			}
+		}
+	}
+
+	private static HttpHeaders readHeaders(DataInputStream in) throws IOException {
+		Map<String, List<String>> map = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		for (int headerCount = in.readInt(); headerCount > 0; headerCount--) {
+			String name = in.readUTF();
+			List<String> values = new ArrayList<>();
+			for (int valueCount = in.readInt(); valueCount > 0; valueCount--) {
+				values.add(in.readUTF());
+			}
+			map.put(name, values);
+		}
+		return HttpHeaders.of(map, (name, value) -> true);
+	}
+
+	/**
+	 * Passes a response body from a stream to the given {@link BodyHandler}.
+	 */
+	private static <T> HttpResponse<T> replay(HttpResponse<?> response, int statusCode, HttpHeaders headers,
+			InputStream body, BodyHandler<T> responseBodyHandler) {
+		ResponseInfo responseInfo = new ResponseInfo() {
+			@Override
+			public int statusCode() {
+				return statusCode;
+			}
+
+			@Override
+			public HttpHeaders headers() {
+				return headers;
+			}
+
+			@Override
+			public Version version() {
+				return response.version();
+			}
+		};
+		BodySubscriber<T> subscriber = responseBodyHandler.apply(responseInfo);
+		subscriber.onSubscribe(new StreamSubscription(body, subscriber));
+		T responseBody = subscriber.getBody().toCompletableFuture().join();
+		return new HttpResponse<T>() {
+			@Override
+			public int statusCode() {
+				return statusCode;
+			}
+
+			@Override
+			public HttpRequest request() {
+				return response.request();
+			}
+
+			@Override
+			public Optional<HttpResponse<T>> previousResponse() {
+				return Optional.empty();
+			}
+
+			@Override
+			public HttpHeaders headers() {
+				return headers;
+			}
+
+			@Override
+			public T body() {
+				return responseBody;
+			}
+
+			@Override
+			public Optional<SSLSession> sslSession() {
+				return response.sslSession();
+			}
+
+			@Override
+			public URI uri() {
+				return response.uri();
+			}
+
+			@Override
+			public Version version() {
+				return response.version();
+			}
+		};
+	}
+
+	/**
+	 * Publishes the content of a stream to a {@link BodySubscriber} on demand.
+	 */
+	private static class StreamSubscription implements Flow.Subscription {
+		private final InputStream in;
+		private final BodySubscriber<?> subscriber;
+		private long demand = 0;
+		private boolean publishing = false;
+		private boolean done = false;
+
+		StreamSubscription(InputStream in, BodySubscriber<?> subscriber) {
+			this.in = in;
+			this.subscriber = subscriber;
+		}
+
+		@Override
+		public synchronized void request(long n) {
+			demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+			if (publishing) {
+				// avoid recursion on request from within onNext
+				return;
+			}
+			publishing = true;
+			try {
+				while (demand > 0 && !done) {
+					byte[] buffer = in.readNBytes(CHUNK_SIZE);
+					if (buffer.length == 0) {
+						cancel();
+						subscriber.onComplete();
+					} else {
+						demand--;
+						subscriber.onNext(List.of(ByteBuffer.wrap(buffer)));
+					}
+				}
+			} catch (IOException e) {
+				cancel();
+				subscriber.onError(e);
+			} finally {
+				publishing = false;
+			}
+		}
+
+		@Override
+		public synchronized void cancel() {
+			if (!done) {
+				done = true;
+				try {
+					in.close();
+				} catch (IOException e) {
+					// ignore
+				}
+			}
+		}
+	}
+
+	@Override
+	public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request,
+			BodyHandler<T> responseBodyHandler) {
+		return client.sendAsync(request, responseBodyHandler);
+	}
+
+	@Override
+	public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, BodyHandler<T> responseBodyHandler,
+			PushPromiseHandler<T> pushPromiseHandler) {
+		return client.sendAsync(request, responseBodyHandler, pushPromiseHandler);
+	}
+
+	@Override
+	public Optional<CookieHandler> cookieHandler() {
+		return client.cookieHandler();
+	}
+
+	@Override
+	public Optional<Duration> connectTimeout() {
+		return client.connectTimeout();
+	}
+
+	@Override
+	public Redirect followRedirects() {
+		return client.followRedirects();
+	}
+
+	@Override
+	public Optional<ProxySelector> proxy() {
+		return client.proxy();
+	}
+
+	@Override
+	public SSLContext sslContext() {
+		return client.sslContext();
+	}
+
+	@Override
+	public SSLParameters sslParameters() {
+		return client.sslParameters();
+	}
+
+	@Override
+	public Optional<Authenticator> authenticator() {
+		return client.authenticator();
+	}
+
+	@Override
+	public Version version() {
+		return client.version();
+	}
+
+	@Override
+	public Optional<Executor> executor() {
+		return client.executor();
+	}
+}
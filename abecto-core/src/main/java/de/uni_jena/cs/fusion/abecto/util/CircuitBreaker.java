@@ -0,0 +1,100 @@
+/*-
+ * Copyright © 2019-2022 Heinz Nixdorf Chair for Distributed Information Systems,
+ *                       Friedrich Schiller University Jena (http://www.fusion.uni-jena.de/)
+ * Copyright © 2023-2024 Jan Martin Keil (jan-martin.keil@uni-jena.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+-*/
+
+package de.uni_jena.cs.fusion.abecto.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks consecutive failures of requests to an endpoint to stop sending
+ * requests to an overloaded endpoint for some time. After the given number of
+ * consecutive failures, the circuit opens and no requests should be sent until
+ * the given timeout expired. Afterwards, the circuit is half-open and a single
+ * probe request should be sent. A successful request closes the circuit, a
+ * failed probe request opens it again.
+ * <p>
+ * The {@link CircuitBreaker} of an endpoint is shared by all users of the
+ * endpoint within the process.
+ */
+public class CircuitBreaker {
+
+	private static final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+
+	private int consecutiveFailures = 0;
+	private boolean open = false;
+	private long openUntil = 0;
+
+	private CircuitBreaker() {}
+
+	/**
+	 * Returns the {@link CircuitBreaker} of an endpoint.
+	 * 
+	 * @param endpoint the IRI of the endpoint
+	 * @return the {@link CircuitBreaker} of the endpoint
+	 */
+	public static CircuitBreaker of(String endpoint) {
+		return circuitBreakers.computeIfAbsent(endpoint, k -> new CircuitBreaker());
+	}
+
+	/**
+	 * Records a successful request and closes the circuit.
+	 */
+	public synchronized void recordSuccess() {
+		consecutiveFailures = 0;
+		open = false;
+	}
+
+	/**
+	 * Records a failed request and opens the circuit, if the number of consecutive
+	 * failures reached the threshold.
+	 * 
+	 * @param threshold the number of consecutive failures that opens the circuit
+	 * @param timeout   the time in milliseconds to keep the circuit open
+	 * @return {@code true}, if the circuit got opened
+	 */
+	public synchronized boolean recordFailure(int threshold, long timeout) {
+		consecutiveFailures++;
+		if (consecutiveFailures >= threshold) {
+			open = true;
+			openUntil = System.currentTimeMillis() + timeout;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the time until which the circuit is open.
+	 * 
+	 * @return the time in milliseconds since the epoch, or a time in the past, if
+	 *         the circuit is not open
+	 */
+	public synchronized long openUntil() {
+		return open ? openUntil : 0;
+	}
+
+	/**
+	 * Returns whether the circuit is half-open, meaning that only a single probe
+	 * request should be sent.
+	 * 
+	 * @return {@code true}, if the circuit is half-open
+	 */
+	public synchronized boolean isHalfOpen() {
+		return open && System.currentTimeMillis() >= openUntil;
+	}
+}
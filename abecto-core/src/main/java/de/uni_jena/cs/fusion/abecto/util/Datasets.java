@@ -19,16 +19,40 @@
 package de.uni_jena.cs.fusion.abecto.util;
 
 import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
+import org.apache.jena.graph.GraphUtil;
 import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
 import org.apache.jena.riot.Lang;
 import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFFormat;
+import org.apache.jena.riot.RDFLanguages;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.RDFWriter;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.DatasetGraphFactory;
+import org.apache.jena.sparql.core.DatasetGraphMapLink;
 
 public class Datasets {
 
@@ -44,17 +68,143 @@ public class Datasets {
 	 * {@link Lang#NQUADS N-Quads} and {@link Lang#TRIG TriG}.
 	 */
 	private static final List<Lang> supportedLanguages = Arrays.asList(Lang.TRIG, Lang.NQUADS, Lang.RDFXML, Lang.N3,
-			Lang.JSONLD, Lang.RDFJSON, Lang.RDFTHRIFT, Lang.TRIX, Lang.SHACLC);
+			Lang.JSONLD, Lang.RDFJSON, Lang.RDFTHRIFT, Lang.RDFPROTO, Lang.TRIX, Lang.SHACLC);
+	/**
+	 * Binary RDF languages, which get read without language detection.
+	 */
+	private static final List<Lang> binaryLanguages = Arrays.asList(Lang.RDFTHRIFT, Lang.RDFPROTO);
+	/**
+	 * First line of a manifest file listing the files of the graphs of a dataset.
+	 */
+	private static final String MANIFEST_HEADER = "# ABECTO dataset graph files";
+
+	/**
+	 * Formats to write datasets in. Except of {@link #TRIG_PRETTY}, all formats
+	 * get written streaming without analyzing whole graphs in advance.
+	 */
+	public enum Format {
+		TRIG_PRETTY(RDFFormat.TRIG_PRETTY), TRIG_BLOCKS(RDFFormat.TRIG_BLOCKS), NQUADS(RDFFormat.NQUADS),
+		THRIFT(RDFFormat.RDF_THRIFT), PROTOBUF(RDFFormat.RDF_PROTO);
+
+		private final RDFFormat rdfFormat;
+
+		Format(RDFFormat rdfFormat) {
+			this.rdfFormat = rdfFormat;
+		}
+
+		public String getFileExtension() {
+			return rdfFormat.getLang().getFileExtensions().get(0);
+		}
+	}
+
+	/**
+	 * Reads a dataset from a file. The file might be gzip compressed or a manifest
+	 * written by {@link #writeGraphFiles(Dataset, File, Format, boolean)}. In case
+	 * of a manifest, the listed graph files get read concurrently.
+	 * 
+	 * @param dataset the dataset to add the read statements to
+	 * @param file    the file to read
+	 * @throws IOException              if reading the file failed
+	 * @throws IllegalArgumentException if the RDF language is unknown
+	 */
+	public static void read(Dataset dataset, File file) throws IOException, IllegalArgumentException {
+		List<String> graphFileNames = readManifest(file);
+		if (graphFileNames == null) {
+			readFile(dataset, file);
+			return;
+		}
+		File directory = file.getAbsoluteFile().getParentFile();
+		List<Callable<DatasetGraph>> tasks = new ArrayList<>();
+		for (String graphFileName : graphFileNames) {
+			tasks.add(() -> {
+				DatasetGraph part = DatasetGraphFactory.createGeneral();
+				readFile(DatasetFactory.wrap(part), new File(directory, graphFileName));
+				return part;
+			});
+		}
+		DatasetGraph target = dataset.asDatasetGraph();
+		for (DatasetGraph part : executeConcurrently(tasks)) {
+			target.prefixes().putAll(part.prefixes());
+			GraphUtil.addInto(target.getDefaultGraph(), part.getDefaultGraph());
+			part.listGraphNodes().forEachRemaining(graphName -> {
+				if (target.containsGraph(graphName)) {
+					GraphUtil.addInto(target.getGraph(graphName), part.getGraph(graphName));
+				} else {
+					target.addGraph(graphName, part.getGraph(graphName));
+				}
+			});
+		}
+	}
+
+	/**
+	 * Reads a single dataset file. Files with the extension of a binary RDF
+	 * language, like {@link Snapshots snapshots}, get parsed directly without
+	 * buffering for language detection.
+	 */
+	private static void readFile(Dataset dataset, File file) throws IOException, IllegalArgumentException {
+		Lang lang = languageOf(file);
+		if (binaryLanguages.contains(lang)) {
+			try (InputStream in = decompressIfGzip(new BufferedInputStream(new FileInputStream(file)))) {
+				RDFParser.source(in).lang(lang).parse(dataset);
+			}
+		} else {
+			read(dataset, new FileInputStream(file), lang);
+		}
+	}
+
+	/**
+	 * Returns the RDF language indicated by the file extension, ignoring a gzip
+	 * extension.
+	 */
+	private static Lang languageOf(File file) {
+		return RDFLanguages.filenameToLang(file.getName().replaceFirst("\\.gz$", ""));
+	}
+
+	private static List<String> readManifest(File file) throws IOException {
+		byte[] header = MANIFEST_HEADER.getBytes(StandardCharsets.UTF_8);
+		try (InputStream in = new FileInputStream(file)) {
+			if (!Arrays.equals(header, in.readNBytes(header.length))) {
+				return null;
+			}
+		}
+		return Files.readAllLines(file.toPath(), StandardCharsets.UTF_8).stream().skip(1)
+				.filter(line -> !line.isBlank()).collect(Collectors.toList());
+	}
 
 	public static void read(Dataset dataset, InputStream in) throws IOException, IllegalArgumentException {
+		read(dataset, in, null);
+	}
+
+	/**
+	 * Reads a dataset from an input stream, which might be gzip compressed. The
+	 * {@link #supportedLanguages supported languages} get tried in order,
+	 * starting with the expected language, if given.
+	 * 
+	 * @param dataset          the dataset to add the read statements to
+	 * @param in               the input stream to read
+	 * @param expectedLanguage the language to try first or {@code null}
+	 * @throws IOException              if reading the stream failed
+	 * @throws IllegalArgumentException if the RDF language is unknown
+	 */
+	public static void read(Dataset dataset, InputStream in, Lang expectedLanguage)
+			throws IOException, IllegalArgumentException {
 		if (!in.markSupported()) {
 			in = new BufferedInputStream(in);
 		}
+		InputStream decompressedIn = decompressIfGzip(in);
+		if (decompressedIn != in) {
+			read(dataset, decompressedIn, expectedLanguage);
+			return;
+		}
 		in.mark(MAX_BUFFER_SIZE);
 		// try each known language
 		InputStream uncloseableIn = new UncloseableInputStream(in);
 		LinkedHashMap<Lang, Throwable> throwables = new LinkedHashMap<>();
-		for (Lang lang : supportedLanguages) {
+		List<Lang> languages = new ArrayList<>(supportedLanguages);
+		if (expectedLanguage != null && languages.remove(expectedLanguage)) {
+			languages.add(0, expectedLanguage);
+		}
+		for (Lang lang : languages) {
 			try {
 				RDFDataMgr.read(dataset, uncloseableIn, lang);
 				in.close();
@@ -72,4 +222,126 @@ public class Datasets {
 												.replaceAll("\n\\s+", ", ").replaceAll("\n", " ")))
 								.collect(Collectors.joining("\n  ")));
 	}
+
+	/**
+	 * Returns a decompressing input stream, if the given input stream starts with
+	 * the gzip magic number, or otherwise the given input stream.
+	 * 
+	 * @param in input stream that supports {@link InputStream#mark(int) mark}
+	 */
+	private static InputStream decompressIfGzip(InputStream in) throws IOException {
+		in.mark(2);
+		boolean gzip = in.read() == 0x1f && in.read() == 0x8b;
+		in.reset();
+		return gzip ? new GZIPInputStream(in) : in;
+	}
+
+	/**
+	 * Writes a dataset into a file.
+	 * 
+	 * @param dataset the dataset to write
+	 * @param file    the file to write into
+	 * @param format  the format to write
+	 * @param gzip    {@code true}, if the file should get compressed with gzip
+	 * @throws IOException if writing the file failed
+	 */
+	public static void write(Dataset dataset, File file, Format format, boolean gzip) throws IOException {
+		try (OutputStream out = outputStream(file, gzip)) {
+			RDFWriter.source(dataset).base(null) // no base prefix to ease result reading
+					.format(format.rdfFormat).output(out);
+		}
+	}
+
+	/**
+	 * Writes each graph of a dataset concurrently into a separate file and lists
+	 * the graph files in a manifest file. The graph files get placed next to the
+	 * manifest file and named after it. The manifest file can be read with
+	 * {@link #read(Dataset, File)}.
+	 * 
+	 * @param dataset  the dataset to write
+	 * @param manifest the manifest file to write
+	 * @param format   the format to write the graph files in
+	 * @param gzip     {@code true}, if the graph files should get compressed with
+	 *                 gzip
+	 * @throws IOException if writing a file failed
+	 */
+	public static void writeGraphFiles(Dataset dataset, File manifest, Format format, boolean gzip)
+			throws IOException {
+		DatasetGraph source = dataset.asDatasetGraph();
+		List<DatasetGraph> parts = new ArrayList<>();
+		// default graph including the dataset prefixes
+		parts.add(DatasetGraphFactory.createGeneral(source.getDefaultGraph()));
+		source.listGraphNodes().forEachRemaining(graphName -> {
+			DatasetGraph part = DatasetGraphFactory.createGeneral();
+			part.prefixes().putAll(source.prefixes());
+			part.addGraph(graphName, source.getGraph(graphName));
+			parts.add(part);
+		});
+		File directory = manifest.getAbsoluteFile().getParentFile();
+		String baseName = manifest.getName().replaceFirst("\\.[^.]*$", "");
+		String extension = "." + format.getFileExtension() + (gzip ? ".gz" : "");
+		List<String> graphFileNames = new ArrayList<>();
+		List<Callable<DatasetGraph>> tasks = new ArrayList<>();
+		for (DatasetGraph part : parts) {
+			String graphFileName = baseName + "-" + graphFileNames.size() + extension;
+			graphFileNames.add(graphFileName);
+			tasks.add(() -> {
+				write(DatasetFactory.wrap(part), new File(directory, graphFileName), format, gzip);
+				return part;
+			});
+		}
+		executeConcurrently(tasks);
+		List<String> lines = new ArrayList<>();
+		lines.add(MANIFEST_HEADER);
+		lines.addAll(graphFileNames);
+		Files.write(manifest.toPath(), lines, StandardCharsets.UTF_8);
+	}
+
+	private static OutputStream outputStream(File file, boolean gzip) throws IOException {
+		OutputStream out = new BufferedOutputStream(new FileOutputStream(file));
+		return gzip ? new GZIPOutputStream(out) : out;
+	}
+
+	private static <T> List<T> executeConcurrently(List<Callable<T>> tasks) throws IOException {
+		ExecutorService executor = Executors
+				.newFixedThreadPool(Math.max(1, Math.min(tasks.size(), Runtime.getRuntime().availableProcessors())));
+		try {
+			List<Future<T>> futures = new ArrayList<>();
+			for (Callable<T> task : tasks) {
+				futures.add(executor.submit(task));
+			}
+			List<T> results = new ArrayList<>();
+			for (Future<T> future : futures) {
+				try {
+					results.add(future.get());
+				} catch (ExecutionException e) {
+					if (e.getCause() instanceof IOException cause) {
+						throw cause;
+					} else if (e.getCause() instanceof RuntimeException cause) {
+						throw cause;
+					}
+					throw new RuntimeException(e.getCause());
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IOException("Interrupted while processing graph files.", e);
+				}
+			}
+			return results;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Returns a dataset containing the same graphs as the given dataset that does
+	 * not create graphs on access of missing graphs. As long as the graphs do not
+	 * get modified, this permits concurrent read access, which otherwise might
+	 * cause concurrent modifications of the graph index of the given dataset.
+	 * 
+	 * @param dataset the dataset to provide the graphs
+	 * @return a dataset with the same graphs
+	 */
+	public static Dataset withFixedGraphs(Dataset dataset) {
+		return DatasetFactory.wrap(DatasetGraphMapLink.cloneStructure(dataset.asDatasetGraph(), graphName -> null));
+	}
 }
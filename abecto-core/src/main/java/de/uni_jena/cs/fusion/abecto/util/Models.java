@@ -19,17 +19,22 @@
 package de.uni_jena.cs.fusion.abecto.util;
 
 import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpClient.Redirect;
 import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
@@ -38,14 +43,30 @@ import java.util.stream.Stream;
 
 import javax.annotation.Nullable;
 
-import org.apache.jena.graph.compose.MultiUnion;
+import org.apache.jena.atlas.web.ContentType;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.http.HttpEnv;
 import org.apache.jena.ontology.OntModel;
 import org.apache.jena.ontology.OntModelSpec;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFLanguages;
 import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.RiotException;
+import org.apache.jena.riot.WebContent;
 import org.apache.jena.riot.system.ErrorHandlerFactory;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.apache.jena.tdb1.TDB1Factory;
+import org.apache.jena.tdb1.TDB1Loader;
+import org.apache.jena.tdb1.base.file.Location;
+import org.apache.jena.tdb1.store.GraphTDB;
+import org.apache.jena.tdb1.sys.TDBInternal;
+
+import de.uni_jena.cs.fusion.abecto.graph.FrozenGraph;
+import de.uni_jena.cs.fusion.abecto.graph.NodeDictionary;
+import de.uni_jena.cs.fusion.abecto.graph.SparqlGraph;
+import de.uni_jena.cs.fusion.abecto.graph.UnionGraph;
 
 /**
  * Provides a couple of handy methods to easy work with {@link Model}s.
@@ -63,6 +84,70 @@ public class Models {
 		return ModelFactory.createOntologyModel(OntModelSpec.OWL_MEM);
 	}
 
+	/**
+	 * Returns a new {@link Model} stored on disk in the given directory. The model
+	 * is not transactional. It must not be updated concurrently, but supports
+	 * concurrent reads.
+	 * 
+	 * @param directory the directory to store the model in, which must either not
+	 *                  exist or be empty
+	 * @return the disk-backed model
+	 */
+	public static Model createPersistentModel(File directory) {
+		return TDB1Factory.createDataset(directory.getPath()).getDefaultModel();
+	}
+
+	/**
+	 * Releases a {@link Model} created by {@link #createPersistentModel(File)} and
+	 * deletes its directory. The model must not be used afterwards.
+	 * 
+	 * @param directory the directory the model is stored in
+	 * @throws IOException if the directory could not be deleted
+	 */
+	public static void deletePersistentModel(File directory) throws IOException {
+		TDBInternal.expel(Location.create(directory.getPath()), true);
+		try (Stream<Path> paths = Files.walk(directory.toPath())) {
+			for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+				Files.deleteIfExists(path);
+			}
+		}
+	}
+
+	/**
+	 * Checks if a {@link Model} is stored on disk.
+	 * 
+	 * @param model the model to check
+	 * @return {@code true}, if the model is stored on disk, otherwise
+	 *         {@code false}
+	 * @see #createPersistentModel(File)
+	 */
+	public static boolean isPersistent(Model model) {
+		return model.getGraph() instanceof GraphTDB;
+	}
+
+	/**
+	 * Checks if a {@link Model} is backed by a SPARQL endpoint.
+	 * 
+	 * @param model the model to check
+	 * @return {@code true}, if the model is backed by a SPARQL endpoint, otherwise
+	 *         {@code false}
+	 * @see SparqlGraph
+	 */
+	public static boolean isRemote(Model model) {
+		return model.getGraph() instanceof SparqlGraph;
+	}
+
+	/**
+	 * Returns a compact read-only copy of a {@link Model}.
+	 * 
+	 * @param model the model to copy
+	 * @return the read-only copy
+	 * @see FrozenGraph
+	 */
+	public static Model freeze(Model model) {
+		return ModelFactory.createModelForGraph(FrozenGraph.freeze(model.getGraph()));
+	}
+
 	public static final Collection<Lang> supportedLanguages = Arrays.asList(Lang.RDFXML, Lang.TRIG, Lang.NQ,
 			Lang.JSONLD, Lang.RDFJSON, Lang.RDFTHRIFT, Lang.TRIX, Lang.SHACLC);
 
@@ -77,7 +162,7 @@ public class Models {
 		for (Lang lang : supportedLanguages) {
 			try {
 				RDFParser.source(unclosableIn).lang(lang).errorHandler(ErrorHandlerFactory.errorHandlerNoLogging)
-						.parse(model);
+						.parse(NodeDictionary.interning(StreamRDFLib.graph(model.getGraph())));
 				in.close();
 				return model;
 			} catch (Throwable t) {
@@ -94,36 +179,92 @@ public class Models {
 								.collect(Collectors.joining("\n  ")));
 	}
 
+	/**
+	 * Reads an RDF file into a {@link Model}. If the model is stored on disk and
+	 * the RDF language is indicated by the file extension, the bulk loader of the
+	 * store will be used. Otherwise, the RDF language will be detected from the
+	 * file content.
+	 * 
+	 * @param model the model to read the file into
+	 * @param file  the file to read
+	 * @return the given model
+	 */
+	public static Model read(Model model, File file) throws IOException, IllegalArgumentException {
+		Lang lang = RDFLanguages.filenameToLang(file.getName());
+		if (isPersistent(model) && lang != null && RDFLanguages.isTriples(lang)) {
+			TDB1Loader.load((GraphTDB) model.getGraph(), file.getPath(), false);
+			return model;
+		}
+		try (InputStream in = new FileInputStream(file)) {
+			return read(model, in);
+		}
+	}
+
+	/**
+	 * Reads an RDF document from a {@link URI} into a {@link Model}. For HTTP
+	 * URIs, the document is requested with the default HTTP client of Apache
+	 * Jena, which might cache responses (see {@link CachingHttpClient}). The RDF
+	 * language is determined by the content type or the file extension. If the
+	 * language cannot be determined or the parsing fails, the language will be
+	 * detected from the document content.
+	 * 
+	 * @param model the model to read the document into
+	 * @param uri   the location of the document
+	 * @return the given model
+	 */
 	public static Model read(Model model, URI uri) throws IllegalArgumentException, IOException, InterruptedException {
-		try {
+		if (!"http".equalsIgnoreCase(uri.getScheme()) && !"https".equalsIgnoreCase(uri.getScheme())) {
+			RDFParser.source(uri.toString()).errorHandler(ErrorHandlerFactory.errorHandlerNoLogging)
+					.parse(NodeDictionary.interning(StreamRDFLib.graph(model.getGraph())));
+			return model;
+		}
+		HttpResponse<InputStream> response = fetch(uri);
+		ContentType contentType = WebContent
+				.determineCT(response.headers().firstValue("Content-Type").orElse(null), null, uri.toString());
+		Lang lang = contentType != null ? RDFLanguages.contentTypeToLang(contentType) : null;
+		if (lang == null) {
+			return read(model, response.body());
+		}
+		try (InputStream in = response.body()) {
 			// using the content type or file extension for language detection
-			RDFParser.source(uri.toString()).errorHandler(ErrorHandlerFactory.errorHandlerNoLogging).parse(model);
+			RDFParser.source(in).lang(lang).base(uri.toString()).errorHandler(ErrorHandlerFactory.errorHandlerNoLogging)
+					.parse(NodeDictionary.interning(StreamRDFLib.graph(model.getGraph())));
 			return model;
-		} catch (Exception e) {
+		} catch (RiotException e) {
 			// try again using brute force language detection
-
-			// create a client
-			var client = HttpClient.newBuilder().followRedirects(Redirect.NORMAL).build();
-
-			// create a request
-			var request = HttpRequest.newBuilder(uri)
-					.header("accept",
-							supportedLanguages.stream().map(Lang::getHeaderString).collect(Collectors.joining(", "))
-									+ ", */*;q=0.8")
-					.build();
-
-			return read(model, client.send(request, BodyHandlers.ofInputStream()).body());
+			return read(model, fetch(uri).body());
 		}
 	}
 
-	public static Model union(Model baseModel, Stream<Model> models) {
-		MultiUnion unionGraph = new MultiUnion();
-		if (baseModel != null) {
-			unionGraph.addGraph(baseModel.getGraph());
-			unionGraph.setBaseGraph(baseModel.getGraph());
+	private static HttpResponse<InputStream> fetch(URI uri) throws IOException, InterruptedException {
+		HttpRequest request = HttpRequest.newBuilder(uri)
+				.header("accept",
+						supportedLanguages.stream().map(Lang::getHeaderString).collect(Collectors.joining(", "))
+								+ ", */*;q=0.8")
+				.build();
+		HttpResponse<InputStream> response = HttpEnv.getDftHttpClient().send(request, BodyHandlers.ofInputStream());
+		if (response.statusCode() != 200) {
+			response.body().close();
+			throw new IOException(
+					String.format("Failed to fetch \"%s\": HTTP status code %s.", uri, response.statusCode()));
 		}
-		models.filter(Objects::nonNull).map(Model::getGraph).forEach(unionGraph::addGraph);
-		return ModelFactory.createModelForGraph(unionGraph);
+		return response;
+	}
+
+	/**
+	 * Returns a union of the given models. Changes of the union are passed to the
+	 * base model, if present. Otherwise, the union is read-only. Changes of the
+	 * given models are visible in the union.
+	 * 
+	 * @param baseModel the model to pass changes to or {@code null}
+	 * @param models    the other models
+	 * @return the union of the models
+	 * @see UnionGraph
+	 */
+	public static Model union(@Nullable Model baseModel, Stream<Model> models) {
+		List<Graph> graphs = models.filter(Objects::nonNull).map(Model::getGraph).collect(Collectors.toList());
+		return ModelFactory
+				.createModelForGraph(new UnionGraph(baseModel != null ? baseModel.getGraph() : null, graphs));
 	}
 
 	public static Model union(Stream<Model> models) {
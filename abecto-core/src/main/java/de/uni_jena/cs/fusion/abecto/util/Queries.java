@@ -21,14 +21,20 @@ package de.uni_jena.cs.fusion.abecto.util;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
+import org.apache.jena.arq.querybuilder.SelectBuilder;
 import org.apache.jena.atlas.lib.StreamOps;
+import org.apache.jena.graph.Node;
 import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryExecution;
 import org.apache.jena.query.QueryExecutionFactory;
 import org.apache.jena.query.QuerySolution;
 import org.apache.jena.query.ResultSet;
@@ -36,9 +42,120 @@ import org.apache.jena.rdf.model.Literal;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.RDFNode;
 import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.ResultSetStream;
+import org.apache.jena.sparql.engine.binding.Binding;
+
+import de.uni_jena.cs.fusion.abecto.graph.SparqlGraph;
 
 public class Queries {
 
+	/**
+	 * Executes a SELECT {@link Query} on a {@link Model}. If the model is backed
+	 * by a SPARQL endpoint (see {@link SparqlGraph#of(org.apache.jena.graph.Graph)}),
+	 * the query gets evaluated by the endpoint. The returned {@link SelectResults}
+	 * must get closed after use.
+	 * 
+	 * @param model target of the query
+	 * @param query select query to execute
+	 * @return the results of the query
+	 */
+	public static SelectResults execSelect(Model model, Query query) {
+		Optional<SparqlGraph> sparqlGraph = SparqlGraph.of(model.getGraph());
+		if (sparqlGraph.isPresent()) {
+			return new SelectResults(toResultSet(query, sparqlGraph.get().select(query), model), null);
+		}
+		QueryExecution queryExecution = QueryExecutionFactory.create(query, model);
+		return new SelectResults(queryExecution.execSelect(), queryExecution);
+	}
+
+	/**
+	 * Executes a SELECT {@link Query} on a {@link Model} for a single value of a
+	 * key variable. If the model is backed by a SPARQL endpoint (see
+	 * {@link SparqlGraph#of(org.apache.jena.graph.Graph)}), the query gets
+	 * evaluated by the endpoint together with the query for further values of the
+	 * key variable. The returned {@link SelectResults} must get closed after use.
+	 * 
+	 * @param model       target of the query
+	 * @param query       select query to execute
+	 * @param keyVariable the key variable of the query
+	 * @param keyValue    the value of the key variable
+	 * @return the results of the query for the given value of the key variable
+	 */
+	public static SelectResults execSelect(Model model, Query query, Var keyVariable, Node keyValue) {
+		Optional<SparqlGraph> sparqlGraph = SparqlGraph.of(model.getGraph());
+		if (sparqlGraph.isPresent()) {
+			return new SelectResults(toResultSet(query, sparqlGraph.get().select(query, keyVariable, keyValue), model),
+					null);
+		}
+		Query queryForKeyValue = SelectBuilder.rewrite(query.cloneQuery(),
+				Collections.singletonMap(keyVariable, keyValue));
+		QueryExecution queryExecution = QueryExecutionFactory.create(queryForKeyValue, model);
+		return new SelectResults(queryExecution.execSelect(), queryExecution);
+	}
+
+	/**
+	 * Checks if a SELECT {@link Query} on a {@link Model} has results for a single
+	 * value of a key variable. If the model is backed by a SPARQL endpoint (see
+	 * {@link SparqlGraph#of(org.apache.jena.graph.Graph)}), the query gets
+	 * evaluated by the endpoint together with the query for further values of the
+	 * key variable. Otherwise, the query gets evaluated as ASK query.
+	 * 
+	 * @param model       target of the query
+	 * @param query       select query to execute
+	 * @param keyVariable the key variable of the query
+	 * @param keyValue    the value of the key variable
+	 * @return {@code true}, if the query has results for the given value of the
+	 *         key variable, otherwise {@code false}
+	 */
+	public static boolean hasResults(Model model, Query query, Var keyVariable, Node keyValue) {
+		Optional<SparqlGraph> sparqlGraph = SparqlGraph.of(model.getGraph());
+		if (sparqlGraph.isPresent()) {
+			return !sparqlGraph.get().select(query, keyVariable, keyValue).isEmpty();
+		}
+		Query queryForKeyValue = SelectBuilder.rewrite(query.cloneQuery(),
+				Collections.singletonMap(keyVariable, keyValue));
+		queryForKeyValue.setQueryAskType();
+		try (QueryExecution queryExecution = QueryExecutionFactory.create(queryForKeyValue, model)) {
+			return queryExecution.execAsk();
+		}
+	}
+
+	/**
+	 * Results of a SELECT {@link Query} that keep the {@link QueryExecution} open
+	 * until they get closed.
+	 */
+	public static class SelectResults implements AutoCloseable {
+		private final ResultSet resultSet;
+		private final QueryExecution queryExecution;
+
+		private SelectResults(ResultSet resultSet, QueryExecution queryExecution) {
+			this.resultSet = resultSet;
+			this.queryExecution = queryExecution;
+		}
+
+		public ResultSet getResultSet() {
+			return resultSet;
+		}
+
+		@Override
+		public void close() {
+			if (queryExecution != null) {
+				queryExecution.close();
+			}
+		}
+	}
+
+	private static ResultSet toResultSet(Query query, List<Binding> bindings, Model model) {
+		List<Var> vars = query.getProjectVars();
+		if (query.isQueryResultStar()) {
+			Set<Var> allVars = new LinkedHashSet<>();
+			bindings.forEach(binding -> binding.vars().forEachRemaining(allVars::add));
+			vars = new ArrayList<>(allVars);
+		}
+		return ResultSetStream.create(Var.varNames(vars), model, bindings.iterator());
+	}
+
 	/**
 	 * Executes a SELECT {@link Query} on a {@link Model} and returns a finite,
 	 * unordered {@link Stream} of the first result column. {@code null} values will
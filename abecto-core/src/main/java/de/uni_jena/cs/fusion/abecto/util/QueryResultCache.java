@@ -0,0 +1,291 @@
+/*-
+ * Copyright © 2019-2022 Heinz Nixdorf Chair for Distributed Information Systems,
+ *                       Friedrich Schiller University Jena (http://www.fusion.uni-jena.de/)
+ * Copyright © 2023-2024 Jan Martin Keil (jan-martin.keil@uni-jena.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+-*/
+
+package de.uni_jena.cs.fusion.abecto.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.annotation.Nullable;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFFormat;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.RiotException;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.apache.jena.riot.system.StreamRDFWriter;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.sparql.graph.GraphFactory;
+
+import com.google.common.hash.Hashing;
+
+import de.uni_jena.cs.fusion.abecto.graph.NodeDictionary;
+
+/**
+ * Provides a persistent cache of the results of queries for multiple resources
+ * stored in a local directory. The key of a query should contain the IRI of the
+ * queried service and the normalized query without the values of the
+ * resources.
+ * <p>
+ * The results of a query for a chunk of resources are stored together in one
+ * GZIP compressed RDF Thrift file, with the results of each resource in a graph
+ * named by the resource. The file is named by a hash of the resources of the
+ * chunk. An index file per query maps the resources to the files of their
+ * latest results. Therefore, the results of many resources are looked up with
+ * one read of the index and one read per file.
+ * <p>
+ * Entries expire after a given time to live. Additionally, all entries stored
+ * before the creation of the cache instance can be ignored to refresh the
+ * cache.
+ */
+public class QueryResultCache {
+
+	private static final String INDEX_FILE_NAME = "index";
+	private static final String RESULT_FILE_EXTENSION = ".trdf.gz";
+
+	private final Path directory;
+	@Nullable
+	private final Duration timeToLive;
+	@Nullable
+	private final Instant notBefore;
+
+	/**
+	 * Creates a {@link QueryResultCache}.
+	 * 
+	 * @param directory  the directory to store the results in
+	 * @param timeToLive the time to keep results or {@code null} to keep them
+	 *                   without limit
+	 * @param refresh    {@code true}, if results stored before the creation of this
+	 *                   instance should be ignored and replaced
+	 * @throws UncheckedIOException if the directory could not be created
+	 */
+	public QueryResultCache(Path directory, @Nullable Duration timeToLive, boolean refresh) {
+		this.directory = directory;
+		this.timeToLive = timeToLive;
+		// truncate to be robust against coarse file time resolutions
+		this.notBefore = refresh ? Instant.now().truncatedTo(ChronoUnit.SECONDS) : null;
+		try {
+			Files.createDirectories(directory);
+		} catch (IOException e) {
+			throw new UncheckedIOException(
+					String.format("Failed to create query result cache directory \"%s\".", directory), e);
+		}
+	}
+
+	private static String hash(String string) {
+		return Hashing.sha256().hashString(string, StandardCharsets.UTF_8).toString();
+	}
+
+	private Path queryDirectory(String key) {
+		String hash = hash(key);
+		return directory.resolve(hash.substring(0, 2)).resolve(hash);
+	}
+
+	/**
+	 * Returns the cached results of resources for a query, if present and not
+	 * expired.
+	 * 
+	 * @param key       the key of the query
+	 * @param resources the resources to get the results for
+	 * @return the cached results by resource, containing only resources with a
+	 *         valid cached result
+	 */
+	public Map<Node, Graph> getAll(String key, Collection<Node> resources) {
+		Path queryDirectory = queryDirectory(key);
+		Map<String, String> fileNameByIri = readIndex(queryDirectory.resolve(INDEX_FILE_NAME));
+		Map<String, List<Node>> resourcesByFileName = resources.stream()
+				.filter(resource -> resource.isURI() && fileNameByIri.containsKey(resource.getURI()))
+				.collect(Collectors.groupingBy(resource -> fileNameByIri.get(resource.getURI())));
+		Map<Node, Graph> results = new HashMap<>();
+		resourcesByFileName.forEach(
+				(fileName, resourcesOfFile) -> read(queryDirectory.resolve(fileName), resourcesOfFile, results));
+		return results;
+	}
+
+	/**
+	 * Returns the names of the files containing the latest results by the IRIs of
+	 * the resources. Incomplete lines get ignored.
+	 */
+	private static Map<String, String> readIndex(Path index) {
+		Map<String, String> fileNameByIri = new HashMap<>();
+		String content;
+		try {
+			content = Files.readString(index, StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			// treat missing or unreadable index as empty
+			return fileNameByIri;
+		}
+		int start = 0;
+		for (int end = content.indexOf('\n'); end >= 0; start = end + 1, end = content.indexOf('\n', start)) {
+			int separator = content.indexOf('\t', start);
+			if (separator > start && separator < end) {
+				fileNameByIri.put(content.substring(separator + 1, end), content.substring(start, separator));
+			}
+		}
+		return fileNameByIri;
+	}
+
+	/**
+	 * Adds the results of resources stored in a file, if present and not expired.
+	 */
+	private void read(Path file, List<Node> resources, Map<Node, Graph> results) {
+		byte[] content;
+		try {
+			if (!Files.exists(file)) {
+				return;
+			}
+			Instant stored = Files.getLastModifiedTime(file).toInstant();
+			if (notBefore != null && stored.isBefore(notBefore)
+					|| timeToLive != null && stored.plus(timeToLive).isBefore(Instant.now())) {
+				return;
+			}
+			// read completely to detect truncated entries by the GZIP trailer, as the
+			// RDF Thrift parser does not report the end of a truncated input
+			try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+				content = in.readAllBytes();
+			}
+		} catch (IOException e) {
+			// treat unreadable entries as missing
+			discard(file);
+			return;
+		}
+		Map<Node, Graph> resultsOfFile = new HashMap<>();
+		for (Node resource : resources) {
+			resultsOfFile.put(resource, GraphFactory.createDefaultGraph());
+		}
+		try {
+			RDFParser.source(new ByteArrayInputStream(content)).lang(Lang.RDFTHRIFT)
+					.parse(NodeDictionary.interning(new StreamRDFBase() {
+						@Override
+						public void quad(Quad quad) {
+							Graph result = resultsOfFile.get(quad.getGraph());
+							if (result != null) {
+								result.add(quad.asTriple());
+							}
+						}
+					}));
+		} catch (RiotException e) {
+			// treat corrupt entries as missing
+			discard(file);
+			return;
+		}
+		results.putAll(resultsOfFile);
+	}
+
+	private static boolean endsWithLineBreak(Path index) throws IOException {
+		if (!Files.exists(index)) {
+			return true;
+		}
+		try (SeekableByteChannel channel = Files.newByteChannel(index)) {
+			if (channel.size() == 0) {
+				return true;
+			}
+			ByteBuffer lastByte = ByteBuffer.allocate(1);
+			channel.position(channel.size() - 1).read(lastByte);
+			return lastByte.get(0) == '\n';
+		}
+	}
+
+	private static void discard(Path file) {
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException e) {
+			// will get replaced by the next put
+		}
+	}
+
+	/**
+	 * Stores the results of a chunk of resources for a query. Existing results of
+	 * the resources will be replaced. Results of resources that are not IRIs will
+	 * be ignored.
+	 * 
+	 * @param key               the key of the query
+	 * @param resultsByResource the results of the resources of the chunk,
+	 *                          including empty results
+	 * @throws UncheckedIOException if the results could not be stored
+	 */
+	public void putAll(String key, Map<Node, Graph> resultsByResource) {
+		List<String> iris = resultsByResource.keySet().stream().filter(Node::isURI).map(Node::getURI).sorted()
+				.collect(Collectors.toList());
+		if (iris.isEmpty()) {
+			return;
+		}
+		Path queryDirectory = queryDirectory(key);
+		String fileName = hash(String.join("\n", iris)) + RESULT_FILE_EXTENSION;
+		Path file = queryDirectory.resolve(fileName);
+		try {
+			Files.createDirectories(queryDirectory);
+			Path temporaryFile = Files.createTempFile(queryDirectory, null, ".tmp");
+			try {
+				try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temporaryFile))) {
+					StreamRDF writer = StreamRDFWriter.getWriterStream(out, RDFFormat.RDF_THRIFT);
+					writer.start();
+					for (String iri : iris) {
+						Node resource = NodeFactory.createURI(iri);
+						resultsByResource.get(resource).find()
+								.forEachRemaining(triple -> writer.quad(Quad.create(resource, triple)));
+					}
+					writer.finish();
+				}
+				Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} finally {
+				Files.deleteIfExists(temporaryFile);
+			}
+			StringBuilder indexEntries = new StringBuilder();
+			for (String iri : iris) {
+				indexEntries.append(fileName).append('\t').append(iri).append('\n');
+			}
+			Path index = queryDirectory.resolve(INDEX_FILE_NAME);
+			synchronized (this) {
+				if (!endsWithLineBreak(index)) {
+					// terminate incomplete line of an interrupted write
+					indexEntries.insert(0, '\n');
+				}
+				Files.writeString(index, indexEntries, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+						StandardOpenOption.APPEND);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(String.format("Failed to store query results in \"%s\".", file), e);
+		}
+	}
+}
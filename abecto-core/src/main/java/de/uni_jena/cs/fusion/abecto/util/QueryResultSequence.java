@@ -0,0 +1,171 @@
+/*-
+ * Copyright © 2019-2022 Heinz Nixdorf Chair for Distributed Information Systems,
+ *                       Friedrich Schiller University Jena (http://www.fusion.uni-jena.de/)
+ * Copyright © 2023-2024 Jan Martin Keil (jan-martin.keil@uni-jena.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+-*/
+
+package de.uni_jena.cs.fusion.abecto.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.model.RDFNode;
+
+import freemarker.template.ObjectWrapper;
+import freemarker.template.TemplateCollectionModel;
+import freemarker.template.TemplateModel;
+import freemarker.template.TemplateModelException;
+import freemarker.template.TemplateModelIterator;
+import freemarker.template.TemplateSequenceModel;
+
+/**
+ * Provides the results of a SELECT query to FreeMarker templates. Each row is
+ * represented by a map from the variable names to the string representations of
+ * the bound values.
+ * <p>
+ * Listing the rows streams them from the query execution without holding them
+ * in memory. Repeated listing executes the query again. Only operations
+ * requiring random access, like {@code ?size} or {@code ?sort_by}, cause the
+ * rows to be held in memory.
+ * <p>
+ * Executions of listings that are not completed, e.g. due to {@code <#break>}
+ * or a template error, remain open until {@link #close()}.
+ */
+public class QueryResultSequence implements TemplateCollectionModel, TemplateSequenceModel, AutoCloseable {
+
+	private final Supplier<QueryExecution> queryExecutionSupplier;
+	private final ObjectWrapper objectWrapper;
+	private final Set<QueryExecution> openQueryExecutions = ConcurrentHashMap.newKeySet();
+	private volatile List<Map<String, String>> rows;
+
+	/**
+	 * @param queryExecutionSupplier supplier of new executions of the query
+	 * @param objectWrapper          wrapper to use for the rows
+	 */
+	public QueryResultSequence(Supplier<QueryExecution> queryExecutionSupplier, ObjectWrapper objectWrapper) {
+		this.queryExecutionSupplier = queryExecutionSupplier;
+		this.objectWrapper = objectWrapper;
+	}
+
+	@Override
+	public TemplateModelIterator iterator() throws TemplateModelException {
+		List<Map<String, String>> rows = this.rows;
+		if (rows != null) {
+			Iterator<Map<String, String>> iterator = rows.iterator();
+			return new TemplateModelIterator() {
+				@Override
+				public TemplateModel next() throws TemplateModelException {
+					return objectWrapper.wrap(iterator.next());
+				}
+
+				@Override
+				public boolean hasNext() {
+					return iterator.hasNext();
+				}
+			};
+		}
+		QueryExecution queryExecution = queryExecutionSupplier.get();
+		openQueryExecutions.add(queryExecution);
+		ResultSet results = queryExecution.execSelect();
+		return new TemplateModelIterator() {
+			@Override
+			public TemplateModel next() throws TemplateModelException {
+				return objectWrapper.wrap(row(results.next(), results.getResultVars()));
+			}
+
+			@Override
+			public boolean hasNext() {
+				if (results.hasNext()) {
+					return true;
+				}
+				queryExecution.close();
+				openQueryExecutions.remove(queryExecution);
+				return false;
+			}
+		};
+	}
+
+	@Override
+	public TemplateModel get(int index) throws TemplateModelException {
+		List<Map<String, String>> rows = rows();
+		return (index < rows.size()) ? objectWrapper.wrap(rows.get(index)) : null;
+	}
+
+	@Override
+	public int size() throws TemplateModelException {
+		return rows().size();
+	}
+
+	/**
+	 * Closes the executions of listings that have not been completed.
+	 */
+	@Override
+	public void close() {
+		for (QueryExecution queryExecution : openQueryExecutions) {
+			queryExecution.close();
+			openQueryExecutions.remove(queryExecution);
+		}
+	}
+
+	private synchronized List<Map<String, String>> rows() {
+		if (rows == null) {
+			List<Map<String, String>> rows = new ArrayList<>();
+			try (QueryExecution queryExecution = queryExecutionSupplier.get()) {
+				ResultSet results = queryExecution.execSelect();
+				List<String> vars = results.getResultVars();
+				results.forEachRemaining(binding -> rows.add(row(binding, vars)));
+			}
+			this.rows = rows;
+		}
+		return rows;
+	}
+
+	private static Map<String, String> row(QuerySolution binding, List<String> vars) {
+		Map<String, String> map = new HashMap<>();
+		for (String var : vars) {
+			RDFNode value = binding.get(var);
+			if (value != null) {
+				map.put(var, format(value));
+			}
+		}
+		return map;
+	}
+
+	/**
+	 * Returns the representation of a value in a row.
+	 * 
+	 * @param value the value to represent
+	 * @return the lexical form of a literal or the IRI or label of a resource in
+	 *         angle brackets
+	 */
+	public static String format(RDFNode value) {
+		if (value.isLiteral()) {
+			return value.asLiteral().getString();
+		} else if (value.isResource()) {
+			return "<" + value.asResource().toString() + ">";
+		} else {
+			return value.toString();
+		}
+	}
+}
@@ -0,0 +1,98 @@
+/*-
+ * Copyright © 2019-2022 Heinz Nixdorf Chair for Distributed Information Systems,
+ *                       Friedrich Schiller University Jena (http://www.fusion.uni-jena.de/)
+ * Copyright © 2023-2024 Jan Martin Keil (jan-martin.keil@uni-jena.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+-*/
+
+package de.uni_jena.cs.fusion.abecto.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import freemarker.template.ObjectWrapper;
+import freemarker.template.TemplateCollectionModel;
+import freemarker.template.TemplateModel;
+import freemarker.template.TemplateModelException;
+import freemarker.template.TemplateModelIterator;
+import freemarker.template.TemplateSequenceModel;
+
+/**
+ * Provides rows of an {@link Iterable} to FreeMarker templates. Each row is
+ * represented by a map from the column names to the values.
+ * <p>
+ * Listing the rows streams them from a new iterator without holding them in
+ * memory. Only operations requiring random access, like {@code ?size} or
+ * {@code ?sort_by}, cause the rows to be held in memory.
+ * 
+ * @see QueryResultSequence
+ */
+public class RowSequence implements TemplateCollectionModel, TemplateSequenceModel {
+
+	private final Iterable<Map<String, String>> rowIterable;
+	private final ObjectWrapper objectWrapper;
+	private volatile List<Map<String, String>> rows;
+
+	/**
+	 * @param rowIterable   the rows, which might get iterated repeatedly
+	 * @param objectWrapper wrapper to use for the rows
+	 */
+	public RowSequence(Iterable<Map<String, String>> rowIterable, ObjectWrapper objectWrapper) {
+		this.rowIterable = rowIterable;
+		this.objectWrapper = objectWrapper;
+	}
+
+	@Override
+	public TemplateModelIterator iterator() throws TemplateModelException {
+		List<Map<String, String>> rows = this.rows;
+		Iterator<Map<String, String>> iterator = (rows != null) ? rows.iterator() : rowIterable.iterator();
+		return new TemplateModelIterator() {
+			@Override
+			public TemplateModel next() throws TemplateModelException {
+				return objectWrapper.wrap(iterator.next());
+			}
+
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+		};
+	}
+
+	@Override
+	public TemplateModel get(int index) throws TemplateModelException {
+		List<Map<String, String>> rows = rows();
+		return (index < rows.size()) ? objectWrapper.wrap(rows.get(index)) : null;
+	}
+
+	@Override
+	public int size() throws TemplateModelException {
+		return rows().size();
+	}
+
+	private synchronized List<Map<String, String>> rows() {
+		if (rows == null) {
+			if (rowIterable instanceof List) {
+				rows = (List<Map<String, String>>) rowIterable;
+			} else {
+				List<Map<String, String>> rows = new ArrayList<>();
+				rowIterable.forEach(rows::add);
+				this.rows = rows;
+			}
+		}
+		return rows;
+	}
+}
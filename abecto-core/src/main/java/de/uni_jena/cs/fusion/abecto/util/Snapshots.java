@@ -0,0 +1,117 @@
+/*-
+ * Copyright © 2019-2022 Heinz Nixdorf Chair for Distributed Information Systems,
+ *                       Friedrich Schiller University Jena (http://www.fusion.uni-jena.de/)
+ * Copyright © 2023-2024 Jan Martin Keil (jan-martin.keil@uni-jena.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+-*/
+
+package de.uni_jena.cs.fusion.abecto.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFFormat;
+import org.apache.jena.riot.RDFLanguages;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.RDFWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Provides binary RDF Thrift snapshots of RDF documents, which can get read
+ * considerably faster than textual RDF documents.
+ */
+public class Snapshots {
+
+	final static Logger log = LoggerFactory.getLogger(Snapshots.class);
+
+	/**
+	 * File extension of snapshot files.
+	 */
+	public final static String EXTENSION = "trdf";
+
+	/**
+	 * Writes a snapshot of each RDF document in the given directories next to the
+	 * document. Used at build time to snapshot bundled vocabularies.
+	 * 
+	 * @param args the directories containing the RDF documents
+	 * @throws IOException if reading or writing a document failed
+	 */
+	public static void main(String[] args) throws IOException {
+		for (String directory : args) {
+			for (File file : new File(directory).listFiles()) {
+				Lang lang = RDFLanguages.filenameToLang(file.getName());
+				if (lang != null && !RDFLanguages.sameLang(lang, Lang.RDFTHRIFT) && RDFLanguages.isTriples(lang)) {
+					Model model = ModelFactory.createDefaultModel();
+					try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+						RDFParser.source(in).lang(lang).parse(model);
+					}
+					File snapshot = snapshotOf(file);
+					try (OutputStream out = new BufferedOutputStream(new FileOutputStream(snapshot))) {
+						RDFWriter.source(model).format(RDFFormat.RDF_THRIFT).output(out);
+					}
+					log.info(String.format("Wrote snapshot of \"%s\" to \"%s\".", file, snapshot));
+				}
+			}
+		}
+	}
+
+	private static File snapshotOf(File file) {
+		return new File(file.getParentFile(), file.getName().replaceFirst("\\.[^.]*$", "") + "." + EXTENSION);
+	}
+
+	/**
+	 * Reads a bundled RDF document into a new model. If available, the snapshot
+	 * written at build time gets read instead of the document.
+	 * 
+	 * @param resourceBase class to resolve the resource name with
+	 * @param resourceName name of the RDF document resource
+	 * @return the model containing the document statements
+	 * @throws IllegalArgumentException if neither the snapshot nor the document
+	 *                                  exist
+	 */
+	public static Model readResource(Class<?> resourceBase, String resourceName) {
+		Model model = ModelFactory.createDefaultModel();
+		String snapshotName = resourceName.replaceFirst("\\.[^./]*$", "") + "." + EXTENSION;
+		try (InputStream snapshot = resourceBase.getResourceAsStream(snapshotName)) {
+			if (snapshot != null) {
+				RDFParser.source(new BufferedInputStream(snapshot)).lang(Lang.RDFTHRIFT).parse(model);
+				return model;
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		try (InputStream document = resourceBase.getResourceAsStream(resourceName)) {
+			if (document == null) {
+				throw new IllegalArgumentException(String.format("Resource \"%s\" not found.", resourceName));
+			}
+			log.warn(String.format("Snapshot of \"%s\" not found. Parsing document instead.", resourceName));
+			RDFParser.source(new BufferedInputStream(document)).lang(RDFLanguages.resourceNameToLang(resourceName))
+					.parse(model);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return model;
+	}
+}
@@ -0,0 +1,469 @@
+/*-
+ * Copyright © 2019-2022 Heinz Nixdorf Chair for Distributed Information Systems,
+ *                       Friedrich Schiller University Jena (http://www.fusion.uni-jena.de/)
+ * Copyright © 2023-2024 Jan Martin Keil (jan-martin.keil@uni-jena.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+-*/
+
+package de.uni_jena.cs.fusion.abecto.visitor;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.query.Query;
+import org.apache.jena.sparql.algebra.walker.Walker;
+import org.apache.jena.sparql.core.BasicPattern;
+import org.apache.jena.sparql.core.TriplePath;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.expr.E_NotOneOf;
+import org.apache.jena.sparql.expr.Expr;
+import org.apache.jena.sparql.expr.ExprFunctionOp;
+import org.apache.jena.sparql.expr.ExprLib;
+import org.apache.jena.sparql.expr.ExprList;
+import org.apache.jena.sparql.expr.ExprVar;
+import org.apache.jena.sparql.expr.ExprVisitorBase;
+import org.apache.jena.sparql.expr.nodevalue.NodeValueNode;
+import org.apache.jena.sparql.path.*;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.engine.binding.BindingBuilder;
+import org.apache.jena.sparql.graph.NodeTransform;
+import org.apache.jena.sparql.syntax.*;
+import org.apache.jena.sparql.syntax.syntaxtransform.ElementTransform;
+import org.apache.jena.sparql.syntax.syntaxtransform.ElementTransformSubst;
+import org.apache.jena.sparql.syntax.syntaxtransform.ElementTransformer;
+import org.apache.jena.sparql.syntax.syntaxtransform.ExprTransformNodeElement;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Derives from the pattern of a {@link Query} the pattern and the template of a
+ * CONSTRUCT query that returns the statements needed to evaluate the pattern.
+ * Evaluating the pattern on the returned statements yields the same results as
+ * evaluating it on the queried dataset.
+ * <p>
+ * Property paths get expanded into the statements on the matching paths,
+ * negations ({@code MINUS}, {@code NOT EXISTS}) and {@code EXISTS} filters get
+ * replaced by optional patterns and sub queries get inlined. Patterns
+ * containing {@code GRAPH} or {@code SERVICE} are not supported.
+ * <p>
+ * Statements of patterns that might not match, like optional patterns or
+ * alternatives, get constructed from a marker variable bound to the subject
+ * after the match. Otherwise, the template would also construct not existing
+ * statements, if all their variables were bound elsewhere.
+ */
+public class ConstructQueryExtractionVisitor implements ElementVisitor {
+
+    private final Set<String> usedVarNames = new HashSet<>();
+    private final Map<Node, Var> blankNodeVars = new HashMap<>();
+    private final Set<Triple> template = new LinkedHashSet<>();
+    private int varCounter = 0;
+    private boolean conditional = false;
+    private Element result;
+
+    /**
+     * Returns a CONSTRUCT {@link Query} that returns the statements needed to
+     * evaluate the pattern of the given {@link Query}.
+     *
+     * @param query the query whose pattern to evaluate
+     * @return the CONSTRUCT query
+     * @throws IllegalArgumentException if the pattern contains unsupported
+     *                                  elements
+     */
+    public static Query getConstructQuery(Query query) throws IllegalArgumentException {
+        ConstructQueryExtractionVisitor visitor = new ConstructQueryExtractionVisitor(query.getQueryPattern());
+        Query constructQuery = new Query();
+        constructQuery.setQueryConstructType();
+        constructQuery.setQueryPattern(visitor.getPattern());
+        constructQuery.setConstructTemplate(visitor.getTemplate());
+        constructQuery.setPrefixMapping(query.getPrefixMapping());
+        return constructQuery;
+    }
+
+    /**
+     * Creates a {@link ConstructQueryExtractionVisitor} for the given pattern.
+     *
+     * @param pattern the pattern to evaluate
+     * @throws IllegalArgumentException if the pattern contains unsupported
+     *                                  elements
+     */
+    public ConstructQueryExtractionVisitor(Element pattern) throws IllegalArgumentException {
+        PatternVars.vars(pattern).forEach(var -> usedVarNames.add(var.getVarName()));
+        this.result = transform(pattern);
+    }
+
+    /**
+     * Returns the pattern of the CONSTRUCT query.
+     */
+    public Element getPattern() {
+        return result;
+    }
+
+    /**
+     * Returns the template of the CONSTRUCT query.
+     */
+    public Template getTemplate() {
+        return new Template(BasicPattern.wrap(new ArrayList<>(template)));
+    }
+
+    private Element transform(Element element) {
+        element.visit(this);
+        return result;
+    }
+
+    /**
+     * Evaluates the given {@link Supplier} in the context of a pattern that might
+     * not match.
+     */
+    private <T> T conditional(Supplier<T> supplier) {
+        boolean outerConditional = conditional;
+        conditional = true;
+        try {
+            return supplier.get();
+        } finally {
+            conditional = outerConditional;
+        }
+    }
+
+    @Override
+    public void visit(ElementTriplesBlock el) {
+        result = match(el.getPattern().getList());
+    }
+
+    @Override
+    public void visit(ElementPathBlock el) {
+        List<Triple> triples = new ArrayList<>();
+        List<TriplePath> paths = new ArrayList<>();
+        for (TriplePath triplePath : el.getPattern()) {
+            if (triplePath.isTriple()) {
+                triples.add(triplePath.asTriple());
+            } else {
+                paths.add(triplePath);
+            }
+        }
+        if (paths.isEmpty()) {
+            result = match(triples);
+        } else {
+            ElementGroup group = new ElementGroup();
+            if (!triples.isEmpty()) {
+                group.addElement(match(triples));
+            }
+            for (TriplePath triplePath : paths) {
+                group.addElement(path(node(triplePath.getSubject()), triplePath.getPath(),
+                        node(triplePath.getObject())));
+            }
+            result = group;
+        }
+    }
+
+    @Override
+    public void visit(ElementFilter el) {
+        List<Element> existsElements = existsElements(el.getExpr());
+        if (existsElements.isEmpty()) {
+            result = el;
+        } else {
+            // fetch the statements to evaluate the (NOT) EXISTS instead of filtering
+            ElementGroup group = new ElementGroup();
+            for (Element existsElement : existsElements) {
+                group.addElement(new ElementOptional(conditional(() -> transform(existsElement))));
+            }
+            result = group;
+        }
+    }
+
+    @Override
+    public void visit(ElementAssign el) {
+        result = el;
+    }
+
+    @Override
+    public void visit(ElementBind el) {
+        result = el;
+    }
+
+    @Override
+    public void visit(ElementData el) {
+        result = el;
+    }
+
+    @Override
+    public void visit(ElementUnion el) {
+        ElementUnion union = new ElementUnion();
+        for (Element subElement : el.getElements()) {
+            union.addElement((el.getElements().size() > 1) ? conditional(() -> transform(subElement))
+                    : transform(subElement));
+        }
+        result = union;
+    }
+
+    @Override
+    public void visit(ElementOptional el) {
+        result = new ElementOptional(conditional(() -> transform(el.getOptionalElement())));
+    }
+
+    @Override
+    public void visit(ElementLateral el) {
+        result = new ElementLateral(transform(el.getLateralElement()));
+    }
+
+    @Override
+    public void visit(ElementGroup el) {
+        ElementGroup group = new ElementGroup();
+        // filters apply to the whole group, therefore evaluate (NOT) EXISTS at the end
+        List<Element> filters = new ArrayList<>();
+        for (Element subElement : el.getElements()) {
+            if (subElement instanceof ElementFilter) {
+                Element filter = transform(subElement);
+                if (filter instanceof ElementGroup) {
+                    // optional patterns must join the group
+                    filters.addAll(((ElementGroup) filter).getElements());
+                } else {
+                    filters.add(filter);
+                }
+            } else {
+                group.addElement(transform(subElement));
+            }
+        }
+        filters.forEach(group::addElement);
+        result = group;
+    }
+
+    @Override
+    public void visit(ElementDataset el) {
+        throw new IllegalArgumentException("Dataset descriptions are not supported.");
+    }
+
+    @Override
+    public void visit(ElementNamedGraph el) {
+        throw new IllegalArgumentException("GRAPH patterns are not supported.");
+    }
+
+    @Override
+    public void visit(ElementExists el) {
+        result = new ElementOptional(conditional(() -> transform(el.getElement())));
+    }
+
+    @Override
+    public void visit(ElementNotExists el) {
+        result = new ElementOptional(conditional(() -> transform(el.getElement())));
+    }
+
+    @Override
+    public void visit(ElementMinus el) {
+        // fetch the statements to subtract instead of subtracting them
+        result = new ElementOptional(conditional(() -> transform(el.getMinusElement())));
+    }
+
+    @Override
+    public void visit(ElementService el) {
+        throw new IllegalArgumentException("SERVICE patterns are not supported.");
+    }
+
+    @Override
+    public void visit(ElementSubQuery el) {
+        // modifiers and aggregates do not reduce the statements needed
+        ElementGroup group = new ElementGroup();
+        group.addElement(transform(renameNotProjectedVars(el.getQuery())));
+        result = group;
+    }
+
+    /**
+     * Returns the pattern of a sub query with the variables not projected by the
+     * sub query renamed to fresh variables, as they must not join with equally
+     * named variables outside the sub query after inlining.
+     */
+    private Element renameNotProjectedVars(Query subQuery) {
+        Element pattern = subQuery.getQueryPattern();
+        if (subQuery.isQueryResultStar()) {
+            return pattern;
+        }
+        Set<Var> projectVars = new HashSet<>(subQuery.getProjectVars());
+        Map<Var, Var> renaming = new HashMap<>();
+        for (Var var : PatternVars.vars(pattern)) {
+            if (!projectVars.contains(var)) {
+                renaming.put(var, freshVar());
+            }
+        }
+        if (renaming.isEmpty()) {
+            return pattern;
+        }
+        NodeTransform nodeTransform = node -> (node instanceof Var && renaming.containsKey(node))
+                ? renaming.get(node) : node;
+        ElementTransform elementTransform = new ElementTransformSubst(renaming) {
+            @Override
+            public Element transform(ElementData el) {
+                // not covered by ElementTransformSubst
+                ElementData data = new ElementData();
+                el.getVars().forEach(var -> data.add(renaming.getOrDefault(var, var)));
+                for (Binding row : el.getRows()) {
+                    BindingBuilder builder = Binding.builder();
+                    row.forEach((var, value) -> builder.add(renaming.getOrDefault(var, var), value));
+                    data.add(builder.build());
+                }
+                return data;
+            }
+        };
+        return ElementTransformer.transform(pattern, elementTransform,
+                new ExprTransformNodeElement(nodeTransform, elementTransform));
+    }
+
+    /**
+     * Returns an element that matches the statements on the given path and adds
+     * them to the template.
+     */
+    private Element path(Node subject, Path path, Node object) {
+        if (path instanceof P_Link) {
+            return match(List.of(Triple.create(subject, ((P_Link) path).getNode(), object)));
+        } else if (path instanceof P_ReverseLink) {
+            return match(List.of(Triple.create(object, ((P_ReverseLink) path).getNode(), subject)));
+        } else if (path instanceof P_Inverse) {
+            return path(object, ((P_Inverse) path).getSubPath(), subject);
+        } else if (path instanceof P_Seq) {
+            Var middle = freshVar();
+            ElementGroup group = new ElementGroup();
+            group.addElement(path(subject, ((P_Seq) path).getLeft(), middle));
+            group.addElement(path(middle, ((P_Seq) path).getRight(), object));
+            return group;
+        } else if (path instanceof P_Alt) {
+            ElementUnion union = new ElementUnion();
+            union.addElement(conditional(() -> path(subject, ((P_Alt) path).getLeft(), object)));
+            union.addElement(conditional(() -> path(subject, ((P_Alt) path).getRight(), object)));
+            return union;
+        } else if (path instanceof P_ZeroOrOne) {
+            ElementGroup group = new ElementGroup();
+            group.addElement(block(new TriplePath(subject, path, object)));
+            group.addElement(new ElementOptional(
+                    conditional(() -> path(subject, ((P_ZeroOrOne) path).getSubPath(), object))));
+            return group;
+        } else if (path instanceof P_FixedLength) {
+            Path subPath = ((P_FixedLength) path).getSubPath();
+            long count = ((P_FixedLength) path).getCount();
+            if (count == 0) {
+                return block(new TriplePath(subject, path, object));
+            }
+            Path seq = subPath;
+            for (long i = 1; i < count; i++) {
+                seq = new P_Seq(seq, subPath);
+            }
+            return path(subject, seq, object);
+        } else if (path instanceof P_NegPropSet) {
+            return negatedPropertySet(subject, (P_NegPropSet) path, object);
+        } else if (path instanceof P_Path1) {
+            // repeated paths: fetch all steps on a path from the subject to the object
+            Path subPath = ((P_Path1) path).getSubPath();
+            Var stepStart = freshVar(), stepEnd = freshVar();
+            ElementGroup steps = new ElementGroup();
+            steps.addElement(block(new TriplePath(subject, new P_ZeroOrMore1(subPath), stepStart)));
+            steps.addElement(conditional(() -> path(stepStart, subPath, stepEnd)));
+            steps.addElement(block(new TriplePath(stepEnd, new P_ZeroOrMore1(subPath), object)));
+            ElementGroup group = new ElementGroup();
+            group.addElement(block(new TriplePath(subject, path, object)));
+            // paths of length zero have no steps
+            group.addElement(new ElementOptional(steps));
+            return group;
+        } else {
+            throw new IllegalArgumentException(String.format("Path \"%s\" is not supported.", path));
+        }
+    }
+
+    private Element negatedPropertySet(Node subject, P_NegPropSet path, Node object) {
+        List<Node> forward = path.getFwdNodes(), backward = path.getBwdNodes();
+        if (backward.isEmpty()) {
+            return negatedProperties(subject, forward, object);
+        }
+        if (forward.isEmpty()) {
+            return negatedProperties(object, backward, subject);
+        }
+        ElementUnion union = new ElementUnion();
+        union.addElement(conditional(() -> negatedProperties(subject, forward, object)));
+        union.addElement(conditional(() -> negatedProperties(object, backward, subject)));
+        return union;
+    }
+
+    private Element negatedProperties(Node subject, List<Node> properties, Node object) {
+        Var predicate = freshVar();
+        ElementGroup group = new ElementGroup();
+        group.addElement(match(List.of(Triple.create(subject, predicate, object))));
+        if (!properties.isEmpty()) {
+            ExprList exprList = new ExprList();
+            properties.forEach(property -> exprList.add(new NodeValueNode(property)));
+            group.addElement(new ElementFilter(new E_NotOneOf(new ExprVar(predicate), exprList)));
+        }
+        return group;
+    }
+
+    private static ElementPathBlock block(TriplePath triplePath) {
+        ElementPathBlock block = new ElementPathBlock();
+        block.addTriplePath(triplePath);
+        return block;
+    }
+
+    /**
+     * Returns an element that matches the given triples with blank nodes replaced
+     * by variables and adds them to the template.
+     */
+    private Element match(List<Triple> triples) {
+        ElementPathBlock block = new ElementPathBlock();
+        ElementGroup group = new ElementGroup();
+        group.addElement(block);
+        for (Triple triple : triples) {
+            triple = Triple.create(node(triple.getSubject()), node(triple.getPredicate()), node(triple.getObject()));
+            block.addTriple(triple);
+            if (conditional) {
+                // only bound if the statement exists
+                Var marker = freshVar();
+                group.addElement(new ElementBind(marker, ExprLib.nodeToExpr(triple.getSubject())));
+                template.add(Triple.create(marker, triple.getPredicate(), triple.getObject()));
+            } else {
+                template.add(triple);
+            }
+        }
+        return (group.size() == 1) ? block : group;
+    }
+
+    /**
+     * Replaces blank nodes and blank node variables by variables, as they would
+     * become new blank nodes in a template.
+     */
+    private Node node(Node node) {
+        if (node.isBlank() || Var.isBlankNodeVar(node)) {
+            return blankNodeVars.computeIfAbsent(node, k -> freshVar());
+        }
+        return node;
+    }
+
+    private Var freshVar() {
+        String name;
+        do {
+            name = "_" + varCounter++;
+        } while (!usedVarNames.add(name));
+        return Var.alloc(name);
+    }
+
+    private static List<Element> existsElements(Expr expr) {
+        List<Element> elements = new ArrayList<>();
+        Walker.walk(expr, new ExprVisitorBase() {
+            @Override
+            public void visit(ExprFunctionOp funcOp) {
+                elements.add(funcOp.getElement());
+            }
+        });
+        return elements;
+    }
+}
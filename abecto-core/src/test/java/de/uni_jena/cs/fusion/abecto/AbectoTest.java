@@ -20,10 +20,21 @@ package de.uni_jena.cs.fusion.abecto;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
+import de.uni_jena.cs.fusion.abecto.util.Datasets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class AbectoTest {
 
@@ -33,10 +44,191 @@ public class AbectoTest {
 	public void call() throws Throwable {
 		Abecto abecto = new Abecto();
 		abecto.planFile = new File(this.getClass().getResource(tutorialPlanFilePath).toURI());
-		abecto.exports = Map.of("deviations", File.createTempFile("deviations",".csv"));
+		abecto.exports = Map.of("deviations", File.createTempFile("deviations",".csv"), "deviationsMarkdown",
+				File.createTempFile("deviations", ".md"), "measurementsMarkdown",
+				File.createTempFile("measurements", ".md"));
 		int exitCode = abecto.call();
 		assertEquals(0, exitCode);
+		for (File export : abecto.exports.values()) {
+			assertTrue(export.length() > 0);
+		}
 		// TODO check output
 	}
 
+	@Test
+	public void callWithDiskStorage() throws Throwable {
+		Abecto abecto = new Abecto();
+		abecto.planFile = new File(this.getClass().getResource(tutorialPlanFilePath).toURI());
+		abecto.diskStorageDirectory = Files.createTempDirectory(null).toFile();
+		abecto.trigOutputFile = File.createTempFile("result", ".trig");
+		abecto.exports = Map.of("deviations", File.createTempFile("deviations", ".csv"));
+		int exitCode = abecto.call();
+		assertEquals(0, exitCode);
+		// primary data stored on disk gets deleted after reporting
+		assertArrayEquals(new String[0], abecto.diskStorageDirectory.list());
+	}
+
+	@Test
+	public void callWithSplitGraphsAndLoadOnly() throws Throwable {
+		Abecto abecto = new Abecto();
+		abecto.planFile = new File(this.getClass().getResource(tutorialPlanFilePath).toURI());
+		abecto.trigOutputFile = new File(Files.createTempDirectory(null).toFile(), "result.txt");
+		abecto.resultFormat = Datasets.Format.THRIFT;
+		abecto.gzip = true;
+		abecto.splitGraphs = true;
+		assertEquals(0, abecto.call());
+
+		Abecto reload = new Abecto();
+		reload.planFile = abecto.trigOutputFile;
+		reload.loadOnly = true;
+		reload.exports = Map.of("deviations", File.createTempFile("deviations", ".csv"));
+		reload.failOnDeviation = true;
+		// deviations present
+		assertEquals(2, reload.call());
+		assertTrue(reload.exports.get("deviations").length() > 0);
+	}
+
+	@Test
+	public void callWithSnapshotAndLoadOnly() throws Throwable {
+		Abecto abecto = new Abecto();
+		abecto.planFile = new File(this.getClass().getResource(tutorialPlanFilePath).toURI());
+		abecto.trigOutputFile = File.createTempFile("result", ".trig");
+		abecto.snapshotOutputFile = File.createTempFile("result", ".trdf");
+		assertEquals(0, abecto.call());
+
+		Abecto reload = new Abecto();
+		reload.planFile = abecto.snapshotOutputFile;
+		reload.loadOnly = true;
+		reload.exports = Map.of("deviations", File.createTempFile("deviations", ".csv"));
+		assertEquals(0, reload.call());
+		assertTrue(reload.exports.get("deviations").length() > 0);
+	}
+
+	@Test
+	public void callWithReportOn() throws Throwable {
+		Abecto abecto = new Abecto();
+		abecto.planFile = new File(this.getClass().getResource(tutorialPlanFilePath).toURI());
+		abecto.sourceToReportOn = "http://example.org/dataset1";
+		abecto.exports = Map.of("deviations", File.createTempFile("deviations", ".csv"), "measurementsMarkdown",
+				File.createTempFile("measurements", ".md"));
+		abecto.failOnDeviation = true;
+		int exitCode = abecto.call();
+		// deviations of dataset1 present
+		assertEquals(2, exitCode);
+		for (File export : abecto.exports.values()) {
+			assertTrue(export.length() > 0);
+		}
+	}
+
+	@Test
+	public void callWithFailFast() throws Throwable {
+		Abecto abecto = new Abecto();
+		abecto.planFile = new File(this.getClass().getResource(tutorialPlanFilePath).toURI());
+		abecto.sourceToReportOn = "http://example.org/dataset1";
+		abecto.trigOutputFile = File.createTempFile("result", ".trig");
+		abecto.failOnDeviation = true;
+		abecto.failOnWrongValue = true;
+		abecto.failFast = true;
+		// deviations of dataset1 present
+		assertEquals(2, abecto.call());
+		// no results written after stop
+		assertEquals(0, abecto.trigOutputFile.length());
+
+		abecto = new Abecto();
+		abecto.planFile = new File(this.getClass().getResource(tutorialPlanFilePath).toURI());
+		abecto.sourceToReportOn = "http://example.org/dataset1";
+		abecto.trigOutputFile = File.createTempFile("result", ".trig");
+		abecto.failOnWrongValue = true;
+		abecto.failFast = true;
+		// no wrong values present
+		assertEquals(0, abecto.call());
+		assertTrue(abecto.trigOutputFile.length() > 0);
+	}
+
+	@Test
+	public void callWithDryRun() throws Throwable {
+		Abecto abecto = new Abecto();
+		abecto.planFile = new File(this.getClass().getResource(tutorialPlanFilePath).toURI());
+		abecto.trigOutputFile = File.createTempFile("result", ".trig");
+		abecto.dryRun = true;
+		PrintStream out = System.out;
+		ByteArrayOutputStream listing = new ByteArrayOutputStream();
+		System.setOut(new PrintStream(listing, true, StandardCharsets.UTF_8));
+		try {
+			assertEquals(0, abecto.call());
+		} finally {
+			System.setOut(out);
+		}
+		// no results written
+		assertEquals(0, abecto.trigOutputFile.length());
+		List<String> lines = listing.toString(StandardCharsets.UTF_8).lines().collect(Collectors.toList());
+		assertFalse(lines.isEmpty());
+		assertTrue(lines.stream().allMatch(line -> line.startsWith("execute ")));
+	}
+
+	@Test
+	public void callWithDryRunSkippingSteps() throws Throwable {
+		String tutorial = "http://example.org/";
+		// deviations need the property comparison, but not the population comparison
+		Abecto abecto = new Abecto();
+		abecto.planFile = new File(this.getClass().getResource(tutorialPlanFilePath).toURI());
+		abecto.exports = Map.of("deviations", File.createTempFile("deviations", ".csv"));
+		abecto.dryRun = true;
+		assertEquals(Map.of(//
+				tutorial + "source1", "execute", //
+				tutorial + "source2", "execute", //
+				tutorial + "source3", "execute", //
+				tutorial + "jaroWinklerMapping", "execute", //
+				tutorial + "propertyComparison", "execute", //
+				tutorial + "completeness", "skip"), dryRun(abecto));
+		assertEquals(0, abecto.exports.get("deviations").length());
+
+		// resource omissions need the population comparison, but not the property
+		// comparison
+		abecto = new Abecto();
+		abecto.planFile = new File(this.getClass().getResource(tutorialPlanFilePath).toURI());
+		abecto.sourceToReportOn = "http://example.org/dataset1";
+		abecto.failOnResourceOmission = true;
+		abecto.dryRun = true;
+		assertEquals(Map.of(//
+				tutorial + "source1", "execute", //
+				tutorial + "source2", "execute", //
+				tutorial + "source3", "execute", //
+				tutorial + "jaroWinklerMapping", "execute", //
+				tutorial + "propertyComparison", "skip", //
+				tutorial + "completeness", "execute"), dryRun(abecto));
+
+		// no outputs requested
+		abecto = new Abecto();
+		abecto.planFile = new File(this.getClass().getResource(tutorialPlanFilePath).toURI());
+		abecto.sourceToReportOn = "http://example.org/dataset1";
+		abecto.dryRun = true;
+		assertTrue(dryRun(abecto).values().stream().allMatch("skip"::equals));
+	}
+
+	@Test
+	public void callWithDryRunAndLoadOnly() throws Throwable {
+		Abecto abecto = new Abecto();
+		abecto.planFile = new File(this.getClass().getResource(tutorialPlanFilePath).toURI());
+		abecto.dryRun = true;
+		abecto.loadOnly = true;
+		assertEquals(1, abecto.call());
+	}
+
+	/**
+	 * Returns the listed steps by their IRIs of a dry run, which must succeed.
+	 */
+	private static Map<String, String> dryRun(Abecto abecto) throws Throwable {
+		PrintStream out = System.out;
+		ByteArrayOutputStream listing = new ByteArrayOutputStream();
+		System.setOut(new PrintStream(listing, true, StandardCharsets.UTF_8));
+		try {
+			assertEquals(0, abecto.call());
+		} finally {
+			System.setOut(out);
+		}
+		return listing.toString(StandardCharsets.UTF_8).lines().collect(Collectors.toMap(
+				line -> line.substring(line.lastIndexOf(' ') + 1).replaceAll("^\\(|\\)$", ""),
+				line -> line.substring(0, line.indexOf(' '))));
+	}
 }
@@ -0,0 +1,121 @@
+/*-
+ * Copyright © 2019-2022 Heinz Nixdorf Chair for Distributed Information Systems,
+ *                       Friedrich Schiller University Jena (http://www.fusion.uni-jena.de/)
+ * Copyright © 2023-2024 Jan Martin Keil (jan-martin.keil@uni-jena.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+-*/
+
+package de.uni_jena.cs.fusion.abecto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Literal;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.rdf.listeners.StatementListener;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.junit.jupiter.api.Test;
+
+public class AnnotationWriterTest {
+	Resource affectedDataset = ResourceFactory.createResource("http://example.org/affectedDataset");
+	Resource affectedResource = ResourceFactory.createResource("http://example.org/affectedResource");
+	String affectedVariableName = "affectedVariable";
+	Literal affectedValueLiteral = ResourceFactory.createStringLiteral("affectedValueLiteral");
+	Resource affectedValueResource = ResourceFactory.createResource("http://example.org/affectedValueResource");
+	Resource comparedToDataset = ResourceFactory.createResource("http://example.org/comparedToDataset");
+	Resource comparedToResource = ResourceFactory.createResource("http://example.org/comparedToResource");
+	Literal comparedToValueLiteral = ResourceFactory.createStringLiteral("comparedToValueLiteral");
+	Resource comparedToValueResource = ResourceFactory.createResource("http://example.org/comparedToValueResource");
+	Resource affectedAspect = ResourceFactory.createResource("http://example.org/affectedAspect");
+
+	private Model expected() {
+		Model model = ModelFactory.createDefaultModel();
+		Metadata.addDeviation(affectedResource, affectedVariableName, affectedValueLiteral, comparedToDataset,
+				comparedToResource, comparedToValueLiteral, affectedAspect, model);
+		Metadata.addDeviation(affectedResource, affectedVariableName, affectedValueResource, comparedToDataset,
+				comparedToResource, comparedToValueResource, affectedAspect, model);
+		Metadata.addValuesOmission(affectedResource, affectedVariableName, comparedToDataset, comparedToResource,
+				comparedToValueLiteral, affectedAspect, model);
+		Metadata.addResourceOmission(affectedDataset, comparedToDataset, comparedToResource, affectedAspect, model);
+		Metadata.addResourceDuplicate(affectedResource, comparedToResource, affectedAspect, model);
+		return model;
+	}
+
+	private void write(AnnotationWriter writer) {
+		writer.addDeviation(affectedResource, affectedVariableName, affectedValueLiteral, comparedToDataset,
+				comparedToResource, comparedToValueLiteral, affectedAspect);
+		writer.addDeviation(affectedResource, affectedVariableName, affectedValueResource, comparedToDataset,
+				comparedToResource, comparedToValueResource, affectedAspect);
+		writer.addValuesOmission(affectedResource, affectedVariableName, comparedToDataset, comparedToResource,
+				comparedToValueLiteral, affectedAspect);
+		writer.addResourceOmission(affectedDataset, comparedToDataset, comparedToResource, affectedAspect);
+		writer.addResourceDuplicate(affectedResource, comparedToResource, affectedAspect);
+	}
+
+	@Test
+	public void writeToModel() {
+		Model model = ModelFactory.createDefaultModel();
+		List<Statement> notified = new ArrayList<>();
+		model.register(new StatementListener() {
+			@Override
+			public void addedStatement(Statement statement) {
+				notified.add(statement);
+			}
+		});
+		try (AnnotationWriter writer = new AnnotationWriter(model)) {
+			write(writer);
+			assertTrue(model.isEmpty());
+		}
+		assertTrue(model.isIsomorphicWith(expected()));
+		assertEquals(model.size(), notified.size());
+	}
+
+	@Test
+	public void writeToGraphInBatches() {
+		Graph graph = GraphFactory.createDefaultGraph();
+		AnnotationWriter writer = new AnnotationWriter(graph, 2);
+		write(writer);
+		// four annotations written in two full batches
+		assertEquals(10 + 10 + 9 + 7, graph.size());
+		writer.flush();
+		assertTrue(ModelFactory.createModelForGraph(graph).isIsomorphicWith(expected()));
+	}
+
+	@Test
+	public void writeToStream() {
+		List<Triple> triples = new ArrayList<>();
+		try (AnnotationWriter writer = new AnnotationWriter(new StreamRDFBase() {
+			@Override
+			public void triple(Triple triple) {
+				triples.add(triple);
+			}
+		}, 3)) {
+			write(writer);
+		}
+		Graph graph = GraphFactory.createDefaultGraph();
+		triples.forEach(graph::add);
+		assertEquals(expected().size(), triples.size());
+		assertTrue(ModelFactory.createModelForGraph(graph).isIsomorphicWith(expected()));
+	}
+}
@@ -104,4 +104,100 @@ public class PlansTest {
 		assertTrue(Plans.getStepPredecessors(configurationModel, plan2).isEmpty());
 
 	}
+
+	@Test
+	public void getStepsAffecting() {
+		Model configurationModel = ModelFactory.createDefaultModel();
+		Resource plan = ResourceFactory.createResource("http://example.org/plan");
+		Resource dataset1 = ResourceFactory.createResource("http://example.org/dataset1");
+		Resource dataset2 = ResourceFactory.createResource("http://example.org/dataset2");
+		Resource source1 = ResourceFactory.createResource("http://example.org/source1");
+		Resource source2 = ResourceFactory.createResource("http://example.org/source2");
+		Resource source3 = ResourceFactory.createResource("http://example.org/source3");
+		Resource transformation2 = ResourceFactory.createResource("http://example.org/transformation2");
+		Resource comparison = ResourceFactory.createResource("http://example.org/comparison");
+		configurationModel.add(source1, PPlan.isStepOfPlan, plan);
+		configurationModel.add(source2, PPlan.isStepOfPlan, plan);
+		configurationModel.add(source3, PPlan.isStepOfPlan, plan);
+		configurationModel.add(transformation2, PPlan.isStepOfPlan, plan);
+		configurationModel.add(comparison, PPlan.isStepOfPlan, plan);
+		configurationModel.add(source1, AV.associatedDataset, dataset1);
+		configurationModel.add(source2, AV.associatedDataset, dataset2);
+		configurationModel.add(source3, AV.associatedDataset, dataset2);
+		configurationModel.add(transformation2, AV.associatedDataset, dataset2);
+		configurationModel.add(transformation2, PPlan.isPrecededBy, source2);
+		configurationModel.add(comparison, PPlan.isPrecededBy, source1);
+		configurationModel.add(comparison, PPlan.isPrecededBy, transformation2);
+
+		Map<Resource, Set<Resource>> stepPredecessors = Plans.getStepPredecessors(configurationModel, plan);
+
+		// source3 does not affect any comparison
+		assertEquals(Set.of(source1, source2, transformation2, comparison),
+				Plans.getStepsAffecting(configurationModel, stepPredecessors, dataset1));
+		assertEquals(Set.of(source1, source2, source3, transformation2, comparison),
+				Plans.getStepsAffecting(configurationModel, stepPredecessors, dataset2));
+	}
+
+	@Test
+	public void getStepsProviding() {
+		Model configurationModel = ModelFactory.createDefaultModel();
+		Resource plan = ResourceFactory.createResource("http://example.org/plan");
+		Resource dataset1 = ResourceFactory.createResource("http://example.org/dataset1");
+		Resource dataset2 = ResourceFactory.createResource("http://example.org/dataset2");
+		Resource aspect1 = ResourceFactory.createResource("http://example.org/aspect1");
+		Resource aspect2 = ResourceFactory.createResource("http://example.org/aspect2");
+		Resource source1 = configurationModel.createResource("http://example.org/source1");
+		Resource source2 = configurationModel.createResource("http://example.org/source2");
+		Resource mapping = configurationModel.createResource("http://example.org/mapping");
+		Resource propertyComparison1 = configurationModel.createResource("http://example.org/propertyComparison1");
+		Resource propertyComparison2 = configurationModel.createResource("http://example.org/propertyComparison2");
+		Resource populationComparison = configurationModel.createResource("http://example.org/populationComparison");
+		for (Resource step : new Resource[] { source1, source2, mapping, propertyComparison1, propertyComparison2,
+				populationComparison }) {
+			step.addProperty(PPlan.isStepOfPlan, plan);
+		}
+		source1.addProperty(AV.processorClass, configurationModel
+				.createResource("java:de.uni_jena.cs.fusion.abecto.processor.FileSourceProcessor"));
+		source1.addProperty(AV.associatedDataset, dataset1);
+		source2.addProperty(AV.processorClass, configurationModel
+				.createResource("java:de.uni_jena.cs.fusion.abecto.processor.FileSourceProcessor"));
+		source2.addProperty(AV.associatedDataset, dataset2);
+		mapping.addProperty(AV.processorClass, configurationModel
+				.createResource("java:de.uni_jena.cs.fusion.abecto.processor.JaroWinklerMappingProcessor"));
+		mapping.addProperty(PPlan.isPrecededBy, source1).addProperty(PPlan.isPrecededBy, source2);
+		propertyComparison1.addProperty(AV.processorClass, configurationModel
+				.createResource("java:de.uni_jena.cs.fusion.abecto.processor.PropertyComparisonProcessor"));
+		propertyComparison1.addProperty(AV.hasParameter,
+				configurationModel.createResource().addProperty(AV.key, "aspect").addProperty(AV.value, aspect1));
+		propertyComparison1.addProperty(PPlan.isPrecededBy, mapping);
+		propertyComparison2.addProperty(AV.processorClass, configurationModel
+				.createResource("java:de.uni_jena.cs.fusion.abecto.processor.PropertyComparisonProcessor"));
+		propertyComparison2.addProperty(AV.hasParameter,
+				configurationModel.createResource().addProperty(AV.key, "aspect").addProperty(AV.value, aspect2));
+		propertyComparison2.addProperty(PPlan.isPrecededBy, source2);
+		populationComparison.addProperty(AV.processorClass, configurationModel
+				.createResource("java:de.uni_jena.cs.fusion.abecto.processor.PopulationComparisonProcessor"));
+		populationComparison.addProperty(AV.hasParameter,
+				configurationModel.createResource().addProperty(AV.key, "aspects").addProperty(AV.value, aspect1));
+		populationComparison.addProperty(PPlan.isPrecededBy, mapping);
+		configurationModel.createResource().addProperty(AV.ofAspect, aspect1).addProperty(AV.associatedDataset,
+				dataset1);
+		configurationModel.createResource().addProperty(AV.ofAspect, aspect1).addProperty(AV.associatedDataset,
+				dataset2);
+		configurationModel.createResource().addProperty(AV.ofAspect, aspect2).addProperty(AV.associatedDataset,
+				dataset2);
+
+		Map<Resource, Set<Resource>> stepPredecessors = Plans.getStepPredecessors(configurationModel, plan);
+
+		assertEquals(Set.of(source1, source2, mapping, propertyComparison1, propertyComparison2),
+				Plans.getStepsProviding(configurationModel, stepPredecessors, Set.of(AV.Deviation), null));
+		// aspect2 has no pattern for dataset1
+		assertEquals(Set.of(source1, source2, mapping, propertyComparison1),
+				Plans.getStepsProviding(configurationModel, stepPredecessors, Set.of(AV.Deviation), dataset1));
+		assertEquals(Set.of(source1, source2, mapping, populationComparison), Plans.getStepsProviding(
+				configurationModel, stepPredecessors, Set.of(AV.ResourceOmission), dataset1));
+		assertEquals(Set.of(source1, source2, mapping), Plans.getStepsProviding(configurationModel,
+				stepPredecessors, Set.of(AV.correspondsToResource), null));
+		assertEquals(Set.of(), Plans.getStepsProviding(configurationModel, stepPredecessors, Set.of(), null));
+	}
 }
@@ -0,0 +1,213 @@
+/*-
+ * Copyright © 2019-2022 Heinz Nixdorf Chair for Distributed Information Systems,
+ *                       Friedrich Schiller University Jena (http://www.fusion.uni-jena.de/)
+ * Copyright © 2023-2024 Jan Martin Keil (jan-martin.keil@uni-jena.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+-*/
+
+package de.uni_jena.cs.fusion.abecto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.model.RDFNode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import de.uni_jena.cs.fusion.abecto.util.Datasets;
+import de.uni_jena.cs.fusion.abecto.util.QueryResultSequence;
+import de.uni_jena.cs.fusion.abecto.vocabulary.AV;
+
+public class ReportingIndexTest {
+
+	private final static String DATASET = """
+			@prefix rdf: <http://www.w3.org/1999/02/22-rdf-syntax-ns#> .
+			@prefix rdfs: <http://www.w3.org/2000/01/rdf-schema#> .
+			@prefix xsd: <http://www.w3.org/2001/XMLSchema#> .
+			@prefix av: <http://w3id.org/abecto/vocabulary#> .
+			@prefix dqv: <http://www.w3.org/ns/dqv#> .
+			@prefix oa: <http://www.w3.org/ns/oa#> .
+			@prefix prov: <http://www.w3.org/ns/prov#> .
+			@prefix p-plan: <http://purl.org/net/p-plan#> .
+			@prefix : <http://example.org/> .
+
+			:aspect av:keyVariableName "key" ; rdfs:label "Aspect" .
+			:metaGraph1 av:associatedDataset :dataset1 ; a av:MetaDataGraph .
+			:primaryGraph2 av:associatedDataset :dataset2 ; a av:PrimaryDataGraph .
+			:mappingGraph prov:wasGeneratedBy [ p-plan:correspondsToStep [ rdfs:label "Mapping" ] ] .
+
+			:metaGraph1 {
+				[ rdf:type dqv:QualityAnnotation ;
+				  oa:hasBody [ rdf:type av:Deviation ;
+				               av:affectedAspect :aspect ;
+				               av:affectedVariableName "var" ;
+				               av:affectedValue "1"^^xsd:integer ;
+				               av:comparedToDataset :dataset2 ;
+				               av:comparedToResource :resource2 ;
+				               av:comparedToValue "2"^^xsd:integer ] ;
+				  oa:hasTarget :resource1 ] .
+				[ rdf:type dqv:QualityAnnotation ;
+				  oa:hasBody [ rdf:type av:ResourceOmission ;
+				               av:affectedAspect :aspect ;
+				               av:comparedToDataset :dataset2 ;
+				               av:comparedToResource :resource3 ] ;
+				  oa:hasTarget :dataset1 ] .
+			}
+			:primaryGraph2 {
+				:resource3 rdfs:label "Resource 3" .
+			}
+			:mappingGraph {
+				:resource2 av:correspondsToResource :resource1 .
+			}
+			""";
+
+	/**
+	 * The query formerly used to export deviations.
+	 */
+	private final static String DEVIATIONS_QUERY = """
+			PREFIX rdf: <http://www.w3.org/1999/02/22-rdf-syntax-ns#>
+			PREFIX rdfs: <http://www.w3.org/2000/01/rdf-schema#>
+			PREFIX p-plan: <http://purl.org/net/p-plan#>
+			PREFIX av: <http://w3id.org/abecto/vocabulary#>
+			PREFIX dqv: <http://www.w3.org/ns/dqv#>
+			PREFIX oa: <http://www.w3.org/ns/oa#>
+			PREFIX prov: <http://www.w3.org/ns/prov#>
+
+			SELECT DISTINCT ?aspect ?affectedGraph ?affectedResource ?affectedVariableName ?affectedValue ?comparedToValue ?comparedToResource ?comparedToDataset ?mappedBy ?snippetToAnnotateValueComparedToAsWrong
+			WHERE {
+			  GRAPH ?qualityAnnotationGraph {
+			    [ rdf:type  dqv:QualityAnnotation ;
+			      oa:hasBody
+			        [ rdf:type                av:Deviation ;
+			          av:affectedVariableName ?affectedVariableName ;
+			          av:affectedAspect       ?aspectResource ;
+			          av:affectedValue        ?affectedValue ;
+			          av:comparedToValue      ?comparedToValue ;
+			          av:comparedToResource   ?comparedToResource ;
+			          av:comparedToDataset    ?comparedToDataset ;
+			        ] ;
+			      oa:hasTarget ?affectedResource
+			    ] .
+			  }
+			  ?qualityAnnotationGraph av:associatedDataset ?affectedGraph .
+			  ?aspectResource av:keyVariableName ?aspectKeyVar .
+			  OPTIONAL { ?aspectResource rdfs:label ?aspectLabel .}
+			  BIND(COALESCE(?aspectLabel, ?aspectKeyVar) AS ?aspect)
+			  OPTIONAL {
+			    GRAPH ?mappingGraph {
+			      ?affectedResource av:correspondsToResource|^av:correspondsToResource ?comparedToResource.
+			    }
+			    ?mappingGraph prov:wasGeneratedBy/p-plan:correspondsToStep/rdfs:label ?mappedBy .
+			  }
+			  BIND(CONCAT(
+			              '[ rdf:type dqv:QualityAnnotation ; oa:hasBody [ rdf:type av:WrongValue ; av:affectedAspect ',
+			              IF(ISBLANK(?aspectResource), STR(?aspectResource), CONCAT('<',STR(?aspectResource),'>')),
+			              ' ; av:affectedVariableName "',
+			              ?affectedVariableName,
+			              '" ; av:affectedValue "',
+			              STR(?comparedToValue),
+			              '"',
+			              IF(DATATYPE(?comparedToValue) = rdf:langString, CONCAT('@',LANG(?comparedToValue)), CONCAT('^^<',STR(DATATYPE(?comparedToValue)),'>')),
+			              ' ; ] ; oa:hasTarget <',
+			              STR(?comparedToResource),
+			              '> ] .'
+			             ) AS ?snippetToAnnotateValueComparedToAsWrong)
+			}
+			ORDER BY ?aspect ?affectedGraph ?affectedResource ?affectedVariableName
+			""";
+
+	private static List<Map<String, String>> list(Iterable<Map<String, String>> rows) {
+		List<Map<String, String>> list = new ArrayList<>();
+		rows.forEach(list::add);
+		return list;
+	}
+
+	private static List<Map<String, String>> select(Dataset dataset, String query) {
+		List<Map<String, String>> rows = new ArrayList<>();
+		try (QueryExecution queryExecution = QueryExecutionFactory.create(query, dataset)) {
+			ResultSet results = queryExecution.execSelect();
+			while (results.hasNext()) {
+				QuerySolution solution = results.next();
+				Map<String, String> row = new HashMap<>();
+				for (String var : results.getResultVars()) {
+					RDFNode value = solution.get(var);
+					if (value != null) {
+						row.put(var, QueryResultSequence.format(value));
+					}
+				}
+				rows.add(row);
+			}
+		}
+		return rows;
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { ":aspect", ":resource2" })
+	public void deviationRowsWithBlankNode(String blankNode) throws Exception {
+		Dataset dataset = DatasetFactory.createGeneral();
+		Datasets.read(dataset, new ByteArrayInputStream(DATASET.replace(blankNode + " ", "_" + blankNode + " ")
+				.getBytes(StandardCharsets.UTF_8)));
+		List<Map<String, String>> rows = list(ReportingIndex.of(dataset).getDeviationRows());
+
+		assertEquals(select(dataset, DEVIATIONS_QUERY), rows);
+		assertEquals(1, rows.size());
+	}
+
+	@Test
+	public void index() throws Exception {
+		Dataset dataset = DatasetFactory.createGeneral();
+		Datasets.read(dataset, new ByteArrayInputStream(DATASET.getBytes(StandardCharsets.UTF_8)));
+		ReportingIndex index = ReportingIndex.of(dataset);
+
+		assertTrue(index.containsAnnotation(AV.Deviation));
+		assertTrue(index.containsAnnotation(AV.ResourceOmission));
+		assertFalse(index.containsAnnotation(AV.ValueOmission));
+
+		assertEquals(List.of(Map.of(//
+				"aspect", "Aspect", //
+				"affectedGraph", "<http://example.org/dataset1>", //
+				"affectedResource", "<http://example.org/resource1>", //
+				"affectedVariableName", "var", //
+				"affectedValue", "1", //
+				"comparedToValue", "2", //
+				"comparedToResource", "<http://example.org/resource2>", //
+				"comparedToDataset", "<http://example.org/dataset2>", //
+				"mappedBy", "Mapping", //
+				"snippetToAnnotateValueComparedToAsWrong",
+				"[ rdf:type dqv:QualityAnnotation ; oa:hasBody [ rdf:type av:WrongValue ; av:affectedAspect <http://example.org/aspect> ; av:affectedVariableName \"var\" ; av:affectedValue \"2\"^^<http://www.w3.org/2001/XMLSchema#integer> ; ] ; oa:hasTarget <http://example.org/resource2> ] .")),
+				list(index.getDeviationRows()));
+
+		assertEquals(List.of(Map.of(//
+				"aspect", "Aspect", //
+				"missedInDataset", "<http://example.org/dataset1>", //
+				"missingResource", "<http://example.org/resource3>", //
+				"missingResourceLabelConcat", "Resource 3", //
+				"foundInDataset", "<http://example.org/dataset2>")), index.getResourceOmissionRows());
+	}
+}
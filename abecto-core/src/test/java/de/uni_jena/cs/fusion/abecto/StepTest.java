@@ -20,6 +20,7 @@ package de.uni_jena.cs.fusion.abecto;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -29,6 +30,7 @@ import java.nio.file.Files;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Objects;
+import java.util.concurrent.CancellationException;
 
 import org.apache.jena.datatypes.xsd.XSDDateTime;
 import org.apache.jena.query.Dataset;
@@ -110,6 +112,22 @@ public class StepTest {
 		assertEquals(aspect, TestProcessor.instance.getAspects().get(aspectResource));
 	}
 
+	@Test
+	public void requestStop() throws IllegalArgumentException, ClassCastException, ReflectiveOperationException {
+		Resource aspectResource = ResourceFactory.createResource("http://example.org/aspect");
+		Aspect aspect = new Aspect(aspectResource, "key");
+		Dataset graphs = DatasetFactory.createGeneral();
+		Model configurationModel = graphs.getDefaultModel();
+		Resource stepIri = configurationModel.createResource("http://example.org/step", AV.Step).addProperty(
+				AV.processorClass, ResourceFactory.createResource("java:" + StepTest.TestProcessor.class.getName()));
+
+		Step step = new Step(relativeBasePath, graphs, configurationModel, stepIri, Collections.emptyList(), aspect);
+		step.requestStop();
+		assertThrows(CancellationException.class, step::run);
+		// processor not executed
+		assertFalse(configurationModel.contains(null, PPlan.correspondsToStep, stepIri));
+	}
+
 	@Test
 	public void run() throws IllegalArgumentException, ClassCastException, ReflectiveOperationException {
 		Abecto.initApacheJena();
@@ -0,0 +1,94 @@
+/*-
+ * Copyright © 2019-2022 Heinz Nixdorf Chair for Distributed Information Systems,
+ *                       Friedrich Schiller University Jena (http://www.fusion.uni-jena.de/)
+ * Copyright © 2023-2024 Jan Martin Keil (jan-martin.keil@uni-jena.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+-*/
+
+package de.uni_jena.cs.fusion.abecto.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.DatasetGraphFactory;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.junit.jupiter.api.Test;
+
+public class FilteredDatasetGraphTest {
+
+	private static Node node(String localName) {
+		return NodeFactory.createURI("http://example.org/" + localName);
+	}
+
+	@Test
+	public void filter() throws Exception {
+		DatasetGraph base = DatasetGraphFactory.createGeneral();
+		base.getDefaultGraph().add(Triple.create(node("s"), node("p"), node("default")));
+		Graph graph1 = GraphFactory.createDefaultGraph();
+		graph1.add(Triple.create(node("s"), node("p"), node("o1")));
+		base.addGraph(node("graph1"), graph1);
+		Graph graph2 = GraphFactory.createDefaultGraph();
+		graph2.add(Triple.create(node("s"), node("p"), node("o2")));
+		base.addGraph(node("graph2"), graph2);
+
+		AtomicInteger filterCalls = new AtomicInteger();
+		FilteredDatasetGraph filtered = new FilteredDatasetGraph(base, graphName -> {
+			filterCalls.incrementAndGet();
+			return graphName.equals(node("graph1"));
+		});
+		assertEquals(0, filterCalls.get());
+
+		assertSame(graph1, filtered.getGraph(node("graph1")));
+		assertTrue(filtered.getGraph(node("graph2")).isEmpty());
+		assertTrue(filtered.getGraph(node("graph3")).isEmpty());
+		assertTrue(filtered.containsGraph(node("graph1")));
+		assertFalse(filtered.containsGraph(node("graph2")));
+		assertFalse(filtered.containsGraph(node("graph3")));
+		assertFalse(base.containsGraph(node("graph3")));
+		assertEquals(2, filterCalls.get());
+
+		// add graph
+		Graph graph4 = GraphFactory.createDefaultGraph();
+		graph4.add(Triple.create(node("s"), node("p"), node("o4")));
+		filtered.addGraph(node("graph4"), graph4);
+		assertFalse(base.containsGraph(node("graph4")));
+		assertEquals(Set.of(node("graph1"), node("graph4")), Set.copyOf(Iter.toList(filtered.listGraphNodes())));
+
+		// query
+		Dataset dataset = DatasetFactory.wrap(filtered);
+		try (QueryExecution queryExecution = QueryExecutionFactory
+				.create("SELECT ?o WHERE { GRAPH ?g { ?s ?p ?o } }", dataset)) {
+			assertEquals(Set.of(node("o1"), node("o4")), Set.copyOf(
+					Iter.toList(Iter.map(queryExecution.execSelect(), solution -> solution.get("o").asNode()))));
+		}
+		assertTrue(dataset.getDefaultModel().getGraph().contains(node("s"), node("p"), node("default")));
+		assertEquals(2, dataset.getUnionModel().size());
+		assertEquals(2, filterCalls.get());
+	}
+}
@@ -0,0 +1,94 @@
+/*-
+ * Copyright © 2019-2022 Heinz Nixdorf Chair for Distributed Information Systems,
+ *                       Friedrich Schiller University Jena (http://www.fusion.uni-jena.de/)
+ * Copyright © 2023-2024 Jan Martin Keil (jan-martin.keil@uni-jena.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+-*/
+
+package de.uni_jena.cs.fusion.abecto.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.shared.AddDeniedException;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.junit.jupiter.api.Test;
+
+public class FrozenGraphTest {
+
+	private static Node uri(int i) {
+		return NodeFactory.createURI("http://example.org/" + i);
+	}
+
+	private static Graph createGraph() {
+		Graph graph = GraphFactory.createDefaultGraph();
+		for (int s = 0; s < 20; s++) {
+			for (int p = 0; p < 5; p++) {
+				graph.add(uri(s), uri(100 + p), uri((s * p) % 7));
+				graph.add(uri(s), uri(100 + p), NodeFactory.createLiteral("label " + (s % 3)));
+			}
+		}
+		graph.add(uri(0), uri(100), NodeFactory.createBlankNode());
+		graph.getPrefixMapping().setNsPrefix("ex", "http://example.org/");
+		return graph;
+	}
+
+	@Test
+	public void find() {
+		Graph graph = createGraph();
+		FrozenGraph frozenGraph = FrozenGraph.freeze(graph);
+
+		assertEquals(graph.size(), frozenGraph.size());
+		assertTrue(frozenGraph.isIsomorphicWith(graph));
+		assertEquals("http://example.org/", frozenGraph.getPrefixMapping().getNsPrefixURI("ex"));
+
+		List<Node> subjects = new ArrayList<>(List.of(Node.ANY, uri(0), uri(19), uri(1000)));
+		List<Node> predicates = new ArrayList<>(List.of(Node.ANY, uri(100), uri(104), uri(1000)));
+		List<Node> objects = new ArrayList<>(List.of(Node.ANY, uri(0), uri(6), NodeFactory.createLiteral("label 1"),
+				NodeFactory.createLiteral("label 1", "en"), uri(1000)));
+		for (Node s : subjects) {
+			for (Node p : predicates) {
+				for (Node o : objects) {
+					assertEquals(graph.find(s, p, o).toSet(), frozenGraph.find(s, p, o).toSet(),
+							String.format("Pattern: %s %s %s", s, p, o));
+					assertEquals(graph.contains(s, p, o), frozenGraph.contains(s, p, o),
+							String.format("Pattern: %s %s %s", s, p, o));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void emptyGraph() {
+		FrozenGraph frozenGraph = FrozenGraph.freeze(GraphFactory.createDefaultGraph());
+		assertTrue(frozenGraph.isEmpty());
+		assertFalse(frozenGraph.find().hasNext());
+		assertFalse(frozenGraph.contains(uri(0), uri(0), uri(0)));
+	}
+
+	@Test
+	public void readOnly() {
+		FrozenGraph frozenGraph = FrozenGraph.freeze(createGraph());
+		assertThrows(AddDeniedException.class, () -> frozenGraph.add(Triple.create(uri(0), uri(0), uri(0))));
+	}
+}
@@ -0,0 +1,81 @@
+/*-
+ * Copyright © 2019-2022 Heinz Nixdorf Chair for Distributed Information Systems,
+ *                       Friedrich Schiller University Jena (http://www.fusion.uni-jena.de/)
+ * Copyright © 2023-2024 Jan Martin Keil (jan-martin.keil@uni-jena.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+-*/
+
+package de.uni_jena.cs.fusion.abecto.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.junit.jupiter.api.Test;
+
+import de.uni_jena.cs.fusion.abecto.util.Models;
+
+public class NodeDictionaryTest {
+
+	@Test
+	public void intern() {
+		Node uri1 = NodeFactory.createURI("http://example.org/node");
+		Node uri2 = NodeFactory.createURI("http://example.org/node");
+		assertNotSame(uri1, uri2);
+		assertSame(NodeDictionary.intern(uri1), NodeDictionary.intern(uri2));
+
+		assertSame(NodeDictionary.stringLiteral("value"),
+				NodeDictionary.intern(NodeFactory.createLiteralString("value")));
+
+		Node blankNode = NodeFactory.createBlankNode();
+		assertSame(blankNode, NodeDictionary.intern(blankNode));
+	}
+
+	@Test
+	public void internTriple() {
+		Node s = NodeDictionary.intern(NodeFactory.createURI("http://example.org/s"));
+		Node p = NodeDictionary.intern(NodeFactory.createURI("http://example.org/p"));
+		Node o = NodeDictionary.stringLiteral("o");
+		Triple interned = Triple.create(s, p, o);
+		assertSame(interned, NodeDictionary.intern(interned));
+
+		Triple triple = Triple.create(NodeFactory.createURI("http://example.org/s"),
+				NodeFactory.createURI("http://example.org/p"), NodeFactory.createLiteralString("o"));
+		assertEquals(interned, NodeDictionary.intern(triple));
+		assertSame(s, NodeDictionary.intern(triple).getSubject());
+	}
+
+	@Test
+	public void sharedAcrossModels() throws IOException {
+		String document = "<http://example.org/s> <http://example.org/p> \"o\" .";
+		Model model1 = Models.read(ModelFactory.createDefaultModel(),
+				new ByteArrayInputStream(document.getBytes(StandardCharsets.UTF_8)));
+		Model model2 = Models.read(ModelFactory.createDefaultModel(),
+				new ByteArrayInputStream(document.getBytes(StandardCharsets.UTF_8)));
+		Triple triple1 = model1.getGraph().find().next();
+		Triple triple2 = model2.getGraph().find().next();
+		assertSame(triple1.getSubject(), triple2.getSubject());
+		assertSame(triple1.getPredicate(), triple2.getPredicate());
+		assertSame(triple1.getObject(), triple2.getObject());
+	}
+}
@@ -0,0 +1,62 @@
+/*-
+ * Copyright © 2019-2022 Heinz Nixdorf Chair for Distributed Information Systems,
+ *                       Friedrich Schiller University Jena (http://www.fusion.uni-jena.de/)
+ * Copyright © 2023-2024 Jan Martin Keil (jan-martin.keil@uni-jena.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+-*/
+
+package de.uni_jena.cs.fusion.abecto.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.apache.jena.shared.PrefixMapping;
+import org.junit.jupiter.api.Test;
+
+import de.uni_jena.cs.fusion.abecto.util.Models;
+
+public class StreamRDFGraphTest {
+
+	@Test
+	public void add() throws Exception {
+		List<Triple> triples = new ArrayList<>();
+		PrefixMapping prefixMapping = PrefixMapping.Factory.create();
+		Graph graph = new StreamRDFGraph(new StreamRDFBase() {
+			@Override
+			public void triple(Triple triple) {
+				triples.add(triple);
+			}
+		}, prefixMapping);
+
+		Model model = ModelFactory.createModelForGraph(graph);
+		Models.read(model, new ByteArrayInputStream("""
+				@prefix : <http://example.org/> .
+				:s :p :o1 , :o2 .
+				""".getBytes(StandardCharsets.UTF_8)));
+
+		assertEquals(2, triples.size());
+		assertTrue(graph.isEmpty());
+		assertEquals("http://example.org/", prefixMapping.getNsPrefixURI(""));
+	}
+}
@@ -0,0 +1,147 @@
+/*-
+ * Copyright © 2019-2022 Heinz Nixdorf Chair for Distributed Information Systems,
+ *                       Friedrich Schiller University Jena (http://www.fusion.uni-jena.de/)
+ * Copyright © 2023-2024 Jan Martin Keil (jan-martin.keil@uni-jena.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+-*/
+
+package de.uni_jena.cs.fusion.abecto.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.shared.AddDeniedException;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.junit.jupiter.api.Test;
+
+public class UnionGraphTest {
+
+	private static Node uri(int i) {
+		return NodeFactory.createURI("http://example.org/" + i);
+	}
+
+	private static Graph createGraph(int firstSubject, int firstPredicate, int predicateCount) {
+		Graph graph = GraphFactory.createDefaultGraph();
+		for (int s = firstSubject; s < firstSubject + 10; s++) {
+			for (int p = firstPredicate; p < firstPredicate + predicateCount; p++) {
+				graph.add(uri(s), uri(100 + p), uri(s % 3));
+			}
+		}
+		return graph;
+	}
+
+	private static void assertFindEquals(Graph expected, Graph actual) {
+		for (Node s : List.of(Node.ANY, uri(0), uri(5), uri(12))) {
+			for (Node p : List.of(Node.ANY, uri(100), uri(101), uri(102), uri(103), uri(1000))) {
+				for (Node o : List.of(Node.ANY, uri(0), uri(1000))) {
+					List<Triple> actualResult = actual.find(s, p, o).toList();
+					assertEquals(expected.find(s, p, o).toSet(), Set.copyOf(actualResult),
+							String.format("Pattern: %s %s %s", s, p, o));
+					assertEquals(Set.copyOf(actualResult).size(), actualResult.size(),
+							String.format("Duplicates for pattern: %s %s %s", s, p, o));
+					assertEquals(expected.contains(s, p, o), actual.contains(s, p, o),
+							String.format("Pattern: %s %s %s", s, p, o));
+				}
+			}
+		}
+		assertEquals(expected.size(), actual.size());
+	}
+
+	private static Graph copyOf(Graph... graphs) {
+		Graph copy = GraphFactory.createDefaultGraph();
+		for (Graph graph : graphs) {
+			graph.find().forEachRemaining(copy::add);
+		}
+		return copy;
+	}
+
+	@Test
+	public void findOverlapping() {
+		Graph graph1 = createGraph(0, 0, 2);
+		Graph graph2 = FrozenGraph.freeze(createGraph(5, 1, 2));
+		Graph graph3 = createGraph(0, 3, 1);
+		UnionGraph union = new UnionGraph(null, List.of(graph1, graph2, graph3));
+		assertFindEquals(copyOf(graph1, graph2, graph3), union);
+	}
+
+	@Test
+	public void findDisjoint() {
+		Graph graph1 = FrozenGraph.freeze(createGraph(0, 0, 1));
+		Graph graph2 = FrozenGraph.freeze(createGraph(0, 1, 1));
+		UnionGraph union = new UnionGraph(null, List.of(graph1, graph2));
+		assertFindEquals(copyOf(graph1, graph2), union);
+	}
+
+	@Test
+	public void baseGraph() {
+		Graph baseGraph = createGraph(0, 0, 1);
+		Graph graph = createGraph(0, 0, 2);
+		UnionGraph union = new UnionGraph(baseGraph, List.of(graph));
+		assertFindEquals(copyOf(baseGraph, graph), union);
+
+		// changes are visible despite the predicate summary
+		Triple triple = Triple.create(uri(0), uri(1000), uri(1000));
+		union.add(triple);
+		assertTrue(baseGraph.contains(triple));
+		assertTrue(union.contains(triple));
+		assertEquals(List.of(triple), union.find(Node.ANY, uri(1000), Node.ANY).toList());
+		assertFindEquals(copyOf(baseGraph, graph), union);
+	}
+
+	@Test
+	public void subgraphAdditions() {
+		Graph graph1 = createGraph(0, 0, 1);
+		Graph graph2 = createGraph(0, 1, 1);
+		UnionGraph union = new UnionGraph(null, List.of(graph1, graph2));
+		assertFindEquals(copyOf(graph1, graph2), union);
+
+		// additions after first access are considered
+		graph2.add(uri(0), uri(100), uri(0));
+		graph2.add(uri(0), uri(1000), uri(1000));
+		assertFindEquals(copyOf(graph1, graph2), union);
+	}
+
+	@Test
+	public void noListeners() {
+		Graph graph1 = createGraph(0, 0, 1);
+		Graph graph2 = FrozenGraph.freeze(createGraph(0, 1, 1));
+		UnionGraph union = new UnionGraph(null, List.of(graph1, graph2));
+		assertFindEquals(copyOf(graph1, graph2), union);
+		// only frozen graphs get summarized
+		assertFalse(graph1.getEventManager().listening());
+	}
+
+	@Test
+	public void readOnly() {
+		UnionGraph union = new UnionGraph(null, List.of(createGraph(0, 0, 1)));
+		assertThrows(AddDeniedException.class, () -> union.add(Triple.create(uri(0), uri(0), uri(0))));
+	}
+
+	@Test
+	public void emptyUnion() {
+		UnionGraph union = new UnionGraph(null, List.of());
+		assertTrue(union.isEmpty());
+		assertFalse(union.find().hasNext());
+		assertEquals(0, union.size());
+	}
+}
@@ -0,0 +1,118 @@
+/*-
+ * Copyright © 2019-2022 Heinz Nixdorf Chair for Distributed Information Systems,
+ *                       Friedrich Schiller University Jena (http://www.fusion.uni-jena.de/)
+ * Copyright © 2023-2024 Jan Martin Keil (jan-martin.keil@uni-jena.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+-*/
+
+package de.uni_jena.cs.fusion.abecto.measure;
+
+import de.uni_jena.cs.fusion.abecto.ResourcePair;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongMeasureTest {
+
+    Resource dataset0 = ResourceFactory.createResource("http://example.org/dataset0");
+    Resource dataset1 = ResourceFactory.createResource("http://example.org/dataset1");
+    Resource dataset2 = ResourceFactory.createResource("http://example.org/dataset2");
+
+    @Test
+    public void perDataset() {
+        Count count = new Count();
+        assertNull(count.get(dataset0));
+        assertFalse(count.contains(dataset0));
+        assertTrue(count.keySet().isEmpty());
+
+        count.incrementByOrSetOne(dataset1);
+        count.incrementByOrSet(dataset1, 2);
+        count.setZero(dataset0);
+        count.decrementByOrSet(dataset2, 3);
+        assertEquals(3L, count.get(dataset1));
+        assertEquals(0L, count.get(dataset0));
+        assertEquals(-3L, count.get(dataset2));
+        assertEquals(Set.of(dataset0, dataset1, dataset2), count.keySet());
+
+        count.reset(List.of(dataset1), 5L);
+        assertEquals(5L, count.get(dataset1));
+        assertFalse(count.contains(dataset0));
+        assertFalse(count.contains(dataset2));
+        assertEquals(Set.of(dataset1), count.keySet());
+
+        count.clear();
+        assertTrue(count.keySet().isEmpty());
+        count.incrementByOrSetOne(dataset1);
+        assertEquals(1L, count.get(dataset1));
+    }
+
+    @Test
+    public void perDatasetPair() {
+        ResourcePair pair01 = ResourcePair.getPair(dataset0, dataset1);
+        ResourcePair pair02 = ResourcePair.getPair(dataset0, dataset2);
+        ResourcePair pair12 = ResourcePair.getPair(dataset1, dataset2);
+        ResourcePair pair11 = ResourcePair.getPair(dataset1, dataset1);
+
+        AbsoluteCoverage coverage = new AbsoluteCoverage();
+        coverage.incrementByOrSetOne(pair12);
+        coverage.incrementByOrSetOne(pair01);
+        coverage.incrementByOrSet(pair12, 2);
+        coverage.setZero(pair11);
+        assertEquals(3L, coverage.get(pair12));
+        assertEquals(1L, coverage.get(pair01));
+        assertEquals(0L, coverage.get(pair11));
+        assertNull(coverage.get(pair02));
+        assertEquals(3L, coverage.get(ResourcePair.getPair(dataset2, dataset1)));
+        assertEquals(Set.of(pair01, pair11, pair12), coverage.keySet());
+    }
+
+    @Test
+    public void byIndex() {
+        Count count = new Count();
+        int[] indices = count.indicesOf(List.of(dataset0, dataset1));
+        assertEquals(indices[1], count.indexOf(dataset1));
+        assertTrue(count.keySet().isEmpty());
+
+        count.incrementByOrSetOneAt(indices[1]);
+        count.incrementByOrSetAt(indices[1], 2);
+        count.decrementByOrSetAt(count.indexOf(dataset2), 3);
+        assertNull(count.get(dataset0));
+        assertEquals(3L, count.get(dataset1));
+        assertEquals(-3L, count.get(dataset2));
+
+        count.reset(List.of(dataset0), 5L);
+        count.incrementByOrSetOneAt(indices[0]);
+        assertEquals(6L, count.get(dataset0));
+        assertEquals(Set.of(dataset0), count.keySet());
+    }
+
+    @Test
+    public void setDifferenceOf() {
+        Count minuend = new Count();
+        Count subtrahend = new Count();
+        Count difference = new Count();
+        minuend.incrementByOrSet(dataset0, 5);
+        minuend.incrementByOrSet(dataset1, 4);
+        subtrahend.incrementByOrSet(dataset1, 1);
+        subtrahend.incrementByOrSet(dataset2, 1);
+        difference.setDifferenceOf(minuend, subtrahend);
+        assertEquals(Set.of(dataset1), difference.keySet());
+        assertEquals(3L, difference.get(dataset1));
+    }
+}
@@ -18,16 +18,23 @@
 
 package de.uni_jena.cs.fusion.abecto.processor;
 
+import de.uni_jena.cs.fusion.abecto.AnnotationWriter;
 import de.uni_jena.cs.fusion.abecto.Aspect;
+import de.uni_jena.cs.fusion.abecto.vocabulary.AV;
 import org.apache.jena.query.Query;
 import org.apache.jena.query.QueryFactory;
 import org.apache.jena.rdf.model.*;
+import org.apache.jena.rdf.listeners.StatementListener;
+import org.apache.jena.vocabulary.RDF;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class ComparisonProcessorTest {
@@ -60,6 +67,28 @@ public class ComparisonProcessorTest {
         assertTrue(resources.contains(resource4));
     }
 
+    @Test
+    public void getAnnotationWriters() {
+        Resource aspect = ResourceFactory.createResource("http://example.org/aspect");
+        Resource dataset1 = ResourceFactory.createResource("http://example.org/dataset1");
+        Resource dataset2 = ResourceFactory.createResource("http://example.org/dataset2");
+        Resource resource1 = ResourceFactory.createResource("http://example.org/1");
+        Resource resource2 = ResourceFactory.createResource("http://example.org/2");
+        DummyComparisonProcessor processor = new DummyComparisonProcessor()
+                .setOutputMetaModelListener(new StatementListener(), dataset1::equals);
+        Map<Resource, Model> outputMetaModels = processor.getOutputMetaModels(List.of(dataset1, dataset2));
+        Map<Resource, AnnotationWriter> annotationWriters = processor.getAnnotationWriters(outputMetaModels);
+
+        annotationWriters.get(dataset1).addResourceOmission(dataset1, dataset2, resource2, aspect);
+        annotationWriters.get(dataset2).addResourceOmission(dataset2, dataset1, resource1, aspect);
+
+        // annotations for listened output meta models are written immediately
+        assertTrue(outputMetaModels.get(dataset1).contains(null, RDF.type, AV.ResourceOmission));
+        assertFalse(outputMetaModels.get(dataset2).contains(null, RDF.type, AV.ResourceOmission));
+        ComparisonProcessor.flushAnnotationWriters(annotationWriters);
+        assertTrue(outputMetaModels.get(dataset2).contains(null, RDF.type, AV.ResourceOmission));
+    }
+
     private static class DummyComparisonProcessor extends ComparisonProcessor<DummyComparisonProcessor> {
         @Override
         public void run() {}
@@ -21,6 +21,7 @@ package de.uni_jena.cs.fusion.abecto.processor;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
+import java.nio.file.Files;
 import java.util.Arrays;
 
 import org.apache.jena.datatypes.xsd.XSDDatatype;
@@ -29,6 +30,8 @@ import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdf.model.ResourceFactory;
 import org.junit.jupiter.api.Test;
 
+import de.uni_jena.cs.fusion.abecto.util.Models;
+
 public class FileSourceProcessorTest {
 	@Test
 	public void computeResultModel() throws Exception {
@@ -54,4 +57,27 @@ public class FileSourceProcessorTest {
 				ResourceFactory.createTypedLiteral("67890", XSDDatatype.XSDinteger)));
 	}
 
+	@Test
+	public void computeResultModelOnDisk() throws Exception {
+		Resource dataset = ResourceFactory.createResource("http://example.org/dataset");
+		File primaryDataDirectory = Files.createTempDirectory(null).toFile();
+		FileSourceProcessor processor = new FileSourceProcessor()//
+				.setPrimaryDataDirectory(primaryDataDirectory)//
+				.setAssociatedDataset(dataset);
+		File source1part1 = new File(
+				this.getClass().getResource("../../../../../../tutorial-source1part1.ttl").toURI());
+		processor.setRelativeBasePath(source1part1.getParentFile());
+		processor.path = Arrays.asList("tutorial-source1part1.ttl", "tutorial-source1part2.ttl");
+
+		processor.run();
+
+		Model outputPrimaryModel = processor.getOutputPrimaryModel().get();
+
+		assertTrue(Models.isPersistent(outputPrimaryModel));
+		assertTrue(outputPrimaryModel.contains(null, null,
+				ResourceFactory.createTypedLiteral("45678", XSDDatatype.XSDinteger)));
+		assertTrue(outputPrimaryModel.contains(null, null,
+				ResourceFactory.createTypedLiteral("67890", XSDDatatype.XSDinteger)));
+	}
+
 }
@@ -18,19 +18,27 @@
 
 package de.uni_jena.cs.fusion.abecto.processor;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import org.apache.jena.datatypes.xsd.XSDDatatype;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.rdf.model.Property;
 import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.reasoner.rulesys.Rule;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
 public class ForwardRuleReasoningProcessorTest {
 
-	@Test
-	public void computeResultModel() throws Exception {
+	@ParameterizedTest
+	@ValueSource(booleans = { false, true })
+	public void computeResultModel(boolean streaming) throws Exception {
 		// input model
 		Model inputPrimaryModel = ModelFactory.createDefaultModel();
 		inputPrimaryModel.add(r(1), p(1), r(2));
@@ -46,6 +54,7 @@ public class ForwardRuleReasoningProcessorTest {
 				.addInputPrimaryModel(dataset, inputPrimaryModel)//
 				.setAssociatedDataset(dataset);
 		processor.rules = "[rule1: (?s <" + p(1) + "> ?t) (?t <" + p(1) + "> ?o) -> (?s <" + p(1) + "> ?o)]";
+		processor.streaming = streaming;
 		processor.run();
 		Model outputPrimaryModel = processor.getOutputPrimaryModel().get();
 
@@ -63,6 +72,153 @@ public class ForwardRuleReasoningProcessorTest {
 
 		assertTrue(outputPrimaryModel.contains(r(4), p(1), r(6)));
 
+		assertEquals(10, outputPrimaryModel.size());
+	}
+
+	@ParameterizedTest
+	@ValueSource(booleans = { false, true })
+	public void computeResultModelWithBuiltins(boolean streaming) throws Exception {
+		Model inputPrimaryModel = ModelFactory.createDefaultModel();
+		inputPrimaryModel.add(r(1), p(1), r(2));
+		inputPrimaryModel.add(r(2), p(1), r(1));
+		inputPrimaryModel.add(r(2), p(1), r(3));
+		inputPrimaryModel.addLiteral(r(1), p(2), 1);
+		inputPrimaryModel.addLiteral(r(2), p(2), 2);
+		inputPrimaryModel.addLiteral(r(3), p(2), 3);
+
+		Resource dataset = ResourceFactory.createResource("http://example.org/dataset");
+
+		ForwardRuleReasoningProcessor processor = new ForwardRuleReasoningProcessor()//
+				.addInputPrimaryModel(dataset, inputPrimaryModel)//
+				.setAssociatedDataset(dataset);
+		processor.rules = "[rule1: (?s <" + p(1) + "> ?t) (?t <" + p(1) + "> ?o) notEqual(?s, ?o) -> (?s <" + p(1)
+				+ "> ?o)]\n" //
+				+ "[rule2: (?s <" + p(1) + "> ?o) (?s <" + p(2) + "> ?a) (?o <" + p(2) + "> ?b) lessThan(?a, ?b) -> (?s <"
+				+ p(3) + "> ?o)]";
+		processor.streaming = streaming;
+		processor.run();
+		Model outputPrimaryModel = processor.getOutputPrimaryModel().get();
+
+		assertTrue(outputPrimaryModel.contains(r(1), p(1), r(3)));
+		assertFalse(outputPrimaryModel.contains(r(1), p(1), r(1)));
+		assertFalse(outputPrimaryModel.contains(r(2), p(1), r(2)));
+		assertTrue(outputPrimaryModel.contains(r(1), p(3), r(2)));
+		assertTrue(outputPrimaryModel.contains(r(1), p(3), r(3)));
+		assertTrue(outputPrimaryModel.contains(r(2), p(3), r(3)));
+		assertFalse(outputPrimaryModel.contains(r(2), p(3), r(1)));
+		assertEquals(4, outputPrimaryModel.size());
+	}
+
+	@Test
+	public void computeResultModelWithUnsupportedRules() throws Exception {
+		Model inputPrimaryModel = ModelFactory.createDefaultModel();
+		inputPrimaryModel.add(r(1), p(1), r(2));
+		inputPrimaryModel.add(r(3), p(1), r(4));
+
+		Resource dataset = ResourceFactory.createResource("http://example.org/dataset");
+
+		ForwardRuleReasoningProcessor processor = new ForwardRuleReasoningProcessor()//
+				.addInputPrimaryModel(dataset, inputPrimaryModel)//
+				.setAssociatedDataset(dataset);
+		processor.rules = "[rule1: (?s <" + p(1) + "> ?o) noValue(?o <" + p(1) + ">) -> (?o <" + p(2) + "> ?s)]";
+		processor.streaming = true;
+		processor.run();
+		Model outputPrimaryModel = processor.getOutputPrimaryModel().get();
+
+		assertTrue(outputPrimaryModel.contains(r(2), p(2), r(1)));
+		assertTrue(outputPrimaryModel.contains(r(4), p(2), r(3)));
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "lessThan", "greaterThan", "le", "ge" })
+	public void computeResultModelWithComparisonsLikeForwardRete(String builtin) throws Exception {
+		Model inputPrimaryModel = ModelFactory.createDefaultModel();
+		inputPrimaryModel.add(r(1), p(1), "a");
+		inputPrimaryModel.add(r(2), p(1), "b");
+		inputPrimaryModel.add(r(3), p(1), inputPrimaryModel.createLiteral("c", "en"));
+		inputPrimaryModel.addLiteral(r(4), p(1), 1);
+		inputPrimaryModel.add(r(5), p(1), inputPrimaryModel.createTypedLiteral("2.5", XSDDatatype.XSDdecimal));
+		inputPrimaryModel.add(r(6), p(1), inputPrimaryModel.createTypedLiteral("2", XSDDatatype.XSDstring));
+		inputPrimaryModel.add(r(7), p(1), inputPrimaryModel.createTypedLiteral("2020-01-01", XSDDatatype.XSDdate));
+		inputPrimaryModel.add(r(8), p(1), inputPrimaryModel.createTypedLiteral("2021-01-01", XSDDatatype.XSDdate));
+		inputPrimaryModel.add(r(9), p(1),
+				inputPrimaryModel.createTypedLiteral("2020-06-01T00:00:00Z", XSDDatatype.XSDdateTime));
+		inputPrimaryModel.add(r(10), p(1), r(11));
+
+		Resource dataset = ResourceFactory.createResource("http://example.org/dataset");
+		String rules = "[rule1: (?s <" + p(1) + "> ?a) (?t <" + p(1) + "> ?b) " + builtin + "(?a, ?b) -> (?s <"
+				+ p(2) + "> ?t)]";
+
+		Model[] outputPrimaryModels = new Model[2];
+		for (int i = 0; i < 2; i++) {
+			ForwardRuleReasoningProcessor processor = new ForwardRuleReasoningProcessor()//
+					.addInputPrimaryModel(dataset, inputPrimaryModel)//
+					.setAssociatedDataset(dataset);
+			processor.rules = rules;
+			processor.streaming = i == 1;
+			processor.run();
+			outputPrimaryModels[i] = processor.getOutputPrimaryModel().get();
+		}
+
+		assertFalse(outputPrimaryModels[0].isEmpty());
+		assertFalse(outputPrimaryModels[1].contains(r(1), p(2), r(2)));
+		assertFalse(outputPrimaryModels[1].contains(r(2), p(2), r(1)));
+		assertTrue(outputPrimaryModels[0].isIsomorphicWith(outputPrimaryModels[1]),
+				() -> "Forward RETE: " + outputPrimaryModels[0].listStatements().toList() + "\nStreaming: "
+						+ outputPrimaryModels[1].listStatements().toList());
+	}
+
+	@Test
+	public void computeResultModelWithNotEqualOfMixedDatatypesLikeForwardRete() throws Exception {
+		Model inputPrimaryModel = ModelFactory.createDefaultModel();
+		inputPrimaryModel.addLiteral(r(1), p(1), 1);
+		inputPrimaryModel.add(r(2), p(1), inputPrimaryModel.createTypedLiteral("1.0", XSDDatatype.XSDdecimal));
+		inputPrimaryModel.add(r(3), p(1), "1");
+		inputPrimaryModel.add(r(4), p(1), inputPrimaryModel.createLiteral("1", "en"));
+		inputPrimaryModel.add(r(5), p(1), inputPrimaryModel.createTypedLiteral("2020-01-01", XSDDatatype.XSDdate));
+		inputPrimaryModel.add(r(6), p(1),
+				inputPrimaryModel.createTypedLiteral("2020-01-01T00:00:00Z", XSDDatatype.XSDdateTime));
+		inputPrimaryModel.add(r(7), p(1), r(8));
+
+		Resource dataset = ResourceFactory.createResource("http://example.org/dataset");
+		String rules = "[rule1: (?s <" + p(1) + "> ?a) (?t <" + p(1) + "> ?b) notEqual(?a, ?b) -> (?s <" + p(2)
+				+ "> ?t)]";
+
+		Model[] outputPrimaryModels = new Model[2];
+		for (int i = 0; i < 2; i++) {
+			ForwardRuleReasoningProcessor processor = new ForwardRuleReasoningProcessor()//
+					.addInputPrimaryModel(dataset, inputPrimaryModel)//
+					.setAssociatedDataset(dataset);
+			processor.rules = rules;
+			processor.streaming = i == 1;
+			processor.run();
+			outputPrimaryModels[i] = processor.getOutputPrimaryModel().get();
+		}
+
+		// equal numbers of different datatypes
+		assertFalse(outputPrimaryModels[1].contains(r(1), p(2), r(2)));
+		// incomparable values
+		assertTrue(outputPrimaryModels[1].contains(r(1), p(2), r(3)));
+		assertTrue(outputPrimaryModels[1].contains(r(3), p(2), r(4)));
+		assertTrue(outputPrimaryModels[1].contains(r(1), p(2), r(7)));
+		assertTrue(outputPrimaryModels[1].contains(r(5), p(2), r(6)));
+		assertFalse(outputPrimaryModels[1].contains(r(7), p(2), r(7)));
+		assertTrue(outputPrimaryModels[0].isIsomorphicWith(outputPrimaryModels[1]),
+				() -> "Forward RETE: " + outputPrimaryModels[0].listStatements().toList() + "\nStreaming: "
+						+ outputPrimaryModels[1].listStatements().toList());
+	}
+
+	@Test
+	public void constructQuery() throws Exception {
+		assertEquals(
+				"CONSTRUCT { ?s <http://example.org/p1> ?o . } WHERE { ?s <http://example.org/p1> ?t . ?t <http://example.org/p1> ?o FILTER <urn:x-abecto:builtin:notEqual>(?s, ?o) }",
+				ForwardRuleReasoningProcessor.constructQuery(Rule.parseRule(
+						"[(?s <" + p(1) + "> ?t) (?t <" + p(1) + "> ?o) notEqual(?s, ?o) -> (?s <" + p(1) + "> ?o)]"))
+						.toString().replaceAll("\\s+", " ").trim());
+		assertThrows(IllegalArgumentException.class, () -> ForwardRuleReasoningProcessor
+				.constructQuery(Rule.parseRule("[(?s <" + p(1) + "> ?o) -> print(?s)]")));
+		assertThrows(IllegalArgumentException.class, () -> ForwardRuleReasoningProcessor
+				.constructQuery(Rule.parseRule("[(?s <" + p(1) + "> ?o) <- (?o <" + p(1) + "> ?s)]")));
 	}
 
 	private Resource r(int i) {
@@ -41,6 +41,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import de.uni_jena.cs.fusion.abecto.Aspect;
+import de.uni_jena.cs.fusion.abecto.ResourcePair;
 import de.uni_jena.cs.fusion.abecto.vocabulary.AV;
 import de.uni_jena.cs.fusion.abecto.vocabulary.DQV;
 
@@ -319,6 +320,8 @@ public class PopulationComparisonProcessorTest {
 	public void initProcessor() {
 		processor  = new PopulationComparisonProcessor();
 		processor.datasets = Set.of(dataset1, dataset2, dataset3);
+		processor.datasetPairs = ResourcePair.getPairsOf(processor.datasets);
+		processor.resolveMeasureIndices();
 	}
 
 	@Test
@@ -18,6 +18,7 @@
 
 package de.uni_jena.cs.fusion.abecto.processor;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -29,11 +30,14 @@ import org.apache.jena.rdf.model.Property;
 import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdf.model.ResourceFactory;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
 public class SparqlConstructProcessorTest {
 
-	@Test
-	public void computeResultModel() throws Exception {
+	@ParameterizedTest
+	@ValueSource(booleans = { false, true })
+	public void computeResultModel(boolean semiNaive) throws Exception {
 		// input model
 		Model inputPrimaryModel = ModelFactory.createDefaultModel();
 		inputPrimaryModel.add(r(1), p(1), r(2));
@@ -56,6 +60,7 @@ public class SparqlConstructProcessorTest {
 				.addInputPrimaryModel(dataset, inputPrimaryModel)//
 				.setAssociatedDataset(dataset);
 		processor.query = query;
+		processor.semiNaive = semiNaive;
 		processor.run();
 		outputPrimaryModel = processor.getOutputPrimaryModel().get();
 
@@ -78,6 +83,7 @@ public class SparqlConstructProcessorTest {
 				.addInputPrimaryModel(dataset, inputPrimaryModel)//
 				.setAssociatedDataset(dataset);
 		processor.query = query;
+		processor.semiNaive = semiNaive;
 		processor.maxIterations = 1;
 		processor.run();
 		outputPrimaryModel = processor.getOutputPrimaryModel().get();
@@ -101,6 +107,7 @@ public class SparqlConstructProcessorTest {
 				.addInputPrimaryModel(dataset, inputPrimaryModel)//
 				.setAssociatedDataset(dataset);
 		processor.query = query;
+		processor.semiNaive = semiNaive;
 		processor.maxIterations = 2;
 		processor.run();
 		outputPrimaryModel = processor.getOutputPrimaryModel().get();
@@ -124,6 +131,7 @@ public class SparqlConstructProcessorTest {
 				.addInputPrimaryModel(dataset, inputPrimaryModel)//
 				.setAssociatedDataset(dataset);
 		processor.query = query;
+		processor.semiNaive = semiNaive;
 		processor.maxIterations = 3;
 		processor.run();
 		outputPrimaryModel = processor.getOutputPrimaryModel().get();
@@ -147,11 +155,67 @@ public class SparqlConstructProcessorTest {
 				.addInputPrimaryModel(dataset, inputPrimaryModel)//
 				.setAssociatedDataset(dataset);
 		processor.query = query;
+		processor.semiNaive = semiNaive;
 		processor.maxIterations = 4;
 		processor.run();
 		outputPrimaryModel = processor.getOutputPrimaryModel().get();
 	}
 
+	@ParameterizedTest
+	@ValueSource(booleans = { false, true })
+	public void computeResultModelWithJoin(boolean semiNaive) throws Exception {
+		Model inputPrimaryModel = ModelFactory.createDefaultModel();
+		for (int i = 1; i < 10; i++) {
+			inputPrimaryModel.add(r(i), p(1), r(i + 1));
+		}
+		inputPrimaryModel.add(r(5), p(2), r(0));
+
+		Resource dataset = ResourceFactory.createResource("http://example.org/dataset");
+
+		SparqlConstructProcessor processor = new SparqlConstructProcessor()//
+				.addInputPrimaryModel(dataset, inputPrimaryModel)//
+				.setAssociatedDataset(dataset);
+		processor.query = QueryFactory.create("CONSTRUCT {?s <" + p(3) + "> ?o} WHERE {{?s <" + p(1) + "> ?o} UNION {?s <"
+				+ p(2) + "> ?o}}");
+		processor.maxIterations = 1;
+		processor.run();
+		Model closureBase = processor.getOutputPrimaryModel().get();
+
+		processor = new SparqlConstructProcessor()//
+				.addInputPrimaryModel(dataset, inputPrimaryModel.union(closureBase))//
+				.setAssociatedDataset(dataset);
+		processor.query = QueryFactory.create("CONSTRUCT {?s <" + p(3) + "> ?o} WHERE {?s <" + p(3) + "> ?x . ?x <"
+				+ p(3) + "> ?o FILTER (?s != ?o) BIND (?o AS ?y)}");
+		processor.maxIterations = 10;
+		processor.semiNaive = semiNaive;
+		processor.run();
+		Model outputPrimaryModel = processor.getOutputPrimaryModel().get();
+
+		for (int i = 1; i <= 10; i++) {
+			for (int j = i + 2; j <= 10; j++) {
+				assertTrue(outputPrimaryModel.contains(r(i), p(3), r(j)));
+			}
+			assertEquals(i <= 4, outputPrimaryModel.contains(r(i), p(3), r(0)));
+		}
+		assertEquals(36 + 4, outputPrimaryModel.size());
+	}
+
+	@Test
+	public void deltaQuery() throws Exception {
+		assertTrue(SparqlConstructProcessor
+				.deltaQuery(QueryFactory.create("CONSTRUCT {?s ?p ?o} WHERE {?s ?p ?x . ?x ?p ?o}")).isPresent());
+		assertTrue(SparqlConstructProcessor
+				.deltaQuery(QueryFactory.create("CONSTRUCT {?s ?p ?o} WHERE {?s <http://example.org/p1>/<http://example.org/p1> ?o}")).isPresent());
+		assertFalse(SparqlConstructProcessor
+				.deltaQuery(QueryFactory.create("CONSTRUCT {?s ?p ?o} WHERE {?s <http://example.org/p1>+ ?o}")).isPresent());
+		assertFalse(SparqlConstructProcessor
+				.deltaQuery(QueryFactory.create("CONSTRUCT {?s ?p ?o} WHERE {?s ?p ?o OPTIONAL {?o ?p ?s}}"))
+				.isPresent());
+		assertFalse(SparqlConstructProcessor
+				.deltaQuery(QueryFactory.create("CONSTRUCT {?s ?p ?o} WHERE {?s ?p ?o FILTER NOT EXISTS {?o ?p ?s}}"))
+				.isPresent());
+	}
+
 	private Resource r(int i) {
 		return ResourceFactory.createResource("http://example.org/r" + i);
 	}
@@ -18,9 +18,13 @@
 
 package de.uni_jena.cs.fusion.abecto.processor;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.Collections;
 import java.util.Optional;
 
@@ -32,20 +36,31 @@ import org.apache.jena.graph.NodeFactory;
 import org.apache.jena.graph.Triple;
 import org.apache.jena.query.Dataset;
 import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryExecutionFactory;
 import org.apache.jena.query.QueryFactory;
+import org.apache.jena.query.ResultSetFactory;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.Property;
 import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.sparql.resultset.ResultSetCompare;
 import org.apache.jena.vocabulary.RDFS;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
 
+import de.uni_jena.cs.fusion.abecto.Aspect;
 import de.uni_jena.cs.fusion.abecto.TestUtil;
+import de.uni_jena.cs.fusion.abecto.util.Models;
+import de.uni_jena.cs.fusion.abecto.util.QueryResultCache;
 
 public class SparqlSourceProcessorTest {
 
-	@Test
-	public void computeResultModel() throws Exception {
+	@ParameterizedTest
+	@CsvSource({ "500, 1", "1, 4" })
+	public void computeResultModel(int chunkSize, int maxConcurrentRequests) throws Exception {
 		// scope
 		final int maxFollowUnlimitedDistance = 5;
 		final int maxMaxDistance = 5;
@@ -164,6 +179,8 @@ public class SparqlSourceProcessorTest {
 			processor.followInverse = Collections.singletonList(inverseAssociation);
 			processor.setAssociatedDataset(TestUtil.dataset(1));
 			processor.maxDistance = maxDistance;
+			processor.chunkSize = chunkSize;
+			processor.maxConcurrentRequests = maxConcurrentRequests;
 			processor.run();
 			Model outputModel = processor.getOutputPrimaryModel().get();
 
@@ -248,4 +265,109 @@ public class SparqlSourceProcessorTest {
 
 		fuseki.stop();
 	}
+
+	@Test
+	public void queryResultCache(@TempDir Path cacheDirectory) throws Exception {
+		Dataset testData = DatasetFactory.createTxnMem();
+		Graph inputGraph = testData.asDatasetGraph().getDefaultGraph();
+		String namespace = "http://example.org/";
+		for (int i = 0; i < 10; i++) {
+			inputGraph.add(Triple.create(NodeFactory.createURI(namespace + "resource" + i),
+					NodeFactory.createURI(namespace + "association"),
+					NodeFactory.createURI(namespace + "resource" + (i + 1))));
+			inputGraph.add(Triple.create(NodeFactory.createURI(namespace + "resource" + i), RDFS.label.asNode(),
+					NodeFactory.createLiteral("label " + i)));
+		}
+
+		LogCtl.setLevel(Fuseki.serverLogName, "OFF");
+		LogCtl.setLevel(Fuseki.actionLogName, "OFF");
+		LogCtl.setLevel(Fuseki.requestLogName, "OFF");
+		LogCtl.setLevel(Fuseki.adminLogName, "OFF");
+		LogCtl.setLevel("org.eclipse.jetty", "OFF");
+		FusekiServer fuseki = FusekiServer.create().port(0).add("/test", testData).build().start();
+		String service = "http://localhost:" + fuseki.getPort() + "/test/sparql";
+
+		SparqlSourceProcessor processor = new SparqlSourceProcessor();
+		processor.service = ResourceFactory.createResource(service);
+		processor.list = Collections.singletonList(ResourceFactory.createResource(namespace + "resource0"));
+		processor.maxDistance = 3;
+		processor.setQueryResultCache(new QueryResultCache(cacheDirectory, null, false));
+		processor.setAssociatedDataset(TestUtil.dataset(1));
+		processor.run();
+		Model fetchedModel = processor.getOutputPrimaryModel().get();
+		assertTrue(fetchedModel.contains(ResourceFactory.createResource(namespace + "resource3"), RDFS.label));
+
+		fuseki.stop();
+
+		// replay from cache without endpoint
+		processor = new SparqlSourceProcessor();
+		processor.service = ResourceFactory.createResource(service);
+		processor.list = Collections.singletonList(ResourceFactory.createResource(namespace + "resource0"));
+		processor.maxDistance = 3;
+		processor.maxRetries = 0;
+		processor.setQueryResultCache(new QueryResultCache(cacheDirectory, null, false));
+		processor.setAssociatedDataset(TestUtil.dataset(1));
+		processor.run();
+		assertTrue(fetchedModel.isIsomorphicWith(processor.getOutputPrimaryModel().get()));
+	}
+
+	@Test
+	public void loadAspectPatterns() throws Exception {
+		Dataset testData = DatasetFactory.createTxnMem();
+		Models.read(testData.getDefaultModel(), new ByteArrayInputStream("""
+				@prefix : <http://example.org/> .
+				@prefix rdfs: <http://www.w3.org/2000/01/rdf-schema#> .
+				:Monarchy rdfs:subClassOf :Country .
+				:country1 a :Country ; :name "Country 1" ; :capital :city1 ; :population 1 .
+				:country2 a :Monarchy ; :name "Country 2" ; :capital :city2 .
+				:country3 a :Country ; :name "Country 3" ; :dissolved true .
+				:city1 rdfs:label "City 1" ; :population 10 .
+				:city2 rdfs:label "City 2" .
+				:river1 a :River ; :name "River 1" .
+				""".getBytes(StandardCharsets.UTF_8)));
+		Query pattern = QueryFactory.create("""
+				PREFIX : <http://example.org/>
+				PREFIX rdfs: <http://www.w3.org/2000/01/rdf-schema#>
+				SELECT ?country ?name ?capitalLabel WHERE {
+					?country a/rdfs:subClassOf* :Country ; :name ?name .
+					OPTIONAL { ?country :capital/rdfs:label ?capitalLabel }
+					MINUS { ?country :dissolved true }
+				}""");
+		Aspect aspect = new Aspect(ResourceFactory.createResource("http://example.org/aspect"), "country")
+				.setPattern(TestUtil.dataset(1), pattern);
+
+		LogCtl.setLevel(Fuseki.serverLogName, "OFF");
+		LogCtl.setLevel(Fuseki.actionLogName, "OFF");
+		LogCtl.setLevel(Fuseki.requestLogName, "OFF");
+		LogCtl.setLevel(Fuseki.adminLogName, "OFF");
+		LogCtl.setLevel("org.eclipse.jetty", "OFF");
+		FusekiServer fuseki = FusekiServer.create().port(0).add("/test", testData).build().start();
+
+		SparqlSourceProcessor processor = new SparqlSourceProcessor();
+		processor.service = ResourceFactory.createResource("http://localhost:" + fuseki.getPort() + "/test/sparql");
+		processor.loadAspectPatterns = true;
+		processor.chunkSize = 1;
+		processor.setAssociatedDataset(TestUtil.dataset(1));
+		processor.addAspects(aspect);
+		processor.run();
+		Model outputModel = processor.getOutputPrimaryModel().get();
+
+		fuseki.stop();
+
+		// same results
+		assertEquals(ResultSetFactory.makeRewindable(QueryExecutionFactory.create(pattern, testData).execSelect())
+				.size(), ResultSetFactory.makeRewindable(QueryExecutionFactory.create(pattern, outputModel).execSelect())
+				.size());
+		assertTrue(ResultSetCompare.equalsByTerm(QueryExecutionFactory.create(pattern, testData).execSelect(),
+				QueryExecutionFactory.create(pattern, outputModel).execSelect()));
+		// only needed statements
+		Resource city1 = ResourceFactory.createResource("http://example.org/city1");
+		Resource river1 = ResourceFactory.createResource("http://example.org/river1");
+		Property population = ResourceFactory.createProperty("http://example.org/population");
+		assertTrue(outputModel.contains(city1, RDFS.label));
+		assertFalse(outputModel.contains(city1, population));
+		assertFalse(outputModel.contains(null, population));
+		assertFalse(outputModel.containsResource(river1));
+	}
+
 }
@@ -0,0 +1,127 @@
+/*-
+ * Copyright © 2019-2022 Heinz Nixdorf Chair for Distributed Information Systems,
+ *                       Friedrich Schiller University Jena (http://www.fusion.uni-jena.de/)
+ * Copyright © 2023-2024 Jan Martin Keil (jan-martin.keil@uni-jena.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+-*/
+
+package de.uni_jena.cs.fusion.abecto.processor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class TransitiveClosureProcessorTest {
+
+	@ParameterizedTest
+	@ValueSource(booleans = { false, true })
+	public void computeResultModel(boolean reflexive) throws Exception {
+		// input model
+		Model inputPrimaryModel = ModelFactory.createDefaultModel();
+		// chain
+		inputPrimaryModel.add(r(1), p(1), r(2));
+		inputPrimaryModel.add(r(2), p(1), r(3));
+		inputPrimaryModel.add(r(3), p(1), r(4));
+		// cycle
+		inputPrimaryModel.add(r(4), p(1), r(5));
+		inputPrimaryModel.add(r(5), p(1), r(4));
+		// literal
+		inputPrimaryModel.add(r(5), p(1), "literal");
+		// other property
+		inputPrimaryModel.add(r(5), p(2), r(6));
+		inputPrimaryModel.add(r(6), p(2), r(7));
+
+		Resource dataset = ResourceFactory.createResource("http://example.org/dataset");
+
+		TransitiveClosureProcessor processor = new TransitiveClosureProcessor()//
+				.addInputPrimaryModel(dataset, inputPrimaryModel)//
+				.setAssociatedDataset(dataset);
+		processor.properties = List.of(p(1));
+		processor.reflexive = reflexive;
+		processor.run();
+		Model outputPrimaryModel = processor.getOutputPrimaryModel().get();
+
+		for (int i = 1; i <= 5; i++) {
+			for (int j = 1; j <= 5; j++) {
+				boolean reachable = (i < 4 && j > i) || (i >= 4 && j >= 4) || (reflexive && i == j);
+				boolean asserted = (i < 5 && j == i + 1) || (i == 5 && j == 4);
+				boolean derived = reachable && !asserted;
+				assertEquals(derived, outputPrimaryModel.contains(r(i), p(1), r(j)), i + " -> " + j);
+			}
+			assertEquals(i < 5, outputPrimaryModel.contains(r(i), p(1), "literal"));
+		}
+		assertFalse(outputPrimaryModel.contains(null, p(2), (Resource) null));
+		assertEquals(reflexive ? 15 : 12, outputPrimaryModel.size());
+	}
+
+	@Test
+	public void computeResultModelRandom() throws Exception {
+		Random random = new Random(0);
+		int n = 40;
+		boolean[][] expected = new boolean[n][n];
+		Model inputPrimaryModel = ModelFactory.createDefaultModel();
+		for (int e = 0; e < 60; e++) {
+			int s = random.nextInt(n);
+			int o = random.nextInt(n);
+			expected[s][o] = true;
+			inputPrimaryModel.add(r(s), p(1), r(o));
+		}
+		// Floyd-Warshall
+		for (int k = 0; k < n; k++) {
+			for (int i = 0; i < n; i++) {
+				for (int j = 0; j < n; j++) {
+					expected[i][j] |= expected[i][k] && expected[k][j];
+				}
+			}
+		}
+
+		Resource dataset = ResourceFactory.createResource("http://example.org/dataset");
+
+		TransitiveClosureProcessor processor = new TransitiveClosureProcessor()//
+				.addInputPrimaryModel(dataset, inputPrimaryModel)//
+				.setAssociatedDataset(dataset);
+		processor.properties = List.of(p(1));
+		processor.run();
+		Model outputPrimaryModel = processor.getOutputPrimaryModel().get();
+
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				assertEquals(expected[i][j] && !inputPrimaryModel.contains(r(i), p(1), r(j)),
+						outputPrimaryModel.contains(r(i), p(1), r(j)));
+			}
+		}
+		assertTrue(outputPrimaryModel.size() > 0);
+	}
+
+	private Resource r(int i) {
+		return ResourceFactory.createResource("http://example.org/r" + i);
+	}
+
+	private Property p(int i) {
+		return ResourceFactory.createProperty("http://example.org/p" + i);
+	}
+
+}
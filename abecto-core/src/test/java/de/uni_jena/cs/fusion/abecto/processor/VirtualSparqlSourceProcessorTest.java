@@ -0,0 +1,117 @@
+/*-
+ * Copyright © 2019-2022 Heinz Nixdorf Chair for Distributed Information Systems,
+ *                       Friedrich Schiller University Jena (http://www.fusion.uni-jena.de/)
+ * Copyright © 2023-2024 Jan Martin Keil (jan-martin.keil@uni-jena.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+-*/
+
+package de.uni_jena.cs.fusion.abecto.processor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.jena.atlas.logging.LogCtl;
+import org.apache.jena.fuseki.Fuseki;
+import org.apache.jena.fuseki.main.FusekiServer;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryFactory;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.junit.jupiter.api.Test;
+
+import de.uni_jena.cs.fusion.abecto.Aspect;
+import de.uni_jena.cs.fusion.abecto.TestUtil;
+import de.uni_jena.cs.fusion.abecto.util.Models;
+
+public class VirtualSparqlSourceProcessorTest {
+
+	@Test
+	public void computeResultModel() throws Exception {
+		Dataset testData = DatasetFactory.createTxnMem();
+		Models.read(testData.getDefaultModel(), new ByteArrayInputStream("""
+				@prefix : <http://example.org/> .
+				:country1 a :Country ; :name "Country 1" ; :capital :city1 .
+				:country2 a :Country ; :name "Country 2" .
+				:country3 a :Country ; :name "Country 3" , "Third Country" .
+				:city1 :name "City 1" .
+				""".getBytes(StandardCharsets.UTF_8)));
+		Resource dataset = TestUtil.dataset(1);
+		Query pattern = QueryFactory.create("""
+				PREFIX : <http://example.org/>
+				SELECT ?country ?name ?capital WHERE {
+					?country a :Country ; :name ?name .
+					OPTIONAL { ?country :capital ?capital }
+				}""");
+		Aspect aspect = new Aspect(ResourceFactory.createResource("http://example.org/aspect"), "country")
+				.setPattern(dataset, pattern);
+		Resource country1 = ResourceFactory.createResource("http://example.org/country1");
+		Resource country2 = ResourceFactory.createResource("http://example.org/country2");
+		Resource country3 = ResourceFactory.createResource("http://example.org/country3");
+
+		LogCtl.setLevel(Fuseki.serverLogName, "OFF");
+		LogCtl.setLevel(Fuseki.actionLogName, "OFF");
+		LogCtl.setLevel(Fuseki.requestLogName, "OFF");
+		LogCtl.setLevel(Fuseki.adminLogName, "OFF");
+		LogCtl.setLevel("org.eclipse.jetty", "OFF");
+		FusekiServer fuseki = FusekiServer.create().port(0).add("/test", testData).build().start();
+
+		VirtualSparqlSourceProcessor processor = new VirtualSparqlSourceProcessor();
+		processor.service = ResourceFactory.createResource("http://localhost:" + fuseki.getPort() + "/test/sparql");
+		processor.batchSize = 10;
+		processor.pageSize = 2;
+		processor.setAssociatedDataset(dataset);
+		processor.run();
+		processor.freezeOutputPrimaryModel();
+		Model primaryModel = Models.union(List.of(processor.getOutputPrimaryModel().get()));
+
+		assertTrue(Models.isRemote(processor.getOutputPrimaryModel().get()));
+		assertFalse(primaryModel.isEmpty());
+		assertTrue(primaryModel.contains(country1, null, "Country 1"));
+		// triples loaded in multiple pages
+		Property name = ResourceFactory.createProperty("http://example.org/name");
+		assertEquals(5, primaryModel.listStatements(null, name, (RDFNode) null).toList().size());
+
+		// lookup loads all resources in one batch
+		Map<String, Set<RDFNode>> values = Aspect.getResource(aspect, dataset, country1, primaryModel).get();
+		assertEquals(Set.of(ResourceFactory.createStringLiteral("Country 1")), values.get("name"));
+		assertEquals(Set.of(ResourceFactory.createResource("http://example.org/city1")), values.get("capital"));
+		Map<String, Map<RDFNode, Set<Resource>>> index = Aspect.getResourceIndex(aspect, dataset,
+				Collections.singletonList("name"), primaryModel);
+		assertEquals(Set.of(country3), index.get("name").get(ResourceFactory.createStringLiteral("Third Country")));
+
+		fuseki.stop();
+
+		// answer from cache
+		values = Aspect.getResource(aspect, dataset, country3, primaryModel).get();
+		assertEquals(Set.of(ResourceFactory.createStringLiteral("Country 3"),
+				ResourceFactory.createStringLiteral("Third Country")), values.get("name"));
+		assertTrue(values.get("capital").isEmpty());
+		assertEquals(5, primaryModel.listStatements(null, name, (RDFNode) null).toList().size());
+		assertTrue(Aspect.getResource(aspect, dataset, country2, primaryModel).isPresent());
+		assertEquals(2, aspect.getResourcesInDataset(List.of(country1, country2), dataset, primaryModel).size());
+	}
+}
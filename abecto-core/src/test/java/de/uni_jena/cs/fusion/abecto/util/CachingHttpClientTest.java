@@ -0,0 +1,215 @@
+/*-
+ * Copyright © 2019-2022 Heinz Nixdorf Chair for Distributed Information Systems,
+ *                       Friedrich Schiller University Jena (http://www.fusion.uni-jena.de/)
+ * Copyright © 2023-2024 Jan Martin Keil (jan-martin.keil@uni-jena.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+-*/
+
+package de.uni_jena.cs.fusion.abecto.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import org.apache.jena.http.HttpEnv;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+public class CachingHttpClientTest {
+
+	@TempDir
+	Path cacheDirectory;
+
+	@Test
+	public void revalidate() throws Exception {
+		try (MockWebServer mockWebServer = new MockWebServer()) {
+			HttpClient client = new CachingHttpClient(HttpClient.newHttpClient(), cacheDirectory);
+			HttpRequest request = HttpRequest.newBuilder(mockWebServer.url("/").uri()).build();
+
+			mockWebServer.enqueue(new MockResponse().addHeader("ETag", "\"1\"").setBody("content"));
+			HttpResponse<String> response = client.send(request, BodyHandlers.ofString());
+			assertEquals(200, response.statusCode());
+			assertEquals("content", response.body());
+			assertFalse(mockWebServer.takeRequest().getHeaders().names().contains("If-None-Match"));
+
+			// unchanged
+			mockWebServer.enqueue(new MockResponse().setResponseCode(304));
+			response = client.send(request, BodyHandlers.ofString());
+			assertEquals(200, response.statusCode());
+			assertEquals("content", response.body());
+			assertEquals("\"1\"", response.headers().firstValue("etag").get());
+			assertEquals("\"1\"", mockWebServer.takeRequest().getHeader("If-None-Match"));
+
+			// changed
+			mockWebServer.enqueue(new MockResponse().addHeader("ETag", "\"2\"").setBody("changed content"));
+			response = client.send(request, BodyHandlers.ofString());
+			assertEquals("changed content", response.body());
+			assertEquals("\"1\"", mockWebServer.takeRequest().getHeader("If-None-Match"));
+
+			// unchanged, read as stream
+			mockWebServer.enqueue(new MockResponse().setResponseCode(304));
+			HttpResponse<InputStream> streamResponse = client.send(request, BodyHandlers.ofInputStream());
+			assertEquals("changed content",
+					new String(streamResponse.body().readAllBytes(), StandardCharsets.UTF_8));
+			assertEquals("\"2\"", mockWebServer.takeRequest().getHeader("If-None-Match"));
+		}
+	}
+
+	@Test
+	public void revalidateLastModified() throws Exception {
+		try (MockWebServer mockWebServer = new MockWebServer()) {
+			HttpClient client = new CachingHttpClient(HttpClient.newHttpClient(), cacheDirectory);
+			HttpRequest request = HttpRequest.newBuilder(mockWebServer.url("/").uri()).build();
+			String lastModified = "Wed, 21 Oct 2015 07:28:00 GMT";
+
+			mockWebServer.enqueue(new MockResponse().addHeader("Last-Modified", lastModified).setBody("content"));
+			client.send(request, BodyHandlers.ofString());
+			mockWebServer.takeRequest();
+
+			mockWebServer.enqueue(new MockResponse().setResponseCode(304));
+			assertEquals("content", client.send(request, BodyHandlers.ofString()).body());
+			assertEquals(lastModified, mockWebServer.takeRequest().getHeader("If-Modified-Since"));
+		}
+	}
+
+	@Test
+	public void notCacheable() throws Exception {
+		try (MockWebServer mockWebServer = new MockWebServer()) {
+			HttpClient client = new CachingHttpClient(HttpClient.newHttpClient(), cacheDirectory);
+			HttpRequest request = HttpRequest.newBuilder(mockWebServer.url("/").uri()).build();
+
+			// without validators
+			mockWebServer.enqueue(new MockResponse().setBody("content"));
+			assertEquals("content", client.send(request, BodyHandlers.ofString()).body());
+			mockWebServer.takeRequest();
+			// no-store
+			mockWebServer.enqueue(
+					new MockResponse().addHeader("ETag", "\"1\"").addHeader("Cache-Control", "no-store").setBody("a"));
+			assertEquals("a", client.send(request, BodyHandlers.ofString()).body());
+			mockWebServer.takeRequest();
+			// error
+			mockWebServer.enqueue(new MockResponse().addHeader("ETag", "\"1\"").setResponseCode(500).setBody("b"));
+			assertEquals(500, client.send(request, BodyHandlers.ofString()).statusCode());
+			mockWebServer.takeRequest();
+
+			mockWebServer.enqueue(new MockResponse().setBody("c"));
+			assertEquals("c", client.send(request, BodyHandlers.ofString()).body());
+			RecordedRequest recordedRequest = mockWebServer.takeRequest();
+			assertFalse(recordedRequest.getHeaders().names().contains("If-None-Match"));
+		}
+	}
+
+	@Test
+	public void varyingHeaders() throws Exception {
+		try (MockWebServer mockWebServer = new MockWebServer()) {
+			HttpClient client = new CachingHttpClient(HttpClient.newHttpClient(), cacheDirectory);
+			URI uri = mockWebServer.url("/").uri();
+			HttpRequest english = HttpRequest.newBuilder(uri).header("Accept-Language", "en").build();
+			HttpRequest german = HttpRequest.newBuilder(uri).header("Accept-Language", "de").build();
+			HttpRequest authorized = HttpRequest.newBuilder(uri).header("Authorization", "Basic dXNlcjpwYXNz")
+					.build();
+
+			mockWebServer.enqueue(new MockResponse().addHeader("ETag", "\"en\"").setBody("english"));
+			assertEquals("english", client.send(english, BodyHandlers.ofString()).body());
+			mockWebServer.takeRequest();
+
+			// other header value
+			mockWebServer.enqueue(new MockResponse().addHeader("ETag", "\"de\"").setBody("german"));
+			assertEquals("german", client.send(german, BodyHandlers.ofString()).body());
+			assertFalse(mockWebServer.takeRequest().getHeaders().names().contains("If-None-Match"));
+
+			// credentials
+			for (int i = 0; i < 2; i++) {
+				mockWebServer.enqueue(new MockResponse().addHeader("ETag", "\"private\"").setBody("private"));
+				assertEquals("private", client.send(authorized, BodyHandlers.ofString()).body());
+				assertFalse(mockWebServer.takeRequest().getHeaders().names().contains("If-None-Match"));
+			}
+
+			mockWebServer.enqueue(new MockResponse().setResponseCode(304));
+			assertEquals("english", client.send(english, BodyHandlers.ofString()).body());
+			assertEquals("\"en\"", mockWebServer.takeRequest().getHeader("If-None-Match"));
+		}
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = { 1, 6, 20, 40 })
+	public void corruptEntry(int truncatedBytes) throws Exception {
+		try (MockWebServer mockWebServer = new MockWebServer()) {
+			HttpClient client = new CachingHttpClient(HttpClient.newHttpClient(), cacheDirectory);
+			HttpRequest request = HttpRequest.newBuilder(mockWebServer.url("/").uri()).build();
+
+			mockWebServer.enqueue(new MockResponse().addHeader("ETag", "\"1\"").setBody("content"));
+			client.send(request, BodyHandlers.ofString());
+			mockWebServer.takeRequest();
+
+			try (Stream<Path> files = Files.list(cacheDirectory)) {
+				for (Path file : (Iterable<Path>) files::iterator) {
+					byte[] content = Files.readAllBytes(file);
+					Files.write(file, Arrays.copyOf(content, Math.max(0, content.length - truncatedBytes)));
+				}
+			}
+
+			// refetch without revalidation
+			mockWebServer.enqueue(new MockResponse().addHeader("ETag", "\"1\"").setBody("content"));
+			assertEquals("content", client.send(request, BodyHandlers.ofString()).body());
+			assertFalse(mockWebServer.takeRequest().getHeaders().names().contains("If-None-Match"));
+
+			mockWebServer.enqueue(new MockResponse().setResponseCode(304));
+			assertEquals("content", client.send(request, BodyHandlers.ofString()).body());
+			assertEquals("\"1\"", mockWebServer.takeRequest().getHeader("If-None-Match"));
+		}
+	}
+
+	@Test
+	public void readUrl() throws IOException, InterruptedException {
+		String content = "<http://example.org/a> <http://example.org/a> <http://example.org/a> .";
+		Property resource = ResourceFactory.createProperty("http://example.org/a");
+		HttpClient defaultClient = HttpEnv.getDftHttpClient();
+		try (MockWebServer mockWebServer = new MockWebServer()) {
+			HttpEnv.setDftHttpClient(new CachingHttpClient(defaultClient, cacheDirectory));
+			URI uri = mockWebServer.url("/").uri();
+
+			mockWebServer.enqueue(new MockResponse().addHeader("Content-Type", "text/turtle")
+					.addHeader("ETag", "\"1\"").setBody(content));
+			assertTrue(Models.read(ModelFactory.createDefaultModel(), uri).contains(resource, resource, resource));
+			mockWebServer.enqueue(new MockResponse().setResponseCode(304));
+			assertTrue(Models.read(ModelFactory.createDefaultModel(), uri).contains(resource, resource, resource));
+			assertEquals(2, mockWebServer.getRequestCount());
+		} finally {
+			HttpEnv.setDftHttpClient(defaultClient);
+		}
+	}
+}
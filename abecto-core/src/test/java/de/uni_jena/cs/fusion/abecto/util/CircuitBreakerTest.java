@@ -0,0 +1,59 @@
+/*-
+ * Copyright © 2019-2022 Heinz Nixdorf Chair for Distributed Information Systems,
+ *                       Friedrich Schiller University Jena (http://www.fusion.uni-jena.de/)
+ * Copyright © 2023-2024 Jan Martin Keil (jan-martin.keil@uni-jena.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+-*/
+
+package de.uni_jena.cs.fusion.abecto.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class CircuitBreakerTest {
+
+	@Test
+	public void of() {
+		assertSame(CircuitBreaker.of("http://example.org/sparql"), CircuitBreaker.of("http://example.org/sparql"));
+	}
+
+	@Test
+	public void openAndClose() throws InterruptedException {
+		CircuitBreaker circuitBreaker = CircuitBreaker.of("http://example.org/openAndClose");
+		assertEquals(0, circuitBreaker.openUntil());
+		assertFalse(circuitBreaker.recordFailure(2, 10));
+		assertEquals(0, circuitBreaker.openUntil());
+		assertTrue(circuitBreaker.recordFailure(2, 10));
+		assertTrue(circuitBreaker.openUntil() > 0);
+		assertFalse(circuitBreaker.isHalfOpen());
+
+		Thread.sleep(20);
+		assertTrue(circuitBreaker.isHalfOpen());
+
+		// failed probe
+		assertTrue(circuitBreaker.recordFailure(2, 1000));
+		assertFalse(circuitBreaker.isHalfOpen());
+		assertTrue(circuitBreaker.openUntil() > System.currentTimeMillis());
+
+		// successful request
+		circuitBreaker.recordSuccess();
+		assertEquals(0, circuitBreaker.openUntil());
+		assertFalse(circuitBreaker.isHalfOpen());
+		assertFalse(circuitBreaker.recordFailure(2, 10));
+	}
+}
@@ -0,0 +1,115 @@
+/*-
+ * Copyright © 2019-2022 Heinz Nixdorf Chair for Distributed Information Systems,
+ *                       Friedrich Schiller University Jena (http://www.fusion.uni-jena.de/)
+ * Copyright © 2023-2024 Jan Martin Keil (jan-martin.keil@uni-jena.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+-*/
+
+package de.uni_jena.cs.fusion.abecto.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.sparql.util.IsoMatcher;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+public class DatasetsTest {
+
+	@Test
+	public void withFixedGraphs() throws Exception {
+		Dataset dataset = DatasetFactory.createGeneral();
+		Model model = ModelFactory.createDefaultModel();
+		model.add(ResourceFactory.createResource("http://example.org/s"),
+				ResourceFactory.createProperty("http://example.org/p"), "o");
+		dataset.addNamedModel("http://example.org/graph", model);
+
+		Dataset view = Datasets.withFixedGraphs(dataset);
+
+		try (QueryExecution queryExecution = QueryExecutionFactory
+				.create("ASK {GRAPH <http://example.org/graph> {?s ?p \"o\"}}", view)) {
+			assertTrue(queryExecution.execAsk());
+		}
+		try (QueryExecution queryExecution = QueryExecutionFactory
+				.create("ASK {GRAPH <http://example.org/missing> {?s ?p ?o}}", view)) {
+			assertFalse(queryExecution.execAsk());
+		}
+		assertFalse(view.containsNamedModel("http://example.org/missing"));
+		assertFalse(dataset.containsNamedModel("http://example.org/missing"));
+		assertEquals(1, view.getUnionModel().size());
+	}
+
+	private static Dataset exampleDataset() {
+		Dataset dataset = DatasetFactory.createGeneral();
+		dataset.getDefaultModel().add(ResourceFactory.createResource("http://example.org/plan"),
+				ResourceFactory.createProperty("http://example.org/p"), "plan");
+		for (int i = 0; i < 3; i++) {
+			Model model = ModelFactory.createDefaultModel();
+			model.add(ResourceFactory.createResource("http://example.org/s" + i),
+					ResourceFactory.createProperty("http://example.org/p"), model.createResource());
+			model.add(ResourceFactory.createResource("http://example.org/s" + i),
+					ResourceFactory.createProperty("http://example.org/q"), model.createTypedLiteral(i));
+			dataset.addNamedModel("http://example.org/graph" + i, model);
+		}
+		dataset.getPrefixMapping().setNsPrefix("ex", "http://example.org/");
+		return dataset;
+	}
+
+	@ParameterizedTest
+	@EnumSource(Datasets.Format.class)
+	public void writeAndRead(Datasets.Format format) throws Exception {
+		Dataset dataset = exampleDataset();
+		for (boolean gzip : new boolean[] { false, true }) {
+			File file = File.createTempFile("dataset", "." + format.getFileExtension());
+			Datasets.write(dataset, file, format, gzip);
+			Dataset read = DatasetFactory.createGeneral();
+			Datasets.read(read, file);
+			assertTrue(IsoMatcher.isomorphic(dataset.asDatasetGraph(), read.asDatasetGraph()));
+			if (format != Datasets.Format.NQUADS) { // N-Quads without prefixes
+				assertEquals("http://example.org/", read.getPrefixMapping().getNsPrefixURI("ex"));
+			}
+		}
+	}
+
+	@ParameterizedTest
+	@EnumSource(Datasets.Format.class)
+	public void writeGraphFilesAndRead(Datasets.Format format) throws Exception {
+		Dataset dataset = exampleDataset();
+		for (boolean gzip : new boolean[] { false, true }) {
+			File directory = Files.createTempDirectory(null).toFile();
+			File manifest = new File(directory, "dataset.txt");
+			Datasets.writeGraphFiles(dataset, manifest, format, gzip);
+			// default graph and three named graphs
+			assertEquals(5, directory.list().length);
+			Dataset read = DatasetFactory.createGeneral();
+			Datasets.read(read, manifest);
+			assertTrue(IsoMatcher.isomorphic(dataset.asDatasetGraph(), read.asDatasetGraph()));
+			if (format != Datasets.Format.NQUADS) { // N-Quads without prefixes
+				assertEquals("http://example.org/", read.getPrefixMapping().getNsPrefixURI("ex"));
+			}
+		}
+	}
+}
@@ -0,0 +1,171 @@
+/*-
+ * Copyright © 2019-2022 Heinz Nixdorf Chair for Distributed Information Systems,
+ *                       Friedrich Schiller University Jena (http://www.fusion.uni-jena.de/)
+ * Copyright © 2023-2024 Jan Martin Keil (jan-martin.keil@uni-jena.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+-*/
+
+package de.uni_jena.cs.fusion.abecto.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class QueryResultCacheTest {
+
+	@TempDir
+	Path cacheDirectory;
+
+	Node resource1 = NodeFactory.createURI("http://example.org/resource1");
+	Node resource2 = NodeFactory.createURI("http://example.org/resource2");
+	Node resource3 = NodeFactory.createURI("http://example.org/resource3");
+
+	private static Graph createGraph(Node resource) {
+		Graph graph = GraphFactory.createDefaultGraph();
+		graph.add(Triple.create(resource, NodeFactory.createURI("http://example.org/p"),
+				NodeFactory.createLiteral("o", "en")));
+		return graph;
+	}
+
+	private void age(Duration duration) throws IOException {
+		try (Stream<Path> files = Files.walk(cacheDirectory)) {
+			for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+				Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(duration)));
+			}
+		}
+	}
+
+	private void truncate(Predicate<Path> filter, int truncatedBytes) throws IOException {
+		try (Stream<Path> files = Files.walk(cacheDirectory)) {
+			for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile).filter(filter)::iterator) {
+				byte[] content = Files.readAllBytes(file);
+				Files.write(file, Arrays.copyOf(content, Math.max(0, content.length - truncatedBytes)));
+			}
+		}
+	}
+
+	private static boolean isResultFile(Path file) {
+		return file.getFileName().toString().endsWith(".trdf.gz");
+	}
+
+	@Test
+	public void putAndGet() {
+		QueryResultCache cache = new QueryResultCache(cacheDirectory, null, false);
+		assertTrue(cache.getAll("key", List.of(resource1)).isEmpty());
+		cache.putAll("key", Map.of(resource1, createGraph(resource1), resource2, GraphFactory.createDefaultGraph()));
+		cache.putAll("key", Map.of(resource3, createGraph(resource3)));
+		Map<Node, Graph> results = cache.getAll("key", List.of(resource1, resource2, resource3));
+		assertEquals(Set.of(resource1, resource2, resource3), results.keySet());
+		assertTrue(results.get(resource1).isIsomorphicWith(createGraph(resource1)));
+		// empty results
+		assertTrue(results.get(resource2).isEmpty());
+		assertTrue(results.get(resource3).isIsomorphicWith(createGraph(resource3)));
+		assertTrue(cache.getAll("other key", List.of(resource1)).isEmpty());
+
+		// only requested resources
+		assertEquals(Set.of(resource3), cache.getAll("key", List.of(resource3)).keySet());
+
+		// replace by later chunks
+		cache.putAll("key", Map.of(resource1, GraphFactory.createDefaultGraph()));
+		assertTrue(cache.getAll("key", List.of(resource1)).get(resource1).isEmpty());
+		assertTrue(cache.getAll("key", List.of(resource2)).containsKey(resource2));
+
+		// reuse by later instances
+		assertEquals(Set.of(resource1, resource2, resource3), new QueryResultCache(cacheDirectory, null, false)
+				.getAll("key", List.of(resource1, resource2, resource3)).keySet());
+	}
+
+	@Test
+	public void preserveLexicalForms() {
+		QueryResultCache cache = new QueryResultCache(cacheDirectory, null, false);
+		Node literal = NodeFactory.createLiteral("01", XSDDatatype.XSDinteger);
+		Graph graph = GraphFactory.createDefaultGraph();
+		graph.add(Triple.create(resource1, NodeFactory.createURI("http://example.org/p"), literal));
+		cache.putAll("key", Map.of(resource1, graph));
+		Node cachedLiteral = cache.getAll("key", List.of(resource1)).get(resource1).find().next().getObject();
+		assertEquals("01", cachedLiteral.getLiteralLexicalForm());
+		assertEquals(literal, cachedLiteral);
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = { 1, 8, 64 })
+	public void corruptEntry(int truncatedBytes) throws Exception {
+		QueryResultCache cache = new QueryResultCache(cacheDirectory, null, false);
+		cache.putAll("key", Map.of(resource1, createGraph(resource1)));
+		truncate(QueryResultCacheTest::isResultFile, truncatedBytes);
+		assertTrue(cache.getAll("key", List.of(resource1)).isEmpty());
+		try (Stream<Path> files = Files.walk(cacheDirectory)) {
+			assertFalse(files.anyMatch(QueryResultCacheTest::isResultFile));
+		}
+		cache.putAll("key", Map.of(resource1, createGraph(resource1)));
+		assertTrue(cache.getAll("key", List.of(resource1)).containsKey(resource1));
+	}
+
+	@Test
+	public void corruptIndex() throws Exception {
+		QueryResultCache cache = new QueryResultCache(cacheDirectory, null, false);
+		cache.putAll("key", Map.of(resource1, createGraph(resource1)));
+		cache.putAll("key", Map.of(resource2, createGraph(resource2)));
+		// incomplete last line
+		truncate(file -> !isResultFile(file), 1);
+		assertEquals(Set.of(resource1), cache.getAll("key", List.of(resource1, resource2)).keySet());
+		cache.putAll("key", Map.of(resource2, createGraph(resource2)));
+		assertEquals(Set.of(resource1, resource2), cache.getAll("key", List.of(resource1, resource2)).keySet());
+	}
+
+	@Test
+	public void timeToLive() throws Exception {
+		new QueryResultCache(cacheDirectory, null, false).putAll("key", Map.of(resource1, createGraph(resource1)));
+		assertFalse(new QueryResultCache(cacheDirectory, Duration.ofHours(1), false).getAll("key", List.of(resource1))
+				.isEmpty());
+		age(Duration.ofHours(2));
+		assertTrue(new QueryResultCache(cacheDirectory, Duration.ofHours(1), false).getAll("key", List.of(resource1))
+				.isEmpty());
+		assertFalse(new QueryResultCache(cacheDirectory, null, false).getAll("key", List.of(resource1)).isEmpty());
+	}
+
+	@Test
+	public void refresh() throws Exception {
+		new QueryResultCache(cacheDirectory, null, false).putAll("key", Map.of(resource1, createGraph(resource1)));
+		age(Duration.ofSeconds(2));
+		QueryResultCache cache = new QueryResultCache(cacheDirectory, null, true);
+		assertTrue(cache.getAll("key", List.of(resource1)).isEmpty());
+		cache.putAll("key", Map.of(resource1, createGraph(resource1)));
+		assertFalse(cache.getAll("key", List.of(resource1)).isEmpty());
+	}
+}
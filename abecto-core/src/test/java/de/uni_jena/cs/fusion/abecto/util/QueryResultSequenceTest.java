@@ -0,0 +1,109 @@
+/*-
+ * Copyright © 2019-2022 Heinz Nixdorf Chair for Distributed Information Systems,
+ *                       Friedrich Schiller University Jena (http://www.fusion.uni-jena.de/)
+ * Copyright © 2023-2024 Jan Martin Keil (jan-martin.keil@uni-jena.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+-*/
+
+package de.uni_jena.cs.fusion.abecto.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.junit.jupiter.api.Test;
+
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+
+public class QueryResultSequenceTest {
+
+	private final static String QUERY = "SELECT ?s ?o WHERE {?s ?p ?o} ORDER BY ?o";
+
+	@Test
+	public void process() throws Exception {
+		Model model = ModelFactory.createDefaultModel();
+		model.add(ResourceFactory.createResource("http://example.org/a"),
+				ResourceFactory.createProperty("http://example.org/p"), "2");
+		model.add(ResourceFactory.createResource("http://example.org/b"),
+				ResourceFactory.createProperty("http://example.org/p"), "1");
+		model.add(ResourceFactory.createResource("http://example.org/c"),
+				ResourceFactory.createProperty("http://example.org/p"),
+				ResourceFactory.createResource("http://example.org/d"));
+
+		// listed once: streamed
+		assertEquals("<http://example.org/c>,http://example.org/d;<http://example.org/b>,1;<http://example.org/a>,2;",
+				process("<#list data as row>${row.s},${row.o?remove_beginning(\"<\")?remove_ending(\">\")};</#list>",
+						model, 1));
+		// listed twice: executed twice
+		assertEquals("<http://example.org/d>12;<http://example.org/d>12;",
+				process("<#list 1..2 as i><#list data as row>${row.o}</#list>;</#list>", model, 2));
+		// random access: held in memory
+		assertEquals("<http://example.org/c>,<http://example.org/b>,<http://example.org/a>,3",
+				process("<#list data?sort_by(\"s\")?reverse as row>${row.s},</#list>${data?size}", model, 1));
+	}
+
+	@Test
+	public void close() throws Exception {
+		Model model = ModelFactory.createDefaultModel();
+		model.add(ResourceFactory.createResource("http://example.org/a"),
+				ResourceFactory.createProperty("http://example.org/p"), "1");
+		model.add(ResourceFactory.createResource("http://example.org/b"),
+				ResourceFactory.createProperty("http://example.org/p"), "2");
+		Configuration configuration = new Configuration(Configuration.VERSION_2_3_31);
+		Template template = new Template("test",
+				new StringReader("<#list data as row>${row.o}<#break></#list><#list data as row>${row.o}</#list>"),
+				configuration);
+		List<QueryExecution> executions = new ArrayList<>();
+		StringWriter writer = new StringWriter();
+		try (QueryResultSequence data = new QueryResultSequence(() -> {
+			QueryExecution execution = QueryExecutionFactory.create(QUERY, model);
+			executions.add(execution);
+			return execution;
+		}, configuration.getObjectWrapper())) {
+			template.process(Collections.singletonMap("data", data), writer);
+			assertEquals("112", writer.toString());
+			// listing with break not completed
+			assertFalse(executions.get(0).isClosed());
+			assertTrue(executions.get(1).isClosed());
+		}
+		assertTrue(executions.get(0).isClosed());
+	}
+
+	private static String process(String templateString, Model model, int expectedExecutions) throws Exception {
+		Configuration configuration = new Configuration(Configuration.VERSION_2_3_31);
+		Template template = new Template("test", new StringReader(templateString), configuration);
+		AtomicInteger executions = new AtomicInteger();
+		QueryResultSequence data = new QueryResultSequence(() -> {
+			executions.incrementAndGet();
+			return QueryExecutionFactory.create(QUERY, model);
+		}, configuration.getObjectWrapper());
+		StringWriter writer = new StringWriter();
+		template.process(Collections.singletonMap("data", data), writer);
+		assertEquals(expectedExecutions, executions.get());
+		return writer.toString();
+	}
+}
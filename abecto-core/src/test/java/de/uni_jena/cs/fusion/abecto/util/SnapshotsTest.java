@@ -0,0 +1,66 @@
+/*-
+ * Copyright © 2019-2022 Heinz Nixdorf Chair for Distributed Information Systems,
+ *                       Friedrich Schiller University Jena (http://www.fusion.uni-jena.de/)
+ * Copyright © 2023-2024 Jan Martin Keil (jan-martin.keil@uni-jena.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+-*/
+
+package de.uni_jena.cs.fusion.abecto.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.RDFDataMgr;
+import org.junit.jupiter.api.Test;
+
+public class SnapshotsTest {
+
+	private final static String VOCABULARY_FOLDER = "/de/uni_jena/cs/fusion/abecto/vocabulary";
+
+	@Test
+	public void main() throws Exception {
+		File directory = Files.createTempDirectory(null).toFile();
+		Files.writeString(new File(directory, "example.ttl").toPath(),
+				"<http://example.org/s> <http://example.org/p> \"o\" .");
+		Files.writeString(new File(directory, "ignored.txt").toPath(), "no RDF");
+		Snapshots.main(new String[] { directory.getPath() });
+
+		assertEquals(3, directory.list().length);
+		Model snapshot = RDFDataMgr.loadModel(new File(directory, "example.trdf").getPath());
+		Model document = RDFDataMgr.loadModel(new File(directory, "example.ttl").getPath());
+		assertTrue(snapshot.isIsomorphicWith(document));
+	}
+
+	@Test
+	public void readResource() throws Exception {
+		// snapshots are written during the build
+		for (String[] vocabulary : new String[][] { { "abecto-vocabulary.ttl", "TTL" },
+				{ "om-2.0.rdf", "RDF/XML" } }) {
+			Model document = ModelFactory.createDefaultModel().read(
+					getClass().getResourceAsStream(VOCABULARY_FOLDER + "/" + vocabulary[0]), null, vocabulary[1]);
+			Model snapshot = Snapshots.readResource(getClass(), VOCABULARY_FOLDER + "/" + vocabulary[0]);
+			assertTrue(snapshot.isIsomorphicWith(document));
+		}
+		// fallback to document without snapshot
+		Model document = Snapshots.readResource(getClass(), "../../../../../../tutorial-source2.ttl");
+		assertTrue(document.size() > 0);
+		assertThrows(IllegalArgumentException.class, () -> Snapshots.readResource(getClass(), "missing.ttl"));
+	}
+}
@@ -0,0 +1,109 @@
+/*-
+ * Copyright © 2019-2022 Heinz Nixdorf Chair for Distributed Information Systems,
+ *                       Friedrich Schiller University Jena (http://www.fusion.uni-jena.de/)
+ * Copyright © 2023-2024 Jan Martin Keil (jan-martin.keil@uni-jena.de)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+-*/
+
+package de.uni_jena.cs.fusion.abecto.visitor;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.query.QueryFactory;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.sparql.resultset.ResultSetCompare;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import de.uni_jena.cs.fusion.abecto.util.Models;
+
+public class ConstructQueryExtractionVisitorTest {
+
+    private static final String PREFIXES = "PREFIX : <http://example.org/> "
+            + "PREFIX rdfs: <http://www.w3.org/2000/01/rdf-schema#> ";
+    private static Model model;
+
+    @BeforeAll
+    public static void initModel() throws Exception {
+        model = Models.read(ModelFactory.createDefaultModel(), new ByteArrayInputStream("""
+                @prefix : <http://example.org/> .
+                @prefix rdfs: <http://www.w3.org/2000/01/rdf-schema#> .
+                :Monarchy rdfs:subClassOf :Country .
+                :Kingdom rdfs:subClassOf :Monarchy .
+                :country1 a :Country ; :name "Country 1" ; :capital :city1 ; :neighbour :country2 .
+                :country2 a :Kingdom ; :name "Country 2" ; :capital :city2 ; :altName "Second" .
+                :country3 a :Country ; :name "Country 3" ; :dissolved true ; :capital [ rdfs:label "City 3" ] .
+                :city1 rdfs:label "City 1" ; :population 10 .
+                :city2 rdfs:label "City 2" ; :twin :city1 .
+                :river1 a :River ; :name "River 1" ; :flowsThrough :country1 , :country2 .
+                """.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { //
+            "SELECT ?c ?n WHERE { ?c a :Country ; :name ?n }",
+            "SELECT ?c ?n WHERE { ?c a/rdfs:subClassOf* :Country ; :name ?n }",
+            "SELECT ?c ?n WHERE { ?c a/rdfs:subClassOf+ :Country ; :name|:altName ?n }",
+            "SELECT ?c ?l WHERE { ?c a ?t OPTIONAL { ?c :capital/rdfs:label ?l } }",
+            "SELECT ?c ?l WHERE { ?c a ?t OPTIONAL { ?c :capital [ rdfs:label ?l ] } }",
+            "SELECT ?c ?r WHERE { ?c a ?t OPTIONAL { ?c ^:flowsThrough ?r } }",
+            "SELECT ?c ?x WHERE { ?c :name ?n OPTIONAL { ?c !(:name|a) ?x } }",
+            "SELECT ?c ?x WHERE { ?c :name ?n OPTIONAL { ?c :capital/:twin? ?x } }",
+            "SELECT ?c WHERE { ?c :name ?n MINUS { ?c :dissolved true } }",
+            "SELECT ?c WHERE { ?c :name ?n FILTER NOT EXISTS { ?c :dissolved true } }",
+            "SELECT ?c WHERE { ?c :name ?n FILTER EXISTS { ?c :capital/:population ?p } }",
+            "SELECT ?c ?x WHERE { ?c a :Country { ?c :capital ?x } UNION { ?c :neighbour ?x } }",
+            "SELECT ?c ?count WHERE { ?c :name ?n { SELECT ?c (COUNT(?r) AS ?count) WHERE { ?r :flowsThrough ?c } GROUP BY ?c } }",
+            // not projected variables of sub queries equally named as outer variables
+            "SELECT ?c ?n ?count WHERE { ?c :name ?n { SELECT ?c (COUNT(?n) AS ?count) WHERE { ?n :flowsThrough ?c } GROUP BY ?c } }",
+            "SELECT ?c ?n WHERE { ?c :name ?n { SELECT ?c WHERE { ?n :flowsThrough ?c FILTER(?n != :city1) } } }",
+            "SELECT ?c ?n WHERE { ?c :name ?n { SELECT ?c WHERE { VALUES ?n { :river1 } ?n :flowsThrough ?c } } }",
+            "SELECT ?c ?n ?l WHERE { ?c :name ?n { SELECT ?c ?l WHERE { ?c :capital ?n BIND(?n AS ?x) ?x rdfs:label ?l } } }" })
+    public void sameResults(String pattern) {
+        Query query = QueryFactory.create(PREFIXES + pattern);
+        Query constructQuery = ConstructQueryExtractionVisitor.getConstructQuery(query);
+        Model constructed = QueryExecutionFactory.create(constructQuery, model).execConstruct();
+        assertTrue(ResultSetCompare.equalsByTerm(QueryExecutionFactory.create(query, model).execSelect(),
+                QueryExecutionFactory.create(query, constructed).execSelect()), constructQuery::toString);
+        assertTrue(model.containsAll(constructed), constructQuery::toString);
+    }
+
+    @Test
+    public void onlyNeededStatements() {
+        Query query = QueryFactory
+                .create(PREFIXES + "SELECT ?c ?l WHERE { ?c a :Country OPTIONAL { ?c :capital/rdfs:label ?l } }");
+        Model constructed = QueryExecutionFactory
+                .create(ConstructQueryExtractionVisitor.getConstructQuery(query), model).execConstruct();
+        assertTrue(constructed.contains(ResourceFactory.createResource("http://example.org/city1"), null));
+        assertFalse(constructed.contains(null, ResourceFactory.createProperty("http://example.org/population")));
+        assertFalse(constructed.contains(null, ResourceFactory.createProperty("http://example.org/name")));
+    }
+
+    @Test
+    public void unsupported() {
+        Query query = QueryFactory.create(PREFIXES + "SELECT ?c WHERE { GRAPH ?g { ?c a :Country } }");
+        assertThrows(IllegalArgumentException.class, () -> ConstructQueryExtractionVisitor.getConstructQuery(query));
+    }
+}